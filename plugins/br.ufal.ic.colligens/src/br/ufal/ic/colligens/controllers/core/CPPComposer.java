@@ -183,14 +183,16 @@ public class CPPComposer extends PPComposerExtensionClass {
 		job.setPriority(Job.SHORT);
 		job.schedule();
 
+		// the resource listener of the project patches the model for changed source files, it is only built completely after a clean or model change
 		if (cppModelBuilder != null) {
-			cppModelBuilder.buildModel();
+			cppModelBuilder.buildModelIfOutdated();
 		}
 		annotationChecking();
 	}
 
 	@Override
 	public void postModelChanged() {
+		invalidateFSTModel();
 		prepareFullBuild(null);
 		annotationChecking();
 	}
@@ -551,6 +553,18 @@ public class CPPComposer extends PPComposerExtensionClass {
 		cppModelBuilder.buildModel();
 	}
 
+	@Override
+	public boolean updateFSTModel(IResourceDelta sourceDelta) {
+		return (cppModelBuilder != null) && cppModelBuilder.updateModel(sourceDelta);
+	}
+
+	@Override
+	public void invalidateFSTModel() {
+		if (cppModelBuilder != null) {
+			cppModelBuilder.invalidateModel();
+		}
+	}
+
 	@Override
 	public boolean postAddNature(IFolder source, IFolder destination) {
 		return true;
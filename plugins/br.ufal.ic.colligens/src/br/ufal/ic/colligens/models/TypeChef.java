@@ -11,14 +11,21 @@ import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.io.RandomAccessFile;
 import java.net.URL;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.eclipse.cdt.core.model.CModelException;
 import org.eclipse.cdt.core.model.CoreModel;
@@ -26,6 +33,8 @@ import org.eclipse.cdt.core.model.ICProject;
 import org.eclipse.cdt.core.model.IIncludeReference;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceVisitor;
+import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.FileLocator;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.Path;
@@ -46,71 +55,94 @@ import de.ovgu.featureide.fm.core.io.manager.FeatureModelManager;
 @SuppressWarnings(RESTRICTION)
 public class TypeChef {
 
-	private IProject project;
+	/**
+	 * TypeChef keeps global state, e.g., the option ids, the feature expression factory, and the lexer. Thus, only one file is analyzed at a time.
+	 */
+	private static final Object TYPECHEF_LOCK = new Object();
+
+	/**
+	 * The parameters that are equal for the analysis of all files of a project.
+	 */
+	private static class Environment {
+
+		private final List<String> parameters;
+		private final String hash;
+
+		Environment(List<String> parameters, String hash) {
+			this.parameters = parameters;
+			this.hash = hash;
+		}
+	}
+
 	private boolean isFinish = false;
 	private List<FileProxy> fileProxies;
 
-	private final AbstractHeader header;
 	private IProgressMonitor monitor = null;
 
-	public TypeChef() {
-		header = AbstractHeader.getInstance();
-	}
-
 	/**
+	 * Writes the feature model of the given project in conjunctive normal form to the configuration directory.
 	 *
+	 * @param project The analyzed project
+	 * @param outputFile The file to which the formula is written
+	 * @return The written formula
 	 */
-	private void prepareFeatureModel() {
+	private String prepareFeatureModel(IProject project, File outputFile) {
 		final File inputFile = new File(project.getLocation().toOSString() + System.getProperty("file.separator") + "model.xml");
-		final File outputFile = new File(Colligens.getDefault().getConfigDir().getAbsolutePath() + System.getProperty("file.separator") + "cnf.fm");
 		final IFeatureModel fm = FeatureModelManager.load(inputFile.toPath());
+		final NodeWriter nodeWriter = new NodeWriter(Nodes.convert(CNFCreator.createNodes(fm)));
+		nodeWriter.setSymbols(NodeWriter.javaSymbols);
+		final String formula = nodeWriter.nodeToString();
+		outputFile.getParentFile().mkdirs();
 		try (final BufferedWriter print = new BufferedWriter(new FileWriter(outputFile))) {
-			final NodeWriter nodeWriter = new NodeWriter(Nodes.convert(CNFCreator.createNodes(fm)));
-			nodeWriter.setSymbols(NodeWriter.javaSymbols);
-			print.write(nodeWriter.nodeToString());
+			print.write(formula);
 		} catch (final IOException e) {
 			Colligens.getDefault().logError(e);
 		}
+		return formula;
 	}
 
 	/**
-	 * @param fileProxy
-	 * @throws OptionException
+	 * Collects the parameters that are equal for all analyzed files of the given project (i.e., the feature model, the TypeChef options, and the included
+	 * headers). The feature model, the platform headers, and the include references of a project are only prepared once per run.
+	 *
+	 * @param project The analyzed project
+	 * @return The parameters and a hash that identifies the environment of the analysis. The hash covers the parameters, the feature model, and the contents
+	 *         of the included headers and of all headers of the project.
+	 * @throws PlatformException if the headers of the project cannot be generated
 	 */
-	private FrontendOptions getOptions(FileProxy fileProxy) throws OptionException {
-
-		final ArrayList<String> paramters = new ArrayList<String>();
+	private Environment prepareEnvironment(IProject project) throws PlatformException {
+		final AbstractHeader header = AbstractHeader.getInstance();
+		header.setProject(project.getName());
+		header.setMonitor(monitor);
+		header.run();
 
-		// paramters.add("--parserstatistics");
-
-		paramters.add("-w");
-		paramters.add("--lexNoStdout");
-		paramters.add("--lexOutput");
-		paramters.add(Colligens.getDefault().getConfigDir().getAbsolutePath() + System.getProperty("file.separator") + "lexOutput.c");
+		final List<String> parameters = new ArrayList<String>();
+		final StringBuilder environment = new StringBuilder();
 
 		if (Colligens.getDefault().getPreferenceStore().getBoolean("FEATURE_MODEL")) {
-			prepareFeatureModel(); // General processing options String
-			paramters.add("--featureModelFExpr");
-			paramters.add(Colligens.getDefault().getConfigDir().getAbsolutePath() + System.getProperty("file.separator") + "cnf.fm");
+			final File featureModelFile = new File(Colligens.getDefault().getConfigDir().getAbsolutePath() + System.getProperty("file.separator") + "projects"
+				+ System.getProperty("file.separator") + project.getName() + "_cnf.fm");
+			environment.append(prepareFeatureModel(project, featureModelFile)); // General processing options String
+			parameters.add("--featureModelFExpr");
+			parameters.add(featureModelFile.getAbsolutePath());
 		}
 
 		final String typeChefPreference = Colligens.getDefault().getPreferenceStore().getString("TypeChefPreference");
 
-		paramters.add(typeChefPreference);
+		parameters.add(typeChefPreference);
 
 		if (Colligens.getDefault().getPreferenceStore().getBoolean("USE_INCLUDES")) {
 			// Project C includes
-			final ICProject project = CoreModel.getDefault().getCModel().getCProject(AbstractHeader.getFile(fileProxy.getFileReal()).getProject().getName());
+			final ICProject cProject = CoreModel.getDefault().getCModel().getCProject(project.getName());
 
 			try {
-				final IIncludeReference includes[] = project.getIncludeReferences();
+				final IIncludeReference includes[] = cProject.getIncludeReferences();
 				for (int i = 0; i < includes.length; i++) {
-					paramters.add("-I");
-					paramters.add(includes[i].getElementName());
+					parameters.add("-I");
+					parameters.add(includes[i].getElementName());
 				}
 			} catch (final CModelException e) {
-
-				e.printStackTrace();
+				Colligens.getDefault().logError(e);
 			}
 
 		}
@@ -118,19 +150,76 @@ public class TypeChef {
 		final Collection<String> headersPath = header.getIncludes();
 
 		for (final Iterator<String> iterator = headersPath.iterator(); iterator.hasNext();) {
-			paramters.add("-h");
-			paramters.add(iterator.next());
+			parameters.add("-h");
+			parameters.add(iterator.next());
 		}
 
-		paramters.add(fileProxy.getFileToAnalyse());
+		for (final String parameter : parameters) {
+			environment.append('\n');
+			environment.append(parameter);
+		}
 
-		// this static variable was changed, private to public, the jar typechef.
-		Options.maxOptionId = 0;
+		// a file's problems depend on the headers it includes, thus, a change of any header invalidates the results of the project
+		final List<String> headerFiles = new ArrayList<String>(headersPath);
+		headerFiles.addAll(getHeaderFiles(project));
+		environment.append('\n');
+		environment.append(TypeChefAnalysisCache.hashFiles(headerFiles));
+
+		return new Environment(parameters, TypeChefAnalysisCache.hash(environment.toString()));
+	}
+
+	/**
+	 * @param project The analyzed project
+	 * @return The sorted locations of all header files in the given project
+	 */
+	private List<String> getHeaderFiles(IProject project) {
+		final List<String> headerFiles = new ArrayList<String>();
+		try {
+			project.accept(new IResourceVisitor() {
+
+				@Override
+				public boolean visit(IResource resource) throws CoreException {
+					if ((resource.getType() == IResource.FILE) && "h".equals(resource.getFileExtension()) && (resource.getLocation() != null)) {
+						headerFiles.add(resource.getLocation().toOSString());
+					}
+					return true;
+				}
+			});
+		} catch (final CoreException e) {
+			Colligens.getDefault().logError(e);
+		}
+		Collections.sort(headerFiles);
+		return headerFiles;
+	}
+
+	/**
+	 * @param fileProxy
+	 * @param lexOutput The file to which the lexer output of this analysis is written
+	 * @param environmentParameters The parameters of the project of the file
+	 * @throws OptionException
+	 */
+	private FrontendOptions getOptions(FileProxy fileProxy, File lexOutput, List<String> environmentParameters) throws OptionException {
+
+		final ArrayList<String> paramters = new ArrayList<String>();
+
+		// paramters.add("--parserstatistics");
+
+		paramters.add("-w");
+		paramters.add("--lexNoStdout");
+		paramters.add("--lexOutput");
+		paramters.add(lexOutput.getAbsolutePath());
+
+		paramters.addAll(environmentParameters);
+
+		paramters.add(fileProxy.getFileToAnalyse());
 
 		final FrontendOptionsWithConfigFiles frontendOptions = new FrontendOptionsWithConfigFiles();
 
 		final String[] paramterArray = paramters.toArray(new String[paramters.size()]);
 
+		// this static variable was changed, private to public, the jar typechef.
+		Options.maxOptionId = 0;
+
 		frontendOptions.parseOptions(paramterArray);
 
 		frontendOptions.setPrintToStdOutput(false);
@@ -147,6 +236,9 @@ public class TypeChef {
 	}
 
 	/**
+	 * Analyzes the given resources. Files whose content and environment did not change since their last analysis are not analyzed again. The cache keys of
+	 * all files are computed in parallel, the changed files are analyzed one after another.
+	 *
 	 * @param resourceList list of resources
 	 * @throws TypeChefException exception
 	 */
@@ -161,54 +253,123 @@ public class TypeChef {
 				throw new TypeChefException(NOT_A_VALID_FILE_FOUND_C);
 			}
 
-			header.setProject(fileProxies.get(0).getResource().getProject().getName());
-
-			header.setMonitor(monitor);
-
-			header.run();
+			// the files of different projects are analyzed with different headers and feature models
+			final Map<IProject, Environment> projectEnvironments = new LinkedHashMap<IProject, Environment>();
+			final List<Environment> environments = new ArrayList<Environment>(fileProxies.size());
+			for (final FileProxy fileProxy : fileProxies) {
+				final IProject project = fileProxy.getResource().getProject();
+				Environment environment = projectEnvironments.get(project);
+				if (environment == null) {
+					environment = prepareEnvironment(project);
+					projectEnvironments.put(project, environment);
+				}
+				environments.add(environment);
+			}
 
 			monitorbeginTask(ANALYZING_SELECTED_FILES, fileProxies.size());
 
-			for (final FileProxy fileProxy : fileProxies) {
-				// Monitor Update
-				monitorWorked(1);
-				monitorSubTask(fileProxy.getFullPath());
-				// end Monitor
+			final TypeChefAnalysisCache cache = TypeChefAnalysisCache.getInstance();
+			final List<String> keys = getKeys(fileProxies, environments);
+
+			boolean canceled = false;
+			for (int i = 0; i < fileProxies.size(); i++) {
 				if (monitorIsCanceled()) {
-					isFinish = true;
+					canceled = true;
 					break;
 				}
+				final FileProxy fileProxy = fileProxies.get(i);
+				if (!cache.restore(keys.get(i), fileProxy)) {
+					monitorSubTask(fileProxy.getFullPath());
+					if (analyze(fileProxy, environments.get(i).parameters)) {
+						cache.store(keys.get(i), fileProxy);
+					}
+				}
+				monitorWorked(1);
+			}
+			isFinish = !canceled;
+		} catch (final PlatformException e1) {
+			monitor = null;
+			Colligens.getDefault().logError(e1);
+		}
+		monitor = null;
+	}
 
+	/**
+	 * Computes the {@link TypeChefAnalysisCache cache} keys of the given files in parallel.
+	 *
+	 * @param files The files to analyze
+	 * @param environments The environments of the projects of the files
+	 * @return The keys of the files, in the same order as the files
+	 * @throws TypeChefException if the computation was interrupted
+	 */
+	private List<String> getKeys(List<FileProxy> files, List<Environment> environments) throws TypeChefException {
+		final int threads = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), files.size()));
+		final ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			final List<Future<String>> results = new ArrayList<Future<String>>(files.size());
+			for (int i = 0; i < files.size(); i++) {
+				final FileProxy fileProxy = files.get(i);
+				final String environmentHash = environments.get(i).hash;
+				results.add(executor.submit(new Callable<String>() {
+
+					@Override
+					public String call() throws Exception {
+						return TypeChefAnalysisCache.getInstance().getKey(fileProxy, environmentHash);
+					}
+				}));
+			}
+			final List<String> keys = new ArrayList<String>(files.size());
+			for (final Future<String> result : results) {
 				try {
+					keys.add(result.get());
+				} catch (final ExecutionException e) {
+					Colligens.getDefault().logError(e.getCause());
+					keys.add(null);
+				}
+			}
+			return keys;
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new TypeChefException(TYPECHEF_DID_NOT_RUN_CORRECTLY_);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
 
-					final TypeChefFrontend typeChefFrontend = new TypeChefFrontend();
-
-					typeChefFrontend.processFile(getOptions(fileProxy), fileProxy);
-
-					isFinish = true;
-				} catch (final OptionException e) {
-					e.printStackTrace();
-					// If the analysis is not performed correctly,
-					// and the analysis made ​​from the command line
-					startCommandLineMode(fileProxy);
+	/**
+	 * Analyzes one file. As TypeChef is not thread-safe, the analyses of several files are serialized.
+	 *
+	 * @param fileProxy The file to analyze
+	 * @param environmentParameters The parameters of the project of the file
+	 * @return <code>true</code> if the analysis was performed correctly
+	 */
+	private boolean analyze(FileProxy fileProxy, List<String> environmentParameters) {
+		File lexOutput = null;
+		try {
+			lexOutput = File.createTempFile("lexOutput", ".c", Colligens.getDefault().getConfigDir());
 
-					isFinish = true;
-				} catch (final Exception e) {
-					e.printStackTrace();
-					// If the analysis is not performed correctly,
-					// and the analysis made ​​from the command line
-					startCommandLineMode(fileProxy);
+			final TypeChefFrontend typeChefFrontend = new TypeChefFrontend();
 
-					isFinish = true;
-				}
+			synchronized (TYPECHEF_LOCK) {
+				typeChefFrontend.processFile(getOptions(fileProxy, lexOutput, environmentParameters), fileProxy);
+			}
 
+			return true;
+		} catch (final Exception e) {
+			// If the analysis is not performed correctly,
+			// and the analysis made ​​from the command line
+			try {
+				startCommandLineMode(fileProxy, environmentParameters);
+				return true;
+			} catch (final TypeChefException e1) {
+				Colligens.getDefault().logError(e1);
+				return false;
+			}
+		} finally {
+			if (lexOutput != null) {
+				lexOutput.delete();
 			}
-		} catch (final PlatformException e1) {
-			monitor = null;
-			e1.printStackTrace();
-			Colligens.getDefault().logError(e1);
 		}
-		monitor = null;
 	}
 
 	/**
@@ -216,13 +377,7 @@ public class TypeChef {
 	 * @return
 	 */
 	private List<FileProxy> resourceToFileProxy(List<IResource> list) {
-		final List<FileProxy> fileProxies = new LinkedList<FileProxy>();
-		// pega um dos arquivos para descobrir qual projeto esta sendo
-		// verificado...
-		if ((project == null) && !list.isEmpty()) {
-			project = list.get(0).getProject();
-			// System.err.println(project.toString());
-		}
+		final List<FileProxy> fileProxies = new ArrayList<FileProxy>(list.size());
 		for (final IResource resouce : list) {
 			final FileProxy fileProxy = new FileProxy(resouce);
 			fileProxies.add(fileProxy);
@@ -248,16 +403,15 @@ public class TypeChef {
 
 	/**
 	 * @param fileProxy
+	 * @param environmentParameters The parameters of the project of the file
 	 * @throws TypeChefException
 	 */
-	private void startCommandLineMode(FileProxy fileProxy) throws TypeChefException {
+	private void startCommandLineMode(FileProxy fileProxy, List<String> environmentParameters) throws TypeChefException {
 		final XMLParserTypeChef xmlParser = new XMLParserTypeChef();
 
 		final ArrayList<String> args = new ArrayList<String>();
 		args.add(fileProxy.getFileToAnalyse());
 
-		final String typeChefPreference = Colligens.getDefault().getPreferenceStore().getString("TypeChefPreference");
-
 		URL url = BundleUtility.find(Colligens.getDefault().getBundle(), "lib/" + "TypeChef-0.3.5.jar");
 		try {
 			url = FileLocator.toFileURL(url);
@@ -266,54 +420,22 @@ public class TypeChef {
 		}
 		final Path pathToTypeChef = new Path(url.getFile());
 
-		if (Colligens.getDefault().getPreferenceStore().getBoolean("FEATURE_MODEL")) {
-			prepareFeatureModel(); // General processing options String
-			args.add(0, Colligens.getDefault().getConfigDir().getAbsolutePath() + System.getProperty("file.separator") + "cnf.fm");
-			args.add(0, "--featureModelFExpr");
-		}
-
-		if (Colligens.getDefault().getPreferenceStore().getBoolean("USE_INCLUDES")) {
-			// // Project C includes
-			final ICProject project = CoreModel.getDefault().getCModel().getCProject(AbstractHeader.getFile(fileProxy.getFileReal()).getProject().getName());
-
-			try {
-				final IIncludeReference includes[] = project.getIncludeReferences();
-				for (int i = 0; i < includes.length; i++) {
-					args.add(0, includes[i].getElementName());
-					args.add(0, "-I");
-				}
-			} catch (final CModelException e) {
-
-				e.printStackTrace();
-			}
-
-		}
-
-		final Collection<String> headersPath = header.getIncludes();
-
-		for (final Iterator<String> iterator = headersPath.iterator(); iterator.hasNext();) {
-
-			args.add(0, iterator.next());
-			args.add(0, "-h");
-		}
-
-		args.add(0, typeChefPreference);
-
-		// saved in the' temp directory
-		final String outputFilePath = Colligens.getDefault().getConfigDir().getAbsolutePath() + System.getProperty("file.separator") + "output";
-
+		File outputFile = null;
+		File lexOutput = null;
 		try {
-			RandomAccessFile arq = new RandomAccessFile(outputFilePath, "rw");
-			arq.close();
-			arq = new RandomAccessFile(outputFilePath + ".xml", "rw");
-			arq.close();
-		} catch (final Exception e) {
-			e.printStackTrace();
+			// saved in the' temp directory
+			outputFile = File.createTempFile("output", ".xml", Colligens.getDefault().getConfigDir());
+			lexOutput = File.createTempFile("lexOutput", ".c", Colligens.getDefault().getConfigDir());
+		} catch (final IOException e) {
+			Colligens.getDefault().logError(e);
+			throw new TypeChefException(TYPECHEF_DID_NOT_RUN_CORRECTLY_);
 		}
 
-		args.add(0, "--errorXML=" + outputFilePath + ".xml");
+		args.addAll(0, environmentParameters);
+
+		args.add(0, "--errorXML=" + outputFile.getAbsolutePath());
 
-		args.add(0, Colligens.getDefault().getConfigDir().getAbsolutePath() + System.getProperty("file.separator") + "lexOutput.c");
+		args.add(0, lexOutput.getAbsolutePath());
 		args.add(0, "--lexOutput");
 		args.add(0, "--lexNoStdout");
 		args.add(0, "-w");
@@ -376,10 +498,13 @@ public class TypeChef {
 						Colligens.getDefault().logError(e);
 					}
 				}
+				lexOutput.delete();
 			}
 		}
 		xmlParser.setFile(fileProxy);
+		xmlParser.setXMLFile(outputFile);
 		xmlParser.processFile();
+		outputFile.delete();
 	}
 
 	public void setMonitor(IProgressMonitor monitor) {
@@ -0,0 +1,143 @@
+package br.ufal.ic.colligens.models;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import br.ufal.ic.colligens.util.Log;
+
+/**
+ * Caches the results of the TypeChef analysis of single files. A result is reused if the content of the file, the feature model, and the header
+ * configuration (platform headers, includes, TypeChef options, and the contents of the project's headers) did not change.
+ */
+public class TypeChefAnalysisCache {
+
+	private static final TypeChefAnalysisCache INSTANCE = new TypeChefAnalysisCache();
+
+	/**
+	 * A problem found by TypeChef.
+	 */
+	private static class Entry {
+
+		private final int line;
+		private final int column;
+		private final String feature;
+		private final String severity;
+		private final String message;
+
+		Entry(Log log) {
+			line = log.getLine();
+			column = log.getColumn();
+			feature = log.getFeature();
+			severity = log.getSeverity();
+			message = log.getMessage();
+		}
+	}
+
+	private final Map<String, List<Entry>> results = new ConcurrentHashMap<>();
+
+	public static TypeChefAnalysisCache getInstance() {
+		return INSTANCE;
+	}
+
+	private TypeChefAnalysisCache() {}
+
+	/**
+	 * @param text Any text
+	 * @return The hash of the given text
+	 */
+	public static String hash(String text) {
+		return hash(text.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * @param files The paths of files
+	 * @return The hash of the paths and contents of the given files. A file that cannot be read is only identified by its path.
+	 */
+	public static String hashFiles(Collection<String> files) {
+		final MessageDigest digest = createDigest();
+		for (final String file : files) {
+			digest.update(file.getBytes(StandardCharsets.UTF_8));
+			digest.update((byte) 0);
+			try {
+				digest.update(Files.readAllBytes(Paths.get(file)));
+			} catch (final IOException e) {}
+			digest.update((byte) 0);
+		}
+		return new BigInteger(1, digest.digest()).toString(16);
+	}
+
+	private static String hash(byte[] content) {
+		return new BigInteger(1, createDigest().digest(content)).toString(16);
+	}
+
+	private static MessageDigest createDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (final NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * @param fileProxy The file to analyze
+	 * @param environmentHash The hash of the feature model, the header configuration, and the headers of the project
+	 * @return The key of the analysis result or <code>null</code> if the file cannot be read
+	 */
+	public String getKey(FileProxy fileProxy, String environmentHash) {
+		try {
+			return hash(Files.readAllBytes(Paths.get(fileProxy.getFileReal()))) + ':' + environmentHash;
+		} catch (final IOException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Restores the logs of a previous analysis. The logs are added to the given file proxy and their markers are created again.
+	 *
+	 * @param key The key of the analysis result
+	 * @param fileProxy The analyzed file
+	 * @return <code>true</code> if a result was found
+	 */
+	public boolean restore(String key, FileProxy fileProxy) {
+		final List<Entry> entries = key != null ? results.get(key) : null;
+		if (entries == null) {
+			return false;
+		}
+		for (final Entry entry : entries) {
+			fileProxy.getLogs().add(new Log(fileProxy, entry.line, entry.column, entry.feature, entry.severity, entry.message));
+		}
+		return true;
+	}
+
+	/**
+	 * Stores the logs of an analysis.
+	 *
+	 * @param key The key of the analysis result
+	 * @param fileProxy The analyzed file
+	 */
+	public void store(String key, FileProxy fileProxy) {
+		if (key != null) {
+			final List<Entry> entries = new ArrayList<>();
+			for (final Log log : fileProxy.getLogs()) {
+				entries.add(new Entry(log));
+			}
+			results.put(key, Collections.unmodifiableList(entries));
+		}
+	}
+
+	public void clear() {
+		results.clear();
+	}
+
+}
@@ -0,0 +1,270 @@
+package br.ufal.ic.colligens.util.metrics;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves the conditional directives (<code>#if</code>, <code>#ifdef</code>, <code>#ifndef</code>, <code>#elif</code>, <code>#else</code>,
+ * <code>#endif</code>) of a C file for a set of defined macros, similar to <code>gcc -P -E -D ...</code>. <code>#define</code> and <code>#undef</code>
+ * directives in active blocks change the set of defined macros for the following lines. In contrast to the C preprocessor, includes and macros are not
+ * expanded, thus, only the variability of the file is resolved and <code>#define</code> directives remain in the variant.
+ */
+public class ConditionalPreprocessor {
+
+	private static final Pattern DIRECTIVE = Pattern.compile("^\\s*#\\s*(ifdef|ifndef|if|elif|else|endif|define|undef)\\b(.*)$");
+	private static final Pattern MACRO_NAME = Pattern.compile("[A-Za-z_]\\w*");
+	private static final Pattern TOKEN = Pattern.compile("\\s*(defined|[A-Za-z_]\\w*|\\d+[uUlL]*|&&|\\|\\||==|!=|<=|>=|[()!<>])");
+
+	/**
+	 * State of one conditional block.
+	 */
+	private static class Block {
+
+		private final boolean parentActive;
+		private boolean active;
+		private boolean taken;
+
+		Block(boolean parentActive, boolean condition) {
+			this.parentActive = parentActive;
+			active = parentActive && condition;
+			taken = condition;
+		}
+	}
+
+	private final Set<String> defined;
+
+	/**
+	 * @param defined The macros that are defined (with value <code>1</code>)
+	 */
+	public ConditionalPreprocessor(Set<String> defined) {
+		this.defined = defined;
+	}
+
+	/**
+	 * @param lines The lines of the source file
+	 * @return The content of the variant
+	 */
+	public String process(List<String> lines) {
+		final Set<String> macros = new HashSet<>(defined);
+		final StringBuilder sb = new StringBuilder();
+		final Deque<Block> blocks = new ArrayDeque<>();
+		for (final String line : lines) {
+			final boolean active = blocks.isEmpty() || blocks.peek().active;
+			final Matcher matcher = DIRECTIVE.matcher(line);
+			if (!matcher.matches()) {
+				if (active) {
+					sb.append(line);
+					sb.append('\n');
+				}
+				continue;
+			}
+			final String argument = stripComments(matcher.group(2)).trim();
+			switch (matcher.group(1)) {
+			case "define":
+				if (active) {
+					final Matcher name = MACRO_NAME.matcher(argument);
+					if (name.lookingAt()) {
+						macros.add(name.group());
+					}
+					sb.append(line);
+					sb.append('\n');
+				}
+				break;
+			case "undef":
+				if (active) {
+					macros.remove(argument);
+					sb.append(line);
+					sb.append('\n');
+				}
+				break;
+			case "ifdef":
+				blocks.push(new Block(active, macros.contains(argument)));
+				break;
+			case "ifndef":
+				blocks.push(new Block(active, !macros.contains(argument)));
+				break;
+			case "if":
+				blocks.push(new Block(active, active && evaluate(argument, macros)));
+				break;
+			case "elif":
+				if (!blocks.isEmpty()) {
+					final Block block = blocks.peek();
+					final boolean condition = !block.taken && block.parentActive && evaluate(argument, macros);
+					block.active = block.parentActive && condition;
+					block.taken |= condition;
+				}
+				break;
+			case "else":
+				if (!blocks.isEmpty()) {
+					final Block block = blocks.peek();
+					block.active = block.parentActive && !block.taken;
+					block.taken = true;
+				}
+				break;
+			case "endif":
+				if (!blocks.isEmpty()) {
+					blocks.pop();
+				}
+				break;
+			default:
+				throw new AssertionError(matcher.group(1));
+			}
+		}
+		return sb.toString();
+	}
+
+	private static String stripComments(String text) {
+		return text.replaceAll("(?:/\\*(?:[^*]|(?:\\*+[^*/]))*\\*+/)|(?://.*)", "");
+	}
+
+	/**
+	 * Evaluates the expression of an <code>#if</code> or <code>#elif</code> directive. Undefined macros evaluate to <code>0</code>, defined macros to
+	 * <code>1</code>.
+	 */
+	boolean evaluate(String expression, Set<String> macros) {
+		try {
+			return new Parser(expression, macros).parse() != 0;
+		} catch (final IllegalArgumentException e) {
+			// unsupported expression (e.g., arithmetic), consider the block as present
+			return true;
+		}
+	}
+
+	/**
+	 * Recursive descent parser for preprocessor expressions.
+	 */
+	private static class Parser {
+
+		private final String expression;
+		private final Set<String> macros;
+		private final Matcher matcher;
+		private int position = 0;
+		private String token;
+
+		Parser(String expression, Set<String> macros) {
+			this.expression = expression;
+			this.macros = macros;
+			matcher = TOKEN.matcher(expression);
+			next();
+		}
+
+		private void next() {
+			matcher.region(position, expression.length());
+			if (matcher.lookingAt()) {
+				token = matcher.group(1);
+				position = matcher.end();
+			} else if (expression.substring(position).trim().isEmpty()) {
+				token = null;
+			} else {
+				throw new IllegalArgumentException(expression);
+			}
+		}
+
+		long parse() {
+			final long value = parseOr();
+			if (token != null) {
+				throw new IllegalArgumentException(expression);
+			}
+			return value;
+		}
+
+		private void expect(String expected) {
+			if (!expected.equals(token)) {
+				throw new IllegalArgumentException(expression);
+			}
+			next();
+		}
+
+		private long parseOr() {
+			long value = parseAnd();
+			while ("||".equals(token)) {
+				next();
+				final long right = parseAnd();
+				value = ((value != 0) || (right != 0)) ? 1 : 0;
+			}
+			return value;
+		}
+
+		private long parseAnd() {
+			long value = parseComparison();
+			while ("&&".equals(token)) {
+				next();
+				final long right = parseComparison();
+				value = ((value != 0) && (right != 0)) ? 1 : 0;
+			}
+			return value;
+		}
+
+		private long parseComparison() {
+			long value = parseUnary();
+			while ((token != null) && token.matches("==|!=|<=|>=|<|>")) {
+				final String operator = token;
+				next();
+				final long right = parseUnary();
+				switch (operator) {
+				case "==":
+					value = value == right ? 1 : 0;
+					break;
+				case "!=":
+					value = value != right ? 1 : 0;
+					break;
+				case "<=":
+					value = value <= right ? 1 : 0;
+					break;
+				case ">=":
+					value = value >= right ? 1 : 0;
+					break;
+				case "<":
+					value = value < right ? 1 : 0;
+					break;
+				default:
+					value = value > right ? 1 : 0;
+					break;
+				}
+			}
+			return value;
+		}
+
+		private long parseUnary() {
+			if (token == null) {
+				throw new IllegalArgumentException(expression);
+			}
+			switch (token) {
+			case "!":
+				next();
+				return parseUnary() == 0 ? 1 : 0;
+			case "(":
+				next();
+				final long value = parseOr();
+				expect(")");
+				return value;
+			case "defined":
+				next();
+				final String name;
+				if ("(".equals(token)) {
+					next();
+					name = token;
+					next();
+					expect(")");
+				} else {
+					name = token;
+					next();
+				}
+				return macros.contains(name) ? 1 : 0;
+			default:
+				final String literal = token;
+				next();
+				if (Character.isDigit(literal.charAt(0))) {
+					return Long.parseLong(literal.replaceAll("[uUlL]+$", ""));
+				}
+				return macros.contains(literal) ? 1 : 0;
+			}
+		}
+	}
+
+}
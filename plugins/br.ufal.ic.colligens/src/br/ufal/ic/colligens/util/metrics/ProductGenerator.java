@@ -8,16 +8,48 @@ import java.io.FileInputStream;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.eclipse.core.resources.IFile;
+
+import br.ufal.ic.colligens.models.AbstractHeader;
+import de.ovgu.featureide.core.CorePlugin;
+import de.ovgu.featureide.core.IFeatureProject;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.AConfigurationGenerator;
+import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.UniformRandomConfigurationGenerator;
+import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise.TWiseConfigurationGenerator;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
 
 public class ProductGenerator {
 
-	// Check for soundness percent of possible products.
-	private static final double SOUNDNESS = 0.1;
+	/**
+	 * Strategies to sample the products.
+	 */
+	public enum Sampling {
+		TWISE, UNIFORM
+	}
+
+	private Sampling sampling = Sampling.TWISE;
+
+	private int t = 2;
+
+	private int maxSampleSize = 1000;
 
 	public static boolean isValidJavaIdentifier(String s) {
 		// An empty or null string cannot be a valid identifier
@@ -73,53 +105,6 @@ public class ProductGenerator {
 		return directives;
 	}
 
-	// It generates combinatorial for each possible product.
-	public <T> Set<Set<T>> powerSet(Set<T> originalSet) {
-		final Set<Set<T>> sets = new HashSet<Set<T>>();
-		if (originalSet.isEmpty()) {
-			sets.add(new HashSet<T>());
-			return sets;
-		}
-		final List<T> list = new ArrayList<T>(originalSet);
-		final T head = list.get(0);
-		final Set<T> rest = new HashSet<T>(list.subList(1, list.size()));
-		for (final Set<T> set : powerSet(rest)) {
-			final Set<T> newSet = new HashSet<T>();
-			newSet.add(head);
-			newSet.addAll(set);
-			sets.add(newSet);
-			sets.add(set);
-		}
-		return sets;
-	}
-
-	// It executes external commands.
-	public String runCommand(String cmd) {
-		String result = "";
-		try {
-			final Runtime rt = Runtime.getRuntime();
-			final Process pr = rt.exec(cmd);
-
-			final BufferedReader input = new BufferedReader(new InputStreamReader(pr.getInputStream()));
-
-			String line = null;
-
-			while ((line = input.readLine()) != null) {
-				result += line + "\n";
-			}
-
-			final int exitVal = pr.waitFor();
-			if (exitVal != 0) {
-				System.out.println("Problem running external command!");
-			}
-
-		} catch (final Exception e) {
-			System.out.println(e.toString());
-			e.printStackTrace();
-		}
-		return result;
-	}
-
 	// It saves a String to a file, replacing the file's contents.
 	public void saveToFile(String filePath, String textToSave) {
 		final File file = new File(filePath);
@@ -137,38 +122,130 @@ public class ProductGenerator {
 
 	// It generates each possible product.
 	public void generateProducts(String originalFile) throws Exception {
+		generateProducts(originalFile, getFormula(originalFile));
+	}
+
+	/**
+	 * @return The formula of the feature project containing the given file, or <code>null</code> if the file is not part of a feature project
+	 */
+	private static FeatureModelFormula getFormula(String fileName) {
+		final IFile file = AbstractHeader.getFile(fileName);
+		final IFeatureProject featureProject = file != null ? CorePlugin.getFeatureProject(file) : null;
+		return featureProject != null ? featureProject.getFeatureModelManager().getPersistentFormula() : null;
+	}
+
+	/**
+	 * Generates a sample of products for the given file. The combinations of directives are sampled t-wise (or uniformly at random) from the CNF of the
+	 * feature model, in which directives that are not features are unconstrained. The products are preprocessed in parallel and products with identical
+	 * content are only saved once.
+	 *
+	 * @param originalFile The path of the original file
+	 * @param formula The formula of the project's feature model, or <code>null</code> if the directives are unconstrained
+	 */
+	public void generateProducts(String originalFile, FeatureModelFormula formula) throws Exception {
 		final Set<String> directives = getDirectives(new File(originalFile));
+		final List<String> lines = Files.readAllLines(Paths.get(originalFile), StandardCharsets.ISO_8859_1);
 
-		// Generating all possible products.
-		final Set<Set<String>> sets = this.powerSet(directives);
+		final List<Set<String>> sets = sampleDirectives(directives, formula);
 
-		int count = 1;
+		final List<String> codes = sets.parallelStream().map(set -> new ConditionalPreprocessor(set).process(lines)).collect(Collectors.toList());
 
-		for (final Iterator<Set<String>> i = sets.iterator(); i.hasNext();) {
-			final Set<String> set = i.next();
+		final Set<String> hashes = new HashSet<>();
+		int count = 1;
+		for (final String code : codes) {
+			if (hashes.add(hash(code))) {
+				saveToFile(originalFile.replace("original.c", "") + "test" + count + ".c", code);
+				count++;
+			}
+		}
+	}
 
-			String cmd = "gcc -P -E ";
+	/**
+	 * @return The defined directives of each sampled product
+	 */
+	private List<Set<String>> sampleDirectives(Set<String> directives, FeatureModelFormula formula) {
+		if (directives.isEmpty()) {
+			return Collections.singletonList(Collections.<String> emptySet());
+		}
 
-			for (final Iterator<String> j = set.iterator(); j.hasNext();) {
-				final String directive = j.next();
-				cmd += " -D " + directive + " ";
+		// variables of the feature model followed by all directives that are not features
+		final CNF featureModelCNF = formula != null ? formula.getCNF() : null;
+		final List<String> names = new ArrayList<>();
+		if (featureModelCNF != null) {
+			for (final String name : featureModelCNF.getVariables().getNames()) {
+				if (name != null) {
+					names.add(name);
+				}
 			}
-			cmd += originalFile;
+		}
+		final Set<String> features = new HashSet<>(names);
+		for (final String directive : directives) {
+			if (!features.contains(directive)) {
+				names.add(directive);
+			}
+		}
+		final Variables variables = new Variables(names);
+		final CNF cnf = new CNF(variables);
+		if (featureModelCNF != null) {
+			final Variables featureModelVariables = featureModelCNF.getVariables();
+			for (final LiteralSet clause : featureModelCNF.getClauses()) {
+				final int[] literals = clause.getLiterals();
+				final int[] newLiterals = new int[literals.length];
+				for (int i = 0; i < literals.length; i++) {
+					newLiterals[i] = variables.getVariable(featureModelVariables.getName(Math.abs(literals[i])), literals[i] > 0);
+				}
+				cnf.addClause(new LiteralSet(newLiterals));
+			}
+		}
 
-			final String code = runCommand(cmd);
-			saveToFile(originalFile.replace("original.c", "") + "test" + count + ".c", code);
-			count++;
+		final AConfigurationGenerator generator;
+		if (sampling == Sampling.UNIFORM) {
+			generator = new UniformRandomConfigurationGenerator(cnf, maxSampleSize);
+		} else {
+			final LiteralSet directiveLiterals = variables.convertToLiterals(directives, true, true);
+			generator = new TWiseConfigurationGenerator(cnf, TWiseConfigurationGenerator.convertLiterals(directiveLiterals), t, maxSampleSize);
+		}
+		final List<LiteralSet> sample = LongRunningWrapper.runMethod(generator);
+		if (sample == null) {
+			return Collections.emptyList();
+		}
 
-			if ((directives.size() > 5) && (directives.size() <= 10)) {
-				// Define soundness to set the percentage of product to analyze.
-				if (count >= (sets.size() * ProductGenerator.SOUNDNESS)) {
-					break;
+		// different products might differ only in features that are not used as directives
+		final Set<Set<String>> sets = new LinkedHashSet<>();
+		for (final LiteralSet solution : sample) {
+			final Set<String> set = new HashSet<>();
+			for (final int literal : solution.getLiterals()) {
+				if (literal > 0) {
+					final String name = variables.getName(literal);
+					if (directives.contains(name)) {
+						set.add(name);
+					}
 				}
-			} else if (directives.size() > 10) {
-				break;
 			}
+			sets.add(set);
+		}
+		return new ArrayList<>(sets);
+	}
 
+	private static String hash(String code) {
+		try {
+			final byte[] digest = MessageDigest.getInstance("MD5").digest(code.getBytes(StandardCharsets.UTF_8));
+			return new BigInteger(1, digest).toString(16);
+		} catch (final NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
 		}
 	}
 
+	public void setSampling(Sampling sampling) {
+		this.sampling = sampling;
+	}
+
+	public void setT(int t) {
+		this.t = t;
+	}
+
+	public void setMaxSampleSize(int maxSampleSize) {
+		this.maxSampleSize = maxSampleSize;
+	}
+
 }
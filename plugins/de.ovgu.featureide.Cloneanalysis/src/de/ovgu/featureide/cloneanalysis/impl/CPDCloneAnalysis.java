@@ -22,13 +22,13 @@ package de.ovgu.featureide.cloneanalysis.impl;
 
 import java.util.Iterator;
 
-import net.sourceforge.pmd.cpd.CPD;
 import net.sourceforge.pmd.cpd.Match;
 import de.ovgu.featureide.cloneanalysis.pmd.CPDAdapter;
+import de.ovgu.featureide.cloneanalysis.pmd.CloneIndex;
 import de.ovgu.featureide.cloneanalysis.pmd.ICloneAnalyzerAdapter;
 
 public class CPDCloneAnalysis {
-	private ICloneAnalyzerAdapter<CPD> cpdAdapter;
+	private ICloneAnalyzerAdapter<CloneIndex> cpdAdapter;
 
 	public CPDCloneAnalysis() {
 		cpdAdapter = new CPDAdapter();
@@ -53,7 +53,7 @@ public class CPDCloneAnalysis {
 	/**
 	 * @return the cpdAdapter
 	 */
-	public ICloneAnalyzerAdapter<CPD> getCpdAdapter() {
+	public ICloneAnalyzerAdapter<CloneIndex> getCpdAdapter() {
 		return cpdAdapter;
 	}
 
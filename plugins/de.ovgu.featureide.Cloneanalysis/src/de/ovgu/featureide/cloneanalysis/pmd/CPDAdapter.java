@@ -20,25 +20,35 @@
  */
 package de.ovgu.featureide.cloneanalysis.pmd;
 
-import java.io.IOException;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 
 import org.eclipse.core.resources.IContainer;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.jface.viewers.IStructuredSelection;
 
-import net.sourceforge.pmd.cpd.CPD;
 import net.sourceforge.pmd.cpd.CPDConfiguration;
 import net.sourceforge.pmd.cpd.Match;
 
 /**
+ * Adapter for the clone detection of CPD. The files are analyzed with a {@link CloneIndex} that is kept between several analyses, thus, only changed files
+ * need to be tokenized again.
+ *
  * @author Konstantin Tonscheidt
- * 
  */
-public class CPDAdapter extends DefaultCloneAnalyzerAdapter<CPD> {
+public class CPDAdapter extends DefaultCloneAnalyzerAdapter<CloneIndex> {
+
+	private static CloneIndex sharedIndex = null;
 
 	private CPDConfiguration cloneAnalysisConfiguration = null;
 
+	private final List<File> files = new ArrayList<File>();
+
+	private List<Match> matches = Collections.emptyList();
+
 	public CPDAdapter() {
 		super(new DefaultFilenameFilter());
 	}
@@ -51,26 +61,19 @@ public class CPDAdapter extends DefaultCloneAnalyzerAdapter<CPD> {
 		this.cloneAnalysisConfiguration = configuration;
 	}
 
+	private static synchronized CloneIndex getIndex(CPDConfiguration configuration) {
+		if ((sharedIndex == null) || !sharedIndex.isCompatible(configuration)) {
+			sharedIndex = new CloneIndex(configuration);
+		}
+		return sharedIndex;
+	}
+
 	@Override
 	public void initializeTool() {
 		cloneAnalysisConfiguration = createDefaultConfiguration();
-		analysisTool = new CPD(cloneAnalysisConfiguration);
-		// analysisTool.setCpdListener(new CPDListener()
-		// {
-		//
-		// @Override
-		// public void phaseUpdate(int phase)
-		// {
-		// System.out.println("Phase " + phase + " entered!");
-		// }
-		//
-		// @Override
-		// public void addedFile(int fileCount, File file)
-		// {
-		// if(file!=null)
-		// System.out.println("Added File: " + file.getName());
-		// }
-		// });
+		analysisTool = getIndex(cloneAnalysisConfiguration);
+		files.clear();
+		matches = Collections.emptyList();
 	}
 
 	@Override
@@ -83,21 +86,32 @@ public class CPDAdapter extends DefaultCloneAnalyzerAdapter<CPD> {
 
 	@Override
 	public Object startAnalysis() {
-		analysisTool.go();
+		matches = analysisTool.update(files);
 		return null;
 	}
 
 	@Override
 	protected void registerContainerRecursively(IContainer container) {
-		try {
-			analysisTool.addRecursively(container.getLocation().toString());
-		} catch (IOException e) {
-			e.printStackTrace();
+		if (container.getLocation() != null) {
+			addRecursively(container.getLocation().toFile());
+		}
+	}
+
+	private void addRecursively(File directory) {
+		final File[] children = directory.listFiles(cloneAnalysisConfiguration.filenameFilter());
+		if (children != null) {
+			for (final File child : children) {
+				if (child.isDirectory()) {
+					addRecursively(child);
+				} else {
+					files.add(child);
+				}
+			}
 		}
 	}
 
 	@Override
 	public Iterator<Match> getMatches() {
-		return analysisTool.getMatches();
+		return matches.iterator();
 	}
 }
@@ -0,0 +1,522 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.cloneanalysis.pmd;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import de.ovgu.featureide.fm.core.Logger;
+import net.sourceforge.pmd.cpd.CPDConfiguration;
+import net.sourceforge.pmd.cpd.Language;
+import net.sourceforge.pmd.cpd.Match;
+import net.sourceforge.pmd.cpd.SourceCode;
+import net.sourceforge.pmd.cpd.TokenEntry;
+import net.sourceforge.pmd.cpd.Tokenizer;
+import net.sourceforge.pmd.cpd.Tokens;
+
+/**
+ * Incremental clone index that replaces a complete run of CPD.<br> The tokens of every file are stored together with the rolling hashes of all token windows
+ * of the minimum clone size. When the index is updated, only new and changed files are tokenized (in parallel), all other files keep their tokens and hashes.
+ * Clones are found by extending all pairs of windows with equal hashes, thus, the result corresponds to the matches found by CPD.
+ */
+public class CloneIndex {
+
+	private static final long BASE = 1_000_003L;
+
+	/**
+	 * The tokens of one file.
+	 */
+	private static class FileEntry {
+
+		private final String path;
+		private long modificationStamp;
+		private long length;
+		private byte[] contentHash;
+		private int[] tokens;
+		private int[] lines;
+		private List<String> code;
+		private long[] windowHashes;
+
+		private FileEntry(String path) {
+			this.path = path;
+		}
+	}
+
+	/**
+	 * The start of a token window in a file.
+	 */
+	private static class Position {
+
+		private final FileEntry file;
+		private final int offset;
+
+		private Position(FileEntry file, int offset) {
+			this.file = file;
+			this.offset = offset;
+		}
+
+		private int getBeginLine() {
+			return file.lines[offset];
+		}
+	}
+
+	private static final Comparator<Position> POSITION_COMPARATOR = new Comparator<Position>() {
+
+		@Override
+		public int compare(Position p1, Position p2) {
+			final int result = p1.file.path.compareTo(p2.file.path);
+			return result != 0 ? result : Integer.compare(p1.offset, p2.offset);
+		}
+	};
+
+	/**
+	 * Group of equal token sequences.
+	 */
+	private static class MatchGroup {
+
+		private final Map<Position, Boolean> marks = new IdentityHashMap<>();
+		private final int length;
+		private final int[] tokens;
+
+		private MatchGroup(int length, int[] tokens) {
+			this.length = length;
+			this.tokens = tokens;
+		}
+
+		private void add(Position position) {
+			marks.put(position, Boolean.TRUE);
+		}
+	}
+
+	/**
+	 * The maximum number of distinct token images. If it is exceeded, the index is rebuilt to drop the images of removed and changed files.
+	 */
+	private static final int MAXIMUM_IDENTIFIERS = 1 << 20;
+
+	/**
+	 * The thread-local map from the images of tokens to their identifiers in {@link TokenEntry}, or <code>null</code> if it cannot be accessed.
+	 * {@link TokenEntry#toString()} searches this map linearly, thus, it is read directly to get all images of a file at once.
+	 */
+	private static final Field TOKEN_IMAGES = getTokenImagesField();
+
+	private final CPDConfiguration configuration;
+	private final int minimumTileSize;
+	private final long highestPower;
+
+	/**
+	 * Maps the images of all tokens to identifiers that are independent of the thread in which a file was tokenized.
+	 */
+	private final Map<String, Integer> identifiers = new ConcurrentHashMap<>();
+
+	/**
+	 * The tokenizer of a language is shared and not thread-safe, thus, every thread uses its own tokenizer.
+	 */
+	private final ThreadLocal<Tokenizer> tokenizers = ThreadLocal.withInitial(this::createTokenizer);
+
+	private final Map<String, FileEntry> files = new HashMap<>();
+
+	/**
+	 * Maps the hashes of token windows to their positions.
+	 */
+	private final Map<Long, List<Position>> postings = new HashMap<>();
+
+	/**
+	 * @param configuration The configuration providing the tokenizer, the encoding, and the minimum number of tokens of a clone
+	 */
+	public CloneIndex(CPDConfiguration configuration) {
+		this.configuration = configuration;
+		minimumTileSize = Math.max(1, configuration.getMinimumTileSize());
+		long power = 1;
+		for (int i = 0; i < minimumTileSize; i++) {
+			power *= BASE;
+		}
+		highestPower = power;
+	}
+
+	/**
+	 * @param configuration A configuration
+	 * @return <code>true</code> if files are tokenized and hashed equally with the given configuration
+	 */
+	public boolean isCompatible(CPDConfiguration configuration) {
+		return (configuration.getMinimumTileSize() == minimumTileSize) && configuration.getLanguage().getName().equals(this.configuration.getLanguage().getName())
+			&& (configuration.isIgnoreLiterals() == this.configuration.isIgnoreLiterals())
+			&& (configuration.isIgnoreIdentifiers() == this.configuration.isIgnoreIdentifiers())
+			&& (configuration.isIgnoreAnnotations() == this.configuration.isIgnoreAnnotations());
+	}
+
+	/**
+	 * Updates the index for the given files and finds all clones among them. Files of previous updates that are not contained in the given files are removed
+	 * from the index, thus, the index never holds more than the files of the last analysis.
+	 *
+	 * @param sourceFiles The files to analyze
+	 * @return The clones found in the given files
+	 */
+	public synchronized List<Match> update(Collection<File> sourceFiles) {
+		if (identifiers.size() > MAXIMUM_IDENTIFIERS) {
+			clear();
+		}
+
+		final Set<String> paths = new HashSet<>();
+		final List<File> changedFiles = new ArrayList<>();
+		final Set<FileEntry> activeFiles = Collections.newSetFromMap(new IdentityHashMap<FileEntry, Boolean>());
+		for (final File sourceFile : sourceFiles) {
+			paths.add(sourceFile.getAbsolutePath());
+			final FileEntry entry = files.get(sourceFile.getAbsolutePath());
+			if ((entry != null) && (entry.modificationStamp == sourceFile.lastModified()) && (entry.length == sourceFile.length())) {
+				activeFiles.add(entry);
+			} else {
+				changedFiles.add(sourceFile);
+			}
+		}
+
+		for (final Iterator<FileEntry> iterator = files.values().iterator(); iterator.hasNext();) {
+			final FileEntry entry = iterator.next();
+			if (!paths.contains(entry.path)) {
+				removePostings(entry);
+				iterator.remove();
+			}
+		}
+
+		final List<FileEntry> tokenizedFiles = changedFiles.parallelStream().map(this::tokenize).collect(Collectors.toList());
+		for (final FileEntry entry : tokenizedFiles) {
+			final FileEntry oldEntry = files.get(entry.path);
+			if (oldEntry != null) {
+				if ((oldEntry.contentHash != null) && Arrays.equals(oldEntry.contentHash, entry.contentHash)) {
+					// only touched, keep the old tokens and hashes
+					oldEntry.modificationStamp = entry.modificationStamp;
+					activeFiles.add(oldEntry);
+					continue;
+				}
+				removePostings(oldEntry);
+			}
+			files.put(entry.path, entry);
+			addPostings(entry);
+			activeFiles.add(entry);
+		}
+
+		return findMatches(activeFiles);
+	}
+
+	public synchronized void clear() {
+		files.clear();
+		postings.clear();
+		identifiers.clear();
+	}
+
+	/**
+	 * @return The number of files in the index
+	 */
+	public synchronized int size() {
+		return files.size();
+	}
+
+	private void addPostings(FileEntry entry) {
+		for (int i = 0; i < entry.windowHashes.length; i++) {
+			postings.computeIfAbsent(entry.windowHashes[i], h -> new ArrayList<Position>(2)).add(new Position(entry, i));
+		}
+	}
+
+	private void removePostings(FileEntry entry) {
+		for (final long hash : entry.windowHashes) {
+			final List<Position> positions = postings.get(hash);
+			if (positions != null) {
+				positions.removeIf(p -> p.file == entry);
+				if (positions.isEmpty()) {
+					postings.remove(hash);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Tokenizes a file and computes the hashes of its token windows. This method is called in parallel.
+	 */
+	private FileEntry tokenize(File sourceFile) {
+		final FileEntry entry = new FileEntry(sourceFile.getAbsolutePath());
+		entry.modificationStamp = sourceFile.lastModified();
+		entry.length = sourceFile.length();
+		try {
+			entry.contentHash = MessageDigest.getInstance("MD5").digest(Files.readAllBytes(sourceFile.toPath()));
+		} catch (IOException | NoSuchAlgorithmException e) {
+			entry.contentHash = null;
+		}
+
+		TokenEntry.clearImages();
+		final Tokens tokens = new Tokens();
+		final SourceCode sourceCode = configuration.sourceCodeFor(sourceFile);
+		try {
+			tokenizers.get().tokenize(sourceCode, tokens);
+			entry.code = sourceCode.getCode();
+		} catch (final IOException | RuntimeException e) {
+			Logger.logError(e);
+			TokenEntry.clearImages();
+			entry.tokens = new int[0];
+			entry.lines = new int[0];
+			entry.code = Collections.emptyList();
+			entry.windowHashes = new long[0];
+			return entry;
+		}
+
+		// the identifiers of the token entries are only unique within one thread, thus, they are translated to global identifiers by their images
+		final String[] images = getTokenImages();
+		int[] globalIdentifiers = new int[Math.max(64, images.length)];
+		final List<TokenEntry> tokenList = tokens.getTokens();
+		int size = 0;
+		entry.tokens = new int[tokenList.size()];
+		entry.lines = new int[tokenList.size()];
+		for (final TokenEntry token : tokenList) {
+			if (token != TokenEntry.EOF) {
+				final int identifier = token.getIdentifier();
+				if (identifier >= globalIdentifiers.length) {
+					globalIdentifiers = Arrays.copyOf(globalIdentifiers, Math.max(identifier + 1, globalIdentifiers.length << 1));
+				}
+				if (globalIdentifiers[identifier] == 0) {
+					final String image = (identifier < images.length) && (images[identifier] != null) ? images[identifier] : token.toString();
+					globalIdentifiers[identifier] = getGlobalIdentifier(image);
+				}
+				entry.tokens[size] = globalIdentifiers[identifier];
+				entry.lines[size] = token.getBeginLine();
+				size++;
+			}
+		}
+		entry.tokens = Arrays.copyOf(entry.tokens, size);
+		entry.lines = Arrays.copyOf(entry.lines, size);
+		TokenEntry.clearImages();
+
+		entry.windowHashes = new long[Math.max(0, (size - minimumTileSize) + 1)];
+		long hash = 0;
+		for (int i = 0; i < size; i++) {
+			hash = (hash * BASE) + entry.tokens[i];
+			if (i >= minimumTileSize) {
+				hash -= entry.tokens[i - minimumTileSize] * highestPower;
+			}
+			if (i >= (minimumTileSize - 1)) {
+				entry.windowHashes[(i - minimumTileSize) + 1] = hash;
+			}
+		}
+		return entry;
+	}
+
+	/**
+	 * Creates a tokenizer of the configured language with the properties of the configuration, similar to {@link CPDConfiguration#setSystemProperties}.
+	 */
+	private Tokenizer createTokenizer() {
+		final Properties properties = new Properties();
+		if (configuration.isIgnoreLiterals()) {
+			properties.setProperty(Tokenizer.IGNORE_LITERALS, Boolean.TRUE.toString());
+		}
+		if (configuration.isIgnoreIdentifiers()) {
+			properties.setProperty(Tokenizer.IGNORE_IDENTIFIERS, Boolean.TRUE.toString());
+		}
+		if (configuration.isIgnoreAnnotations()) {
+			properties.setProperty(Tokenizer.IGNORE_ANNOTATIONS, Boolean.TRUE.toString());
+		}
+		properties.setProperty(Tokenizer.OPTION_SKIP_BLOCKS, Boolean.toString(!configuration.isNoSkipBlocks()));
+		if (configuration.getSkipBlocksPattern() != null) {
+			properties.setProperty(Tokenizer.OPTION_SKIP_BLOCKS_PATTERN, configuration.getSkipBlocksPattern());
+		}
+		try {
+			final Language language = configuration.getLanguage().getClass().getConstructor().newInstance();
+			language.setProperties(properties);
+			return language.getTokenizer();
+		} catch (final ReflectiveOperationException e) {
+			// the language has no default constructor (e.g., AnyLanguage), thus, the shared tokenizer is used exclusively
+			return new Tokenizer() {
+
+				@Override
+				public void tokenize(SourceCode sourceCode, Tokens tokens) throws IOException {
+					final Tokenizer tokenizer = configuration.tokenizer();
+					synchronized (tokenizer) {
+						tokenizer.tokenize(sourceCode, tokens);
+					}
+				}
+			};
+		}
+	}
+
+	private static Field getTokenImagesField() {
+		try {
+			final Field field = TokenEntry.class.getDeclaredField("TOKENS");
+			field.setAccessible(true);
+			return field;
+		} catch (NoSuchFieldException | RuntimeException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * @return The images of the tokens of the current thread indexed by their identifiers. The array is empty if the images cannot be accessed.
+	 */
+	@SuppressWarnings("unchecked")
+	private static String[] getTokenImages() {
+		if (TOKEN_IMAGES != null) {
+			try {
+				final Map<String, Integer> tokenImages = ((ThreadLocal<Map<String, Integer>>) TOKEN_IMAGES.get(null)).get();
+				String[] images = new String[tokenImages.size() + 1];
+				for (final Map.Entry<String, Integer> tokenImage : tokenImages.entrySet()) {
+					final int identifier = tokenImage.getValue();
+					if (identifier >= images.length) {
+						images = Arrays.copyOf(images, identifier + 1);
+					}
+					images[identifier] = tokenImage.getKey();
+				}
+				return images;
+			} catch (IllegalAccessException | RuntimeException e) {
+				Logger.logError(e);
+			}
+		}
+		return new String[0];
+	}
+
+	private int getGlobalIdentifier(String image) {
+		final Integer identifier = identifiers.get(image);
+		if (identifier != null) {
+			return identifier;
+		}
+		synchronized (identifiers) {
+			return identifiers.computeIfAbsent(image, i -> identifiers.size() + 1);
+		}
+	}
+
+	/**
+	 * Finds all maximal token sequences of at least the minimum size that occur several times in the given files.
+	 */
+	private List<Match> findMatches(Set<FileEntry> activeFiles) {
+		final Map<Long, List<MatchGroup>> groups = new LinkedHashMap<>();
+		final List<Position> bucket = new ArrayList<>();
+		for (final List<Position> positions : postings.values()) {
+			if (positions.size() < 2) {
+				continue;
+			}
+			bucket.clear();
+			for (final Position position : positions) {
+				if (activeFiles.contains(position.file)) {
+					bucket.add(position);
+				}
+			}
+			for (int i = 0; i < bucket.size(); i++) {
+				for (int j = i + 1; j < bucket.size(); j++) {
+					Position a = bucket.get(i);
+					Position b = bucket.get(j);
+					if (POSITION_COMPARATOR.compare(a, b) > 0) {
+						final Position temp = a;
+						a = b;
+						b = temp;
+					}
+					final int[] tokensA = a.file.tokens;
+					final int[] tokensB = b.file.tokens;
+					// the sequence is part of a longer match that starts earlier
+					if ((a.offset > 0) && (b.offset > 0) && (tokensA[a.offset - 1] == tokensB[b.offset - 1])) {
+						continue;
+					}
+					int limit = Math.min(tokensA.length - a.offset, tokensB.length - b.offset);
+					if (a.file == b.file) {
+						limit = Math.min(limit, b.offset - a.offset);
+					}
+					int length = 0;
+					while ((length < limit) && (tokensA[a.offset + length] == tokensB[b.offset + length])) {
+						length++;
+					}
+					if (length >= minimumTileSize) {
+						addToGroup(groups, a, b, length);
+					}
+				}
+			}
+		}
+
+		TokenEntry.clearImages();
+		final List<Match> matches = new ArrayList<>();
+		for (final List<MatchGroup> sameHashGroups : groups.values()) {
+			for (final MatchGroup group : sameHashGroups) {
+				matches.add(createMatch(group));
+			}
+		}
+		TokenEntry.clearImages();
+		Collections.sort(matches);
+		return matches;
+	}
+
+	private void addToGroup(Map<Long, List<MatchGroup>> groups, Position a, Position b, int length) {
+		final int[] tokens = Arrays.copyOfRange(a.file.tokens, a.offset, a.offset + length);
+		final long key = (Arrays.hashCode(tokens) * 31L) + length;
+		final List<MatchGroup> sameHashGroups = groups.computeIfAbsent(key, k -> new ArrayList<MatchGroup>(1));
+		for (final MatchGroup group : sameHashGroups) {
+			if ((group.length == length) && Arrays.equals(group.tokens, tokens)) {
+				group.add(a);
+				group.add(b);
+				return;
+			}
+		}
+		final MatchGroup group = new MatchGroup(length, tokens);
+		group.add(a);
+		group.add(b);
+		sameHashGroups.add(group);
+	}
+
+	private Match createMatch(MatchGroup group) {
+		final List<Position> marks = new ArrayList<>(group.marks.keySet());
+		Collections.sort(marks, POSITION_COMPARATOR);
+
+		final Match match = new Match(group.length, createMark(marks.get(0)), createMark(marks.get(1)));
+		for (int i = 2; i < marks.size(); i++) {
+			match.addTokenEntry(createMark(marks.get(i)));
+		}
+
+		final Position first = marks.get(0);
+		final int beginLine = first.getBeginLine();
+		final int endLine = first.file.lines[(first.offset + group.length) - 1];
+		match.setLineCount((endLine - beginLine) + 1);
+
+		final StringBuilder slice = new StringBuilder();
+		final List<String> code = first.file.code;
+		for (int line = beginLine; (line <= endLine) && (line <= code.size()); line++) {
+			slice.append(code.get(line - 1));
+			slice.append(System.lineSeparator());
+		}
+		match.setSourceCodeSlice(slice.toString());
+		return match;
+	}
+
+	private TokenEntry createMark(Position position) {
+		return new TokenEntry("", position.file.path, position.getBeginLine());
+	}
+
+}
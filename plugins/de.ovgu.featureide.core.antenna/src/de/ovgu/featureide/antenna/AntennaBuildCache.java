@@ -0,0 +1,177 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.antenna;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import org.eclipse.core.resources.IFile;
+
+import de.ovgu.featureide.antenna.model.AntennaModelBuilder;
+
+/**
+ * Stores the state of every source file after it was preprocessed by the {@link AntennaPreprocessor}.<br> A file needs to be preprocessed again only if its
+ * content changed or if the selection of one of the features that are referenced in its preprocessor directives changed.
+ */
+class AntennaBuildCache {
+
+	private static final Pattern DIRECTIVE_PATTERN = Pattern.compile("//\\s*#");
+	private static final Pattern TOKEN_SEPARATOR = Pattern.compile(AntennaModelBuilder.OPERATORS + "+");
+
+	/**
+	 * State of one file after the last preprocessing.
+	 */
+	static class FileState {
+
+		private final long modificationStamp;
+		private final byte[] contentHash;
+		private final Set<String> referencedFeatures;
+		private final Set<String> selectedFeatures;
+		private final Set<String> usedFeatures;
+
+		FileState(long modificationStamp, byte[] contentHash, Set<String> referencedFeatures, Set<String> selectedFeatures, Set<String> usedFeatures) {
+			this.modificationStamp = modificationStamp;
+			this.contentHash = contentHash;
+			this.referencedFeatures = referencedFeatures;
+			this.selectedFeatures = selectedFeatures;
+			this.usedFeatures = usedFeatures;
+		}
+
+		/**
+		 * @return The features that were found while checking the annotations of the file
+		 */
+		Set<String> getUsedFeatures() {
+			return usedFeatures;
+		}
+	}
+
+	private final Map<IFile, FileState> states = new ConcurrentHashMap<>();
+
+	void clear() {
+		states.clear();
+	}
+
+	/**
+	 * Removes the states of all files that are not contained in the given collection.
+	 */
+	void retain(Collection<IFile> files) {
+		states.keySet().retainAll(new HashSet<>(files));
+	}
+
+	void remove(IFile file) {
+		states.remove(file);
+	}
+
+	FileState get(IFile file) {
+		return states.get(file);
+	}
+
+	void put(IFile file, FileState state) {
+		states.put(file, state);
+	}
+
+	/**
+	 * Checks whether the file was not modified since the last preprocessing, without reading its content.
+	 */
+	boolean isUnmodified(IFile file, long modificationStamp, Set<String> activatedFeatures) {
+		final FileState state = states.get(file);
+		return (state != null) && (state.modificationStamp == modificationStamp)
+			&& state.selectedFeatures.equals(getSelectedFeatures(state.referencedFeatures, activatedFeatures));
+	}
+
+	/**
+	 * Checks whether the content of the file equals the content after the last preprocessing.
+	 */
+	boolean isUnchanged(IFile file, byte[] contentHash, Set<String> selectedFeatures) {
+		final FileState state = states.get(file);
+		return (state != null) && Arrays.equals(state.contentHash, contentHash) && state.selectedFeatures.equals(selectedFeatures);
+	}
+
+	/**
+	 * @param lines The content of a file
+	 * @return The hash of the given content
+	 */
+	static byte[] hash(List<String> lines) {
+		try {
+			final MessageDigest digest = MessageDigest.getInstance("MD5");
+			for (final String line : lines) {
+				digest.update(line.getBytes(StandardCharsets.UTF_8));
+				digest.update((byte) '\n');
+			}
+			return digest.digest();
+		} catch (final NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Collects the names of all features that are referenced in preprocessor directives.
+	 *
+	 * @param lines The content of a file
+	 * @param features The names of all features of the feature model
+	 * @return The referenced features
+	 */
+	static Set<String> getReferencedFeatures(List<String> lines, Set<String> features) {
+		Set<String> referencedFeatures = null;
+		for (final String line : lines) {
+			if (DIRECTIVE_PATTERN.matcher(line).find()) {
+				for (final String token : TOKEN_SEPARATOR.split(line)) {
+					if (features.contains(token)) {
+						if (referencedFeatures == null) {
+							referencedFeatures = new TreeSet<>();
+						}
+						referencedFeatures.add(token);
+					}
+				}
+			}
+		}
+		return referencedFeatures == null ? Collections.<String> emptySet() : referencedFeatures;
+	}
+
+	/**
+	 * Computes the key that describes which referenced features of a file are selected.
+	 *
+	 * @param referencedFeatures The features referenced in a file
+	 * @param activatedFeatures The selected features of the current configuration
+	 * @return The selected features among the referenced features
+	 */
+	static Set<String> getSelectedFeatures(Set<String> referencedFeatures, Set<String> activatedFeatures) {
+		final Set<String> selectedFeatures = new TreeSet<>();
+		for (final String feature : referencedFeatures) {
+			if (activatedFeatures.contains(feature)) {
+				selectedFeatures.add(feature);
+			}
+		}
+		return selectedFeatures;
+	}
+
+}
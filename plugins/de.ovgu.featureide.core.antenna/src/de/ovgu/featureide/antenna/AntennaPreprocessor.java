@@ -36,9 +36,16 @@ import java.nio.charset.Charset;
 import java.nio.file.Path;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
 import java.util.Vector;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.regex.Pattern;
 
 import org.eclipse.core.resources.IContainer;
@@ -98,6 +105,9 @@ public class AntennaPreprocessor extends PPComposerExtensionClass {
 
 	private AntennaModelBuilder antennaModelBuilder;
 
+	/** state of all files after the last build, used to preprocess only files that changed */
+	private final AntennaBuildCache buildCache = new AntennaBuildCache();
+
 	/** pattern for replacing preprocessor commands like "//#if" */
 	static final Pattern replaceCommandPattern = Pattern.compile("//\\s*\\#(.+?)\\s");
 	static final Pattern annotationPattern = Pattern.compile(".*//\\s*(\\#|\\@).*");
@@ -157,14 +167,15 @@ public class AntennaPreprocessor extends PPComposerExtensionClass {
 			preprocessor.clearDefines();
 			preprocessor.addDefines(featureList.toString());
 
-			// preprocess for all files in source folder
-			startPreprocessingSourceFiles(featureProject.getBuildFolder(), true);
+			// preprocess all files in source folder that changed since the last build
+			startIncrementalPreprocessing(featureProject.getBuildFolder(), featureList.toString());
 		} catch (final Exception e) {
 			AntennaCorePlugin.getDefault().logError(e);
 		}
 
+		// the resource listener of the project patches the model for changed source files, it is only built completely after a clean or model change
 		if (antennaModelBuilder != null) {
-			antennaModelBuilder.buildModel();
+			antennaModelBuilder.buildModelIfOutdated();
 		}
 	}
 
@@ -258,6 +269,8 @@ public class AntennaPreprocessor extends PPComposerExtensionClass {
 
 	@Override
 	public void postModelChanged() {
+		invalidateFSTModel();
+		buildCache.clear();
 		deleteAllPreprocessorAnotationMarkers();
 		prepareFullBuild(null);
 		startPreprocessingSourceFiles(featureProject.getBuildFolder(), false);
@@ -276,6 +289,157 @@ public class AntennaPreprocessor extends PPComposerExtensionClass {
 		}
 	}
 
+	/**
+	 * Result of preprocessing one file in a worker thread.
+	 */
+	private static class PreprocessingResult {
+
+		private final IFile file;
+		private final Vector<String> lines;
+		private final byte[] contentHash;
+		private final Set<String> referencedFeatures;
+		private final Set<String> selectedFeatures;
+		private Vector<String> preprocessedLines = null;
+		private boolean changed = false;
+		private PPException exception = null;
+
+		PreprocessingResult(IFile file, Vector<String> lines, byte[] contentHash, Set<String> referencedFeatures, Set<String> selectedFeatures) {
+			this.file = file;
+			this.lines = lines;
+			this.contentHash = contentHash;
+			this.referencedFeatures = referencedFeatures;
+			this.selectedFeatures = selectedFeatures;
+		}
+	}
+
+	/**
+	 * Preprocesses all files in the given folder that changed since the last build or that reference a feature whose selection changed. The files are read,
+	 * hashed, and preprocessed in parallel. Markers, annotation checks, and saving are done afterwards in the calling thread, because they need access to the
+	 * workspace.
+	 *
+	 * @param sourceFolder folder with files to preprocess
+	 * @param defines comma separated list of activated features
+	 */
+	private void startIncrementalPreprocessing(IFolder sourceFolder, String defines) {
+		final ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+		try {
+			final List<IFile> files = new ArrayList<>();
+			collectFiles(sourceFolder, files);
+			buildCache.retain(files);
+
+			final Set<String> features = new HashSet<>(featureList);
+			final Set<String> activated = new HashSet<>(activatedFeatures);
+			final ThreadLocal<Preprocessor> preprocessors = ThreadLocal.withInitial(() -> {
+				final Preprocessor workerPreprocessor = new Preprocessor(new AntennaLogger(), new AntennaLineFilter());
+				try {
+					workerPreprocessor.addDefines(defines);
+				} catch (final PPException e) {
+					AntennaCorePlugin.getDefault().logError(e);
+				}
+				return workerPreprocessor;
+			});
+
+			final List<Future<PreprocessingResult>> futures = new ArrayList<>();
+			for (final IFile file : files) {
+				if (buildCache.isUnmodified(file, file.getModificationStamp(), activated)) {
+					continue;
+				}
+				final String charset = file.getCharset();
+				futures.add(executor.submit(() -> {
+					final Vector<String> lines = loadStringsFromFile(file);
+					final byte[] contentHash = AntennaBuildCache.hash(lines);
+					final Set<String> referencedFeatures = AntennaBuildCache.getReferencedFeatures(lines, features);
+					final Set<String> selectedFeatures = AntennaBuildCache.getSelectedFeatures(referencedFeatures, activated);
+					final PreprocessingResult result = new PreprocessingResult(file, lines, contentHash, referencedFeatures, selectedFeatures);
+					if (!buildCache.isUnchanged(file, contentHash, selectedFeatures)) {
+						result.preprocessedLines = new Vector<>(lines);
+						try {
+							result.changed = preprocessors.get().preprocess(result.preprocessedLines, charset);
+						} catch (final PPException e) {
+							result.exception = e;
+						}
+					}
+					return result;
+				}));
+			}
+
+			for (final Future<PreprocessingResult> future : futures) {
+				final PreprocessingResult result = future.get();
+				if (result.preprocessedLines == null) {
+					// content was touched but not changed
+					final AntennaBuildCache.FileState state = buildCache.get(result.file);
+					buildCache.put(result.file, new AntennaBuildCache.FileState(result.file.getModificationStamp(), result.contentHash,
+							result.referencedFeatures, result.selectedFeatures, state.getUsedFeatures()));
+				} else {
+					savePreprocessingResult(result);
+				}
+			}
+
+			// features used in files that were not preprocessed again
+			for (final IFile file : files) {
+				final AntennaBuildCache.FileState state = buildCache.get(file);
+				if (state != null) {
+					usedFeatures.addAll(state.getUsedFeatures());
+				}
+			}
+			setModelMarkers();
+		} catch (final CoreException | IOException | ExecutionException e) {
+			AntennaCorePlugin.getDefault().logError(e);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private void collectFiles(IFolder folder, List<IFile> files) throws CoreException {
+		for (final IResource res : folder.members()) {
+			if (res instanceof IFolder) {
+				collectFiles((IFolder) res, files);
+			} else if (res instanceof IFile) {
+				files.add((IFile) res);
+			}
+		}
+	}
+
+	private void savePreprocessingResult(PreprocessingResult result) throws CoreException, IOException {
+		final IFile res = result.file;
+		featureProject.deleteBuilderMarkers(res, 0);
+
+		// do checking and collect the features used in this file
+		final HashSet<String> allUsedFeatures = usedFeatures;
+		usedFeatures = new HashSet<>();
+		processLinesOfFile(result.lines, res);
+		final Set<String> fileUsedFeatures = usedFeatures;
+		allUsedFeatures.addAll(fileUsedFeatures);
+		usedFeatures = allUsedFeatures;
+
+		if (result.exception != null) {
+			final PPException e = result.exception;
+			final int lineNumber = e.getLineNumber();
+			featureProject.createBuilderMarker(res, e.getMessage().replace("Line #" + lineNumber + " :", "Antenna:"), Math.max(lineNumber, 0) + 1,
+					IMarker.SEVERITY_ERROR);
+			AntennaCorePlugin.getDefault().logError(e);
+			// files with errors are always preprocessed again
+			buildCache.remove(res);
+			return;
+		}
+
+		byte[] contentHash = result.contentHash;
+		// if preprocessor changed file: save & refresh
+		if (result.changed) {
+			try (FileOutputStream ostr = new FileOutputStream(res.getRawLocation().toOSString())) {
+				Preprocessor.saveStrings(result.preprocessedLines, ostr, res.getCharset());
+			}
+			// use touch to support e.g. linux
+			res.touch(null);
+			res.refreshLocal(IResource.DEPTH_ZERO, null);
+			contentHash = AntennaBuildCache.hash(result.preprocessedLines);
+		}
+		buildCache.put(res, new AntennaBuildCache.FileState(res.getModificationStamp(), contentHash, result.referencedFeatures, result.selectedFeatures,
+				fileUsedFeatures));
+	}
+
 	/**
 	 * preprocess all files in folder
 	 *
@@ -480,6 +644,7 @@ public class AntennaPreprocessor extends PPComposerExtensionClass {
 
 	@Override
 	public boolean clean() {
+		buildCache.clear();
 		return false;
 	}
 
@@ -508,6 +673,18 @@ public class AntennaPreprocessor extends PPComposerExtensionClass {
 		antennaModelBuilder.buildModel();
 	}
 
+	@Override
+	public boolean updateFSTModel(IResourceDelta sourceDelta) {
+		return (antennaModelBuilder != null) && antennaModelBuilder.updateModel(sourceDelta);
+	}
+
+	@Override
+	public void invalidateFSTModel() {
+		if (antennaModelBuilder != null) {
+			antennaModelBuilder.invalidateModel();
+		}
+	}
+
 	@Override
 	public boolean postAddNature(IFolder source, IFolder destination) {
 		return true;
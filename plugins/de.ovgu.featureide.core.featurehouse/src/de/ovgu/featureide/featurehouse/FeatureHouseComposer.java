@@ -21,6 +21,7 @@
 package de.ovgu.featureide.featurehouse;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
@@ -34,6 +35,7 @@ import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
+import java.util.function.Supplier;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IFolder;
@@ -140,6 +142,12 @@ public class FeatureHouseComposer extends ComposerExtensionClass {
 
 	private FSTGenComposer composer;
 
+	/**
+	 * Composes variants in parallel, see {@link #getCompositionPool()}.
+	 */
+	private FeatureHouseCompositionPool compositionPool = null;
+	private boolean compositionPoolCreated = false;
+
 	public FeatureHouseModelBuilder fhModelBuilder;
 
 	private ErrorPropagation errorPropagation = null;
@@ -147,11 +155,18 @@ public class FeatureHouseComposer extends ComposerExtensionClass {
 	private final IParseErrorListener listener = createParseErrorListener();
 
 	private IParseErrorListener createParseErrorListener() {
+		return createParseErrorListener(() -> composer.getErrorFiles().getLast());
+	}
+
+	/**
+	 * @param errorFile Supplies the file containing the current parse error
+	 */
+	private IParseErrorListener createParseErrorListener(Supplier<File> errorFile) {
 		return new IParseErrorListener() {
 
 			@Override
 			public void parseErrorOccured(ParseException e) {
-				createBuilderProblemMarker(e.currentToken.next.endLine, e.getMessage());
+				createBuilderProblemMarker(getErrorFile(errorFile.get()), e.currentToken.next.endLine, e.getMessage());
 			}
 		};
 	}
@@ -227,9 +242,17 @@ public class FeatureHouseComposer extends ComposerExtensionClass {
 	 * @param message The message.
 	 */
 	protected void createBuilderProblemMarker(int line, String message) {
+		createBuilderProblemMarker(getErrorFile(), line, message);
+	}
+
+	private void createBuilderProblemMarker(IFile errorFile, int line, String message) {
 		message = detruncateString(message);
+		if (errorFile == null) {
+			LOGGER.logWarning(message);
+			return;
+		}
 		try {
-			final IMarker marker = getErrorFile().createMarker(FeatureHouseCorePlugin.BUILDER_PROBLEM_MARKER);
+			final IMarker marker = errorFile.createMarker(FeatureHouseCorePlugin.BUILDER_PROBLEM_MARKER);
 			marker.setAttribute(IMarker.LINE_NUMBER, line);
 			marker.setAttribute(IMarker.MESSAGE, message);
 			marker.setAttribute(IMarker.SEVERITY, IMarker.SEVERITY_ERROR);
@@ -263,7 +286,15 @@ public class FeatureHouseComposer extends ComposerExtensionClass {
 	 * @return The file.
 	 */
 	protected IFile getErrorFile() {
-		return featureProject.getProject().getWorkspace().getRoot().findFilesForLocationURI(composer.getErrorFiles().getLast().toURI())[0];
+		return getErrorFile(composer.getErrorFiles().getLast());
+	}
+
+	private IFile getErrorFile(File errorFile) {
+		if (errorFile == null) {
+			return null;
+		}
+		final IFile[] files = featureProject.getProject().getWorkspace().getRoot().findFilesForLocationURI(errorFile.toURI());
+		return files.length > 0 ? files[0] : null;
 	}
 
 	/**
@@ -909,6 +940,11 @@ public class FeatureHouseComposer extends ComposerExtensionClass {
 	public void buildConfiguration(IFolder folder, Configuration configuration, String congurationName) {
 		super.buildConfiguration(folder, configuration, congurationName);
 		final Path configurationFile = EclipseFileSystem.getPath(folder).resolve(congurationName + '.' + getConfigurationFormat().getSuffix());
+		final FeatureHouseCompositionPool pool = getCompositionPool();
+		if (pool != null) {
+			buildConfiguration(pool, folder, configurationFile);
+			return;
+		}
 		final FSTGenComposer composer = new FSTGenComposer(false);
 		composer.addParseErrorListener(createParseErrorListener());
 		composer.addCompositionErrorListener(createCompositionErrorListener());
@@ -918,6 +954,34 @@ public class FeatureHouseComposer extends ComposerExtensionClass {
 		}
 		composer.run(
 				getArguments(temporaryConfigrationFile.toString(), featureProject.getSourcePath(), folder.getLocation().toOSString(), getContractParameter()));
+		buildVariantModel(composer.getFstnodes());
+	}
+
+	/**
+	 * Composes a variant with an isolated composer of the given pool. The errors of the composer are reported by the same listeners as for a local composer
+	 * and the copied FST nodes are passed to the {@link FeatureHouseModelBuilder}.
+	 */
+	private void buildConfiguration(FeatureHouseCompositionPool pool, IFolder folder, Path configurationFile) {
+		final Path temporaryConfigrationFile = createTemporaryConfigrationFile(configurationFile);
+		if (temporaryConfigrationFile == null) {
+			return;
+		}
+		final ArrayList<FSTNode> fstNodes;
+		try {
+			fstNodes = pool.compose(
+					getArguments(temporaryConfigrationFile.toString(), featureProject.getSourcePath(), folder.getLocation().toOSString(), getContractParameter()),
+					this::createParseErrorListener, createCompositionErrorListener());
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return;
+		} catch (final ReflectiveOperationException e) {
+			LOGGER.logError(e);
+			return;
+		}
+		buildVariantModel(fstNodes);
+	}
+
+	private void buildVariantModel(ArrayList<FSTNode> fstNodes) {
 		if ((errorPropagation != null) && (errorPropagation.job != null)) {
 			/*
 			 * Waiting for the propagation job to finish, because the corresponding FSTModel is necessary for propagation at FH This is in general no problem
@@ -929,7 +993,35 @@ public class FeatureHouseComposer extends ComposerExtensionClass {
 				LOGGER.logError(e);
 			}
 		}
-		fhModelBuilder.buildModel(composer.getFstnodes(), false);
+		// variants are composed in parallel, but the model builder holds the model of one variant
+		synchronized (fhModelBuilder) {
+			fhModelBuilder.buildModel(fstNodes, false);
+		}
+	}
+
+	/**
+	 * Creates the pool of isolated composers on first use.
+	 *
+	 * @return The pool or <code>null</code> if variants cannot be composed in parallel
+	 */
+	private synchronized FeatureHouseCompositionPool getCompositionPool() {
+		if (!compositionPoolCreated) {
+			compositionPool = FeatureHouseCompositionPool.create();
+			compositionPoolCreated = true;
+		}
+		return compositionPool;
+	}
+
+	/**
+	 * Discards the pool of isolated composers and closes their class loaders after all configurations were built.
+	 */
+	@Override
+	public synchronized void postBuildConfiguration() {
+		if (compositionPool != null) {
+			compositionPool.close();
+			compositionPool = null;
+		}
+		compositionPoolCreated = false;
 	}
 
 	/*
@@ -967,11 +1059,12 @@ public class FeatureHouseComposer extends ComposerExtensionClass {
 	}
 
 	/**
-	 * FeatureHouse causes access violation errors if it is executed parallel.
+	 * FeatureHouse causes access violation errors if it is executed parallel within one class loader. Thus, variants can only be generated in parallel if each
+	 * composition runs in an isolated class loader.
 	 */
 	@Override
 	public boolean canGeneratInParallelJobs() {
-		return false;
+		return getCompositionPool() != null;
 	}
 
 	@Override
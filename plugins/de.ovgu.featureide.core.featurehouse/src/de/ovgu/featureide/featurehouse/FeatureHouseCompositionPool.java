@@ -0,0 +1,347 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.featurehouse;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.eclipse.core.runtime.FileLocator;
+
+import cide.gparser.ParseException;
+import cide.gparser.Token;
+import composer.CompositionException;
+import composer.ICompositionErrorListener;
+import composer.IParseErrorListener;
+import de.ovgu.cide.fstgen.ast.FSTFeatureNode;
+import de.ovgu.cide.fstgen.ast.FSTNode;
+import de.ovgu.cide.fstgen.ast.FSTNonTerminal;
+import de.ovgu.cide.fstgen.ast.FSTTerminal;
+
+/**
+ * Runs FeatureHouse compositions in parallel.<br> The {@link composer.FSTGenComposer} uses static fields and cannot be executed concurrently within one class
+ * loader. Therefore, each worker of this pool loads its own copy of the FeatureHouse library in an isolated class loader. A composition request is passed to
+ * an idle worker, which runs the composer with the given command line arguments. The resulting FST nodes and the reported errors are copied into the classes
+ * of this plug-in, such that they can be processed like the results of a local composer.
+ */
+class FeatureHouseCompositionPool {
+
+	private static final String FEATURE_HOUSE_LIBRARY = "lib/FeatureHouse.jar";
+
+	/**
+	 * A worker with its own copy of the FeatureHouse library.
+	 */
+	private static class CompositionWorker {
+
+		private final URLClassLoader classLoader;
+		private final Constructor<?> composerConstructor;
+		private final Method runMethod;
+		private final Method getFstnodesMethod;
+		private final Method getErrorFilesMethod;
+		private final Method addParseErrorListenerMethod;
+		private final Method addCompositionErrorListenerMethod;
+		private final Class<?> parseErrorListenerClass;
+		private final Class<?> compositionErrorListenerClass;
+
+		private final Class<?> terminalClass;
+		private final Class<?> featureNodeClass;
+		private final Method getNameMethod;
+		private final Method getTypeMethod;
+		private final Method getParentMethod;
+		private final Method getChildrenMethod;
+		private final Method getBodyMethod;
+		private final Method getSpecialTokenPrefixMethod;
+		private final Method getCompositionMechanismMethod;
+		private final Method getMergingMechanismMethod;
+		private final Method getContractCompKeyMethod;
+		private final Method getOriginalFeatureNameMethod;
+		private final Field indexField;
+		private final Field beginLineField;
+		private final Field endLineField;
+
+		private final Method getTerminalAMethod;
+		private final Method getTerminalBMethod;
+
+		CompositionWorker(URL library) throws ReflectiveOperationException {
+			// the parent must not provide the FeatureHouse classes of this plug-in
+			classLoader = new URLClassLoader(new URL[] { library }, ClassLoader.getSystemClassLoader().getParent());
+			final Class<?> composerClass = classLoader.loadClass("composer.FSTGenComposer");
+			parseErrorListenerClass = classLoader.loadClass("composer.IParseErrorListener");
+			compositionErrorListenerClass = classLoader.loadClass("composer.ICompositionErrorListener");
+			composerConstructor = composerClass.getConstructor(boolean.class);
+			runMethod = composerClass.getMethod("run", String[].class);
+			getFstnodesMethod = composerClass.getMethod("getFstnodes");
+			getErrorFilesMethod = composerClass.getMethod("getErrorFiles");
+			addParseErrorListenerMethod = composerClass.getMethod("addParseErrorListener", parseErrorListenerClass);
+			addCompositionErrorListenerMethod = composerClass.getMethod("addCompositionErrorListener", compositionErrorListenerClass);
+
+			final Class<?> nodeClass = classLoader.loadClass(FSTNode.class.getName());
+			final Class<?> nonTerminalClass = classLoader.loadClass(FSTNonTerminal.class.getName());
+			terminalClass = classLoader.loadClass(FSTTerminal.class.getName());
+			featureNodeClass = classLoader.loadClass(FSTFeatureNode.class.getName());
+			getNameMethod = nodeClass.getMethod("getName");
+			getTypeMethod = nodeClass.getMethod("getType");
+			getParentMethod = nodeClass.getMethod("getParent");
+			indexField = nodeClass.getField("index");
+			getChildrenMethod = nonTerminalClass.getMethod("getChildren");
+			getBodyMethod = terminalClass.getMethod("getBody");
+			getSpecialTokenPrefixMethod = terminalClass.getMethod("getSpecialTokenPrefix");
+			getCompositionMechanismMethod = terminalClass.getMethod("getCompositionMechanism");
+			getMergingMechanismMethod = terminalClass.getMethod("getMergingMechanism");
+			getContractCompKeyMethod = terminalClass.getMethod("getContractCompKey");
+			getOriginalFeatureNameMethod = terminalClass.getMethod("getOriginalFeatureName");
+			beginLineField = terminalClass.getField("beginLine");
+			endLineField = terminalClass.getField("endLine");
+
+			final Class<?> compositionExceptionClass = classLoader.loadClass(CompositionException.class.getName());
+			getTerminalAMethod = compositionExceptionClass.getMethod("getTerminalA");
+			getTerminalBMethod = compositionExceptionClass.getMethod("getTerminalB");
+		}
+
+		ArrayList<FSTNode> compose(String[] args, Function<Supplier<File>, IParseErrorListener> parseErrorListenerFactory,
+				ICompositionErrorListener compositionErrorListener) throws ReflectiveOperationException {
+			final Thread currentThread = Thread.currentThread();
+			final ClassLoader contextClassLoader = currentThread.getContextClassLoader();
+			currentThread.setContextClassLoader(classLoader);
+			try {
+				final Object composer = composerConstructor.newInstance(false);
+				final IParseErrorListener parseErrorListener = parseErrorListenerFactory.apply(() -> getLastErrorFile(composer));
+				addParseErrorListenerMethod.invoke(composer,
+						Proxy.newProxyInstance(classLoader, new Class<?>[] { parseErrorListenerClass }, (proxy, method, params) -> {
+							if ((params != null) && (params.length == 1) && (params[0] instanceof Throwable)) {
+								parseErrorListener.parseErrorOccured(copyParseException((Throwable) params[0]));
+							}
+							return null;
+						}));
+				addCompositionErrorListenerMethod.invoke(composer,
+						Proxy.newProxyInstance(classLoader, new Class<?>[] { compositionErrorListenerClass }, (proxy, method, params) -> {
+							if ((params != null) && (params.length == 1) && (params[0] instanceof Throwable)) {
+								compositionErrorListener.parseErrorOccured(copyCompositionException((Throwable) params[0]));
+							}
+							return null;
+						}));
+				runMethod.invoke(composer, (Object) args);
+
+				final ArrayList<FSTNode> fstNodes = new ArrayList<>();
+				final Object nodes = getFstnodesMethod.invoke(composer);
+				if (nodes instanceof List) {
+					for (final Object node : (List<?>) nodes) {
+						fstNodes.add(copyNode(node));
+					}
+				}
+				return fstNodes;
+			} finally {
+				currentThread.setContextClassLoader(contextClassLoader);
+			}
+		}
+
+		/**
+		 * Copies an FST node of this worker and all its descendants into the classes of this plug-in.
+		 */
+		private FSTNode copyNode(Object node) throws ReflectiveOperationException {
+			final String type = (String) getTypeMethod.invoke(node);
+			final String name = (String) getNameMethod.invoke(node);
+			final FSTNode copy;
+			if (terminalClass.isInstance(node)) {
+				final FSTTerminal terminal = new FSTTerminal(type, name, (String) getBodyMethod.invoke(node), (String) getSpecialTokenPrefixMethod.invoke(node),
+						(String) getCompositionMechanismMethod.invoke(node), (String) getMergingMechanismMethod.invoke(node), beginLineField.getInt(node),
+						endLineField.getInt(node));
+				terminal.setContractCompKey((String) getContractCompKeyMethod.invoke(node));
+				terminal.setOriginalFeatureName((String) getOriginalFeatureNameMethod.invoke(node));
+				copy = terminal;
+			} else {
+				final FSTNonTerminal nonTerminal = copyNonTerminal(node, type, name);
+				for (final Object child : (List<?>) getChildrenMethod.invoke(node)) {
+					nonTerminal.addChild(copyNode(child));
+				}
+				copy = nonTerminal;
+			}
+			copy.index = indexField.getInt(node);
+			return copy;
+		}
+
+		private FSTNonTerminal copyNonTerminal(Object node, String type, String name) {
+			return featureNodeClass.isInstance(node) ? new FSTFeatureNode(name) : new FSTNonTerminal(type, name);
+		}
+
+		/**
+		 * Copies a terminal of this worker together with its ancestors, but without its siblings.
+		 */
+		private FSTTerminal copyTerminal(Object terminal) throws ReflectiveOperationException {
+			if (terminal == null) {
+				return null;
+			}
+			final FSTTerminal copy = (FSTTerminal) copyNode(terminal);
+			FSTNode child = copy;
+			for (Object parent = getParentMethod.invoke(terminal); parent != null; parent = getParentMethod.invoke(parent)) {
+				final FSTNonTerminal parentCopy = copyNonTerminal(parent, (String) getTypeMethod.invoke(parent), (String) getNameMethod.invoke(parent));
+				parentCopy.index = indexField.getInt(parent);
+				parentCopy.addChild(child);
+				child = parentCopy;
+			}
+			return copy;
+		}
+
+		private CompositionException copyCompositionException(Throwable exception) throws ReflectiveOperationException {
+			return new CompositionException(copyTerminal(getTerminalAMethod.invoke(exception)), copyTerminal(getTerminalBMethod.invoke(exception)),
+					exception.getMessage());
+		}
+
+		/**
+		 * Copies the message and the line of the token following the current token (i.e., <code>e.currentToken.next.endLine</code>) of a parse exception.
+		 */
+		private static ParseException copyParseException(Throwable exception) {
+			final ParseException copy = new ParseException(exception.getMessage());
+			copy.currentToken = new Token();
+			copy.currentToken.next = new Token();
+			copy.currentToken.next.endLine = getEndLine(exception);
+			return copy;
+		}
+
+		private File getLastErrorFile(Object composer) {
+			try {
+				final Object errorFiles = getErrorFilesMethod.invoke(composer);
+				if ((errorFiles instanceof List) && !((List<?>) errorFiles).isEmpty()) {
+					final Object file = ((List<?>) errorFiles).get(((List<?>) errorFiles).size() - 1);
+					return file instanceof File ? (File) file : null;
+				}
+			} catch (final ReflectiveOperationException e) {
+				FeatureHouseCorePlugin.getDefault().logError(e);
+			}
+			return null;
+		}
+
+		private static int getEndLine(Object parseException) {
+			try {
+				final Object currentToken = getField(parseException, "currentToken");
+				final Object nextToken = getField(currentToken, "next");
+				final Object endLine = getField(nextToken, "endLine");
+				return endLine instanceof Integer ? (Integer) endLine : -1;
+			} catch (final ReflectiveOperationException | NullPointerException e) {
+				return -1;
+			}
+		}
+
+		private static Object getField(Object object, String name) throws ReflectiveOperationException {
+			final Field field = object.getClass().getField(name);
+			return field.get(object);
+		}
+
+		void close() {
+			try {
+				classLoader.close();
+			} catch (final IOException e) {
+				FeatureHouseCorePlugin.getDefault().logError(e);
+			}
+		}
+	}
+
+	private final URL library;
+
+	private final int maximumSize;
+
+	private final BlockingQueue<CompositionWorker> idleWorkers = new LinkedBlockingQueue<>();
+
+	private final List<CompositionWorker> workers = new ArrayList<>();
+
+	private FeatureHouseCompositionPool(URL library, int maximumSize) {
+		this.library = library;
+		this.maximumSize = maximumSize;
+	}
+
+	/**
+	 * Creates a pool with one worker per available processor.
+	 *
+	 * @return The pool or <code>null</code> if the FeatureHouse library cannot be located
+	 */
+	static FeatureHouseCompositionPool create() {
+		final URL entry = FeatureHouseCorePlugin.getDefault().getBundle().getEntry(FEATURE_HOUSE_LIBRARY);
+		if (entry == null) {
+			return null;
+		}
+		try {
+			return new FeatureHouseCompositionPool(FileLocator.toFileURL(entry), Runtime.getRuntime().availableProcessors());
+		} catch (final IOException e) {
+			FeatureHouseCorePlugin.getDefault().logError(e);
+			return null;
+		}
+	}
+
+	/**
+	 * Composes a variant with an idle worker. Blocks until a worker is available. The errors reported by the composer are passed to the given listeners.
+	 *
+	 * @param args The command line arguments of the composer
+	 * @param parseErrorListenerFactory Creates the listener for parse errors from a supplier of the file containing the current error
+	 * @param compositionErrorListener The listener for composition errors
+	 * @return The composed FST nodes, copied into the classes of this plug-in
+	 * @throws InterruptedException if the calling thread was interrupted while waiting for a worker
+	 * @throws ReflectiveOperationException if the composer could not be loaded from the FeatureHouse library or failed
+	 */
+	ArrayList<FSTNode> compose(String[] args, Function<Supplier<File>, IParseErrorListener> parseErrorListenerFactory,
+			ICompositionErrorListener compositionErrorListener) throws InterruptedException, ReflectiveOperationException {
+		final CompositionWorker worker = acquireWorker();
+		try {
+			return worker.compose(args, parseErrorListenerFactory, compositionErrorListener);
+		} finally {
+			idleWorkers.put(worker);
+		}
+	}
+
+	private CompositionWorker acquireWorker() throws InterruptedException, ReflectiveOperationException {
+		final CompositionWorker idleWorker = idleWorkers.poll();
+		if (idleWorker != null) {
+			return idleWorker;
+		}
+		synchronized (workers) {
+			if (workers.size() < maximumSize) {
+				final CompositionWorker worker = new CompositionWorker(library);
+				workers.add(worker);
+				return worker;
+			}
+		}
+		return idleWorkers.take();
+	}
+
+	/**
+	 * Closes the class loaders of all workers. Compositions that are still running may fail afterwards.
+	 */
+	void close() {
+		synchronized (workers) {
+			for (final CompositionWorker worker : workers) {
+				worker.close();
+			}
+			workers.clear();
+			idleWorkers.clear();
+		}
+	}
+
+}
@@ -141,13 +141,15 @@ public class MungePreprocessor extends PPComposerExtensionClass {
 			MungeCorePlugin.getDefault().logError(e);
 		}
 
+		// the resource listener of the project patches the model for changed source files, it is only built completely after a clean or model change
 		if (mungeModelBuilder != null) {
-			mungeModelBuilder.buildModel();
+			mungeModelBuilder.buildModelIfOutdated();
 		}
 	}
 
 	@Override
 	public void postModelChanged() {
+		invalidateFSTModel();
 		prepareFullBuild(null);
 		annotationChecking();
 	}
@@ -441,6 +443,18 @@ public class MungePreprocessor extends PPComposerExtensionClass {
 		mungeModelBuilder.buildModel();
 	}
 
+	@Override
+	public boolean updateFSTModel(IResourceDelta sourceDelta) {
+		return (mungeModelBuilder != null) && mungeModelBuilder.updateModel(sourceDelta);
+	}
+
+	@Override
+	public void invalidateFSTModel() {
+		if (mungeModelBuilder != null) {
+			mungeModelBuilder.invalidateModel();
+		}
+	}
+
 	@Override
 	public void buildConfiguration(IFolder folder, Configuration configuration, String congurationName) {
 		super.buildConfiguration(folder, configuration, congurationName);
@@ -41,6 +41,7 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.eclipse.core.resources.ICommand;
 import org.eclipse.core.resources.IFile;
@@ -67,11 +68,13 @@ import de.ovgu.featureide.core.builder.ExtensibleFeatureProjectBuilder;
 import de.ovgu.featureide.core.builder.FeatureProjectNature;
 import de.ovgu.featureide.core.builder.IComposerExtension;
 import de.ovgu.featureide.core.builder.IComposerExtensionClass;
+import de.ovgu.featureide.core.fstmodel.FSTModelEvent;
 import de.ovgu.featureide.core.internal.FeatureProject;
 import de.ovgu.featureide.core.job.PrintDocumentationJob;
 import de.ovgu.featureide.core.listeners.IConfigurationChangedListener;
 import de.ovgu.featureide.core.listeners.ICurrentBuildListener;
 import de.ovgu.featureide.core.listeners.ICurrentConfigurationListener;
+import de.ovgu.featureide.core.listeners.IFSTModelListener;
 import de.ovgu.featureide.core.listeners.IFeatureFolderListener;
 import de.ovgu.featureide.core.listeners.IProjectListener;
 import de.ovgu.featureide.core.signature.ProjectSignatures;
@@ -146,6 +149,8 @@ public class CorePlugin extends AbstractCorePlugin {
 
 	private final LinkedList<ICurrentBuildListener> currentBuildListeners = new LinkedList<>();
 
+	private final CopyOnWriteArrayList<IFSTModelListener> fstModelListeners = new CopyOnWriteArrayList<>();
+
 	private final ConcurrentLinkedQueue<IProject> projectsToAdd = new ConcurrentLinkedQueue<>();
 
 	private IRunner<Void> job = null;
@@ -319,6 +324,25 @@ public class CorePlugin extends AbstractCorePlugin {
 		}
 	}
 
+	public void addFSTModelListener(IFSTModelListener listener) {
+		fstModelListeners.addIfAbsent(listener);
+	}
+
+	public void removeFSTModelListener(IFSTModelListener listener) {
+		fstModelListeners.remove(listener);
+	}
+
+	/**
+	 * Notifies all listeners that the FSTModel of a project was updated. This method may be called from any thread.
+	 *
+	 * @param event The change
+	 */
+	public void fireFSTModelChanged(FSTModelEvent event) {
+		for (final IFSTModelListener listener : fstModelListeners) {
+			listener.fstModelChanged(event);
+		}
+	}
+
 	public void addProjectListener(IProjectListener listener) {
 		if (!projectListeners.contains(listener)) {
 			projectListeners.add(listener);
@@ -309,6 +309,14 @@ public abstract class ComposerExtensionClass implements IComposerExtensionClass
 
 	}
 
+	@Override
+	public boolean updateFSTModel(IResourceDelta sourceDelta) {
+		return false;
+	}
+
+	@Override
+	public void invalidateFSTModel() {}
+
 	@Override
 	public ArrayList<String[]> getTemplates() {
 		return new ArrayList<>(0);
@@ -382,6 +390,9 @@ public abstract class ComposerExtensionClass implements IComposerExtensionClass
 		return true;
 	}
 
+	@Override
+	public void postBuildConfiguration() {}
+
 	@Override
 	public boolean hasSourceFolder() {
 		return true;
@@ -96,6 +96,10 @@ public class ExtensibleFeatureProjectBuilder extends IncrementalProjectBuilder {
 			featureProject.deleteBuilderMarkers(sourceFolder, IResource.DEPTH_INFINITE);
 		}
 		final IProject project = featureProject.getProject();
+		if (!cleanBuild) {
+			// the project was cleaned explicitly, not as part of a build
+			composerExtension.invalidateFSTModel();
+		}
 		if (!composerExtension.clean()) {
 			cleaned = false;
 
@@ -81,6 +81,11 @@ public interface IComposerExtensionClass extends IComposerExtensionBase {
 	 */
 	boolean preBuildConfiguration();
 
+	/**
+	 * Called after building all configurations has finished or was canceled.
+	 */
+	void postBuildConfiguration();
+
 	/**
 	 *
 	 * @return <code>true</code> if clean should be performed before every build
@@ -127,6 +132,19 @@ public interface IComposerExtensionClass extends IComposerExtensionBase {
 	 */
 	void buildFSTModel();
 
+	/**
+	 * Updates the FSTModel after files of the source folder were changed, without rebuilding the roles of unchanged files.
+	 *
+	 * @param sourceDelta The delta of the source folder
+	 * @return <code>true</code> if the model was updated, <code>false</code> if the composer does not support incremental updates
+	 */
+	boolean updateFSTModel(IResourceDelta sourceDelta);
+
+	/**
+	 * Discards incremental updates of the FSTModel, such that the next build creates the model completely. Called if the project is cleaned.
+	 */
+	void invalidateFSTModel();
+
 	/**
 	 * Returns the list of templates for the current composer. <br> Format: {FILE_FORMAT_NAME, EXTENSION, TEMPLATE}
 	 *
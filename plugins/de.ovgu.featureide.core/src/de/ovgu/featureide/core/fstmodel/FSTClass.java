@@ -59,6 +59,10 @@ public class FSTClass {
 		return roles.get(featureName);
 	}
 
+	public FSTRole removeRole(String featureName) {
+		return roles.remove(featureName);
+	}
+
 	public boolean hasInvariants() {
 		return invariants.size() > 0;
 	}
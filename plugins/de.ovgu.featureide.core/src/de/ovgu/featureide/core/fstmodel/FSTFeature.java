@@ -97,6 +97,14 @@ public class FSTFeature {
 		roles.put(className, role);
 	}
 
+	/**
+	 * @param className Name of class
+	 * @return The removed role or <code>null</code> if the feature has no role for the class
+	 */
+	public FSTRole removeRole(String className) {
+		return roles.remove(className);
+	}
+
 	@Override
 	public boolean equals(Object feature) {
 		if (feature == this) {
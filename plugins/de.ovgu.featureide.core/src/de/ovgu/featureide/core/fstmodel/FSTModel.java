@@ -117,6 +117,22 @@ public class FSTModel {
 		return (c == null) ? null : c.getRole(featureName);
 	}
 
+	/**
+	 * Removes the class and all its roles from the model.
+	 *
+	 * @param className Name of class
+	 * @return The removed class or <code>null</code> if the model does not contain the class
+	 */
+	public FSTClass removeClass(String className) {
+		final FSTClass c = classes.remove(className);
+		if (c != null) {
+			for (final FSTRole role : c.getRoles()) {
+				role.getFeature().removeRole(className);
+			}
+		}
+		return c;
+	}
+
 	public FSTClass getClass(String className) {
 		return classes.get(className);
 	}
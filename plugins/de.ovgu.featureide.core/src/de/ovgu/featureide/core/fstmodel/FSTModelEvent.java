@@ -0,0 +1,110 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.core.fstmodel;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+
+import de.ovgu.featureide.core.IFeatureProject;
+
+/**
+ * Describes a change of the {@link FSTModel} of a project. An incremental update lists the classes and features whose {@link FSTRole}s were changed, thus,
+ * views can refresh only the affected elements.
+ */
+public class FSTModelEvent {
+
+	private final IFeatureProject featureProject;
+	private final Set<String> changedClasses;
+	private final Set<String> changedFeatures;
+	private final boolean fullRebuild;
+
+	/**
+	 * Creates an event for a model that was rebuilt completely.
+	 *
+	 * @param featureProject The project of the model
+	 */
+	public FSTModelEvent(IFeatureProject featureProject) {
+		this(featureProject, Collections.<String> emptySet(), Collections.<String> emptySet(), true);
+	}
+
+	/**
+	 * Creates an event for an incremental update of the model.
+	 *
+	 * @param featureProject The project of the model
+	 * @param changedClasses The names of all added, removed, or changed classes
+	 * @param changedFeatures The names of all features whose roles were added, removed, or changed
+	 */
+	public FSTModelEvent(IFeatureProject featureProject, Set<String> changedClasses, Set<String> changedFeatures) {
+		this(featureProject, changedClasses, changedFeatures, false);
+	}
+
+	private FSTModelEvent(IFeatureProject featureProject, Set<String> changedClasses, Set<String> changedFeatures, boolean fullRebuild) {
+		this.featureProject = featureProject;
+		this.changedClasses = Collections.unmodifiableSet(changedClasses);
+		this.changedFeatures = Collections.unmodifiableSet(changedFeatures);
+		this.fullRebuild = fullRebuild;
+	}
+
+	public IFeatureProject getFeatureProject() {
+		return featureProject;
+	}
+
+	public FSTModel getModel() {
+		return featureProject.getFSTModel();
+	}
+
+	/**
+	 * @return The names of all changed classes, empty if the model was rebuilt completely
+	 */
+	public Collection<String> getChangedClasses() {
+		return changedClasses;
+	}
+
+	/**
+	 * @return The names of all changed features, empty if the model was rebuilt completely
+	 */
+	public Collection<String> getChangedFeatures() {
+		return changedFeatures;
+	}
+
+	/**
+	 * @return <code>true</code> if the whole model was rebuilt and all views need to be refreshed
+	 */
+	public boolean isFullRebuild() {
+		return fullRebuild;
+	}
+
+	/**
+	 * @param className The name of a class
+	 * @return <code>true</code> if the roles of the given class may have changed
+	 */
+	public boolean affectsClass(String className) {
+		return fullRebuild || changedClasses.contains(className);
+	}
+
+	@Override
+	public String toString() {
+		return "FSTModelEvent [project=" + featureProject.getProjectName() + ", fullRebuild=" + fullRebuild + ", changedClasses=" + changedClasses
+			+ ", changedFeatures=" + changedFeatures + "]";
+	}
+
+}
@@ -26,14 +26,19 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Scanner;
+import java.util.Set;
 import java.util.Vector;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IResourceDeltaVisitor;
 import org.eclipse.core.runtime.CoreException;
 
 import de.ovgu.featureide.core.CorePlugin;
@@ -43,6 +48,7 @@ import de.ovgu.featureide.core.fstmodel.FSTClass;
 import de.ovgu.featureide.core.fstmodel.FSTField;
 import de.ovgu.featureide.core.fstmodel.FSTMethod;
 import de.ovgu.featureide.core.fstmodel.FSTModel;
+import de.ovgu.featureide.core.fstmodel.FSTModelEvent;
 import de.ovgu.featureide.core.fstmodel.FSTRole;
 import de.ovgu.featureide.core.fstmodel.IRoleElement;
 import de.ovgu.featureide.core.fstmodel.RoleElement;
@@ -66,6 +72,11 @@ public class PPModelBuilder {
 	protected FSTModel modelOutline;
 	protected Collection<String> featureNames = Collections.emptyList();
 
+	/**
+	 * <code>true</code> if the model was built completely and all changes of the source folder since were patched into it
+	 */
+	private volatile boolean upToDate = false;
+
 	public PPModelBuilder(IFeatureProject featureProject) {
 		model = new FSTModelForPP(featureProject);
 		modelOutline = new FSTModel(featureProject);
@@ -74,7 +85,7 @@ public class PPModelBuilder {
 		this.featureProject = featureProject;
 	}
 
-	public void buildModel() {
+	public synchronized void buildModel() {
 		model.reset();
 		modelOutline.reset();
 
@@ -89,6 +100,25 @@ public class PPModelBuilder {
 			CorePlugin.getDefault().logError(e);
 		}
 		featureProject.setFSTModel(model);
+		upToDate = true;
+	}
+
+	/**
+	 * Builds the model completely, unless it was built before and all changes of the source folder were already patched into it by
+	 * {@link #updateModel(IResourceDelta)}.
+	 */
+	public synchronized void buildModelIfOutdated() {
+		if (!upToDate) {
+			buildModel();
+		}
+	}
+
+	/**
+	 * Marks the model as outdated, such that the next call of {@link #buildModelIfOutdated()} builds it completely, e.g., after a clean or a change of the
+	 * feature model.
+	 */
+	public void invalidateModel() {
+		upToDate = false;
 	}
 
 	protected IFile currentFile = null;
@@ -103,28 +133,116 @@ public class PPModelBuilder {
 			if (res instanceof IFolder) {
 				buildModel((IFolder) res, packageName.isEmpty() ? res.getName() : packageName + "/" + res.getName());
 			} else if (res instanceof IFile) {
-				currentFile = (IFile) res;
-				final String text = getText(currentFile);
-				final String className = packageName.isEmpty() ? res.getName() : packageName + "/" + res.getName();
-
-				final Vector<String> lines = PPComposerExtensionClass.loadStringsFromFile(currentFile);
-				boolean classAdded = false;
-				for (final String feature : featureNames) {
-					if (containsFeature(text, feature)) {
-						model.addRole(feature, model.getAbsoluteClassName(currentFile), currentFile);
-						classAdded = true;
+				buildFile((IFile) res, packageName.isEmpty() ? res.getName() : packageName + "/" + res.getName());
+			}
+		}
+	}
+
+	/**
+	 * Adds the roles and directives of a single file to the model.
+	 *
+	 * @param file The file
+	 * @param className The name of the class defined by the file
+	 */
+	private void buildFile(IFile file, String className) {
+		currentFile = file;
+		final String text = getText(currentFile);
+
+		final Vector<String> lines = PPComposerExtensionClass.loadStringsFromFile(currentFile);
+		boolean classAdded = false;
+		for (final String feature : featureNames) {
+			if (containsFeature(text, feature)) {
+				model.addRole(feature, model.getAbsoluteClassName(currentFile), currentFile);
+				classAdded = true;
+			}
+		}
+		if (classAdded) {
+			final LinkedList<FSTDirective> directives = buildModelDirectivesForFile(lines);
+			addRoleElementsToDirectives(directives, currentFile, className);
+			addDirectivesToRoleElement(directives, currentFile, className);
+
+			addDirectivesToModel(directives, currentFile, className);
+		} else {
+			// add class without annotations
+			model.addClass(new FSTClass(className));
+		}
+	}
+
+	/**
+	 * Updates the model after files in the source folder were changed. Only the roles of the added, removed, or modified files are rebuilt, all other
+	 * elements of the model are kept.
+	 *
+	 * @param sourceDelta The delta of the source folder
+	 * @return <code>true</code> if the model was updated, <code>false</code> if the model was not built before
+	 */
+	public boolean updateModel(IResourceDelta sourceDelta) {
+		final Set<IFile> changedFiles = new LinkedHashSet<>();
+		try {
+			sourceDelta.accept(new IResourceDeltaVisitor() {
+
+				@Override
+				public boolean visit(IResourceDelta delta) throws CoreException {
+					final IResource resource = delta.getResource();
+					if (resource instanceof IFile) {
+						if ((delta.getKind() != IResourceDelta.CHANGED) || ((delta.getFlags() & (IResourceDelta.CONTENT | IResourceDelta.REPLACED)) != 0)) {
+							changedFiles.add((IFile) resource);
+						}
+						return false;
 					}
+					return true;
 				}
-				if (classAdded) {
-					final LinkedList<FSTDirective> directives = buildModelDirectivesForFile(lines);
-					addRoleElementsToDirectives(directives, currentFile, className);
-					addDirectivesToRoleElement(directives, currentFile, className);
-
-					addDirectivesToModel(directives, currentFile, className);
-				} else {
-					// add class without annotations
-					model.addClass(new FSTClass(className));
-				}
+			});
+		} catch (final CoreException e) {
+			CorePlugin.getDefault().logError(e);
+			upToDate = false;
+			return false;
+		}
+		return updateModel(changedFiles);
+	}
+
+	/**
+	 * Updates the roles of the given files. Files that do not exist anymore are removed from the model. If the features of the feature model changed, the
+	 * whole model is rebuilt.<br> Notifies the {@link de.ovgu.featureide.core.listeners.IFSTModelListener}s about the change.
+	 *
+	 * @param files The added, removed, or modified files of the source folder
+	 * @return <code>true</code> if the model was updated, <code>false</code> if the model was not built before
+	 */
+	public synchronized boolean updateModel(Collection<IFile> files) {
+		if (featureNames.isEmpty()) {
+			return false;
+		}
+		final List<String> currentFeatureNames = Functional.toList(FeatureUtils.getConcreteFeatureNames(featureProject.getFeatureModel()));
+		if (!currentFeatureNames.equals(featureNames)) {
+			buildModel();
+			CorePlugin.getDefault().fireFSTModelChanged(new FSTModelEvent(featureProject));
+			return true;
+		}
+		if (files.isEmpty()) {
+			return true;
+		}
+
+		final Set<String> changedClasses = new HashSet<>();
+		final Set<String> changedFeatures = new HashSet<>();
+		for (final IFile file : files) {
+			final String className = model.getAbsoluteClassName(file);
+			changedClasses.add(className);
+			collectFeatures(model.removeClass(className), changedFeatures);
+			modelOutline.removeClass(className);
+			if (file.exists()) {
+				buildFile(file, className);
+				collectFeatures(model.getClass(className), changedFeatures);
+			}
+		}
+		currentFile = null;
+
+		CorePlugin.getDefault().fireFSTModelChanged(new FSTModelEvent(featureProject, changedClasses, changedFeatures));
+		return true;
+	}
+
+	private static void collectFeatures(FSTClass fstClass, Set<String> features) {
+		if (fstClass != null) {
+			for (final FSTRole role : fstClass.getRoles()) {
+				features.add(role.getFeature().getName());
 			}
 		}
 	}
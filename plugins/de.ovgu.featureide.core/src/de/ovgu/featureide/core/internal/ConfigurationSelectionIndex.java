@@ -0,0 +1,217 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.core.internal;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.configuration.Configuration;
+import de.ovgu.featureide.fm.core.configuration.SelectableFeature;
+import de.ovgu.featureide.fm.core.configuration.Selection;
+import de.ovgu.featureide.fm.core.io.manager.ConfigurationManager;
+
+/**
+ * Keeps the selected features of all configurations of a project as one bit set per configuration file and maintains the number of configurations that
+ * select each concrete feature. Only configurations that were invalidated (e.g., by a resource delta) or that are new are loaded again on
+ * {@link #update(Collection, FeatureModelFormula)}. Unused and always selected features are then available as bit sets without reparsing the configuration
+ * folder.
+ */
+public class ConfigurationSelectionIndex {
+
+	private final Map<Path, BitSet> selections = new HashMap<>();
+	private final Set<Path> dirtyConfigurations = new HashSet<>();
+
+	private List<String> features = Collections.emptyList();
+	private final Map<String, Integer> featureIndex = new HashMap<>();
+	private int[] selectionCounts = new int[0];
+
+	private final BitSet unusedFeatures = new BitSet();
+	private final BitSet alwaysSelectedFeatures = new BitSet();
+
+	/**
+	 * Removes all entries. The next call to {@link #update(Collection, FeatureModelFormula)} loads every configuration again.
+	 */
+	public synchronized void clear() {
+		selections.clear();
+		dirtyConfigurations.clear();
+		features = Collections.emptyList();
+		featureIndex.clear();
+		selectionCounts = new int[0];
+		unusedFeatures.clear();
+		alwaysSelectedFeatures.clear();
+	}
+
+	/**
+	 * Marks a configuration file as changed, such that it is loaded again on the next update.
+	 *
+	 * @param configuration the path of the configuration file
+	 */
+	public synchronized void invalidate(Path configuration) {
+		dirtyConfigurations.add(configuration);
+	}
+
+	/**
+	 * Removes a deleted configuration file from the index.
+	 *
+	 * @param configuration the path of the configuration file
+	 */
+	public synchronized void remove(Path configuration) {
+		dirtyConfigurations.remove(configuration);
+		final BitSet oldSelection = selections.remove(configuration);
+		if (oldSelection != null) {
+			count(oldSelection, -1);
+			updateFeatureSets();
+		}
+	}
+
+	/**
+	 * Synchronizes the index with the given configuration files. Configurations that are not contained anymore are removed, new and invalidated
+	 * configurations are loaded. If the concrete features of the feature model changed, all configurations are loaded again.
+	 *
+	 * @param configurations all configuration files of the project
+	 * @param formula the formula of the current feature model
+	 */
+	public synchronized void update(Collection<Path> configurations, FeatureModelFormula formula) {
+		final List<String> concreteFeatures = FeatureUtils.extractConcreteFeaturesAsStringList(formula.getFeatureModel());
+		if (!concreteFeatures.equals(features)) {
+			clear();
+			features = concreteFeatures;
+			int index = 0;
+			for (final String feature : features) {
+				featureIndex.put(feature, index++);
+			}
+			selectionCounts = new int[features.size()];
+		}
+
+		final Set<Path> currentConfigurations = new HashSet<>(configurations);
+		for (final Iterator<Map.Entry<Path, BitSet>> iterator = selections.entrySet().iterator(); iterator.hasNext();) {
+			final Map.Entry<Path, BitSet> entry = iterator.next();
+			if (!currentConfigurations.contains(entry.getKey())) {
+				count(entry.getValue(), -1);
+				iterator.remove();
+			}
+		}
+
+		for (final Path file : configurations) {
+			if (dirtyConfigurations.contains(file) || !selections.containsKey(file)) {
+				final BitSet newSelection = readSelection(file, formula);
+				final BitSet oldSelection = selections.put(file, newSelection);
+				if (oldSelection != null) {
+					count(oldSelection, -1);
+				}
+				count(newSelection, 1);
+			}
+		}
+		dirtyConfigurations.clear();
+		updateFeatureSets();
+	}
+
+	private BitSet readSelection(Path file, FeatureModelFormula formula) {
+		final BitSet selection = new BitSet(features.size());
+		final Configuration configuration = ConfigurationManager.load(file);
+		if (configuration != null) {
+			configuration.updateFeatures(formula);
+			for (int i = 0; i < features.size(); i++) {
+				final SelectableFeature selectableFeature = configuration.getSelectableFeature(features.get(i));
+				if ((selectableFeature != null) && (selectableFeature.getSelection() == Selection.SELECTED)) {
+					selection.set(i);
+				}
+			}
+		}
+		return selection;
+	}
+
+	private void count(BitSet selection, int delta) {
+		for (int i = selection.nextSetBit(0); i >= 0; i = selection.nextSetBit(i + 1)) {
+			selectionCounts[i] += delta;
+		}
+	}
+
+	private void updateFeatureSets() {
+		final int configurationCount = selections.size();
+		unusedFeatures.clear();
+		alwaysSelectedFeatures.clear();
+		if (configurationCount > 0) {
+			for (int i = 0; i < selectionCounts.length; i++) {
+				if (selectionCounts[i] == 0) {
+					unusedFeatures.set(i);
+				} else if (selectionCounts[i] == configurationCount) {
+					alwaysSelectedFeatures.set(i);
+				}
+			}
+		}
+	}
+
+	public synchronized int getConfigurationCount() {
+		return selections.size();
+	}
+
+	/**
+	 * @param feature the name of a concrete feature
+	 * @return the number of indexed configurations selecting the given feature
+	 */
+	public synchronized int getSelectionCount(String feature) {
+		final Integer index = featureIndex.get(feature);
+		return index == null ? 0 : selectionCounts[index];
+	}
+
+	/**
+	 * @param candidates the features to check (e.g., all optional concrete features)
+	 * @return all candidates that are not selected in any configuration
+	 */
+	public synchronized List<String> getUnusedFeatures(Collection<String> candidates) {
+		return filter(candidates, unusedFeatures);
+	}
+
+	/**
+	 * @param candidates the features to check (e.g., all optional concrete features)
+	 * @return all candidates that are selected in every configuration
+	 */
+	public synchronized List<String> getAlwaysSelectedFeatures(Collection<String> candidates) {
+		return filter(candidates, alwaysSelectedFeatures);
+	}
+
+	private List<String> filter(Collection<String> candidates, BitSet featureSet) {
+		if (featureSet.isEmpty()) {
+			return Collections.emptyList();
+		}
+		final List<String> result = new ArrayList<>();
+		for (final String feature : candidates) {
+			final Integer index = featureIndex.get(feature);
+			if ((index != null) && featureSet.get(index)) {
+				result.add(feature);
+			}
+		}
+		return result;
+	}
+
+}
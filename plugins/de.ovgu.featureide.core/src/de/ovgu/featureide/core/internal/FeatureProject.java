@@ -45,7 +45,6 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -108,8 +107,6 @@ import de.ovgu.featureide.fm.core.base.impl.MultiFeatureModel;
 import de.ovgu.featureide.fm.core.configuration.Configuration;
 import de.ovgu.featureide.fm.core.configuration.ConfigurationAnalyzer;
 import de.ovgu.featureide.fm.core.configuration.FeatureIDEFormat;
-import de.ovgu.featureide.fm.core.configuration.SelectableFeature;
-import de.ovgu.featureide.fm.core.configuration.Selection;
 import de.ovgu.featureide.fm.core.io.EclipseFileSystem;
 import de.ovgu.featureide.fm.core.io.FeatureOrderFormat;
 import de.ovgu.featureide.fm.core.io.IPersistentFormat;
@@ -157,6 +154,7 @@ public class FeatureProject extends BuilderMarkerHandler implements IFeatureProj
 					final Object source = evt.getSource();
 					if (source instanceof IFeatureModel) {
 						renameFeature((IFeatureModel) source);
+						selectionIndex.clear();
 						checkFeatureCoverage();
 						checkConfigurations(getAllConfigurations());
 						createAndDeleteFeatureFolders();
@@ -217,6 +215,11 @@ public class FeatureProject extends BuilderMarkerHandler implements IFeatureProj
 
 	private boolean configurationUpdate = false;
 
+	/**
+	 * selected features of all configurations, updated only for configurations contained in resource deltas
+	 */
+	private final ConfigurationSelectionIndex selectionIndex = new ConfigurationSelectionIndex();
+
 	@Override
 	public String getFeaturestubPath() {
 		return featureStubPath;
@@ -279,12 +282,12 @@ public class FeatureProject extends BuilderMarkerHandler implements IFeatureProj
 			next(CALCULATE_CORE_AND_DEAD_FEATURES, workMonitor);
 			final List<String> concreteFeatures = getOptionalConcreteFeatures();
 			next(GET_SELECTION_MATRIX, workMonitor);
-			final boolean[][] selectionMatrix = getSelectionMatrix(concreteFeatures);
+			updateSelectionIndex();
 			next(GET_FALSE_OPTIONAL_FEATURES, workMonitor);
-			final Collection<String> falseOptionalFeatures = getFalseOptionalConfigurationFeatures(selectionMatrix, concreteFeatures);
+			final Collection<String> falseOptionalFeatures = selectionIndex.getAlwaysSelectedFeatures(concreteFeatures);
 			next(GET_UNUSED_FEATURES, workMonitor);
 			workMonitor.checkCancel();
-			final Collection<String> deadFeatures = getUnusedConfigurationFeatures(selectionMatrix, concreteFeatures);
+			final Collection<String> deadFeatures = selectionIndex.getUnusedFeatures(concreteFeatures);
 			next("create marker: dead features", workMonitor);
 			if (!deadFeatures.isEmpty()) {
 				createConfigurationMarker(folder, MARKER_NEVER_SELECTED + deadFeatures.size() + (deadFeatures.size() > 1 ? " features are " : " feature is ")
@@ -1026,12 +1029,17 @@ public class FeatureProject extends BuilderMarkerHandler implements IFeatureProj
 			return;
 		}
 		// if something in source folder changed
-		if ((sourceFolder != null) && (event.getDelta().findMember(sourceFolder.getFullPath()) != null)) {
+		final IResourceDelta sourceDelta = (sourceFolder != null) ? event.getDelta().findMember(sourceFolder.getFullPath()) : null;
+		if (sourceDelta != null) {
 			// set markers, only if event is not fired from changes to markers
 			if ((event.findMarkerDeltas(FEATURE_MODULE_MARKER, false).length == 0) && (composerExtension != null)
 				&& composerExtension.createFolderForFeatures()) {
 				setAllFeatureModuleMarkers();
 			}
+			// patch the roles of the changed files instead of waiting for a full rebuild of the model
+			if ((composerExtension != null) && (fstModel != null)) {
+				composerExtension.updateFSTModel(sourceDelta);
+			}
 		}
 
 		if (!hasValidFeatureModel() || Optional.ofNullable(event.getDelta().findMember(modelFile.getModelFile().getFullPath()))
@@ -1083,19 +1091,29 @@ public class FeatureProject extends BuilderMarkerHandler implements IFeatureProj
 				if (configurationDelta != null) {
 					for (final IResourceDelta delta : configurationDelta.getAffectedChildren(IResourceDelta.REMOVED)) {
 						CorePlugin.getDefault().logInfo(delta.toString() + " was removed.");
+						final Path removedConfig = EclipseFileSystem.getPath(delta.getResource());
+						if (removedConfig != null) {
+							selectionIndex.remove(removedConfig);
+						}
 						// if configuration was removed update warnings
 						checkFeatureCoverage();
 					}
 				}
 				final List<Path> changedConfigs = new ArrayList<>();
+				boolean coverageChanged = false;
 				for (final Path config : configs) {
 					final IPath iPath = EclipseFileSystem.getResource(config).getFullPath();
 					final IResourceDelta delta = event.getDelta().findMember(iPath);
-					if (delta != null) {
-						checkFeatureCoverage();
-						break;
+					// markers of the configurations are recreated on every build, thus, only changes of the contents are relevant
+					if ((delta != null)
+						&& ((delta.getKind() == IResourceDelta.ADDED) || ((delta.getFlags() & (IResourceDelta.CONTENT | IResourceDelta.REPLACED)) != 0))) {
+						selectionIndex.invalidate(config);
+						coverageChanged = true;
 					}
 				}
+				if (coverageChanged) {
+					checkFeatureCoverage();
+				}
 
 				final Path currentConfig = getCurrentConfiguration();
 				for (final Path config : configs) {
@@ -1299,66 +1317,20 @@ public class FeatureProject extends BuilderMarkerHandler implements IFeatureProj
 		LongRunningWrapper.startJob(checkConfigurationToken, LongRunningWrapper.getRunner(configurationChecker, CHECKING_CONFIGURATIONS_FOR_UNUSED_FEATURES));
 	}
 
-	@Override
-	public Collection<String> getFalseOptionalConfigurationFeatures() {
-		return getFalseOptionalConfigurationFeatures(getSelectionMatrix(), (List<String>) getOptionalConcreteFeatures());
+	private void updateSelectionIndex() {
+		selectionIndex.update(getAllConfigurations(), featureModelManager.getPersistentFormula());
 	}
 
-	public Collection<String> getFalseOptionalConfigurationFeatures(boolean[][] selections, final List<String> concreteFeatures) {
-		return checkValidSelections(selections, false, concreteFeatures);
+	@Override
+	public Collection<String> getFalseOptionalConfigurationFeatures() {
+		updateSelectionIndex();
+		return selectionIndex.getAlwaysSelectedFeatures(getOptionalConcreteFeatures());
 	}
 
 	@Override
 	public Collection<String> getUnusedConfigurationFeatures() {
-		return getUnusedConfigurationFeatures(getSelectionMatrix(), (List<String>) getOptionalConcreteFeatures());
-	}
-
-	public Collection<String> getUnusedConfigurationFeatures(boolean[][] selections, final List<String> concreteFeatures) {
-		return checkValidSelections(selections, true, concreteFeatures);
-	}
-
-	private List<String> checkValidSelections(boolean[][] selections, boolean selectionState, final List<String> concreteFeatures) {
-		if (selections.length == 0) {
-			return Collections.emptyList();
-		}
-		final List<String> falseOptionalFeatures = new ArrayList<>();
-		columnLoop: for (int column = 0; column < concreteFeatures.size(); column++) {
-			for (int conf = 0; conf < selections.length; conf++) {
-				if (selections[conf][column] == selectionState) {
-					continue columnLoop;
-				}
-			}
-			falseOptionalFeatures.add(concreteFeatures.get(column));
-		}
-		return falseOptionalFeatures;
-	}
-
-	private boolean[][] getSelectionMatrix() {
-		return getSelectionMatrix(getOptionalConcreteFeatures());
-	}
-
-	private boolean[][] getSelectionMatrix(final Collection<String> concreteFeatures) {
-		final List<Path> configurations = getAllConfigurations();
-
-		final boolean[][] selections = new boolean[configurations.size()][concreteFeatures.size()];
-		final FeatureModelFormula featureModel = featureModelManager.getPersistentFormula();
-
-		int row = 0;
-		for (final Path file : configurations) {
-			final boolean[] currentRow = selections[row++];
-			final Configuration configuration = ConfigurationManager.load(file);
-			configuration.updateFeatures(featureModel);
-
-			int column = 0;
-			for (final String feature : concreteFeatures) {
-				final SelectableFeature selectablefeature = configuration.getSelectableFeature(feature);
-				if (selectablefeature != null) {
-					currentRow[column] = selectablefeature.getSelection() == Selection.SELECTED;
-				}
-				column++;
-			}
-		}
-		return selections;
+		updateSelectionIndex();
+		return selectionIndex.getUnusedFeatures(getOptionalConcreteFeatures());
 	}
 
 	private List<String> getOptionalConcreteFeatures() {
@@ -20,7 +20,9 @@
  */
 package de.ovgu.featureide.core.signature;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -34,6 +36,7 @@ import de.ovgu.featureide.core.signature.base.AbstractClassSignature;
 import de.ovgu.featureide.core.signature.base.AbstractFieldSignature;
 import de.ovgu.featureide.core.signature.base.AbstractMethodSignature;
 import de.ovgu.featureide.core.signature.base.AbstractSignature;
+import de.ovgu.featureide.core.signature.filter.IIndexedSignatureFilter;
 import de.ovgu.featureide.fm.core.base.IFeature;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
 
@@ -45,53 +48,85 @@ import de.ovgu.featureide.fm.core.base.IFeatureModel;
  */
 public class ProjectSignatures implements Iterable<AbstractSignature> {
 
+	/**
+	 * Iterates over all signatures that pass the added filters. Filters that implement {@link IIndexedSignatureFilter} are resolved via the
+	 * {@link SignatureIndex} before the iteration starts, all other filters are tested for each remaining signature.
+	 */
 	public static final class SignatureIterator implements Iterator<AbstractSignature> {
 
 		private final AbstractSignature[] signatureArray;
+		private final ProjectSignatures projectSignatures;
 
 		private final LinkedList<Predicate<?>> filter = new LinkedList<>();
+		private final ArrayList<Predicate<?>> remainingFilter = new ArrayList<>();
+		private BitSet candidates = null;
 		private int count = 0;
 		private boolean nextAvailable = false;
 
 		public SignatureIterator() {
 			signatureArray = new AbstractSignature[0];
+			projectSignatures = null;
 		}
 
-		private SignatureIterator(AbstractSignature[] signatureArray) {
-			this.signatureArray = signatureArray;
+		private SignatureIterator(ProjectSignatures projectSignatures) {
+			this.projectSignatures = projectSignatures;
+			signatureArray = projectSignatures.signatureArray;
 		}
 
 		public void addFilter(Predicate<?> filter) {
 			this.filter.add(filter);
+			candidates = null;
 		}
 
 		public void clearFilter() {
 			filter.clear();
+			candidates = null;
 		}
 
 		public void reset() {
 			count = 0;
 			nextAvailable = false;
+			candidates = null;
 		}
 
-		private boolean findNext() {
-			if ((filter == null) && (count < signatureArray.length)) {
-				nextAvailable = true;
-				return true;
+		private void resolveFilter() {
+			remainingFilter.clear();
+			final SignatureIndex index = (projectSignatures != null) && (projectSignatures.signatureArray == signatureArray) ? projectSignatures.getIndex() : null;
+			if (index == null) {
+				candidates = new BitSet(signatureArray.length);
+				candidates.set(0, signatureArray.length);
+				remainingFilter.addAll(filter);
 			} else {
-				for (; count < signatureArray.length; ++count) {
+				candidates = index.getAll();
+				for (final Predicate<?> curFilter : filter) {
+					if (curFilter instanceof IIndexedSignatureFilter) {
+						((IIndexedSignatureFilter) curFilter).filter(index, candidates);
+					} else {
+						remainingFilter.add(curFilter);
+					}
+				}
+			}
+		}
+
+		private boolean findNext() {
+			if (candidates == null) {
+				resolveFilter();
+			}
+			if (count < signatureArray.length) {
+				for (count = candidates.nextSetBit(count); count >= 0; count = candidates.nextSetBit(count + 1)) {
 					if (isValid(signatureArray[count])) {
 						nextAvailable = true;
 						return true;
 					}
 				}
+				count = signatureArray.length;
 			}
 			return false;
 		}
 
 		@SuppressWarnings({ "unchecked", "rawtypes" })
 		private boolean isValid(AbstractSignature sig) {
-			for (final Predicate curFilter : filter) {
+			for (final Predicate curFilter : remainingFilter) {
 				if (!curFilter.test(sig)) {
 					return false;
 				}
@@ -120,6 +155,7 @@ public class ProjectSignatures implements Iterable<AbstractSignature> {
 
 	private final String[] featureNames;
 	private AbstractSignature[] signatureArray = null;
+	private SignatureIndex index = null;
 
 	private final IFeatureModel featureModel;
 
@@ -142,19 +178,32 @@ public class ProjectSignatures implements Iterable<AbstractSignature> {
 
 	@Override
 	public SignatureIterator iterator() {
-		return new SignatureIterator(signatureArray);
+		return new SignatureIterator(this);
 	}
 
 	public SignatureIterator iterator(Collection<Predicate<?>> filters) {
-		final SignatureIterator it = new SignatureIterator(signatureArray);
+		final SignatureIterator it = new SignatureIterator(this);
 		for (final Predicate<?> filter : filters) {
 			it.addFilter(filter);
 		}
 		return it;
 	}
 
-	public void sort(Comparator<AbstractSignature> comparator) {
+	public synchronized void sort(Comparator<AbstractSignature> comparator) {
 		Arrays.sort(signatureArray, comparator);
+		index = null;
+	}
+
+	/**
+	 * Returns the index of the current signatures. The index is built on the first call after the signatures were set or sorted.
+	 *
+	 * @return The index of the signatures
+	 */
+	public synchronized SignatureIndex getIndex() {
+		if (index == null) {
+			index = new SignatureIndex(signatureArray, featureNames.length);
+		}
+		return index;
 	}
 
 	public int[] getFeatureIDs(Collection<String> featureNames) {
@@ -204,8 +253,9 @@ public class ProjectSignatures implements Iterable<AbstractSignature> {
 		return featureModel;
 	}
 
-	public void setSignatureArray(AbstractSignature[] signatureArray) {
+	public synchronized void setSignatureArray(AbstractSignature[] signatureArray) {
 		this.signatureArray = signatureArray;
+		index = null;
 	}
 
 	@Override
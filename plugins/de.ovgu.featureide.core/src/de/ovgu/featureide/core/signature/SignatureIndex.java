@@ -0,0 +1,208 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.core.signature;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.prop4j.Node;
+
+import de.ovgu.featureide.core.signature.base.AFeatureData;
+import de.ovgu.featureide.core.signature.base.AbstractClassSignature;
+import de.ovgu.featureide.core.signature.base.AbstractFieldSignature;
+import de.ovgu.featureide.core.signature.base.AbstractMethodSignature;
+import de.ovgu.featureide.core.signature.base.AbstractSignature;
+
+/**
+ * Secondary indexes for the signatures of a {@link ProjectSignatures} instance. Each index maps a property (e.g., a feature or the kind of signature) to the
+ * positions of all signatures with this property in the signature array.<br> The index is built once for each signature array and discarded if the array is
+ * changed or sorted.
+ */
+public class SignatureIndex {
+
+	/**
+	 * All signatures that are defined by the same set of features.
+	 */
+	public static final class FeatureSet {
+
+		private final int[] featureIDs;
+		private final BitSet signatures = new BitSet();
+
+		private FeatureSet(int[] featureIDs) {
+			this.featureIDs = featureIDs;
+		}
+
+		/**
+		 * @return The sorted IDs of the features
+		 */
+		public int[] getFeatureIDs() {
+			return featureIDs;
+		}
+
+		public BitSet getSignatures() {
+			return signatures;
+		}
+	}
+
+	private final AbstractSignature[] signatureArray;
+
+	private final BitSet[] featureSignatures;
+	private final BitSet allFeatureSignatures = new BitSet();
+
+	private final BitSet classSignatures = new BitSet();
+	private final BitSet fieldSignatures = new BitSet();
+	private final BitSet methodSignatures = new BitSet();
+
+	private final List<FeatureSet> featureSets;
+
+	SignatureIndex(AbstractSignature[] signatureArray, int featureCount) {
+		this.signatureArray = signatureArray;
+		featureSignatures = new BitSet[featureCount];
+		for (int i = 0; i < featureCount; i++) {
+			featureSignatures[i] = new BitSet();
+		}
+
+		final Map<List<Integer>, FeatureSet> featureSetMap = new HashMap<>();
+		for (int i = 0; i < signatureArray.length; i++) {
+			final AbstractSignature signature = signatureArray[i];
+			if (signature instanceof AbstractFieldSignature) {
+				fieldSignatures.set(i);
+			} else if (signature instanceof AbstractMethodSignature) {
+				methodSignatures.set(i);
+			} else if (signature instanceof AbstractClassSignature) {
+				classSignatures.set(i);
+			}
+
+			final AFeatureData[] featureData = signature.getFeatureData();
+			final int[] ids = new int[featureData == null ? 0 : featureData.length];
+			for (int j = 0; j < ids.length; j++) {
+				final int id = featureData[j].getID();
+				ids[j] = id;
+				if (id == -1) {
+					allFeatureSignatures.set(i);
+				} else if ((id >= 0) && (id < featureCount)) {
+					featureSignatures[id].set(i);
+				}
+			}
+			Arrays.sort(ids);
+			final List<Integer> key = new ArrayList<>(ids.length);
+			for (final int id : ids) {
+				key.add(id);
+			}
+			FeatureSet featureSet = featureSetMap.get(key);
+			if (featureSet == null) {
+				featureSet = new FeatureSet(ids);
+				featureSetMap.put(key, featureSet);
+			}
+			featureSet.signatures.set(i);
+		}
+		featureSets = Collections.unmodifiableList(new ArrayList<>(featureSetMap.values()));
+	}
+
+	public int getSize() {
+		return signatureArray.length;
+	}
+
+	/**
+	 * @return A new bit set containing all signatures
+	 */
+	public BitSet getAll() {
+		final BitSet all = new BitSet(signatureArray.length);
+		all.set(0, signatureArray.length);
+		return all;
+	}
+
+	/**
+	 * Returns all signatures that are defined by at least one of the given features, analogous to {@link AbstractSignature#hasFeature(int[])}.
+	 *
+	 * @param featureIDs The IDs of the features
+	 * @return A new bit set containing the signatures
+	 */
+	public BitSet getFeatureSignatures(int[] featureIDs) {
+		if (featureIDs == null) {
+			return getAll();
+		}
+		final BitSet result = new BitSet(signatureArray.length);
+		if (featureIDs.length > 0) {
+			result.or(allFeatureSignatures);
+		}
+		for (final int id : featureIDs) {
+			if ((id >= 0) && (id < featureSignatures.length)) {
+				result.or(featureSignatures[id]);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @return The class signatures (must not be modified)
+	 */
+	public BitSet getClassSignatures() {
+		return classSignatures;
+	}
+
+	/**
+	 * @return The field signatures (must not be modified)
+	 */
+	public BitSet getFieldSignatures() {
+		return fieldSignatures;
+	}
+
+	/**
+	 * @return The method signatures (must not be modified)
+	 */
+	public BitSet getMethodSignatures() {
+		return methodSignatures;
+	}
+
+	/**
+	 * @return The signatures grouped by the set of features that define them
+	 */
+	public List<FeatureSet> getFeatureSets() {
+		return featureSets;
+	}
+
+	/**
+	 * Groups the given signatures by their constraint. The constraints are not indexed in advance, as they can be changed after the signatures were created.
+	 *
+	 * @param signatures The positions of the signatures
+	 * @return A map from each distinct constraint (which may be <code>null</code>) to the positions of the signatures with this constraint
+	 */
+	public Map<Node, BitSet> getConstraintGroups(BitSet signatures) {
+		final Map<Node, BitSet> groups = new HashMap<>();
+		for (int i = signatures.nextSetBit(0); i >= 0; i = signatures.nextSetBit(i + 1)) {
+			final Node constraint = signatureArray[i].getConstraint();
+			BitSet group = groups.get(constraint);
+			if (group == null) {
+				group = new BitSet();
+				groups.put(constraint, group);
+			}
+			group.set(i);
+		}
+		return groups;
+	}
+
+}
@@ -20,6 +20,8 @@
  */
 package de.ovgu.featureide.core.signature.filter;
 
+import java.util.BitSet;
+import java.util.Map.Entry;
 import java.util.function.Predicate;
 
 import org.prop4j.And;
@@ -31,9 +33,10 @@ import org.prop4j.SatSolver;
 import org.sat4j.specs.TimeoutException;
 
 import de.ovgu.featureide.core.CorePlugin;
+import de.ovgu.featureide.core.signature.SignatureIndex;
 import de.ovgu.featureide.core.signature.base.IConstrainedObject;
 
-public class ConstraintFilter implements Predicate<IConstrainedObject> {
+public class ConstraintFilter implements Predicate<IConstrainedObject>, IIndexedSignatureFilter {
 
 	private final SatSolver solver;
 
@@ -50,8 +53,24 @@ public class ConstraintFilter implements Predicate<IConstrainedObject> {
 
 	@Override
 	public boolean test(IConstrainedObject object) {
-		Node constraint = object.getConstraint();
+		return test(object.getConstraint());
+	}
+
+	/**
+	 * Tests all signatures with the same constraint at once.
+	 */
+	@Override
+	public void filter(SignatureIndex index, BitSet signatures) {
+		final BitSet result = new BitSet();
+		for (final Entry<Node, BitSet> group : index.getConstraintGroups(signatures).entrySet()) {
+			if (test(group.getKey())) {
+				result.or(group.getValue());
+			}
+		}
+		signatures.and(result);
+	}
 
+	private boolean test(Node constraint) {
 		if (constraint == null) {
 			return includeNullConstraint;
 		}
@@ -21,6 +21,7 @@
 package de.ovgu.featureide.core.signature.filter;
 
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.function.Predicate;
 
 import org.prop4j.And;
@@ -31,11 +32,13 @@ import org.sat4j.specs.TimeoutException;
 
 import de.ovgu.featureide.core.CorePlugin;
 import de.ovgu.featureide.core.signature.ProjectSignatures;
+import de.ovgu.featureide.core.signature.SignatureIndex;
+import de.ovgu.featureide.core.signature.SignatureIndex.FeatureSet;
 import de.ovgu.featureide.core.signature.base.AFeatureData;
 import de.ovgu.featureide.core.signature.base.AbstractSignature;
 import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
 
-public class ContextFilter implements Predicate<AbstractSignature> {
+public class ContextFilter implements Predicate<AbstractSignature>, IIndexedSignatureFilter {
 
 	private final ProjectSignatures projectSignatures;
 	private final Node fmNode;
@@ -76,10 +79,32 @@ public class ContextFilter implements Predicate<AbstractSignature> {
 
 	@Override
 	public boolean test(AbstractSignature signature) {
-		final AFeatureData[] ids = signature.getFeatureData();
+		final AFeatureData[] featureData = signature.getFeatureData();
+		final int[] ids = new int[featureData.length];
+		for (int i = 0; i < ids.length; ++i) {
+			ids[i] = featureData[i].getID();
+		}
+		return test(ids);
+	}
+
+	/**
+	 * Tests all signatures that are defined by the same set of features at once.
+	 */
+	@Override
+	public void filter(SignatureIndex index, BitSet signatures) {
+		final BitSet result = new BitSet();
+		for (final FeatureSet featureSet : index.getFeatureSets()) {
+			if (featureSet.getSignatures().intersects(signatures) && test(featureSet.getFeatureIDs())) {
+				result.or(featureSet.getSignatures());
+			}
+		}
+		signatures.and(result);
+	}
+
+	private boolean test(int[] ids) {
 		final Node[] negativeLiterals = new Node[ids.length];
 		for (int i = 0; i < ids.length; ++i) {
-			final int id = ids[i].getID();
+			final int id = ids[i];
 			if (selectedFeatures[id]) {
 				return true;
 			}
@@ -20,11 +20,13 @@
  */
 package de.ovgu.featureide.core.signature.filter;
 
+import java.util.BitSet;
 import java.util.function.Predicate;
 
+import de.ovgu.featureide.core.signature.SignatureIndex;
 import de.ovgu.featureide.core.signature.base.AbstractSignature;
 
-public class FeatureFilter implements Predicate<AbstractSignature> {
+public class FeatureFilter implements Predicate<AbstractSignature>, IIndexedSignatureFilter {
 
 	private final int[] featureList;
 
@@ -37,4 +39,9 @@ public class FeatureFilter implements Predicate<AbstractSignature> {
 		return signature.hasFeature(featureList);
 	}
 
+	@Override
+	public void filter(SignatureIndex index, BitSet signatures) {
+		signatures.and(index.getFeatureSignatures(featureList));
+	}
+
 }
@@ -0,0 +1,40 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.core.signature.filter;
+
+import java.util.BitSet;
+
+import de.ovgu.featureide.core.signature.SignatureIndex;
+
+/**
+ * A signature filter that can be evaluated using a {@link SignatureIndex} instead of testing each signature separately.
+ */
+public interface IIndexedSignatureFilter {
+
+	/**
+	 * Removes all signatures that do not pass this filter from the given set.
+	 *
+	 * @param index The index of the signatures
+	 * @param signatures The positions of the remaining signatures
+	 */
+	void filter(SignatureIndex index, BitSet signatures);
+
+}
@@ -20,16 +20,23 @@
  */
 package de.ovgu.featureide.core.signature.filter;
 
+import java.util.BitSet;
 import java.util.function.Predicate;
 
+import de.ovgu.featureide.core.signature.SignatureIndex;
 import de.ovgu.featureide.core.signature.base.AbstractClassSignature;
 import de.ovgu.featureide.core.signature.base.AbstractSignature;
 
-public class MemberFilter implements Predicate<AbstractSignature> {
+public class MemberFilter implements Predicate<AbstractSignature>, IIndexedSignatureFilter {
 
 	@Override
 	public boolean test(AbstractSignature signature) {
 		return !(signature instanceof AbstractClassSignature);
 	}
 
+	@Override
+	public void filter(SignatureIndex index, BitSet signatures) {
+		signatures.andNot(index.getClassSignatures());
+	}
+
 }
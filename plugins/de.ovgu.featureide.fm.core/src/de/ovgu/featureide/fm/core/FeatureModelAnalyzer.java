@@ -27,6 +27,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -38,6 +39,7 @@ import de.ovgu.featureide.fm.core.analysis.FeatureModelProperties;
 import de.ovgu.featureide.fm.core.analysis.FeatureModelProperties.FeatureModelStatus;
 import de.ovgu.featureide.fm.core.analysis.FeatureProperties;
 import de.ovgu.featureide.fm.core.analysis.FeatureProperties.FeatureStatus;
+import de.ovgu.featureide.fm.core.analysis.IAnalysisResultListener;
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
 import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
@@ -85,7 +87,15 @@ public class FeatureModelAnalyzer implements IEventListener {
 
 	private final AnalysesCollection analysesCollection;
 
+	/**
+	 * The status of all feature model elements that was last passed to the {@link #resultListener}, or before the last {@link #reset()}.
+	 */
+	private Map<IFeatureModelElement, Set<?>> publishedStatus = Collections.emptyMap();
+
+	private IAnalysisResultListener resultListener = null;
+
 	public void reset() {
+		publishedStatus = getStatus();
 		analysesCollection.reset(formula);
 	}
 
@@ -165,7 +175,7 @@ public class FeatureModelAnalyzer implements IEventListener {
 			resultList.add(Functional.mapToList(cnf.getVariables().convertToString(literalList, true, true, false), new StringToFeature(featureModel)));
 
 			for (final int literal : literalList.getLiterals()) {
-				final IFeature feature = featureModel.getFeature(cnf.getVariables().getName(literal));
+				final IFeature feature = formula.getFeature(literal);
 				if (feature != null) {
 					setList.add(feature);
 				}
@@ -279,7 +289,7 @@ public class FeatureModelAnalyzer implements IEventListener {
 					final ArrayList<IFeature> falseOptionalFeatures = new ArrayList<>();
 					for (final LiteralSet literalSet : anomalies.getRedundantClauses()) {
 						if (literalSet != null) {
-							falseOptionalFeatures.add(featureModel.getFeature(variables.getName(literalSet.getLiterals()[1])));
+							falseOptionalFeatures.add(formula.getFeature(literalSet.getLiterals()[1]));
 						}
 					}
 					final IConstraint constraint = constraints.get(i);
@@ -299,7 +309,6 @@ public class FeatureModelAnalyzer implements IEventListener {
 	}
 
 	public List<Map<IFeature, Boolean>> getAtomicSetsMap(IMonitor<List<LiteralSet>> monitor) {
-		final Variables variables = formula.getCNF().getVariables();
 		final List<Map<IFeature, Boolean>> resultList = new ArrayList<>();
 		final Set<IFeature> coveredFeatures = new HashSet<>();
 
@@ -307,7 +316,7 @@ public class FeatureModelAnalyzer implements IEventListener {
 			final Map<IFeature, Boolean> setList = new HashMap<>();
 
 			for (final int literal : literalList.getLiterals()) {
-				final IFeature feature = featureModel.getFeature(variables.getName(literal));
+				final IFeature feature = formula.getFeature(literal);
 				if ((feature != null) && coveredFeatures.add(feature)) {
 					setList.put(feature, literal > 0);
 				}
@@ -349,10 +358,23 @@ public class FeatureModelAnalyzer implements IEventListener {
 	 * because the number of feature in the set is usually small (e.g. dead features)
 	 */
 	public AnalysesCollection analyzeFeatureModel(IMonitor<Boolean> monitor) {
+		return analyzeFeatureModel(monitor, null);
+	}
+
+	/**
+	 * Analyzes the feature model and publishes partial results after each analysis phase. The listener only receives the elements whose status differs from
+	 * the status before the last {@link #reset()} or the last partial result, respectively.
+	 *
+	 * @param monitor monitor
+	 * @param listener the listener for partial results; may be null
+	 * @return the analysis results
+	 */
+	public AnalysesCollection analyzeFeatureModel(IMonitor<Boolean> monitor, IAnalysisResultListener listener) {
 		if (monitor == null) {
 			monitor = new NullMonitor<>();
 		}
 
+		resultListener = listener;
 		try {
 			int work = 1;
 			if (analysesCollection.isCalculateFeatures() || analysesCollection.isCalculateConstraints()) {
@@ -372,12 +394,45 @@ public class FeatureModelAnalyzer implements IEventListener {
 
 			updateConstraints(monitor);
 		} finally {
+			resultListener = null;
 			monitor.done();
 		}
 
 		return analysesCollection;
 	}
 
+	private Map<IFeatureModelElement, Set<?>> getStatus() {
+		final Map<IFeatureModelElement, Set<?>> status = new HashMap<>();
+		for (final Entry<IFeature, FeatureProperties> entry : analysesCollection.featurePropertiesMap.entrySet()) {
+			status.put(entry.getKey(), entry.getValue().getStatus());
+		}
+		for (final Entry<IConstraint, ConstraintProperties> entry : analysesCollection.constraintPropertiesMap.entrySet()) {
+			status.put(entry.getKey(), entry.getValue().getStatus());
+		}
+		return status;
+	}
+
+	/**
+	 * Passes all elements whose status changed since the last partial result to the {@link #resultListener}.
+	 *
+	 * @param changedElements elements that changed in another way than their status (e.g., the features of a constraint anomaly)
+	 */
+	private void publishResult(Collection<? extends IFeatureModelElement> changedElements) {
+		if (resultListener != null) {
+			final Map<IFeatureModelElement, Set<?>> status = getStatus();
+			final Set<IFeatureModelElement> changed = new HashSet<>(changedElements);
+			for (final Entry<IFeatureModelElement, Set<?>> entry : status.entrySet()) {
+				if (!entry.getValue().equals(publishedStatus.get(entry.getKey()))) {
+					changed.add(entry.getKey());
+				}
+			}
+			publishedStatus = status;
+			if (!changed.isEmpty()) {
+				resultListener.resultChanged(changed);
+			}
+		}
+	}
+
 	public void updateConstraints() {
 		updateConstraints(null);
 	}
@@ -410,18 +465,20 @@ public class FeatureModelAnalyzer implements IEventListener {
 					getConstraintProperties(constraint).setStatus(ConstraintStatus.UNSATISFIABLE);
 				}
 				monitor.worked(15);
+				publishResult(Collections.<IConstraint> emptyList());
 			} else {
 				// get constraint anomalies
 				final Collection<IConstraint> redundantConstraints = annotateConstraints(ConstraintStatus.REDUNDANT, monitor);
 				monitor.checkCancel();
 				final Collection<IConstraint> tautologyConstraints = annotateConstraints(ConstraintStatus.TAUTOLOGY, monitor);
+				publishResult(Collections.<IConstraint> emptyList());
 
 				if (!redundantConstraints.isEmpty() || !tautologyConstraints.isEmpty()) {
 					properties.setStatus(FeatureModelStatus.ANOMALIES);
 				}
 
 				monitor.checkCancel();
-				getAnomalyConstraints(monitor.subTask(10));
+				publishResult(getAnomalyConstraints(monitor.subTask(10)));
 			}
 		}
 	}
@@ -497,13 +554,17 @@ public class FeatureModelAnalyzer implements IEventListener {
 					featureProperties.setStatus(FeatureStatus.DEAD);
 				}
 				monitor.worked(3);
+				publishResult(Collections.<IFeature> emptyList());
 			} else {
 				// get feature anomalies
 				final Collection<IFeature> deadFeatures = annotateFeatures(FeatureStatus.DEAD, monitor);
+				publishResult(Collections.<IFeature> emptyList());
 				monitor.checkCancel();
 				final Collection<IFeature> falseOptionalFeatures = annotateFeatures(FeatureStatus.FALSE_OPTIONAL, monitor);
+				publishResult(Collections.<IFeature> emptyList());
 				monitor.checkCancel();
 				final Collection<IFeature> indeterminedHiddenFeatures = annotateFeatures(FeatureStatus.INDETERMINATE_HIDDEN, monitor);
+				publishResult(Collections.<IFeature> emptyList());
 				if (!deadFeatures.isEmpty() || !falseOptionalFeatures.isEmpty() || !indeterminedHiddenFeatures.isEmpty()) {
 					properties.setStatus(FeatureModelStatus.ANOMALIES);
 				}
@@ -23,6 +23,7 @@ package de.ovgu.featureide.fm.core.analysis;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.Set;
 
 import de.ovgu.featureide.fm.core.base.IConstraint;
 import de.ovgu.featureide.fm.core.base.IFeature;
@@ -64,6 +65,13 @@ public class ConstraintProperties {
 		return this.constraintStatus.contains(constraintStatus);
 	}
 
+	/**
+	 * @return A copy of the current status
+	 */
+	public Set<ConstraintStatus> getStatus() {
+		return EnumSet.copyOf(constraintStatus);
+	}
+
 	public void setStatus(ConstraintStatus constraintStatus) {
 		if (constraintSatisfiabilityStatus.contains(constraintStatus)) {
 			this.constraintStatus.removeAll(constraintSatisfiabilityStatus);
@@ -21,6 +21,7 @@
 package de.ovgu.featureide.fm.core.analysis;
 
 import java.util.EnumSet;
+import java.util.Set;
 
 import de.ovgu.featureide.fm.core.base.IFeature;
 import de.ovgu.featureide.fm.core.explanations.Explanation;
@@ -68,6 +69,13 @@ public class FeatureProperties {
 		return this.featureStatus.contains(featureStatus);
 	}
 
+	/**
+	 * @return A copy of the current status
+	 */
+	public Set<FeatureStatus> getStatus() {
+		return EnumSet.copyOf(featureStatus);
+	}
+
 	public void resetSelectionStatus() {
 		featureStatus.removeAll(featureSelectionStatus);
 	}
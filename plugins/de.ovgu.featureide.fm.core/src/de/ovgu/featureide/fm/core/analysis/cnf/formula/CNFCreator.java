@@ -21,11 +21,9 @@
 package de.ovgu.featureide.fm.core.analysis.cnf.formula;
 
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
-import de.ovgu.featureide.fm.core.analysis.cnf.FeatureModelCNF;
-import de.ovgu.featureide.fm.core.analysis.cnf.Nodes;
 
 /**
- * Creates a {@link CNF}.
+ * Creates a {@link CNF}, composed from the {@link CNFSegments} of the feature model.
  *
  * @author Sebastian Krieter
  */
@@ -33,9 +31,7 @@ public class CNFCreator extends ACreator<CNF> {
 
 	@Override
 	protected CNF create() {
-		final CNF cnf = FeatureModelCNF.empty(formula.getFeatureModel(), false);
-		cnf.addClauses(Nodes.convert(cnf.getVariables(), formula.getElement(new CNFNodeCreator())));
-		return cnf;
+		return formula.getSegments().createCNF(true, true);
 	}
 
 }
@@ -0,0 +1,306 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.formula;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.prop4j.And;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.NodeWriter;
+import org.prop4j.Or;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.FeatureModelCNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.Nodes;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.base.IConstraint;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.IFeatureStructure;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator.CNFType;
+
+/**
+ * Holds the clauses of a feature model's {@link CNF} in segments, one for the decomposition of each feature and one for each cross-tree constraint. Segments
+ * are converted on first request, so partial formulas, e.g., for a {@link #createSubtreeCNF(IFeature) subtree}, do not require the conversion of the whole
+ * model.<br> When created for an edited version of a feature model, unchanged segments of the previous version are reused and only the edited features and
+ * constraints are converted again.
+ *
+ * @see CNFSegmentsCreator
+ */
+public class CNFSegments {
+
+	private static final class Segment {
+
+		private final Object key;
+		private final List<LiteralSet> clauses;
+
+		private Segment(Object key, List<LiteralSet> clauses) {
+			this.key = key;
+			this.clauses = clauses;
+		}
+
+	}
+
+	private static final long ROOT_ID = -1;
+
+	private final IFeatureModel featureModel;
+	private final Variables variables;
+	private final AdvancedNodeCreator nodeCreator;
+
+	private final Map<Long, Segment> segments = new ConcurrentHashMap<>();
+	private final int segmentCount;
+
+	/**
+	 * The segments of the previous version and their variables, or <code>null</code> if the clauses of the previous version use the same variable numbers.
+	 * Both are discarded once all segments of this version were created.
+	 */
+	private volatile Map<Long, Segment> previousSegments;
+	private volatile Variables previousVariables;
+
+	public CNFSegments(IFeatureModel featureModel, Variables variables) {
+		this(featureModel, variables, null);
+	}
+
+	/**
+	 * @param featureModel the feature model
+	 * @param variables the variables of the feature model's CNF
+	 * @param previous the segments of a previous version of the feature model, may be <code>null</code>. If features were added or removed, the literals of
+	 *        reused segments are translated to the variables of this version.
+	 */
+	public CNFSegments(IFeatureModel featureModel, Variables variables, CNFSegments previous) {
+		this.featureModel = featureModel;
+		this.variables = variables;
+		nodeCreator = new AdvancedNodeCreator(featureModel);
+		nodeCreator.setCnfType(CNFType.Regular);
+		nodeCreator.setIncludeBooleanValues(false);
+		segmentCount = 1 + featureModel.getNumberOfFeatures() + featureModel.getConstraintCount();
+		if (previous != null) {
+			previousSegments = previous.segments;
+			// features that were appended do not change the numbers of the previous variables
+			previousVariables = isPrefix(previous.variables.getNames(), variables.getNames()) ? null : previous.variables;
+		} else {
+			previousSegments = Collections.emptyMap();
+		}
+	}
+
+	private static boolean isPrefix(String[] prefix, String[] names) {
+		return (prefix.length <= names.length) && Arrays.equals(prefix, Arrays.copyOf(names, prefix.length));
+	}
+
+	public IFeatureModel getFeatureModel() {
+		return featureModel;
+	}
+
+	public Variables getVariables() {
+		return variables;
+	}
+
+	/**
+	 * @return the unit clause of the root feature or an empty list if the feature model has no root
+	 */
+	public List<LiteralSet> getRootClauses() {
+		final IFeature root = FeatureUtils.getRoot(featureModel);
+		if (root == null) {
+			return Collections.emptyList();
+		}
+		return getSegment(ROOT_ID, root::getName, () -> new And(new Or(new Literal(root.getName()))));
+	}
+
+	/**
+	 * @param feature a feature of the feature model
+	 * @return the clauses for the relations between the given feature and its children
+	 */
+	public List<LiteralSet> getFeatureClauses(IFeature feature) {
+		return getSegment(feature.getInternalId(), () -> createFeatureKey(feature),
+				() -> new And(nodeCreator.createStructuralNodes(feature, new ArrayList<Node>()).toArray(new Node[0])));
+	}
+
+	/**
+	 * @param constraint a constraint of the feature model
+	 * @return the clauses of the given constraint
+	 */
+	public List<LiteralSet> getConstraintClauses(IConstraint constraint) {
+		return getSegment(constraint.getInternalId(), () -> createConstraintKey(constraint), () -> nodeCreator.createConstraintNode(constraint));
+	}
+
+	/**
+	 * Composes a CNF from the segments. The clauses are in the same order as in a CNF converted from
+	 * {@link AdvancedNodeCreator#createRegularCNF(IFeatureModel)}.
+	 *
+	 * @param includeStructure whether to include the clauses of the feature tree
+	 * @param includeConstraints whether to include the clauses of the cross-tree constraints
+	 * @return a new {@link FeatureModelCNF}
+	 */
+	public CNF createCNF(boolean includeStructure, boolean includeConstraints) {
+		final List<List<LiteralSet>> parts = new ArrayList<>();
+		if (includeStructure) {
+			parts.add(getRootClauses());
+			for (final IFeature feature : featureModel.getFeatures()) {
+				parts.add(getFeatureClauses(feature));
+			}
+		}
+		if (includeConstraints) {
+			for (final IConstraint constraint : featureModel.getConstraints()) {
+				parts.add(getConstraintClauses(constraint));
+			}
+		}
+		return compose(parts);
+	}
+
+	/**
+	 * Composes a CNF for the subtree of the given feature, without converting any other part of the feature model. The CNF contains the given feature as unit
+	 * clause, the clauses of all features in its subtree, and the clauses of all constraints that only contain features of the subtree. It uses the variables
+	 * of the whole feature model.
+	 *
+	 * @param subtreeRoot the root of the subtree
+	 * @return a new {@link FeatureModelCNF}
+	 */
+	public CNF createSubtreeCNF(IFeature subtreeRoot) {
+		final List<List<LiteralSet>> parts = new ArrayList<>();
+		parts.add(Collections.singletonList(new LiteralSet(variables.getVariable(subtreeRoot.getName()))));
+
+		final Set<IFeature> subtree = new HashSet<>();
+		final Deque<IFeatureStructure> stack = new ArrayDeque<>();
+		stack.push(subtreeRoot.getStructure());
+		while (!stack.isEmpty()) {
+			final IFeatureStructure structure = stack.pop();
+			final IFeature feature = structure.getFeature();
+			subtree.add(feature);
+			parts.add(getFeatureClauses(feature));
+			final List<IFeatureStructure> children = structure.getChildren();
+			for (int i = children.size() - 1; i >= 0; i--) {
+				stack.push(children.get(i));
+			}
+		}
+		for (final IConstraint constraint : featureModel.getConstraints()) {
+			if (subtree.containsAll(constraint.getContainedFeatures())) {
+				parts.add(getConstraintClauses(constraint));
+			}
+		}
+		return compose(parts);
+	}
+
+	private CNF compose(List<List<LiteralSet>> parts) {
+		int size = 0;
+		for (final List<LiteralSet> part : parts) {
+			// an empty clause makes the whole formula a contradiction (cf. Nodes#convert)
+			if (isContradiction(part)) {
+				return createCNF(part);
+			}
+			size += part.size();
+		}
+		final List<LiteralSet> clauses = new ArrayList<>(size);
+		for (final List<LiteralSet> part : parts) {
+			clauses.addAll(part);
+		}
+		return createCNF(clauses);
+	}
+
+	private CNF createCNF(List<LiteralSet> clauses) {
+		final CNF cnf = FeatureModelCNF.empty(featureModel, false);
+		cnf.addClauses(clauses);
+		return cnf;
+	}
+
+	private static boolean isContradiction(List<LiteralSet> clauses) {
+		if (clauses.size() == 1) {
+			final int[] literals = clauses.get(0).getLiterals();
+			return (literals.length == 1) && (literals[0] == 0);
+		}
+		return false;
+	}
+
+	private List<LiteralSet> getSegment(long id, Supplier<Object> key, Supplier<Node> node) {
+		Segment segment = segments.get(id);
+		if (segment == null) {
+			final Object currentKey = key.get();
+			final Map<Long, Segment> oldSegments = previousSegments;
+			final Variables oldVariables = previousVariables;
+			segment = oldSegments.get(id);
+			if ((segment != null) && segment.key.equals(currentKey) && (oldVariables != null)) {
+				segment = adapt(segment, oldVariables);
+			}
+			if ((segment == null) || !segment.key.equals(currentKey)) {
+				segment = new Segment(currentKey, Collections.unmodifiableList(Nodes.convert(variables, node.get())));
+			}
+			segments.put(id, segment);
+			if (segments.size() >= segmentCount) {
+				previousSegments = Collections.emptyMap();
+				previousVariables = null;
+			}
+		}
+		return segment.clauses;
+	}
+
+	/**
+	 * Translates the literals of a segment of the previous version to the variables of this version.
+	 *
+	 * @return the translated segment or <code>null</code> if the segment contains a variable that does not exist anymore
+	 */
+	private Segment adapt(Segment segment, Variables oldVariables) {
+		if (isContradiction(segment.clauses)) {
+			return segment;
+		}
+		final List<LiteralSet> clauses = new ArrayList<>(segment.clauses.size());
+		for (final LiteralSet clause : segment.clauses) {
+			final LiteralSet adaptedClause = clause.adapt(oldVariables, variables);
+			if (adaptedClause.containsLiteral(0)) {
+				return null;
+			}
+			clauses.add(adaptedClause);
+		}
+		return new Segment(segment.key, Collections.unmodifiableList(clauses));
+	}
+
+	private static Object createFeatureKey(IFeature feature) {
+		final IFeatureStructure structure = feature.getStructure();
+		final List<Object> key = new ArrayList<>();
+		key.add(feature.getName());
+		key.add(structure.isAnd() ? 'a' : structure.isOr() ? 'o' : 'x');
+		for (final IFeatureStructure child : structure.getChildren()) {
+			key.add(child.getFeature().getName());
+			key.add(child.isMandatory());
+		}
+		return key;
+	}
+
+	private static Object createConstraintKey(IConstraint constraint) {
+		final NodeWriter nodeWriter = new NodeWriter(constraint.getNode());
+		nodeWriter.setEnforceBrackets(true);
+		nodeWriter.setEnquoteAlways(true);
+		return nodeWriter.nodeToString();
+	}
+
+}
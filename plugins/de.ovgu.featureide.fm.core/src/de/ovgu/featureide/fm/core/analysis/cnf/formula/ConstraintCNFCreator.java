@@ -21,11 +21,6 @@
 package de.ovgu.featureide.fm.core.analysis.cnf.formula;
 
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
-import de.ovgu.featureide.fm.core.analysis.cnf.FeatureModelCNF;
-import de.ovgu.featureide.fm.core.analysis.cnf.Nodes;
-import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
-import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator.CNFType;
-import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator.ModelType;
 
 /**
  * Creates a {@link CNF} containing only dependencies from cross-tree constraints.
@@ -36,13 +31,7 @@ public class ConstraintCNFCreator extends ACreator<CNF> {
 
 	@Override
 	protected CNF create() {
-		final AdvancedNodeCreator nodeCreator = new AdvancedNodeCreator(formula.getFeatureModel());
-		nodeCreator.setModelType(ModelType.OnlyConstraints);
-		nodeCreator.setCnfType(CNFType.Regular);
-		nodeCreator.setIncludeBooleanValues(false);
-		final CNF cnf = FeatureModelCNF.empty(formula.getFeatureModel(), false);
-		cnf.addClauses(Nodes.convert(cnf.getVariables(), nodeCreator.createNodes()));
-		return cnf;
+		return formula.getSegments().createCNF(false, true);
 	}
 
 }
@@ -27,6 +27,7 @@ import org.prop4j.Node;
 import de.ovgu.featureide.fm.core.FeatureModelAnalyzer;
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
 import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.base.IFeature;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
 
 /**
@@ -63,10 +64,31 @@ public class FeatureModelFormula {
 
 	private final IFeatureModel featureModel;
 
+	private volatile IFeature[] featureIndex;
+
+	/**
+	 * Counts the calls of {@link #resetFormula()}, such that a feature index created concurrently to a reset is not cached. Guarded by {@link #map}.
+	 */
+	private int resetCount = 0;
+
+	private volatile CNFSegments previousSegments;
+
 	public FeatureModelFormula(IFeatureModel featureModel) {
 		this.featureModel = featureModel;
 	}
 
+	/**
+	 * Creates a formula for an edited version of a feature model. The {@link CNFSegments CNF segments} of the previous version are reused for all features
+	 * and constraints that were not changed by the edit.
+	 *
+	 * @param featureModel the edited feature model
+	 * @param previousSegments the {@link #getCreatedSegments() segments} of the previous version, may be <code>null</code>
+	 */
+	public FeatureModelFormula(IFeatureModel featureModel, CNFSegments previousSegments) {
+		this.featureModel = featureModel;
+		this.previousSegments = previousSegments;
+	}
+
 	public IFeatureModel getFeatureModel() {
 		return featureModel;
 	}
@@ -75,6 +97,40 @@ public class FeatureModelFormula {
 		return getElement(new EmptyCNFCreator()).getVariables();
 	}
 
+	/**
+	 * Returns the feature that corresponds to the variable of the given literal, using the same numbering as {@link #getVariables()} and {@link #getCNF()}.
+	 * After the first call, lookups use an array indexed by variable and do neither lock nor allocate.
+	 *
+	 * @param literal a literal or variable of the CNF
+	 * @return the feature of the variable or <code>null</code> if there is no such feature
+	 */
+	public IFeature getFeature(int literal) {
+		IFeature[] features = featureIndex;
+		if (features == null) {
+			final int currentResetCount;
+			synchronized (map) {
+				currentResetCount = resetCount;
+			}
+			features = createFeatureIndex();
+			synchronized (map) {
+				if (resetCount == currentResetCount) {
+					featureIndex = features;
+				}
+			}
+		}
+		final int variable = Math.abs(literal);
+		return variable < features.length ? features[variable] : null;
+	}
+
+	private IFeature[] createFeatureIndex() {
+		final Variables variables = getVariables();
+		final IFeature[] features = new IFeature[variables.maxVariableID() + 1];
+		for (int i = 1; i < features.length; i++) {
+			features[i] = featureModel.getFeature(variables.getName(i));
+		}
+		return features;
+	}
+
 	/**
 	 * Get the CNF for the associated feature model.<br> Convenience method, fully equivalent to {@code getElement(new CNFFormula())}.
 	 *
@@ -84,6 +140,47 @@ public class FeatureModelFormula {
 		return getElement(new CNFCreator());
 	}
 
+	/**
+	 * Get the clauses of the associated feature model, converted per feature and constraint on demand.<br> Convenience method, fully equivalent to
+	 * {@code getElement(new CNFSegmentsCreator())}.
+	 *
+	 * @return a {@link CNFSegments} instance.
+	 */
+	public CNFSegments getSegments() {
+		return getElement(new CNFSegmentsCreator());
+	}
+
+	/**
+	 * Get a CNF for the subtree of the given feature without converting the rest of the associated feature model.
+	 *
+	 * @param subtreeRoot a feature of the associated feature model
+	 * @return a {@link CNF} instance.
+	 *
+	 * @see CNFSegments#createSubtreeCNF(IFeature)
+	 */
+	public CNF getSubtreeCNF(IFeature subtreeRoot) {
+		return getSegments().createSubtreeCNF(subtreeRoot);
+	}
+
+	/**
+	 * Returns the CNF segments that were converted so far without converting any further segments.
+	 *
+	 * @return the {@link #getSegments() CNF segments} if they were already created, otherwise the segments of the previous version or <code>null</code>
+	 */
+	public CNFSegments getCreatedSegments() {
+		final ACreator<?> segmentsCreator;
+		synchronized (map) {
+			segmentsCreator = map.get(new CNFSegmentsCreator());
+		}
+		return segmentsCreator != null ? (CNFSegments) segmentsCreator.get() : previousSegments;
+	}
+
+	CNFSegments getPreviousSegments() {
+		final CNFSegments segments = previousSegments;
+		previousSegments = null;
+		return segments;
+	}
+
 	public Node getPropositionalNode() {
 		return getElement(new NodeCreator());
 	}
@@ -106,9 +203,16 @@ public class FeatureModelFormula {
 		return getElement(new FMAnalyzerCreator());
 	}
 
+	/**
+	 * Clears all cached elements. The {@link #getSegments() CNF segments} of features and constraints that were not changed since are reused.
+	 */
 	public void resetFormula() {
+		final CNFSegments segments = getCreatedSegments();
 		synchronized (map) {
 			map.clear();
+			featureIndex = null;
+			resetCount++;
+			previousSegments = segments;
 		}
 	}
 
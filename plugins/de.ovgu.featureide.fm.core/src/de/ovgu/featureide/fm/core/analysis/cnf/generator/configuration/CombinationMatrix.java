@@ -0,0 +1,80 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bit-packed matrix that stores the four combinations (00, 01, 10, 11) of a pair of variables in four bits per cell. Sixteen cells share one
+ * long value. Bits can be marked concurrently by multiple threads and are never removed.
+ */
+final class CombinationMatrix {
+
+	private static final int CELLS_PER_WORD_SHIFT = 4;
+	private static final int CELL_MASK = (1 << CELLS_PER_WORD_SHIFT) - 1;
+	private static final long BITS_MASK = 0xF;
+
+	private final AtomicLongArray words;
+	private final int size;
+
+	CombinationMatrix(int size) {
+		this.size = size;
+		words = new AtomicLongArray((size + CELL_MASK) >>> CELLS_PER_WORD_SHIFT);
+	}
+
+	int size() {
+		return size;
+	}
+
+	/**
+	 * @param index the index of a cell
+	 * @return the marked bits of the cell
+	 */
+	byte get(int index) {
+		return (byte) ((words.get(index >>> CELLS_PER_WORD_SHIFT) >>> shift(index)) & BITS_MASK);
+	}
+
+	/**
+	 * Marks the given bits of a cell atomically.
+	 *
+	 * @param index the index of a cell
+	 * @param bits the bits to mark (only the lower four bits are used)
+	 * @return {@code true} if at least one of the bits was not marked before, {@code false} otherwise.
+	 */
+	boolean mark(int index, int bits) {
+		final int wordIndex = index >>> CELLS_PER_WORD_SHIFT;
+		final long mask = (bits & BITS_MASK) << shift(index);
+		while (true) {
+			final long word = words.get(wordIndex);
+			if ((word & mask) == mask) {
+				return false;
+			}
+			if (words.compareAndSet(wordIndex, word, word | mask)) {
+				return true;
+			}
+		}
+	}
+
+	private static int shift(int index) {
+		return (index & CELL_MASK) << 2;
+	}
+
+}
@@ -94,7 +94,7 @@ public class PairWiseConfigurationGenerator extends AConfigurationGenerator impl
 		}
 	}
 
-	private static class FeatureIndex implements Comparable<FeatureIndex> {
+	protected static class FeatureIndex implements Comparable<FeatureIndex> {
 
 		private int coveredCombinations = 0, selected = 0;
 		private final int index;
@@ -173,7 +173,18 @@ public class PairWiseConfigurationGenerator extends AConfigurationGenerator impl
 	}
 
 	protected void addCombinationsFromModel(int[] curModel) {
-		for (int i = 0; i < combinations2.length; i++) {
+		addCombinationsFromModel(curModel, 0, combinations2.length);
+	}
+
+	/**
+	 * Marks the combinations covered by the given model for all cells in the given range of the combination matrix.
+	 *
+	 * @param curModel the new configuration
+	 * @param start first cell (inclusive)
+	 * @param end last cell (exclusive)
+	 */
+	protected void addCombinationsFromModel(int[] curModel, int start, int end) {
+		for (int i = start; i < end; i++) {
 			final int a = (i / numVariables);
 			final int b = (i % numVariables);
 			if (a == b) {
@@ -341,8 +352,21 @@ public class PairWiseConfigurationGenerator extends AConfigurationGenerator impl
 	}
 
 	protected int count(int[] curModel) {
+		return countCombinations(curModel, 0, combinations2.length) / 2;
+	}
+
+	/**
+	 * Counts the combinations that would be covered with the given model in the given range of the combination matrix. As each combination is
+	 * stored twice in the matrix, the result for the whole matrix has to be divided by two.
+	 *
+	 * @param curModel the configuration to evaluate
+	 * @param start first cell (inclusive)
+	 * @param end last cell (exclusive)
+	 * @return the number of covered cell entries
+	 */
+	protected int countCombinations(int[] curModel, int start, int end) {
 		int partCount = 0;
-		for (int i = 0; i < combinations2.length; i++) {
+		for (int i = start; i < end; i++) {
 			final int a = (i / numVariables);
 			final int b = (i % numVariables);
 			if (a == b) {
@@ -370,7 +394,7 @@ public class PairWiseConfigurationGenerator extends AConfigurationGenerator impl
 			partCount += (c >> 2) % 2;
 			partCount += (c >> 3) % 2;
 		}
-		return partCount / 2;
+		return partCount;
 	}
 
 	protected int count2() {
@@ -465,29 +489,11 @@ public class PairWiseConfigurationGenerator extends AConfigurationGenerator impl
 				}
 			}
 
-			boolean incomplete;
-
-			do {
-				incomplete = false;
-				for (int x1 = 0; x1 < model1Copy.length; x1++) {
-					for (int y1 = 0; y1 < model1Copy.length; y1++) {
-						final int combinationIndexX1Y1 = (x1 * numVariables) + y1;
-						if ((combinations[combinationIndexX1Y1] & BIT_CHECK) != 0) {
-							for (int x2 = 0; x2 < model1Copy.length; x2++) {
-								final int combinationIndexY1X2 = (y1 * numVariables) + x2;
-								if ((combinations[combinationIndexY1X2] & BIT_CHECK) != 0) {
-									final int combinationIndexX1X2 = (x1 * numVariables) + x2;
-									if ((combinations[combinationIndexX1X2] & BIT_CHECK) == 0) {
-										combinations[combinationIndexX1X2] |= BIT_CHECK;
-										incomplete = true;
-									}
-								}
-							}
-						}
-					}
-				}
-			} while (incomplete);
+			while (addTransitiveChecks()) {
+				// repeat until no new check flag is set
+			}
 
+			boolean incomplete;
 			do {
 				incomplete = false;
 				for (int i = 0; i < allYesSolution.length; i++) {
@@ -502,14 +508,59 @@ public class PairWiseConfigurationGenerator extends AConfigurationGenerator impl
 				}
 			} while (incomplete);
 
-			Arrays.fill(recArray, (byte) 0);
-			for (int i = 0; i < allYesSolution.length; i++) {
-				parentStack.add((i + 1));
-				testVariable();
-				parentStack.add(-(i + 1));
-				testVariable();
+			findImplications();
+		}
+	}
+
+	/**
+	 * Propagates the check flags of the combination matrix transitively for one pass over all variables.
+	 *
+	 * @return {@code true} if a new check flag was set, {@code false} otherwise.
+	 */
+	protected boolean addTransitiveChecks() {
+		return addTransitiveChecks(0, numVariables);
+	}
+
+	/**
+	 * Propagates the check flags of the combination matrix transitively for the rows of the given variables. Only the given rows are modified.
+	 *
+	 * @param start first variable index (inclusive)
+	 * @param end last variable index (exclusive)
+	 * @return {@code true} if a new check flag was set, {@code false} otherwise.
+	 */
+	protected boolean addTransitiveChecks(int start, int end) {
+		boolean incomplete = false;
+		for (int x1 = start; x1 < end; x1++) {
+			for (int y1 = 0; y1 < numVariables; y1++) {
+				final int combinationIndexX1Y1 = (x1 * numVariables) + y1;
+				if ((combinations[combinationIndexX1Y1] & BIT_CHECK) != 0) {
+					for (int x2 = 0; x2 < numVariables; x2++) {
+						final int combinationIndexY1X2 = (y1 * numVariables) + x2;
+						if ((combinations[combinationIndexY1X2] & BIT_CHECK) != 0) {
+							final int combinationIndexX1X2 = (x1 * numVariables) + x2;
+							if ((combinations[combinationIndexX1X2] & BIT_CHECK) == 0) {
+								combinations[combinationIndexX1X2] |= BIT_CHECK;
+								incomplete = true;
+							}
+						}
+					}
+				}
 			}
 		}
+		return incomplete;
+	}
+
+	/**
+	 * Detects implications between variables with the solver and stores them as relations in the combination matrix.
+	 */
+	protected void findImplications() {
+		Arrays.fill(recArray, (byte) 0);
+		for (int i = 0; i < numVariables; i++) {
+			parentStack.add((i + 1));
+			testVariable();
+			parentStack.add(-(i + 1));
+			testVariable();
+		}
 	}
 
 	protected void fix(final boolean[] featuresUsed, int a, int b) {
@@ -571,13 +622,49 @@ public class PairWiseConfigurationGenerator extends AConfigurationGenerator impl
 		final Configuration config = new Configuration(solution, partCount - getLastCoverage(), partCount);
 
 		addCombinationsFromModel(solution.getLiterals());
+		updateFeatureIndices();
 
-		for (int i = 0; i < featureIndexArray.length; i++) {
+		config.time = System.nanoTime() - time;
+		addResult(solution);
+		count++;
+		time = System.nanoTime();
+
+		try {
+			solver.addInternalClause(solution.negate());
+		} catch (final RuntimeContradictionException e) {
+			return true;
+		}
+
+		// Statistic numbers
+		final int absUncovered = printStatisticNumbers(config);
+
+		finalCount = Math.max(finalCount, count - maxBackJumping);
+		if (absUncovered <= 0) {
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Updates the number of covered combinations and the selection tendency of all feature indices.
+	 */
+	protected void updateFeatureIndices() {
+		updateFeatureIndices(0, featureIndexArray.length);
+	}
+
+	/**
+	 * Updates the number of covered combinations and the selection tendency of the feature indices in the given range.
+	 *
+	 * @param start first feature index (inclusive)
+	 * @param end last feature index (exclusive)
+	 */
+	protected void updateFeatureIndices(int start, int end) {
+		for (int i = start; i < end; i++) {
 			final FeatureIndex featureIndex = featureIndexArray[i];
 			final int a = featureIndex.getIndex();
 			int selected = 0;
 			int coveredCombinations = 0;
-			for (int j = a * numVariables, end = j + numVariables; j < end; j++) {
+			for (int j = a * numVariables, rowEnd = j + numVariables; j < rowEnd; j++) {
 				final byte c = (combinations2[j]);
 				if ((c & BIT_00) != 0) {
 					selected--;
@@ -599,26 +686,6 @@ public class PairWiseConfigurationGenerator extends AConfigurationGenerator impl
 			featureIndex.setCoveredCombinations(coveredCombinations);
 			featureIndex.setSelected(selected);
 		}
-
-		config.time = System.nanoTime() - time;
-		addResult(solution);
-		count++;
-		time = System.nanoTime();
-
-		try {
-			solver.addInternalClause(solution.negate());
-		} catch (final RuntimeContradictionException e) {
-			return true;
-		}
-
-		// Statistic numbers
-		final int absUncovered = printStatisticNumbers(config);
-
-		finalCount = Math.max(finalCount, count - maxBackJumping);
-		if (absUncovered <= 0) {
-			return true;
-		}
-		return false;
 	}
 
 	@SuppressWarnings("unused")
@@ -0,0 +1,330 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver.SelectionStrategy;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Multi-threaded variant of the {@link PairWiseConfigurationGenerator} (IncLing).<br> The detection of implications between variables is
+ * distributed over several workers that each use a clone of the solver. Detected relations are marked in a shared {@link CombinationMatrix}. The
+ * transitive propagation of check flags and the scoring of new configurations against the combination matrix are partitioned by rows, such that
+ * each worker only modifies its own part of the matrix.
+ */
+public class ParallelPairWiseConfigurationGenerator extends PairWiseConfigurationGenerator {
+
+	@FunctionalInterface
+	private interface RangeTask {
+
+		int run(int start, int end);
+
+	}
+
+	/**
+	 * Matrices smaller than this are processed on the calling thread, as the synchronization would take longer than the computation.
+	 */
+	private static final int MIN_PARALLEL_SIZE = 1 << 14;
+
+	private static final int PARTITIONS_PER_THREAD = 4;
+
+	private final int numberOfThreads;
+
+	private ExecutorService executor;
+
+	public ParallelPairWiseConfigurationGenerator(CNF satInstance, int maxNumber) {
+		this(satInstance, maxNumber, Runtime.getRuntime().availableProcessors());
+	}
+
+	public ParallelPairWiseConfigurationGenerator(CNF satInstance, int maxNumber, int numberOfThreads) {
+		super(satInstance, maxNumber);
+		this.numberOfThreads = Math.max(1, numberOfThreads);
+	}
+
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	@Override
+	protected void generate(IMonitor<List<LiteralSet>> monitor) throws Exception {
+		executor = Executors.newFixedThreadPool(numberOfThreads);
+		try {
+			super.generate(monitor);
+		} finally {
+			executor.shutdownNow();
+			executor = null;
+		}
+	}
+
+	@Override
+	protected boolean addTransitiveChecks() {
+		if ((numVariables * numVariables) < MIN_PARALLEL_SIZE) {
+			return super.addTransitiveChecks();
+		}
+		// Each task only sets flags in its own rows. Reading an outdated flag of another row is compensated by the next pass.
+		return runPartitioned(numVariables, (start, end) -> addTransitiveChecks(start, end) ? 1 : 0) > 0;
+	}
+
+	@Override
+	protected void findImplications() {
+		final int numberOfWorkers = Math.min(numberOfThreads, numVariables);
+		if (numberOfWorkers <= 1) {
+			super.findImplications();
+			return;
+		}
+		final CombinationMatrix relations = new CombinationMatrix(combinations.length);
+		final CombinationMatrix visited = new CombinationMatrix(numVariables);
+		final AtomicInteger nextVariable = new AtomicInteger();
+
+		final List<ImplicationWorker> workers = new ArrayList<>(numberOfWorkers);
+		for (int i = 0; i < numberOfWorkers; i++) {
+			workers.add(new ImplicationWorker(solver.clone(), relations, visited, nextVariable));
+		}
+		try {
+			for (final Future<Void> future : executor.invokeAll(workers)) {
+				getResult(future);
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		}
+
+		for (int i = 0; i < combinations.length; i++) {
+			combinations[i] |= relations.get(i);
+		}
+	}
+
+	@Override
+	protected int count(int[] curModel) {
+		if (combinations2.length < MIN_PARALLEL_SIZE) {
+			return super.count(curModel);
+		}
+		return runPartitioned(combinations2.length, (start, end) -> countCombinations(curModel, start, end)) / 2;
+	}
+
+	@Override
+	protected void addCombinationsFromModel(int[] curModel) {
+		if (combinations2.length < MIN_PARALLEL_SIZE) {
+			super.addCombinationsFromModel(curModel);
+			return;
+		}
+		runPartitioned(combinations2.length, (start, end) -> {
+			addCombinationsFromModel(curModel, start, end);
+			return 0;
+		});
+	}
+
+	@Override
+	protected void updateFeatureIndices() {
+		if (combinations2.length < MIN_PARALLEL_SIZE) {
+			super.updateFeatureIndices();
+			return;
+		}
+		runPartitioned(featureIndexArray.length, (start, end) -> {
+			updateFeatureIndices(start, end);
+			return 0;
+		});
+	}
+
+	/**
+	 * Splits the range from {@code 0} to {@code size} into disjoint partitions and runs the given task for each partition on the executor.
+	 *
+	 * @param size the size of the range
+	 * @param task the task to run for each partition
+	 * @return the sum of the results of all partitions
+	 */
+	private int runPartitioned(int size, RangeTask task) {
+		final int numberOfPartitions = Math.min(size, numberOfThreads * PARTITIONS_PER_THREAD);
+		if (numberOfPartitions <= 1) {
+			return task.run(0, size);
+		}
+		final int partitionSize = ((size - 1) / numberOfPartitions) + 1;
+		final List<Callable<Integer>> tasks = new ArrayList<>(numberOfPartitions);
+		for (int start = 0; start < size; start += partitionSize) {
+			final int partitionStart = start;
+			final int partitionEnd = Math.min(size, start + partitionSize);
+			tasks.add(() -> task.run(partitionStart, partitionEnd));
+		}
+		try {
+			int result = 0;
+			for (final Future<Integer> future : executor.invokeAll(tasks)) {
+				result += getResult(future);
+			}
+			return result;
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		}
+	}
+
+	private static <T> T getResult(Future<T> future) throws InterruptedException {
+		try {
+			return future.get();
+		} catch (final ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new RuntimeException(cause);
+		}
+	}
+
+	/**
+	 * Detects implications for the variables it takes from a shared counter, using its own solver.
+	 */
+	private final class ImplicationWorker implements Callable<Void> {
+
+		private final ISatSolver workerSolver;
+		private final CombinationMatrix relations;
+		private final CombinationMatrix visited;
+		private final AtomicInteger nextVariable;
+		private final Deque<Integer> workerStack = new LinkedList<>();
+
+		private ImplicationWorker(ISatSolver workerSolver, CombinationMatrix relations, CombinationMatrix visited, AtomicInteger nextVariable) {
+			this.workerSolver = workerSolver;
+			this.relations = relations;
+			this.visited = visited;
+			this.nextVariable = nextVariable;
+			workerSolver.useSolutionList(Math.min(numVariables, ISatSolver.MAX_SOLUTION_BUFFER));
+		}
+
+		@Override
+		public Void call() {
+			for (int i = nextVariable.getAndIncrement(); i < numVariables; i = nextVariable.getAndIncrement()) {
+				workerStack.push(i + 1);
+				testVariable();
+				workerStack.push(-(i + 1));
+				testVariable();
+			}
+			return null;
+		}
+
+		private void testVariable() {
+			final int mx1 = workerStack.peek();
+			final int i = Math.abs(mx1) - 1;
+			final boolean positive = mx1 > 0;
+
+			if ((core[i] == 0) && visited.mark(i, positive ? 1 : 2)) {
+				int[] xModel1 = null;
+				for (final int[] solution : workerSolver.getSolutionList()) {
+					if (mx1 == solution[i]) {
+						xModel1 = solution;
+						break;
+					}
+				}
+
+				int c = 0;
+
+				workerSolver.assignmentPush(workerSolver.getInternalMapping().convertToOriginal(mx1));
+				if (xModel1 == null) {
+					xModel1 = workerSolver.findSolution();
+					if (xModel1 == null) {
+						throw new RuntimeException();
+					}
+				}
+				final int rowIndex = i * numVariables;
+
+				inner1: for (int j = i + 1; j < xModel1.length; j++) {
+					final byte b = (byte) (combinations[rowIndex + j] | relations.get(rowIndex + j));
+					if ((core[j] == 0) && ((b & BIT_CHECK) != 0)
+						&& ((positive && ((b & BITS_POSITIVE_IMPLY) == 0)) || (!positive && ((b & BITS_NEGATIVE_IMPLY) == 0)))) {
+
+						final int my1 = xModel1[j];
+						for (final int[] solution : workerSolver.getSolutionList()) {
+							final int mxI = solution[i];
+							final int myI = solution[j];
+							if ((mx1 == mxI) && (my1 != myI)) {
+								continue inner1;
+							}
+						}
+
+						workerSolver.assignmentPush(workerSolver.getInternalMapping().convertToOriginal(-my1));
+						workerSolver.setSelectionStrategy(((c++ % 2) != 0) ? SelectionStrategy.POSITIVE : SelectionStrategy.NEGATIVE);
+
+						switch (workerSolver.hasSolution()) {
+						case FALSE:
+							for (final int mx0 : workerStack) {
+								addRelation(mx0, my1);
+							}
+							workerStack.push(my1);
+							workerSolver.assignmentPop();
+							workerSolver.assignmentPop();
+							testVariable();
+							workerSolver.assignmentPush(workerSolver.getInternalMapping().convertToOriginal(mx1));
+							break;
+						case TIMEOUT:
+							workerSolver.assignmentPop();
+							break;
+						case TRUE:
+							workerSolver.shuffleOrder(getRandom());
+							workerSolver.assignmentPop();
+							break;
+						}
+					}
+				}
+				workerSolver.assignmentPop();
+			}
+			workerStack.pop();
+		}
+
+		private void addRelation(final int mx0, final int my0) {
+			final int indexX = Math.abs(mx0) - 1;
+			final int indexY = Math.abs(my0) - 1;
+			final int combinationIndexXY = (indexX * numVariables) + indexY;
+			final int combinationIndexYX = (indexY * numVariables) + indexX;
+
+			if (mx0 > 0) {
+				if (my0 > 0) {
+					relations.mark(combinationIndexXY, BIT_11);
+					relations.mark(combinationIndexYX, BIT_00);
+				} else {
+					relations.mark(combinationIndexXY, BIT_10);
+					relations.mark(combinationIndexYX, BIT_10);
+				}
+			} else {
+				if (my0 > 0) {
+					relations.mark(combinationIndexXY, BIT_01);
+					relations.mark(combinationIndexYX, BIT_01);
+				} else {
+					relations.mark(combinationIndexXY, BIT_00);
+					relations.mark(combinationIndexYX, BIT_11);
+				}
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,70 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import splar.core.constraints.BooleanVariable;
+import splar.core.constraints.CNFClause;
+import splar.core.constraints.CNFFormula;
+import splar.core.constraints.CNFLiteral;
+
+/**
+ * Converts a {@link CNF} into the CNF representation of SPLCATool, which is used by its covering array generators.<br> The clauses are copied
+ * directly, without writing and parsing an intermediate DIMACS document or feature model. Each variable is identified by its name. Variables that do
+ * not occur in any clause are added with a tautological clause, such that they are still covered.
+ *
+ * @see SPLCAToolConfigurationGenerator
+ */
+public final class SPLCAToolCNFConverter {
+
+	private SPLCAToolCNFConverter() {}
+
+	public static no.sintef.ict.splcatool.CNF convert(CNF cnf) {
+		final String[] names = cnf.getVariables().getNames();
+		final BooleanVariable[] variables = new BooleanVariable[names.length];
+		for (int i = 1; i < names.length; i++) {
+			variables[i] = new BooleanVariable(names[i]);
+		}
+
+		final boolean[] occurring = new boolean[names.length];
+		final CNFFormula formula = new CNFFormula();
+		for (final LiteralSet clause : cnf.getClauses()) {
+			final CNFClause splcaClause = new CNFClause();
+			for (final int literal : clause.getLiterals()) {
+				final int variable = Math.abs(literal);
+				splcaClause.addLiteral(new CNFLiteral(variables[variable], literal > 0));
+				occurring[variable] = true;
+			}
+			formula.addClause(splcaClause);
+		}
+		for (int i = 1; i < names.length; i++) {
+			if (!occurring[i]) {
+				final CNFClause splcaClause = new CNFClause();
+				splcaClause.addLiteral(new CNFLiteral(variables[i], true));
+				splcaClause.addLiteral(new CNFLiteral(variables[i], false));
+				formula.addClause(splcaClause);
+			}
+		}
+		return new no.sintef.ict.splcatool.CNF(formula);
+	}
+
+}
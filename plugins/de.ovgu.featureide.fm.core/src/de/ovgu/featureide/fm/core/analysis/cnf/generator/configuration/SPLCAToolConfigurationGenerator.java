@@ -33,18 +33,11 @@ import de.ovgu.featureide.fm.core.Logger;
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
 import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
-import de.ovgu.featureide.fm.core.base.IFeature;
-import de.ovgu.featureide.fm.core.base.IFeatureModel;
-import de.ovgu.featureide.fm.core.base.impl.DefaultFeatureModelFactory;
 import de.ovgu.featureide.fm.core.io.FileSystem;
-import de.ovgu.featureide.fm.core.io.dimacs.DIMACSFormat;
-import de.ovgu.featureide.fm.core.io.dimacs.DIMACSFormatCNF;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 import no.sintef.ict.splcatool.CoveringArray;
 import no.sintef.ict.splcatool.CoveringArrayCASA;
 import no.sintef.ict.splcatool.CoveringArrayGenerationException;
-import no.sintef.ict.splcatool.GUIDSL;
-import splar.core.fm.FeatureModelException;
 
 /**
  * Generates T-wise configurations using SPLATool.
@@ -55,22 +48,13 @@ import splar.core.fm.FeatureModelException;
 public class SPLCAToolConfigurationGenerator extends de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.AConfigurationGenerator
 		implements ITWiseConfigurationGenerator {
 
-	private final IFeatureModel featureModel;
-	private final Variables renamedVariables;
+	private final CNF cnf;
 	private final String algorithm;
 	private final int t;
 
 	public SPLCAToolConfigurationGenerator(CNF cnf, String algorithm, int t, int maxSampleSize) {
 		super(cnf, maxSampleSize);
-		featureModel = DefaultFeatureModelFactory.getInstance().create();
-
-		renamedVariables = cnf.getVariables().clone();
-		int index = 1;
-		for (final String originalName : cnf.getVariables().getNames()) {
-			renamedVariables.renameVariable(originalName, "F" + index++);
-		}
-		final String dimacsSource = new DIMACSFormatCNF().write(new CNF(renamedVariables, cnf.getClauses()));
-		new DIMACSFormat().read(featureModel, dimacsSource);
+		this.cnf = cnf;
 		this.algorithm = algorithm;
 		this.t = t;
 	}
@@ -85,12 +69,12 @@ public class SPLCAToolConfigurationGenerator extends de.ovgu.featureide.fm.core.
 				CoveringArrayCASA.CASA_PATH = string;
 			}
 
-			ca = new GUIDSL(featureModel).getSXFM().getCNF().getCoveringArrayGenerator(algorithm, t);
+			ca = SPLCAToolCNFConverter.convert(cnf).getCoveringArrayGenerator(algorithm, t);
 			if (ca == null) {
 				return;
 			}
 			ca.generate();
-		} catch (FeatureModelException | TimeoutException | CoveringArrayGenerationException e) {
+		} catch (TimeoutException | CoveringArrayGenerationException e) {
 			Logger.logError(e);
 			return;
 		} catch (final Exception e) {
@@ -111,7 +95,7 @@ public class SPLCAToolConfigurationGenerator extends de.ovgu.featureide.fm.core.
 				literals[i] = -(i + 1);
 			}
 			for (final String selection : solution) {
-				final int varIndex = renamedVariables.getVariable(selection);
+				final int varIndex = cnf.getVariables().getVariable(selection);
 				final int variable = solver.getSatInstance().getInternalVariables().convertToInternal(varIndex);
 				if (variable != 0) {
 					literals[variable - 1] = variable;
@@ -122,7 +106,7 @@ public class SPLCAToolConfigurationGenerator extends de.ovgu.featureide.fm.core.
 	}
 
 	/**
-	 * The result of the generator can:<br> a) contain duplicate solutions<br> b) duplicate solutions that differ only by the selection of abstract features
+	 * The result of the generator can contain duplicate solutions.
 	 *
 	 * @return Duplicate free solutions
 	 */
@@ -134,11 +118,7 @@ public class SPLCAToolConfigurationGenerator extends de.ovgu.featureide.fm.core.
 			final List<String> convertedSolution = new ArrayList<>();
 			for (final Integer i : solution) {
 				if (i > 0) {
-					final String id = ca.getId(i);
-					final IFeature feature = featureModel.getFeature(id);
-					if ((feature != null) && feature.getStructure().isConcrete()) {
-						convertedSolution.add(feature.getName());
-					}
+					convertedSolution.add(ca.getId(i));
 				}
 			}
 			Collections.sort(convertedSolution);
@@ -0,0 +1,641 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.manipulator.remove;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.stream.Collectors;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.SlicedVariables;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.analysis.cnf.manipulator.AbstractManipulator;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.SatResult;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.RuntimeContradictionException;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.SimpleSatSolver;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Removes variables from a CNF by resolution like the {@link CNFSlicer}, but bounds the growth of the clause count.<br> Variables are eliminated in the
+ * order of their estimated clause growth. If the elimination of a variable would add more than {@link #getMaxGrowth()} clauses, even after removing
+ * redundant resolvents, the variable is kept as auxiliary variable in the resulting CNF (see {@link #getAuxiliaryVariables()}). Thus, the result is
+ * equivalent to the original CNF with respect to all remaining variables, if all auxiliary variables are existentially quantified.<br> Afterwards,
+ * redundant clauses are removed. Clauses of independent variable clusters cannot imply each other, so the clusters are checked in parallel with
+ * separate solvers.
+ */
+public class BoundedCNFSlicer extends AbstractManipulator {
+
+	/**
+	 * The number of clauses the elimination of a single variable may add by default.
+	 */
+	public static final int DEFAULT_MAX_GROWTH = 256;
+
+	/**
+	 * Statistics of the elimination of a single variable.
+	 */
+	public static final class Elimination {
+
+		private final String variable;
+		private final int clauseCountBefore;
+		private final int clauseCountAfter;
+
+		private Elimination(String variable, int clauseCountBefore, int clauseCountAfter) {
+			this.variable = variable;
+			this.clauseCountBefore = clauseCountBefore;
+			this.clauseCountAfter = clauseCountAfter;
+		}
+
+		public String getVariable() {
+			return variable;
+		}
+
+		public int getClauseCountBefore() {
+			return clauseCountBefore;
+		}
+
+		public int getClauseCountAfter() {
+			return clauseCountAfter;
+		}
+
+		public int getGrowth() {
+			return clauseCountAfter - clauseCountBefore;
+		}
+
+		@Override
+		public String toString() {
+			return variable + ": " + clauseCountBefore + " -> " + clauseCountAfter;
+		}
+
+	}
+
+	private static final Comparator<LiteralSet> lengthComparator = Comparator.comparingInt(LiteralSet::size);
+
+	/**
+	 * Upper bound for the number of resolvents that are computed for a single variable, as multiple of the clauses it may have afterwards.
+	 */
+	private static final int RESOLVENT_LIMIT_FACTOR = 4;
+
+	private final LiteralSet dirtyVariables;
+	private final int maxGrowth;
+	private final CNF cnfCopy;
+
+	private final List<Elimination> eliminations = new ArrayList<>();
+	private final List<String> auxiliaryVariables = new ArrayList<>();
+
+	private LinkedHashSet<LiteralSet> clauses;
+	private HashSet<LiteralSet> resolventClauses;
+	private List<List<LiteralSet>> occurrences;
+	private boolean[] dirty;
+	private int[] helper;
+	private int mixedClauseCount;
+
+	public BoundedCNFSlicer(CNF orgCNF, Collection<String> dirtyVariableNames) {
+		this(orgCNF, dirtyVariableNames, DEFAULT_MAX_GROWTH);
+	}
+
+	public BoundedCNFSlicer(CNF orgCNF, Collection<String> dirtyVariableNames, int maxGrowth) {
+		this(orgCNF, orgCNF.getVariables().convertToVariables(dirtyVariableNames), maxGrowth);
+	}
+
+	public BoundedCNFSlicer(CNF orgCNF, LiteralSet dirtyVariables) {
+		this(orgCNF, dirtyVariables, DEFAULT_MAX_GROWTH);
+	}
+
+	public BoundedCNFSlicer(CNF orgCNF, LiteralSet dirtyVariables, int maxGrowth) {
+		super(orgCNF);
+		this.dirtyVariables = dirtyVariables;
+		this.maxGrowth = maxGrowth;
+		cnfCopy = new CNF(orgCNF, false);
+	}
+
+	public int getMaxGrowth() {
+		return maxGrowth;
+	}
+
+	/**
+	 * @return the statistics of all eliminated variables in the order of their elimination.
+	 */
+	public List<Elimination> getEliminations() {
+		return Collections.unmodifiableList(eliminations);
+	}
+
+	/**
+	 * @return the names of all variables that should be removed, but are still contained in the resulting CNF.
+	 */
+	public List<String> getAuxiliaryVariables() {
+		return Collections.unmodifiableList(auxiliaryVariables);
+	}
+
+	@Override
+	protected CNF manipulate(IMonitor<CNF> monitor) throws Exception {
+		eliminations.clear();
+		auxiliaryVariables.clear();
+
+		final Variables variables = orgCNF.getVariables();
+		final int maxVariableID = variables.maxVariableID();
+		dirty = new boolean[maxVariableID + 1];
+		for (final int literal : dirtyVariables.getLiterals()) {
+			dirty[Math.abs(literal)] = true;
+		}
+
+		if (!isSatisfiable()) {
+			return new CNF(createVariables(Collections.emptyList()), orgCNF.getClauses());
+		}
+
+		helper = new int[maxVariableID + 1];
+		occurrences = new ArrayList<>((maxVariableID + 1) << 1);
+		for (int i = 0; i < ((maxVariableID + 1) << 1); i++) {
+			occurrences.add(new ArrayList<>());
+		}
+		clauses = new LinkedHashSet<>();
+		resolventClauses = new HashSet<>();
+		mixedClauseCount = 0;
+		for (final LiteralSet clause : orgCNF.getClauses()) {
+			addClause(new LiteralSet(clause));
+		}
+
+		final PriorityQueue<int[]> queue = new PriorityQueue<>((a, b) -> a[0] != b[0] ? Integer.compare(a[0], b[0]) : Integer.compare(a[1], b[1]));
+		for (int variable = 1; variable <= maxVariableID; variable++) {
+			if (dirty[variable]) {
+				queue.add(new int[] { estimateGrowth(variable), variable });
+			}
+		}
+
+		monitor.setRemainingWork(queue.size() + 1);
+		final List<Integer> keptVariables = new ArrayList<>();
+		while (!queue.isEmpty()) {
+			monitor.checkCancel();
+			// If no clause contains dirty and clean variables, all dirty clauses can be removed without resolution
+			if (mixedClauseCount == 0) {
+				removeDirtyClauses();
+				break;
+			}
+			final int[] entry = queue.poll();
+			final int variable = entry[1];
+			final int estimate = estimateGrowth(variable);
+			if (estimate > entry[0]) {
+				entry[0] = estimate;
+				queue.add(entry);
+				continue;
+			}
+			if (!eliminate(variable)) {
+				keptVariables.add(variable);
+			}
+			monitor.step();
+		}
+
+		final List<LiteralSet> remainingClauses = removeRedundantClauses();
+		monitor.step();
+
+		final boolean[] used = new boolean[maxVariableID + 1];
+		for (final LiteralSet clause : remainingClauses) {
+			for (final int literal : clause.getLiterals()) {
+				used[Math.abs(literal)] = true;
+			}
+		}
+		for (final int variable : keptVariables) {
+			if (used[variable]) {
+				auxiliaryVariables.add(variables.getName(variable));
+			}
+		}
+
+		release();
+		return new CNF(createVariables(auxiliaryVariables), remainingClauses);
+	}
+
+	private boolean isSatisfiable() {
+		try {
+			return new SimpleSatSolver(orgCNF).hasSolution() == SatResult.TRUE;
+		} catch (final RuntimeContradictionException e) {
+			return false;
+		}
+	}
+
+	private SlicedVariables createVariables(List<String> keptDirtyVariables) {
+		final Variables variables = orgCNF.getVariables();
+		final List<String> names = new ArrayList<>();
+		for (int variable = 1; variable < dirty.length; variable++) {
+			final String name = variables.getName(variable);
+			if ((name != null) && !dirty[variable]) {
+				names.add(name);
+			}
+		}
+		names.addAll(keptDirtyVariables);
+		return new SlicedVariables(variables, names);
+	}
+
+	private void release() {
+		clauses = null;
+		resolventClauses = null;
+		occurrences = null;
+		helper = null;
+	}
+
+	/**
+	 * Eliminates the given variable by resolution, unless this increases the number of clauses by more than {@link #maxGrowth}.
+	 *
+	 * @param variable the variable to eliminate
+	 * @return {@code true} if the variable was eliminated, {@code false} if it was kept.
+	 */
+	private boolean eliminate(int variable) {
+		final List<LiteralSet> positive = new ArrayList<>(getOccurrences(variable));
+		final List<LiteralSet> negative = new ArrayList<>(getOccurrences(-variable));
+		final int removedCount = positive.size() + negative.size();
+		final int resolventLimit = RESOLVENT_LIMIT_FACTOR * (removedCount + Math.max(0, maxGrowth));
+
+		final LinkedHashSet<LiteralSet> resolvents = new LinkedHashSet<>();
+		for (final LiteralSet positiveClause : positive) {
+			for (final LiteralSet negativeClause : negative) {
+				final LiteralSet resolvent = resolve(positiveClause, negativeClause, variable);
+				if ((resolvent != null) && !isSubsumed(resolvent)) {
+					resolvents.add(resolvent);
+					if (resolvents.size() > resolventLimit) {
+						return false;
+					}
+				}
+			}
+		}
+		removeSubsumedResolvents(resolvents);
+
+		if ((resolvents.size() - removedCount) > maxGrowth) {
+			removeRedundantResolvents(variable, resolvents, removedCount + maxGrowth);
+			if ((resolvents.size() - removedCount) > maxGrowth) {
+				return false;
+			}
+		}
+
+		final int clauseCountBefore = clauses.size();
+		for (final LiteralSet clause : positive) {
+			removeClause(clause);
+		}
+		for (final LiteralSet clause : negative) {
+			removeClause(clause);
+		}
+		for (final LiteralSet resolvent : resolvents) {
+			addClause(resolvent);
+			resolventClauses.add(resolvent);
+		}
+		eliminations.add(new Elimination(orgCNF.getVariables().getName(variable), clauseCountBefore, clauses.size()));
+		return true;
+	}
+
+	/**
+	 * Checks whether a clause of the current formula is a subset of the given resolvent. The clauses that contain the eliminated variable cannot be a
+	 * subset, as the resolvent does not contain this variable.
+	 */
+	private boolean isSubsumed(LiteralSet resolvent) {
+		final int[] literals = resolvent.getLiterals();
+		if (literals.length == 0) {
+			return false;
+		}
+		List<LiteralSet> candidates = null;
+		for (final int literal : literals) {
+			final List<LiteralSet> occurrenceList = getOccurrences(literal);
+			if ((candidates == null) || (occurrenceList.size() < candidates.size())) {
+				candidates = occurrenceList;
+			}
+		}
+		for (final int literal : literals) {
+			helper[Math.abs(literal)] = literal;
+		}
+		boolean subsumed = false;
+		for (final LiteralSet candidate : candidates) {
+			if ((candidate.size() <= literals.length) && isMarkedSubset(candidate)) {
+				subsumed = true;
+				break;
+			}
+		}
+		for (final int literal : literals) {
+			helper[Math.abs(literal)] = 0;
+		}
+		return subsumed;
+	}
+
+	/**
+	 * Removes all resolvents that are a superset of another resolvent.
+	 */
+	private void removeSubsumedResolvents(LinkedHashSet<LiteralSet> resolvents) {
+		if (resolvents.size() > 1) {
+			final List<LiteralSet> sortedResolvents = new ArrayList<>(resolvents);
+			Collections.sort(sortedResolvents, lengthComparator);
+			final List<LiteralSet> keptResolvents = new ArrayList<>(sortedResolvents.size());
+			for (final LiteralSet resolvent : sortedResolvents) {
+				final int[] literals = resolvent.getLiterals();
+				for (final int literal : literals) {
+					helper[Math.abs(literal)] = literal;
+				}
+				boolean subsumed = false;
+				for (final LiteralSet keptResolvent : keptResolvents) {
+					if (isMarkedSubset(keptResolvent)) {
+						subsumed = true;
+						break;
+					}
+				}
+				for (final int literal : literals) {
+					helper[Math.abs(literal)] = 0;
+				}
+				if (subsumed) {
+					resolvents.remove(resolvent);
+				} else {
+					keptResolvents.add(resolvent);
+				}
+			}
+		}
+	}
+
+	private boolean isMarkedSubset(LiteralSet clause) {
+		for (final int literal : clause.getLiterals()) {
+			if (helper[Math.abs(literal)] != literal) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Removes resolvents that are implied by the clauses around the eliminated variable. As these clauses are a subset of the formula, a resolvent that
+	 * is implied by them is also implied by the formula. Stops as soon as the number of resolvents is within the given limit or cannot get below it
+	 * anymore. Remaining redundant resolvents are removed afterwards by {@link #removeRedundantClauses()}.
+	 */
+	private void removeRedundantResolvents(int variable, LinkedHashSet<LiteralSet> resolvents, int maxResolventCount) {
+		final LinkedHashSet<LiteralSet> neighborhood = new LinkedHashSet<>();
+		for (final LiteralSet resolvent : resolvents) {
+			for (final int literal : resolvent.getLiterals()) {
+				for (final LiteralSet clause : getOccurrences(literal)) {
+					if (!containsVariable(clause, variable)) {
+						neighborhood.add(clause);
+					}
+				}
+				for (final LiteralSet clause : getOccurrences(-literal)) {
+					if (!containsVariable(clause, variable)) {
+						neighborhood.add(clause);
+					}
+				}
+			}
+		}
+
+		final ISimpleSatSolver solver = new SimpleSatSolver(cnfCopy);
+		solver.addClauses(neighborhood);
+
+		final List<LiteralSet> sortedResolvents = new ArrayList<>(resolvents);
+		Collections.sort(sortedResolvents, lengthComparator);
+		int nonRedundantCount = 0;
+		for (final LiteralSet resolvent : sortedResolvents) {
+			if ((resolvents.size() <= maxResolventCount) || (nonRedundantCount > maxResolventCount)) {
+				break;
+			}
+			if (isRedundant(solver, resolvent)) {
+				resolvents.remove(resolvent);
+			} else {
+				solver.addClause(resolvent);
+				nonRedundantCount++;
+			}
+		}
+	}
+
+	/**
+	 * Removes redundant resolvents from the current formula. The clauses of the original formula are always kept. The variables are partitioned into
+	 * independent clusters and the clusters are distributed over several buckets that are checked in parallel.
+	 *
+	 * @return the list of non-redundant clauses
+	 */
+	private List<LiteralSet> removeRedundantClauses() {
+		final int[] cluster = new int[dirty.length];
+		for (int i = 0; i < cluster.length; i++) {
+			cluster[i] = i;
+		}
+		for (final LiteralSet clause : clauses) {
+			final int[] literals = clause.getLiterals();
+			for (int i = 1; i < literals.length; i++) {
+				final int root1 = findCluster(cluster, Math.abs(literals[0]));
+				final int root2 = findCluster(cluster, Math.abs(literals[i]));
+				if (root1 != root2) {
+					cluster[root2] = root1;
+				}
+			}
+		}
+
+		final List<LiteralSet> result = new ArrayList<>(clauses.size());
+		final Map<Integer, List<LiteralSet>> clusterMap = new HashMap<>();
+		for (final LiteralSet clause : clauses) {
+			if (clause.size() > 0) {
+				clusterMap.computeIfAbsent(findCluster(cluster, Math.abs(clause.getLiterals()[0])), k -> new ArrayList<>()).add(clause);
+			}
+		}
+
+		final List<List<LiteralSet>> clusters = new ArrayList<>();
+		for (final List<LiteralSet> clusterClauses : clusterMap.values()) {
+			if ((clusterClauses.size() == 1) || !clusterClauses.stream().anyMatch(resolventClauses::contains)) {
+				result.addAll(clusterClauses);
+			} else {
+				clusters.add(clusterClauses);
+			}
+		}
+		Collections.sort(clusters, (a, b) -> Integer.compare(b.size(), a.size()));
+
+		final int numberOfBuckets = Math.max(1, Math.min(clusters.size(), Runtime.getRuntime().availableProcessors()));
+		final List<List<LiteralSet>> buckets = new ArrayList<>(numberOfBuckets);
+		final int[] bucketSizes = new int[numberOfBuckets];
+		for (int i = 0; i < numberOfBuckets; i++) {
+			buckets.add(new ArrayList<>());
+		}
+		for (final List<LiteralSet> clusterClauses : clusters) {
+			int smallestBucket = 0;
+			for (int i = 1; i < numberOfBuckets; i++) {
+				if (bucketSizes[i] < bucketSizes[smallestBucket]) {
+					smallestBucket = i;
+				}
+			}
+			buckets.get(smallestBucket).addAll(clusterClauses);
+			bucketSizes[smallestBucket] += clusterClauses.size();
+		}
+
+		result.addAll(buckets.parallelStream() //
+				.map(this::removeRedundantClauses) //
+				.flatMap(List::stream) //
+				.collect(Collectors.toList()));
+		return result;
+	}
+
+	private List<LiteralSet> removeRedundantClauses(List<LiteralSet> bucket) {
+		final ISimpleSatSolver solver = new SimpleSatSolver(cnfCopy);
+		final List<LiteralSet> result = new ArrayList<>(bucket.size());
+		final List<LiteralSet> resolvents = new ArrayList<>();
+		for (final LiteralSet clause : bucket) {
+			if (resolventClauses.contains(clause)) {
+				resolvents.add(clause);
+			} else {
+				solver.addClause(clause);
+				result.add(clause);
+			}
+		}
+
+		Collections.sort(resolvents, lengthComparator);
+		for (final LiteralSet resolvent : resolvents) {
+			if (!isRedundant(solver, resolvent)) {
+				solver.addClause(resolvent);
+				result.add(resolvent);
+			}
+		}
+		return result;
+	}
+
+	private static int findCluster(int[] cluster, int variable) {
+		int root = variable;
+		while (cluster[root] != root) {
+			root = cluster[root];
+		}
+		while (cluster[variable] != root) {
+			final int next = cluster[variable];
+			cluster[variable] = root;
+			variable = next;
+		}
+		return root;
+	}
+
+	private static boolean isRedundant(ISimpleSatSolver solver, LiteralSet clause) {
+		switch (solver.hasSolution(clause.negate())) {
+		case FALSE:
+			return true;
+		case TIMEOUT:
+		case TRUE:
+		default:
+			return false;
+		}
+	}
+
+	/**
+	 * @return the number of additional clauses, if the given variable was eliminated and no resolvent was redundant.
+	 */
+	private int estimateGrowth(int variable) {
+		final int positiveCount = getOccurrences(variable).size();
+		final int negativeCount = getOccurrences(-variable).size();
+		return (positiveCount * negativeCount) - positiveCount - negativeCount;
+	}
+
+	private List<LiteralSet> getOccurrences(int literal) {
+		return occurrences.get(getOccurrenceIndex(literal));
+	}
+
+	private static boolean containsVariable(LiteralSet clause, int variable) {
+		for (final int literal : clause.getLiterals()) {
+			if (Math.abs(literal) == variable) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static int getOccurrenceIndex(int literal) {
+		return literal > 0 ? (literal << 1) : ((-literal << 1) + 1);
+	}
+
+	private LiteralSet resolve(LiteralSet positiveClause, LiteralSet negativeClause, int variable) {
+		final int[] positiveLiterals = positiveClause.getLiterals();
+		final int[] negativeLiterals = negativeClause.getLiterals();
+		final int[] literals = new int[(positiveLiterals.length + negativeLiterals.length) - 2];
+		int count = 0;
+		for (final int literal : positiveLiterals) {
+			if (literal != variable) {
+				helper[Math.abs(literal)] = literal;
+				literals[count++] = literal;
+			}
+		}
+		LiteralSet resolvent = null;
+		boolean tautology = false;
+		for (final int literal : negativeLiterals) {
+			if (literal != -variable) {
+				final int mark = helper[Math.abs(literal)];
+				if (mark == 0) {
+					literals[count++] = literal;
+				} else if (mark != literal) {
+					tautology = true;
+					break;
+				}
+			}
+		}
+		for (final int literal : positiveLiterals) {
+			helper[Math.abs(literal)] = 0;
+		}
+		if (!tautology) {
+			resolvent = new LiteralSet(Arrays.copyOf(literals, count));
+		}
+		return resolvent;
+	}
+
+	private void addClause(LiteralSet clause) {
+		if (clauses.add(clause)) {
+			for (final int literal : clause.getLiterals()) {
+				occurrences.get(getOccurrenceIndex(literal)).add(clause);
+			}
+			if (isMixed(clause)) {
+				mixedClauseCount++;
+			}
+		}
+	}
+
+	private void removeClause(LiteralSet clause) {
+		if (clauses.remove(clause)) {
+			for (final int literal : clause.getLiterals()) {
+				getOccurrences(literal).remove(clause);
+			}
+			if (isMixed(clause)) {
+				mixedClauseCount--;
+			}
+		}
+	}
+
+	private void removeDirtyClauses() {
+		clauses.removeIf(clause -> {
+			for (final int literal : clause.getLiterals()) {
+				if (dirty[Math.abs(literal)]) {
+					return true;
+				}
+			}
+			return false;
+		});
+	}
+
+	private boolean isMixed(LiteralSet clause) {
+		boolean containsDirty = false;
+		boolean containsClean = false;
+		for (final int literal : clause.getLiterals()) {
+			if (dirty[Math.abs(literal)]) {
+				containsDirty = true;
+			} else {
+				containsClean = true;
+			}
+		}
+		return containsDirty && containsClean;
+	}
+
+}
@@ -25,7 +25,6 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Hashtable;
-import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -46,6 +45,8 @@ import de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent;
 import de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent.EventType;
 import de.ovgu.featureide.fm.core.base.event.IEventListener;
 import de.ovgu.featureide.fm.core.base.event.IEventManager;
+import de.ovgu.featureide.fm.core.base.util.ConcurrentLinkedMap;
+import de.ovgu.featureide.fm.core.base.util.IdIndexedMap;
 import de.ovgu.featureide.fm.core.filter.ConcreteFeatureFilter;
 import de.ovgu.featureide.fm.core.functional.Functional;
 
@@ -84,10 +85,13 @@ public class FeatureModel implements IFeatureModel {
 	protected final List<String> featureOrderList;
 	protected boolean featureOrderUserDefined;
 	/**
-	 * A {@link Map} containing all features.
+	 * A {@link Map} containing all features in the order of their insertion. Lookups by name do not lock.
 	 */
-	protected final Map<String, IFeature> featureTable = Collections.synchronizedMap(new LinkedHashMap<>());
-	protected final Map<Long, IFeatureModelElement> elements = Collections.synchronizedMap(new LinkedHashMap<>());
+	protected final Map<String, IFeature> featureTable = new ConcurrentLinkedMap<>();
+	/**
+	 * All features and constraints indexed by their {@link IFeatureModelElement#getInternalId() internal ID}. Lookups by ID do not lock.
+	 */
+	protected final IdIndexedMap<IFeatureModelElement> elements = new IdIndexedMap<>();
 
 	protected IEventManager eventManager = new DefaultEventManager();
 
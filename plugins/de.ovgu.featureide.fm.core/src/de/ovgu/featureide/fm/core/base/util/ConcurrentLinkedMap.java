@@ -0,0 +1,142 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.base.util;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Map that keeps the insertion order of its entries and answers lookups without locking.<br> All lookup methods ({@link #get(Object)},
+ * {@link #containsKey(Object)}, {@link #size()}) are served by a {@link ConcurrentHashMap}, while an additional {@link LinkedHashMap} keeps the iteration
+ * order. Modifications are synchronized on the map itself and invalidate an immutable snapshot of the ordered entries, which is created again on the next
+ * iteration. The views iterate over the snapshot that was current when the iteration started, so they never throw a
+ * {@link java.util.ConcurrentModificationException} and do not reflect later modifications. The views do not support modification. Neither keys nor values
+ * can be <code>null</code>.
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the values.
+ */
+public class ConcurrentLinkedMap<K, V> extends AbstractMap<K, V> {
+
+	private final ConcurrentHashMap<K, V> index = new ConcurrentHashMap<>();
+	private final LinkedHashMap<K, V> order = new LinkedHashMap<>();
+	private volatile List<Entry<K, V>> snapshot = null;
+
+	private final Set<Entry<K, V>> entrySet = new AbstractSet<Entry<K, V>>() {
+
+		@Override
+		public Iterator<Entry<K, V>> iterator() {
+			return getSnapshot().iterator();
+		}
+
+		@Override
+		public int size() {
+			return getSnapshot().size();
+		}
+
+	};
+
+	@Override
+	public V get(Object key) {
+		return key == null ? null : index.get(key);
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return (key != null) && index.containsKey(key);
+	}
+
+	@Override
+	public boolean containsValue(Object value) {
+		return (value != null) && index.containsValue(value);
+	}
+
+	@Override
+	public int size() {
+		return index.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return index.isEmpty();
+	}
+
+	@Override
+	public synchronized V put(K key, V value) {
+		final V oldValue = index.put(key, value);
+		order.put(key, value);
+		snapshot = null;
+		return oldValue;
+	}
+
+	@Override
+	public synchronized V remove(Object key) {
+		if (key == null) {
+			return null;
+		}
+		if (order.remove(key) != null) {
+			snapshot = null;
+		}
+		return index.remove(key);
+	}
+
+	@Override
+	public synchronized void clear() {
+		order.clear();
+		index.clear();
+		snapshot = null;
+	}
+
+	@Override
+	public Set<Entry<K, V>> entrySet() {
+		return entrySet;
+	}
+
+	/**
+	 * Returns an immutable copy of the ordered entries. The copy is only created once after each modification, such that adding many entries in a row does not
+	 * copy the map each time.
+	 */
+	private List<Entry<K, V>> getSnapshot() {
+		List<Entry<K, V>> currentSnapshot = snapshot;
+		if (currentSnapshot == null) {
+			synchronized (this) {
+				currentSnapshot = snapshot;
+				if (currentSnapshot == null) {
+					final List<Entry<K, V>> entries = new ArrayList<>(order.size());
+					for (final Entry<K, V> entry : order.entrySet()) {
+						entries.add(new SimpleImmutableEntry<>(entry));
+					}
+					currentSnapshot = Collections.unmodifiableList(entries);
+					snapshot = currentSnapshot;
+				}
+			}
+		}
+		return currentSnapshot;
+	}
+
+}
@@ -0,0 +1,215 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.base.util;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Map from numerical IDs to values that stores small, densely assigned IDs (such as the internal IDs of feature model elements) in an array.<br> Lookups via
+ * {@link #get(long)} are lock-free and do not box the ID. IDs that are negative or far larger than the number of stored values are kept in a
+ * {@link ConcurrentHashMap} instead. Modifications are synchronized on the map itself. The entry set does not support modification. Values cannot be
+ * <code>null</code>.
+ *
+ * @param <V> The type of the values.
+ */
+public class IdIndexedMap<V> extends AbstractMap<Long, V> {
+
+	private static final int MIN_CAPACITY = 64;
+
+	private volatile AtomicReferenceArray<V> array = new AtomicReferenceArray<>(MIN_CAPACITY);
+	private final ConcurrentHashMap<Long, V> overflow = new ConcurrentHashMap<>();
+	private volatile int size = 0;
+
+	private final Set<Entry<Long, V>> entrySet = new AbstractSet<Entry<Long, V>>() {
+
+		@Override
+		public Iterator<Entry<Long, V>> iterator() {
+			return new EntryIterator(array, overflow.entrySet().iterator());
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+	};
+
+	private final class EntryIterator implements Iterator<Entry<Long, V>> {
+
+		private final AtomicReferenceArray<V> entries;
+		private final Iterator<Entry<Long, V>> overflowIterator;
+		private int nextIndex = -1;
+		private V nextValue;
+
+		private EntryIterator(AtomicReferenceArray<V> entries, Iterator<Entry<Long, V>> overflowIterator) {
+			this.entries = entries;
+			this.overflowIterator = overflowIterator;
+			findNext();
+		}
+
+		private void findNext() {
+			nextValue = null;
+			while ((nextValue == null) && (++nextIndex < entries.length())) {
+				nextValue = entries.get(nextIndex);
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return (nextValue != null) || overflowIterator.hasNext();
+		}
+
+		@Override
+		public Entry<Long, V> next() {
+			if (nextValue != null) {
+				final Entry<Long, V> entry = new SimpleImmutableEntry<>((long) nextIndex, nextValue);
+				findNext();
+				return entry;
+			} else if (overflowIterator.hasNext()) {
+				return new SimpleImmutableEntry<>(overflowIterator.next());
+			} else {
+				throw new NoSuchElementException();
+			}
+		}
+	}
+
+	/**
+	 * Returns the value stored for the given ID without locking and without boxing the ID.
+	 *
+	 * @param id the ID
+	 * @return the value or <code>null</code> if there is none
+	 */
+	public V get(long id) {
+		if (id >= 0) {
+			final AtomicReferenceArray<V> entries = array;
+			if (id < entries.length()) {
+				return entries.get((int) id);
+			}
+		}
+		return overflow.isEmpty() ? null : overflow.get(id);
+	}
+
+	@Override
+	public V get(Object key) {
+		return key instanceof Long ? get(((Long) key).longValue()) : null;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return get(key) != null;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public V put(Long key, V value) {
+		return put(key.longValue(), value);
+	}
+
+	/**
+	 * Stores a value for the given ID.
+	 *
+	 * @param id the ID
+	 * @param value the value
+	 * @return the value previously stored for this ID or <code>null</code> if there was none
+	 */
+	public synchronized V put(long id, V value) {
+		Objects.requireNonNull(value);
+		final V oldValue;
+		if (id >= 0) {
+			AtomicReferenceArray<V> entries = array;
+			if ((id >= entries.length()) && (id < Math.max(entries.length() << 1, (size + 1L) << 1))) {
+				entries = grow((int) id + 1);
+			}
+			if (id < entries.length()) {
+				oldValue = entries.getAndSet((int) id, value);
+			} else {
+				oldValue = overflow.put(id, value);
+			}
+		} else {
+			oldValue = overflow.put(id, value);
+		}
+		if (oldValue == null) {
+			size++;
+		}
+		return oldValue;
+	}
+
+	private AtomicReferenceArray<V> grow(int minLength) {
+		final AtomicReferenceArray<V> oldEntries = array;
+		final AtomicReferenceArray<V> newEntries = new AtomicReferenceArray<>(Math.max(minLength, oldEntries.length() << 1));
+		for (int i = 0; i < oldEntries.length(); i++) {
+			newEntries.set(i, oldEntries.get(i));
+		}
+		for (final Entry<Long, V> entry : overflow.entrySet()) {
+			final long id = entry.getKey();
+			if ((id >= 0) && (id < newEntries.length())) {
+				newEntries.set((int) id, entry.getValue());
+			}
+		}
+		array = newEntries;
+		// remove moved entries only after publishing the new array, so concurrent readers find them in either place
+		overflow.keySet().removeIf(id -> (id >= 0) && (id < newEntries.length()));
+		return newEntries;
+	}
+
+	@Override
+	public synchronized V remove(Object key) {
+		if (!(key instanceof Long)) {
+			return null;
+		}
+		final long id = (Long) key;
+		final AtomicReferenceArray<V> entries = array;
+		final V oldValue = ((id >= 0) && (id < entries.length())) ? entries.getAndSet((int) id, null) : overflow.remove(id);
+		if (oldValue != null) {
+			size--;
+		}
+		return oldValue;
+	}
+
+	@Override
+	public synchronized void clear() {
+		array = new AtomicReferenceArray<>(MIN_CAPACITY);
+		overflow.clear();
+		size = 0;
+	}
+
+	@Override
+	public Set<Map.Entry<Long, V>> entrySet() {
+		return entrySet;
+	}
+
+}
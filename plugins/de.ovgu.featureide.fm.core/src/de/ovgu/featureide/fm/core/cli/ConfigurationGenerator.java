@@ -34,6 +34,7 @@ import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
 import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.AllConfigurationGenerator;
 import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.IConfigurationGenerator;
 import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.PairWiseConfigurationGenerator;
+import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.ParallelPairWiseConfigurationGenerator;
 import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.RandomConfigurationGenerator;
 import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.SPLCAToolConfigurationGenerator;
 import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise.TWiseConfigurationGenerator;
@@ -127,6 +128,10 @@ public class ConfigurationGenerator extends ACLIFunction {
 			generator = new PairWiseConfigurationGenerator(cnf, limit);
 			break;
 		}
+		case "parallelincling": {
+			generator = new ParallelPairWiseConfigurationGenerator(cnf, limit);
+			break;
+		}
 		case "yasa": {
 			if (expressionGroups == null) {
 				generator = new TWiseConfigurationGenerator(cnf, t, limit);
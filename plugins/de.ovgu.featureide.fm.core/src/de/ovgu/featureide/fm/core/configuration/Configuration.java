@@ -49,6 +49,8 @@ public class Configuration implements Cloneable {
 	protected final LinkedHashMap<String, SelectableFeature> selectableFeatures = new LinkedHashMap<>();
 	protected FeatureModelFormula featureModel;
 	protected SelectableFeature root;
+	/** Stores the selections of all features that have a variable in the feature model formula. */
+	protected SelectionState selectionState;
 
 	/**
 	 * This method creates a clone of the given {@link Configuration}
@@ -57,6 +59,17 @@ public class Configuration implements Cloneable {
 	 */
 	protected Configuration(Configuration configuration) {
 		updateFeatures(configuration.featureModel);
+		if ((selectionState != null) && (configuration.selectionState != null) && (featureModel == configuration.featureModel)) {
+			selectionState.copy(configuration.selectionState);
+			for (int i = 1; i <= selectionState.maxVariableID(); i++) {
+				final SelectableFeature newFeature = selectionState.getFeature(i);
+				final SelectableFeature oldFeature = configuration.selectionState.getFeature(i);
+				if ((newFeature != null) && (oldFeature != null)) {
+					newFeature.cloneProperties(oldFeature);
+				}
+			}
+			return;
+		}
 		for (final SelectableFeature f : configuration.selectableFeatures.values()) {
 			final SelectableFeature newFeature = getSelectableFeature(f.getName(), featureModel == null);
 			if (newFeature != null) {
@@ -93,6 +106,10 @@ public class Configuration implements Cloneable {
 
 	public static Configuration fromLiteralSet(final FeatureModelFormula formula, final LiteralSet literalSet) {
 		final Configuration configuration = new Configuration(formula);
+		if (configuration.selectionState != null) {
+			configuration.selectionState.setManual(literalSet);
+			return configuration;
+		}
 		final Variables variables = formula.getVariables();
 
 		IntStream.of(literalSet.getLiterals()) //
@@ -118,9 +135,23 @@ public class Configuration implements Cloneable {
 		final IFeature featureRoot = FeatureUtils.getRoot(featureModelFormula.getFeatureModel());
 		if (featureRoot != null) {
 			featureModel = featureModelFormula;
+			for (final SelectableFeature feature : selectableFeatures.values()) {
+				feature.unbind();
+			}
 			root = initFeatures(null, featureRoot, renamings);
 			selectableFeatures.clear();
 			reaadFeatures(root);
+			initSelectionState(featureModelFormula.getVariables());
+		}
+	}
+
+	private void initSelectionState(Variables variables) {
+		selectionState = new SelectionState(variables.maxVariableID());
+		for (final SelectableFeature feature : selectableFeatures.values()) {
+			final int variable = variables.getVariable(feature.getName());
+			if (variable > 0) {
+				feature.bind(selectionState, variable);
+			}
 		}
 	}
 
@@ -172,8 +203,13 @@ public class Configuration implements Cloneable {
 	}
 
 	public void resetAutomaticValues() {
+		if (selectionState != null) {
+			selectionState.resetAutomatic();
+		}
 		for (final SelectableFeature feature : selectableFeatures.values()) {
-			feature.setAutomatic(Selection.UNDEFINED);
+			if (feature.getVariable() == 0) {
+				feature.setAutomatic(Selection.UNDEFINED);
+			}
 		}
 	}
 
@@ -229,6 +265,14 @@ public class Configuration implements Cloneable {
 		return root;
 	}
 
+	/**
+	 * @return the array-based selections of this configuration, indexed by the variables of the feature model formula, or {@code null} if this
+	 *         configuration has no feature model
+	 */
+	public SelectionState getSelectionState() {
+		return selectionState;
+	}
+
 	public SelectableFeature getSelectableFeature(String name) {
 		return getSelectableFeature(name, false);
 	}
@@ -317,9 +361,15 @@ public class Configuration implements Cloneable {
 	}
 
 	public void resetValues() {
+		if (selectionState != null) {
+			selectionState.resetManual();
+			selectionState.resetAutomatic();
+		}
 		for (final SelectableFeature feature : selectableFeatures.values()) {
-			feature.setManual(Selection.UNDEFINED);
-			feature.setAutomatic(Selection.UNDEFINED);
+			if (feature.getVariable() == 0) {
+				feature.setManual(Selection.UNDEFINED);
+				feature.setAutomatic(Selection.UNDEFINED);
+			}
 		}
 	}
 
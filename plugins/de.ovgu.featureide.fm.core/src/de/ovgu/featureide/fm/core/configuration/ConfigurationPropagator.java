@@ -32,6 +32,7 @@ import org.sat4j.specs.TimeoutException;
 import de.ovgu.featureide.fm.core.Logger;
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
 import de.ovgu.featureide.fm.core.analysis.cnf.analysis.CoreDeadAnalysis;
 import de.ovgu.featureide.fm.core.analysis.cnf.analysis.CountSolutionsAnalysis;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
@@ -111,7 +112,7 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 			case TIMEOUT:
 				final int[] contradictoryAssignment = solver.getContradictoryAssignment();
 				for (final int i : contradictoryAssignment) {
-					configuration.setManual(solver.getSatInstance().getVariables().getName(i), Selection.UNDEFINED);
+					getExistingSelectableFeature(i, solver.getSatInstance().getVariables()).setManual(Selection.UNDEFINED);
 				}
 			case TRUE:
 				return null;
@@ -147,7 +148,7 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 			final int[] solution = solver.findSolution();
 			if (solution != null) {
 				for (final int i : solution) {
-					configuration.setManual(solver.getSatInstance().getVariables().getName(i), i > 0 ? Selection.SELECTED : Selection.UNSELECTED);
+					getExistingSelectableFeature(i, solver.getSatInstance().getVariables()).setManual(i > 0 ? Selection.SELECTED : Selection.UNSELECTED);
 				}
 				return true;
 			} else {
@@ -209,7 +210,7 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 				final int[] orLiterals = clause.getLiterals();
 				for (int j = 0; j < orLiterals.length; j++) {
 					final int literal = orLiterals[j];
-					final SelectableFeature feature = configuration.getSelectableFeature(clausesWithoutHidden.getVariables().getName(literal));
+					final SelectableFeature feature = getSelectableFeature(literal, clausesWithoutHidden.getVariables());
 					if (feature != null) {
 						final Selection selection = feature.getSelection();
 						switch (selection) {
@@ -238,7 +239,7 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 						results[Math.abs(literal)] = true;
 						newLiterals = true;
 
-						final SelectableFeature feature = configuration.getSelectableFeature(clausesWithoutHidden.getVariables().getName(literal));
+						final SelectableFeature feature = getSelectableFeature(literal, clausesWithoutHidden.getVariables());
 						if (feature != null) {
 							final Selection selection = feature.getSelection();
 							updateFeatures.add(feature);
@@ -369,29 +370,34 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 			configuration.resetAutomaticValues();
 
 			final CNF rootNode = formula.getCNF();
-			final ArrayList<Integer> manualLiterals = new ArrayList<>();
+			final Variables variables = rootNode.getVariables();
+			final Collection<SelectableFeature> features = configuration.getFeatures();
+			final int[] manualLiterals = new int[featureOrder.size() + features.size()];
+			int manualLiteralCount = 0;
 			for (final SelectableFeature feature : featureOrder) {
 				if ((feature.getManual() != Selection.UNDEFINED) && (includeAbstractFeatures || feature.getFeature().getStructure().isConcrete())) {
-					manualLiterals.add(rootNode.getVariables().getVariable(feature.getFeature().getName(), feature.getManual() == Selection.SELECTED));
+					manualLiterals[manualLiteralCount++] = getManualLiteral(feature, variables);
 				}
 			}
-			final HashSet<Integer> manualLiteralSet = new HashSet<>(manualLiterals);
-			for (final SelectableFeature feature : configuration.getFeatures()) {
+			final LiteralMarks manualLiteralSet = new LiteralMarks(variables.maxVariableID());
+			for (int i = 0; i < manualLiteralCount; i++) {
+				manualLiteralSet.add(manualLiterals[i]);
+			}
+			for (final SelectableFeature feature : features) {
 				if ((feature.getManual() != Selection.UNDEFINED) && (includeAbstractFeatures || feature.getFeature().getStructure().isConcrete())) {
-					final Integer l = rootNode.getVariables().getVariable(feature.getFeature().getName(), feature.getManual() == Selection.SELECTED);
+					final int l = getManualLiteral(feature, variables);
 					if (manualLiteralSet.add(l)) {
-						manualLiterals.add(l);
+						manualLiterals[manualLiteralCount++] = l;
 					}
 				}
 			}
 
-			workMonitor.setRemainingWork(manualLiterals.size() + 1);
-			Collections.reverse(manualLiterals);
+			workMonitor.setRemainingWork(manualLiteralCount + 1);
 
 			final CoreDeadAnalysis analysis = new CoreDeadAnalysis(rootNode);
-			final int[] intLiterals = new int[manualLiterals.size()];
+			final int[] intLiterals = new int[manualLiteralCount];
 			for (int i = 0; i < intLiterals.length; i++) {
-				intLiterals[i] = manualLiterals.get(i);
+				intLiterals[i] = manualLiterals[manualLiteralCount - 1 - i];
 			}
 			analysis.setAssumptions(new LiteralSet(intLiterals));
 			final LiteralSet impliedFeatures = LongRunningWrapper.runMethod(analysis, workMonitor.subTask(1));
@@ -401,10 +407,10 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 				return Collections.emptyList();
 			}
 
-			final Collection<SelectableFeature> result = new HashSet<>(rootNode.getVariables().size());
+			final Collection<SelectableFeature> result = new HashSet<>(variables.size());
 
 			for (final int i : impliedFeatures.getLiterals()) {
-				final SelectableFeature feature = configuration.getSelectableFeature(rootNode.getVariables().getName(i));
+				final SelectableFeature feature = getSelectableFeature(i, variables);
 				if (feature != null) {
 					configuration.setAutomatic(feature, i > 0 ? Selection.SELECTED : Selection.UNSELECTED);
 					result.add(feature);
@@ -415,9 +421,8 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 
 			// only for update of configuration editor
 			final ArrayList<SelectableFeature> updateFeatures = new ArrayList<>();
-			for (final SelectableFeature feature : configuration.getFeatures()) {
-				if (!manualLiteralSet
-						.contains(rootNode.getVariables().getVariable(feature.getFeature().getName(), feature.getManual() == Selection.SELECTED))) {
+			for (final SelectableFeature feature : features) {
+				if (!manualLiteralSet.contains(getManualLiteral(feature, variables))) {
 					updateFeatures.add(feature);
 					result.add(feature);
 				}
@@ -436,7 +441,7 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 				int literalCount = intLiterals.length;
 				for (int i = 0; i < solver.getAssignmentSize(); i++) {
 					final int oLiteral = intLiterals[i];
-					final SelectableFeature feature = configuration.getSelectableFeature(rootNode.getVariables().getName(oLiteral));
+					final SelectableFeature feature = getSelectableFeature(oLiteral, variables);
 					if (feature != null) {
 						solver.assignmentSet(i, -oLiteral);
 						final SatResult satResult = solver.hasSolution();
@@ -487,7 +492,7 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 			}
 
 			for (final int i : impliedFeatures.getLiterals()) {
-				final SelectableFeature feature = configuration.getSelectableFeature(rootNode.getVariables().getName(i));
+				final SelectableFeature feature = getSelectableFeature(i, rootNode.getVariables());
 				if (feature != null) {
 					configuration.setAutomatic(feature, i > 0 ? Selection.SELECTED : Selection.UNSELECTED);
 				}
@@ -498,6 +503,33 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 
 	}
 
+	/**
+	 * Set of literals that is backed by an array indexed by variable.
+	 */
+	private static final class LiteralMarks {
+
+		private final byte[] marks;
+
+		LiteralMarks(int maxVariableID) {
+			marks = new byte[maxVariableID + 1];
+		}
+
+		boolean add(int literal) {
+			final int variable = Math.abs(literal);
+			final int mark = literal > 0 ? 1 : 2;
+			if ((marks[variable] & mark) != 0) {
+				return false;
+			}
+			marks[variable] |= mark;
+			return true;
+		}
+
+		boolean contains(int literal) {
+			return (marks[Math.abs(literal)] & (literal > 0 ? 1 : 2)) != 0;
+		}
+
+	}
+
 	// TODO fix monitor values
 	protected final FeatureModelFormula formula;
 	protected final Configuration configuration;
@@ -535,17 +567,68 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 		if (solver == null) {
 			return null;
 		}
+		final SelectionState state = getSelectionState();
 		for (final SelectableFeature feature : configuration.getFeatures()) {
-			if ((deselectUndefinedFeatures || (feature.getSelection() != Selection.UNDEFINED))
+			final int variable = state != null ? feature.getVariable() : 0;
+			final int literal = variable != 0 ? state.getLiteral(variable) : 0;
+			if ((deselectUndefinedFeatures || (variable != 0 ? literal != 0 : feature.getSelection() != Selection.UNDEFINED))
 				&& (includeAbstractFeatures || feature.getFeature().getStructure().isConcrete())
 				&& (includeHiddenFeatures || !feature.getFeature().getStructure().hasHiddenParent())) {
-				solver.assignmentPush(
-						solver.getSatInstance().getVariables().getVariable(feature.getFeature().getName(), feature.getSelection() == Selection.SELECTED));
+				if (variable != 0) {
+					solver.assignmentPush(literal > 0 ? variable : -variable);
+				} else {
+					solver.assignmentPush(solver.getSatInstance().getVariables().getVariable(feature.getFeature().getName(),
+							feature.getSelection() == Selection.SELECTED));
+				}
 			}
 		}
 		return solver;
 	}
 
+	/**
+	 * @return the selection state of the configuration, if its variables correspond to the variables of this propagator's formula, {@code null}
+	 *         otherwise
+	 */
+	protected SelectionState getSelectionState() {
+		return configuration.getFeatureModelFormula() == formula ? configuration.getSelectionState() : null;
+	}
+
+	/**
+	 * Returns the selectable feature for the variable of the given literal. Uses the selection state of the configuration, if available, and the name of
+	 * the variable otherwise.
+	 *
+	 * @param literal a literal of the given variables
+	 * @param variables the variables of the CNF the literal belongs to
+	 * @return the selectable feature or {@code null} if the configuration does not contain a feature for the variable
+	 */
+	protected SelectableFeature getSelectableFeature(int literal, Variables variables) {
+		final SelectionState state = getSelectionState();
+		final int variable = Math.abs(literal);
+		if ((state != null) && (variable <= state.maxVariableID())) {
+			return state.getFeature(variable);
+		}
+		return configuration.getSelectableFeature(variables.getName(variable));
+	}
+
+	private SelectableFeature getExistingSelectableFeature(int literal, Variables variables) {
+		final SelectableFeature feature = getSelectableFeature(literal, variables);
+		if (feature == null) {
+			throw new FeatureNotFoundException();
+		}
+		return feature;
+	}
+
+	/**
+	 * @return the literal of the given feature's variable, which is positive if the feature is manually selected and negative otherwise
+	 */
+	private int getManualLiteral(SelectableFeature feature, Variables variables) {
+		final int variable = getSelectionState() != null ? feature.getVariable() : 0;
+		if (variable != 0) {
+			return feature.getManual() == Selection.SELECTED ? variable : -variable;
+		}
+		return variables.getVariable(feature.getFeature().getName(), feature.getManual() == Selection.SELECTED);
+	}
+
 	protected AdvancedSatSolver getSolver(boolean includeHiddenFeatures) {
 		final CNF satInstance;
 		if (includeAbstractFeatures) {
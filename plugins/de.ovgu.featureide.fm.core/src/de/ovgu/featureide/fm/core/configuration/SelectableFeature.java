@@ -52,6 +52,10 @@ public class SelectableFeature extends TreeElement implements Cloneable {
 
 	private String name;
 
+	/** The state that stores the selections of this feature, if it is part of a configuration with a feature model. */
+	private SelectionState state = null;
+	private int variable = 0;
+
 	public SelectableFeature(String name) {
 		this.name = name;
 	}
@@ -63,34 +67,81 @@ public class SelectableFeature extends TreeElement implements Cloneable {
 	public SelectableFeature(SelectableFeature oldSelectableFeature) {
 		feature = oldSelectableFeature.feature;
 		name = oldSelectableFeature.name;
-		manual = oldSelectableFeature.manual;
-		automatic = oldSelectableFeature.automatic;
+		manual = oldSelectableFeature.getManual();
+		automatic = oldSelectableFeature.getAutomatic();
 		recommended = oldSelectableFeature.recommended;
 	}
 
+	/**
+	 * Stores the selections of this feature in the given state from now on. The current selections are transferred to the state.
+	 *
+	 * @param state the state of the configuration
+	 * @param variable the variable ID of this feature
+	 */
+	void bind(SelectionState state, int variable) {
+		final Selection currentManual = getManual();
+		final Selection currentAutomatic = getAutomatic();
+		this.state = state;
+		this.variable = variable;
+		state.bind(this, variable);
+		state.setManual(variable, currentManual);
+		state.setAutomatic(variable, currentAutomatic);
+	}
+
+	/**
+	 * Stores the selections of this feature in this object again.
+	 */
+	void unbind() {
+		if (state != null) {
+			manual = state.getManual(variable);
+			automatic = state.getAutomatic(variable);
+			state = null;
+			variable = 0;
+		}
+	}
+
+	/**
+	 * @return the variable ID of this feature in the {@link SelectionState} of its configuration or {@code 0} if its selections are not stored in a
+	 *         state
+	 */
+	public int getVariable() {
+		return variable;
+	}
+
 	public Selection getSelection() {
-		return automatic == Selection.UNDEFINED ? manual : automatic;
+		final Selection automatic = getAutomatic();
+		return automatic == Selection.UNDEFINED ? getManual() : automatic;
 	}
 
 	public Selection getManual() {
-		return manual;
+		return state != null ? state.getManual(variable) : manual;
 	}
 
 	public void setManual(Selection manual) {
+		final Selection automatic = getAutomatic();
 		if ((manual == Selection.UNDEFINED) || (automatic == Selection.UNDEFINED)) {
-			this.manual = manual;
+			if (state != null) {
+				state.setManual(variable, manual);
+			} else {
+				this.manual = manual;
+			}
 		} else if (manual != automatic) {
 			throw new SelectionNotPossibleException(getName(), manual);
 		}
 	}
 
 	public Selection getAutomatic() {
-		return automatic;
+		return state != null ? state.getAutomatic(variable) : automatic;
 	}
 
 	public void setAutomatic(Selection automatic) {
+		final Selection manual = getManual();
 		if ((automatic == Selection.UNDEFINED) || (manual == Selection.UNDEFINED) || (manual == automatic)) {
-			this.automatic = automatic;
+			if (state != null) {
+				state.setAutomatic(variable, automatic);
+			} else {
+				this.automatic = automatic;
+			}
 		} else {
 			throw new AutomaticalSelectionNotPossibleException(getName(), automatic);
 		}
@@ -173,7 +224,9 @@ public class SelectableFeature extends TreeElement implements Cloneable {
 	public SelectableFeature clone() {
 		if (!this.getClass().equals(SelectableFeature.class)) {
 			try {
-				return (SelectableFeature) super.clone();
+				final SelectableFeature clone = (SelectableFeature) super.clone();
+				clone.unbind();
+				return clone;
 			} catch (final CloneNotSupportedException e) {
 				Logger.logError(e);
 				throw new RuntimeException("Cloning is not supported for " + this.getClass());
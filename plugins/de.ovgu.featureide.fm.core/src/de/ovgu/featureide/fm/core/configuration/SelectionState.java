@@ -0,0 +1,218 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.configuration;
+
+import java.util.Arrays;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet.Order;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+
+/**
+ * Stores the manual and automatic selections of a {@link Configuration} in primitive arrays, indexed by the variable IDs of the
+ * {@link Variables variables} of the underlying feature model formula.<br> Each {@link SelectableFeature} of the configuration is a view on one entry
+ * of these arrays, such that propagation and validation can read and write selections without looking up features by their name.
+ *
+ * @see Configuration#getSelectionState()
+ */
+public final class SelectionState {
+
+	private static final byte SELECTED = 1;
+	private static final byte UNSELECTED = -1;
+	private static final byte UNDEFINED = 0;
+
+	private final byte[] manual;
+	private final byte[] automatic;
+	private final SelectableFeature[] features;
+
+	SelectionState(int maxVariableID) {
+		manual = new byte[maxVariableID + 1];
+		automatic = new byte[maxVariableID + 1];
+		features = new SelectableFeature[maxVariableID + 1];
+	}
+
+	static byte toValue(Selection selection) {
+		switch (selection) {
+		case SELECTED:
+			return SELECTED;
+		case UNSELECTED:
+			return UNSELECTED;
+		case UNDEFINED:
+			return UNDEFINED;
+		default:
+			throw new AssertionError(selection);
+		}
+	}
+
+	static Selection toSelection(byte value) {
+		return value == UNDEFINED ? Selection.UNDEFINED : value > 0 ? Selection.SELECTED : Selection.UNSELECTED;
+	}
+
+	void bind(SelectableFeature feature, int variable) {
+		features[variable] = feature;
+	}
+
+	/**
+	 * @return the highest variable ID that can be stored
+	 */
+	public int maxVariableID() {
+		return features.length - 1;
+	}
+
+	/**
+	 * @param variable a variable ID
+	 * @return the feature that is stored at the given index or {@code null}
+	 */
+	public SelectableFeature getFeature(int variable) {
+		return features[variable];
+	}
+
+	public Selection getManual(int variable) {
+		return toSelection(manual[variable]);
+	}
+
+	public Selection getAutomatic(int variable) {
+		return toSelection(automatic[variable]);
+	}
+
+	public Selection getSelection(int variable) {
+		return toSelection(getSelectionValue(variable));
+	}
+
+	void setManual(int variable, Selection selection) {
+		manual[variable] = toValue(selection);
+	}
+
+	void setAutomatic(int variable, Selection selection) {
+		automatic[variable] = toValue(selection);
+	}
+
+	private byte getSelectionValue(int variable) {
+		final byte automaticValue = automatic[variable];
+		return automaticValue == UNDEFINED ? manual[variable] : automaticValue;
+	}
+
+	/**
+	 * @param variable a variable ID
+	 * @return the manually selected literal of the variable or {@code 0} if its manual selection is undefined
+	 */
+	public int getManualLiteral(int variable) {
+		return manual[variable] * variable;
+	}
+
+	/**
+	 * @param variable a variable ID
+	 * @return the literal of the current (automatic or manual) selection of the variable or {@code 0} if it is undefined
+	 */
+	public int getLiteral(int variable) {
+		return getSelectionValue(variable) * variable;
+	}
+
+	/**
+	 * Returns the manual selections as an assignment of all variables, where the literal of variable {@code i} is stored at position {@code i - 1}.
+	 * Variables with an undefined selection are represented by {@code 0}.
+	 *
+	 * @return a new literal set with order {@link Order#INDEX}
+	 */
+	public LiteralSet getManualLiterals() {
+		final int[] literals = new int[manual.length - 1];
+		for (int i = 0; i < literals.length; i++) {
+			literals[i] = manual[i + 1] * (i + 1);
+		}
+		return new LiteralSet(literals, Order.INDEX, false);
+	}
+
+	/**
+	 * Returns the current (automatic or manual) selections as an assignment of all variables, where the literal of variable {@code i} is stored at
+	 * position {@code i - 1}. Variables with an undefined selection are represented by {@code 0}.
+	 *
+	 * @return a new literal set with order {@link Order#INDEX}
+	 */
+	public LiteralSet getLiterals() {
+		final int[] literals = new int[manual.length - 1];
+		for (int i = 0; i < literals.length; i++) {
+			literals[i] = getLiteral(i + 1);
+		}
+		return new LiteralSet(literals, Order.INDEX, false);
+	}
+
+	/**
+	 * Manually selects or deselects the variables of the given literals, as long as they are not contradicting an automatic selection.
+	 *
+	 * @param literals the literals to assign
+	 * @throws SelectionNotPossibleException if a literal contradicts an automatic selection
+	 */
+	public void setManual(LiteralSet literals) {
+		for (final int literal : literals.getLiterals()) {
+			if (literal != 0) {
+				final int variable = Math.abs(literal);
+				final byte value = literal > 0 ? SELECTED : UNSELECTED;
+				final byte automaticValue = automatic[variable];
+				if ((automaticValue != UNDEFINED) && (automaticValue != value)) {
+					throw new SelectionNotPossibleException(getName(variable), toSelection(value));
+				}
+				manual[variable] = value;
+			}
+		}
+	}
+
+	/**
+	 * Automatically selects or deselects the variables of the given literals, as long as they are not contradicting a manual selection.
+	 *
+	 * @param literals the literals to assign
+	 * @throws AutomaticalSelectionNotPossibleException if a literal contradicts a manual selection
+	 */
+	public void setAutomatic(LiteralSet literals) {
+		for (final int literal : literals.getLiterals()) {
+			if (literal != 0) {
+				final int variable = Math.abs(literal);
+				final byte value = literal > 0 ? SELECTED : UNSELECTED;
+				final byte manualValue = manual[variable];
+				if ((manualValue != UNDEFINED) && (manualValue != value)) {
+					throw new AutomaticalSelectionNotPossibleException(getName(variable), toSelection(value));
+				}
+				automatic[variable] = value;
+			}
+		}
+	}
+
+	private String getName(int variable) {
+		final SelectableFeature feature = features[variable];
+		return feature == null ? Integer.toString(variable) : feature.getName();
+	}
+
+	public void resetManual() {
+		Arrays.fill(manual, UNDEFINED);
+	}
+
+	public void resetAutomatic() {
+		Arrays.fill(automatic, UNDEFINED);
+	}
+
+	/**
+	 * Copies all selections from the given state, which must have the same size.
+	 */
+	void copy(SelectionState other) {
+		System.arraycopy(other.manual, 0, manual, 0, manual.length);
+		System.arraycopy(other.automatic, 0, automatic, 0, automatic.length);
+	}
+
+}
@@ -295,137 +295,149 @@ public class AdvancedNodeCreator implements LongRunningMethod<Node> {
 				}
 			}
 
-			final Iterable<IFeature> features = featureModel.getFeatures();
-			for (final IFeature feature : features) {
-				final IFeatureStructure structure = feature.getStructure();
+			for (final IFeature feature : featureModel.getFeatures()) {
+				createStructuralNodes(feature, clauses);
+			}
+
+			return new And(clauses.toArray(new Node[0]));
+		}
+		return new And(new Node[0]);
+	}
 
-				if (structure.hasChildren()) {
-					if (!omitRoot || !structure.isRoot()) {
-						for (final IFeatureStructure child : structure.getChildren()) {
+	/**
+	 * Creates the clauses for the relations between the given feature and its children. Adds them to the given list of clauses.
+	 *
+	 * @param feature feature whose decomposition to transform
+	 * @param clauses clauses to add to; out variable
+	 * @return given clauses plus new clauses
+	 */
+	public List<Node> createStructuralNodes(IFeature feature, List<Node> clauses) {
+		Node clause;
+		final IFeatureStructure structure = feature.getStructure();
+
+		if (structure.hasChildren()) {
+			if (!omitRoot || !structure.isRoot()) {
+				for (final IFeatureStructure child : structure.getChildren()) {
+					final IFeature childFeature = child.getFeature();
+					clause = new Or(getLiteral(feature, true), getLiteral(childFeature, false));
+					clauses.add(clause);
+					if (isRecordingTraceModel()) {
+						traceModel.addTraceChildUp(feature, Collections.singleton(childFeature));
+					}
+				}
+
+				if (structure.isAnd()) {
+					for (final IFeatureStructure child : structure.getChildren()) {
+						if (child.isMandatory()) {
 							final IFeature childFeature = child.getFeature();
-							clause = new Or(getLiteral(feature, true), getLiteral(childFeature, false));
+							clause = new Or(getLiteral(childFeature, true), getLiteral(feature, false));
 							clauses.add(clause);
 							if (isRecordingTraceModel()) {
-								traceModel.addTraceChildUp(feature, Collections.singleton(childFeature));
+								traceModel.addTraceChildDown(feature, Collections.singleton(childFeature));
 							}
 						}
+					}
+				} else if (structure.isOr()) {
+					final List<IFeature> children = new LinkedList<>();
+					final Literal[] orLiterals = new Literal[structure.getChildren().size() + 1];
+					int i = 0;
+					for (final IFeatureStructure child : structure.getChildren()) {
+						final IFeature childFeature = child.getFeature();
+						orLiterals[i++] = getLiteral(childFeature, true);
+						children.add(childFeature);
+					}
+					orLiterals[i] = getLiteral(feature, false);
+					clause = new Or(orLiterals);
+					clauses.add(clause);
+					if (isRecordingTraceModel()) {
+						traceModel.addTraceChildDown(feature, children);
+					}
+				} else if (structure.isAlternative()) {
+					final List<IFeature> children = new LinkedList<>();
+					final Literal[] alternativeLiterals = new Literal[structure.getChildrenCount() + 1];
+					int i = 0;
+					for (final IFeatureStructure child : structure.getChildren()) {
+						final IFeature childFeature = child.getFeature();
+						alternativeLiterals[i++] = getLiteral(childFeature, true);
+						children.add(childFeature);
+					}
+					alternativeLiterals[i] = getLiteral(feature, false);
+					clause = new Or(alternativeLiterals);
+					clauses.add(clause);
+					if (isRecordingTraceModel()) {
+						traceModel.addTraceChildDown(feature, children);
+					}
 
-						if (structure.isAnd()) {
-							for (final IFeatureStructure child : structure.getChildren()) {
-								if (child.isMandatory()) {
-									final IFeature childFeature = child.getFeature();
-									clause = new Or(getLiteral(childFeature, true), getLiteral(feature, false));
-									clauses.add(clause);
-									if (isRecordingTraceModel()) {
-										traceModel.addTraceChildDown(feature, Collections.singleton(childFeature));
-									}
-								}
-							}
-						} else if (structure.isOr()) {
-							final List<IFeature> children = new LinkedList<>();
-							final Literal[] orLiterals = new Literal[structure.getChildren().size() + 1];
-							int i = 0;
-							for (final IFeatureStructure child : structure.getChildren()) {
-								final IFeature childFeature = child.getFeature();
-								orLiterals[i++] = getLiteral(childFeature, true);
-								children.add(childFeature);
-							}
-							orLiterals[i] = getLiteral(feature, false);
-							clause = new Or(orLiterals);
+					for (final ListIterator<IFeatureStructure> it1 = structure.getChildren().listIterator(); it1.hasNext();) {
+						final IFeatureStructure fs = it1.next();
+						final IFeature sibling1 = fs.getFeature();
+						for (final ListIterator<IFeatureStructure> it2 = structure.getChildren().listIterator(it1.nextIndex()); it2.hasNext();) {
+							final IFeature sibling2 = it2.next().getFeature();
+							clause = new Or(getLiteral(sibling1, false), getLiteral(sibling2, false));
 							clauses.add(clause);
 							if (isRecordingTraceModel()) {
-								traceModel.addTraceChildDown(feature, children);
-							}
-						} else if (structure.isAlternative()) {
-							final List<IFeature> children = new LinkedList<>();
-							final Literal[] alternativeLiterals = new Literal[structure.getChildrenCount() + 1];
-							int i = 0;
-							for (final IFeatureStructure child : structure.getChildren()) {
-								final IFeature childFeature = child.getFeature();
-								alternativeLiterals[i++] = getLiteral(childFeature, true);
-								children.add(childFeature);
-							}
-							alternativeLiterals[i] = getLiteral(feature, false);
-							clause = new Or(alternativeLiterals);
-							clauses.add(clause);
-							if (isRecordingTraceModel()) {
-								traceModel.addTraceChildDown(feature, children);
-							}
-
-							for (final ListIterator<IFeatureStructure> it1 = structure.getChildren().listIterator(); it1.hasNext();) {
-								final IFeatureStructure fs = it1.next();
-								final IFeature sibling1 = fs.getFeature();
-								for (final ListIterator<IFeatureStructure> it2 = structure.getChildren().listIterator(it1.nextIndex()); it2.hasNext();) {
-									final IFeature sibling2 = it2.next().getFeature();
-									clause = new Or(getLiteral(sibling1, false), getLiteral(sibling2, false));
-									clauses.add(clause);
-									if (isRecordingTraceModel()) {
-										traceModel.addTraceChildHorizontal(Arrays.asList(sibling1, sibling2));
-									}
-								}
+								traceModel.addTraceChildHorizontal(Arrays.asList(sibling1, sibling2));
 							}
 						}
-					} else {
-						if (structure.isAnd()) {
-							for (final IFeatureStructure child : structure.getChildren()) {
-								if (child.isMandatory()) {
-									final IFeature childFeature = child.getFeature();
-									clause = new Or(getLiteral(childFeature, true));
-									clauses.add(clause);
-									if (isRecordingTraceModel()) {
-										traceModel.addTraceChildDown(feature, Collections.singleton(childFeature));
-									}
-								}
-							}
-						} else if (structure.isOr()) {
-							final List<IFeature> children = new LinkedList<>();
-							final Literal[] orLiterals = new Literal[structure.getChildren().size()];
-							int i = 0;
-							for (final IFeatureStructure child : structure.getChildren()) {
-								final IFeature childFeature = child.getFeature();
-								orLiterals[i++] = getLiteral(childFeature, true);
-								children.add(childFeature);
-							}
-							clause = new Or(orLiterals);
+					}
+				}
+			} else {
+				if (structure.isAnd()) {
+					for (final IFeatureStructure child : structure.getChildren()) {
+						if (child.isMandatory()) {
+							final IFeature childFeature = child.getFeature();
+							clause = new Or(getLiteral(childFeature, true));
 							clauses.add(clause);
 							if (isRecordingTraceModel()) {
-								traceModel.addTraceChildDown(feature, children);
-							}
-						} else if (structure.isAlternative()) {
-							final List<IFeature> children = new LinkedList<>();
-							final Literal[] alternativeLiterals = new Literal[structure.getChildrenCount()];
-							int i = 0;
-							for (final IFeatureStructure child : structure.getChildren()) {
-								final IFeature childFeature = child.getFeature();
-								alternativeLiterals[i++] = getLiteral(childFeature, true);
-								children.add(childFeature);
+								traceModel.addTraceChildDown(feature, Collections.singleton(childFeature));
 							}
-							clause = new Or(alternativeLiterals);
+						}
+					}
+				} else if (structure.isOr()) {
+					final List<IFeature> children = new LinkedList<>();
+					final Literal[] orLiterals = new Literal[structure.getChildren().size()];
+					int i = 0;
+					for (final IFeatureStructure child : structure.getChildren()) {
+						final IFeature childFeature = child.getFeature();
+						orLiterals[i++] = getLiteral(childFeature, true);
+						children.add(childFeature);
+					}
+					clause = new Or(orLiterals);
+					clauses.add(clause);
+					if (isRecordingTraceModel()) {
+						traceModel.addTraceChildDown(feature, children);
+					}
+				} else if (structure.isAlternative()) {
+					final List<IFeature> children = new LinkedList<>();
+					final Literal[] alternativeLiterals = new Literal[structure.getChildrenCount()];
+					int i = 0;
+					for (final IFeatureStructure child : structure.getChildren()) {
+						final IFeature childFeature = child.getFeature();
+						alternativeLiterals[i++] = getLiteral(childFeature, true);
+						children.add(childFeature);
+					}
+					clause = new Or(alternativeLiterals);
+					clauses.add(clause);
+					if (isRecordingTraceModel()) {
+						traceModel.addTraceChildDown(feature, children);
+					}
+
+					for (final ListIterator<IFeatureStructure> it1 = structure.getChildren().listIterator(); it1.hasNext();) {
+						final IFeatureStructure fs = it1.next();
+						final IFeature sibling1 = fs.getFeature();
+						for (final ListIterator<IFeatureStructure> it2 = structure.getChildren().listIterator(it1.nextIndex()); it2.hasNext();) {
+							final IFeature sibling2 = it2.next().getFeature();
+							clause = new Or(getLiteral(sibling1, false), getLiteral(sibling2, false));
 							clauses.add(clause);
 							if (isRecordingTraceModel()) {
-								traceModel.addTraceChildDown(feature, children);
-							}
-
-							for (final ListIterator<IFeatureStructure> it1 = structure.getChildren().listIterator(); it1.hasNext();) {
-								final IFeatureStructure fs = it1.next();
-								final IFeature sibling1 = fs.getFeature();
-								for (final ListIterator<IFeatureStructure> it2 = structure.getChildren().listIterator(it1.nextIndex()); it2.hasNext();) {
-									final IFeature sibling2 = it2.next().getFeature();
-									clause = new Or(getLiteral(sibling1, false), getLiteral(sibling2, false));
-									clauses.add(clause);
-									if (isRecordingTraceModel()) {
-										traceModel.addTraceChildHorizontal(Arrays.asList(sibling1, sibling2));
-									}
-								}
+								traceModel.addTraceChildHorizontal(Arrays.asList(sibling1, sibling2));
 							}
 						}
 					}
 				}
 			}
-
-			return new And(clauses.toArray(new Node[0]));
 		}
-		return new And(new Node[0]);
+		return clauses;
 	}
 
 	private boolean rootInConstraints(final IFeature root) {
@@ -23,11 +23,7 @@ package de.ovgu.featureide.fm.core.editing;
 import java.util.LinkedList;
 
 import org.prop4j.And;
-import org.prop4j.Literal;
 import org.prop4j.Node;
-import org.prop4j.Not;
-import org.prop4j.Or;
-import org.prop4j.SatSolver;
 import org.sat4j.specs.TimeoutException;
 
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
@@ -36,7 +32,8 @@ import de.ovgu.featureide.fm.core.configuration.Configuration;
 import de.ovgu.featureide.fm.core.configuration.DefaultFormat;
 
 /**
- * Calculates added or deleted products for a feature model edit.
+ * Calculates added or deleted products for a feature model edit.<br> The left formula is loaded once into an {@link ImplicationSolver}. Each rule of the right
+ * formula is checked separately by assuming the negation of its Tseitin variable, thus, the right formula is never converted into CNF.
  *
  * @author Thomas Thuem
  * @author Marcus Pinnecke (Feature Interface)
@@ -45,19 +42,19 @@ public class ExampleCalculator {
 
 	private final IFeatureModel fm;
 
-	private Node a;
-
 	private Node[] bChildren;
 
+	private int[] bLiterals;
+
 	private LinkedList<Integer> bSatisfiable;
 
 	private int bIndex;
 
-	private SatSolver solver;
+	private ImplicationSolver solver;
 
-	private SatSolver exampleSolver = null;
+	private int exampleChild = -1;
 
-	private String lastSolution = null;
+	private int exampleSelector;
 
 	private final long timeout;
 
@@ -67,16 +64,17 @@ public class ExampleCalculator {
 	}
 
 	public void setLeft(Node a) {
-		a = a.toRegularCNF();
-		this.a = a;
-		solver = new SatSolver(a, timeout);
+		solver = new ImplicationSolver(timeout);
+		solver.addFormula(a);
+		exampleChild = -1;
 	}
 
 	public void setRight(Node b) {
-		b = b.toRegularCNF();
-		bChildren = b.getChildren();
+		bChildren = b instanceof And ? b.getChildren() : new Node[] { b };
+		bLiterals = new int[bChildren.length];
 		bSatisfiable = new LinkedList<>();
 		bIndex = -1;
+		exampleChild = -1;
 	}
 
 	public boolean hasNextChild() {
@@ -94,43 +92,39 @@ public class ExampleCalculator {
 		bSatisfiable.add(bIndex);
 	}
 
-	// might return some examples multiple times
 	public Configuration nextExample() throws TimeoutException {
-		if (exampleSolver == null) {
+		if (exampleChild < 0) {
 			if (bSatisfiable.isEmpty() && !findSatisfiable(true)) {
 				return null;
 			}
-			final Node child = bChildren[bSatisfiable.removeFirst()];
-			exampleSolver = new SatSolver(new And(a, new Not(child.clone())), timeout);
-		}
-		final String solution = exampleSolver.getSolution();
-		if (solution == null) {
-			return null;
+			exampleChild = bSatisfiable.removeFirst();
+			// examples of one rule are blocked by clauses that are only active if the selector is assumed
+			exampleSelector = solver.newVariable();
 		}
-		if (solution.equals(lastSolution)) {
-			exampleSolver = null;
+		if (!solver.isSatisfiable(-bLiterals[exampleChild], exampleSelector)) {
+			exampleChild = -1;
 			return nextExample();
 		}
+		final String solution = solver.getSolution();
+		final int[] blockingClause = solver.getBlockingClause();
+		final int[] selectedClause = new int[blockingClause.length + 1];
+		System.arraycopy(blockingClause, 0, selectedClause, 0, blockingClause.length);
+		selectedClause[blockingClause.length] = -exampleSelector;
+		solver.addClause(selectedClause);
+
 		final Configuration configuration = new Configuration(new FeatureModelFormula(fm));
 		final DefaultFormat format = new DefaultFormat();
 
 		format.read(configuration, solution);
-		lastSolution = solution;
 		return configuration;
 	}
 
 	public boolean findSatisfiable(boolean stopEarly) throws TimeoutException {
 		boolean sat = false;
 		while (hasNextChild()) {
-			Node child = nextChild();
-			if (!(child instanceof Or)) {
-				child = new Or(child);
-			}
-			final Node[] list = Node.clone(child.getChildren());
-			for (final Node node : list) {
-				((Literal) node).positive ^= true;
-			}
-			if (solver.isSatisfiable(list)) {
+			final Node child = nextChild();
+			bLiterals[bIndex] = solver.encode(child);
+			if (solver.isSatisfiable(-bLiterals[bIndex])) {
 				childIsSatisfiable();
 				if (stopEarly) {
 					return true;
@@ -0,0 +1,231 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.editing;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.prop4j.And;
+import org.prop4j.AtLeast;
+import org.prop4j.AtMost;
+import org.prop4j.Choose;
+import org.prop4j.Equals;
+import org.prop4j.Implies;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.NodeWriter;
+import org.prop4j.Not;
+import org.prop4j.Or;
+import org.sat4j.core.VecInt;
+import org.sat4j.minisat.SolverFactory;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.ISolver;
+import org.sat4j.specs.TimeoutException;
+
+/**
+ * Incremental satisfiability solver for implication checks between two formulas.<br> Formulas are converted into CNF using the Tseitin transformation, i.e.,
+ * every compound sub-formula is represented by a new variable that is equivalent to the sub-formula. In contrast to the distributive law, the number of clauses
+ * grows only linearly with the size of a formula. As the definitions of the new variables do not restrict the original variables, the definitions of all rules
+ * can be added to one solver, and a rule is checked by assuming its negated variable.
+ *
+ * @see ExampleCalculator
+ */
+class ImplicationSolver {
+
+	/**
+	 * Symbols for {@link Node#eliminateNotSupportedSymbols(String[])} that only eliminate cardinality operators.
+	 */
+	private static final String[] CARDINALITY_SYMBOLS = { "!", "&", "|", "=>", "<=>", ", ", NodeWriter.noSymbol, NodeWriter.noSymbol, NodeWriter.noSymbol };
+
+	private final ISolver solver = SolverFactory.newDefault();
+
+	private final Map<Object, Integer> varToInt = new HashMap<>();
+	private final Map<Integer, Object> intToVar = new HashMap<>();
+
+	private boolean contradiction = false;
+
+	ImplicationSolver(long timeout) {
+		solver.setTimeoutMs(timeout);
+		addClause(getVariable(NodeCreator.varTrue));
+		addClause(-getVariable(NodeCreator.varFalse));
+	}
+
+	/**
+	 * Adds the given formula to the solver. The rules of a conjunction are encoded separately.
+	 *
+	 * @param node the formula
+	 */
+	void addFormula(Node node) {
+		if (node instanceof And) {
+			for (final Node child : node.getChildren()) {
+				addFormula(child);
+			}
+		} else if (node instanceof Or) {
+			// clauses are added directly
+			final Node[] children = node.getChildren();
+			final int[] clause = new int[children.length];
+			for (int i = 0; i < children.length; i++) {
+				clause[i] = encode(children[i]);
+			}
+			addClause(clause);
+		} else {
+			addClause(encode(node));
+		}
+	}
+
+	/**
+	 * Adds the definition of a variable that is equivalent to the given formula.
+	 *
+	 * @param node the formula
+	 * @return the literal that is equivalent to the formula
+	 */
+	int encode(Node node) {
+		if (node instanceof Literal) {
+			final Literal literal = (Literal) node;
+			final int variable = getVariable(literal.var);
+			return literal.positive ? variable : -variable;
+		} else if (node instanceof Not) {
+			return -encode(node.getChildren()[0]);
+		} else if (node instanceof And) {
+			final int[] children = encodeChildren(node);
+			final int t = newVariable();
+			final int[] clause = new int[children.length + 1];
+			for (int i = 0; i < children.length; i++) {
+				addClause(-t, children[i]);
+				clause[i] = -children[i];
+			}
+			clause[children.length] = t;
+			addClause(clause);
+			return t;
+		} else if (node instanceof Or) {
+			final int[] children = encodeChildren(node);
+			final int t = newVariable();
+			final int[] clause = new int[children.length + 1];
+			for (int i = 0; i < children.length; i++) {
+				addClause(t, -children[i]);
+				clause[i] = children[i];
+			}
+			clause[children.length] = -t;
+			addClause(clause);
+			return t;
+		} else if (node instanceof Implies) {
+			final int[] children = encodeChildren(node);
+			final int t = newVariable();
+			addClause(-t, -children[0], children[1]);
+			addClause(t, children[0]);
+			addClause(t, -children[1]);
+			return t;
+		} else if (node instanceof Equals) {
+			final int[] children = encodeChildren(node);
+			final int t = newVariable();
+			addClause(-t, -children[0], children[1]);
+			addClause(-t, children[0], -children[1]);
+			addClause(t, children[0], children[1]);
+			addClause(t, -children[0], -children[1]);
+			return t;
+		} else if ((node instanceof AtMost) || (node instanceof AtLeast) || (node instanceof Choose)) {
+			return encode(node.clone().eliminateNotSupportedSymbols(CARDINALITY_SYMBOLS));
+		} else {
+			throw new IllegalArgumentException(node.getClass().getName());
+		}
+	}
+
+	private int[] encodeChildren(Node node) {
+		final Node[] children = node.getChildren();
+		final int[] literals = new int[children.length];
+		for (int i = 0; i < children.length; i++) {
+			literals[i] = encode(children[i]);
+		}
+		return literals;
+	}
+
+	/**
+	 * @param assumptions literals that are assumed to be true
+	 * @return <code>true</code> if the formulas in the solver are satisfiable under the given assumptions
+	 * @throws TimeoutException if the solver exceeded its timeout
+	 */
+	boolean isSatisfiable(int... assumptions) throws TimeoutException {
+		return !contradiction && solver.isSatisfiable(new VecInt(assumptions));
+	}
+
+	/**
+	 * @return the selected original variables of the last solution, separated by line breaks
+	 */
+	String getSolution() {
+		final StringBuilder out = new StringBuilder();
+		for (final int literal : solver.model()) {
+			if (literal > 0) {
+				final Object var = intToVar.get(literal);
+				if (var instanceof String) {
+					out.append(var).append('\n');
+				}
+			}
+		}
+		return out.toString();
+	}
+
+	/**
+	 * @return a clause that excludes the original variable assignment of the last solution
+	 */
+	int[] getBlockingClause() {
+		final int[] model = solver.model();
+		final int[] clause = new int[model.length];
+		int size = 0;
+		for (final int literal : model) {
+			if (intToVar.containsKey(Math.abs(literal))) {
+				clause[size++] = -literal;
+			}
+		}
+		return Arrays.copyOf(clause, size);
+	}
+
+	/**
+	 * @return a new variable without meaning
+	 */
+	int newVariable() {
+		final int index = solver.nextFreeVarId(false);
+		solver.newVar(index);
+		return index;
+	}
+
+	private int getVariable(Object var) {
+		Integer index = varToInt.get(var);
+		if (index == null) {
+			index = newVariable();
+			varToInt.put(var, index);
+			intToVar.put(index, var);
+		}
+		return index;
+	}
+
+	void addClause(int... clause) {
+		if (contradiction) {
+			return;
+		}
+		try {
+			solver.addClause(new VecInt(clause));
+		} catch (final ContradictionException e) {
+			contradiction = true;
+		}
+	}
+
+}
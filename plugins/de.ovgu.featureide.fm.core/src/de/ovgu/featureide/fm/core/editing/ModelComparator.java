@@ -20,6 +20,7 @@
  */
 package de.ovgu.featureide.fm.core.editing;
 
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -30,8 +31,6 @@ import java.util.Set;
 import org.prop4j.And;
 import org.prop4j.Literal;
 import org.prop4j.Node;
-import org.prop4j.Not;
-import org.prop4j.SatSolver;
 import org.sat4j.specs.TimeoutException;
 
 import de.ovgu.featureide.fm.core.Logger;
@@ -41,6 +40,7 @@ import de.ovgu.featureide.fm.core.configuration.Configuration;
 
 /**
  * Compares two feature models based on a satisfiability solver. The result is a classification of the edit that transforms one model into the second model.
+ * Rules that occur in both models are removed using hash sets, and the remaining rules are checked one by one with an incremental {@link ImplicationSolver}.
  *
  * @author Thomas Thuem
  */
@@ -199,9 +199,10 @@ public class ModelComparator {
 		if (!strategy.contains(Strategy.WithoutIdenticalRules)) {
 			return node;
 		}
+		final Set<Node> referenceChildren = new HashSet<>(Arrays.asList(referenceNode.getChildren()));
 		final LinkedList<Node> updatedNodes = new LinkedList<>();
 		for (final Node child : node.getChildren()) {
-			if (!containedIn(child, referenceNode.getChildren())) {
+			if (!referenceChildren.contains(child)) {
 				updatedNodes.add(child);
 			}
 		}
@@ -214,9 +215,9 @@ public class ModelComparator {
 		}
 
 		if (!strategy.contains(Strategy.SingleTesting)) {
-			final Node node = new And(a.clone(), new Not(b.clone()));
-			final SatSolver solver = new SatSolver(node, timeout);
-			return !solver.hasSolution();
+			final ImplicationSolver solver = new ImplicationSolver(timeout);
+			solver.addFormula(a);
+			return !solver.isSatisfiable(-solver.encode(b));
 		}
 
 		example.setLeft(a);
@@ -224,15 +225,6 @@ public class ModelComparator {
 		return !example.findSatisfiable(strategy.contains(Strategy.SingleTestingAborted));
 	}
 
-	private boolean containedIn(Node node, Node[] nodes) {
-		for (final Node child : nodes) {
-			if (node.equals(child)) {
-				return true;
-			}
-		}
-		return false;
-	}
-
 	public Configuration calculateExample(boolean added) throws TimeoutException {
 		return added ? addedProducts.nextExample() : removedProducts.nextExample();
 	}
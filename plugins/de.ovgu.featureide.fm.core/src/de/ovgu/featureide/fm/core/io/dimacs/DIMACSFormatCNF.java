@@ -20,16 +20,10 @@
  */
 package de.ovgu.featureide.fm.core.io.dimacs;
 
-import java.io.IOException;
 import java.text.ParseException;
 
-import org.prop4j.Node;
-
 import de.ovgu.featureide.fm.core.PluginID;
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
-import de.ovgu.featureide.fm.core.analysis.cnf.ClauseList;
-import de.ovgu.featureide.fm.core.analysis.cnf.Nodes;
-import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
 import de.ovgu.featureide.fm.core.io.APersistentFormat;
 import de.ovgu.featureide.fm.core.io.Problem;
 import de.ovgu.featureide.fm.core.io.ProblemList;
@@ -54,17 +48,14 @@ public class DIMACSFormatCNF extends APersistentFormat<CNF> {
 	@Override
 	public ProblemList read(CNF cnf, CharSequence source) {
 		final ProblemList problemList = new ProblemList();
-		final DimacsReader r = new DimacsReader();
+		final DimacsCNFReader r = new DimacsCNFReader();
 		r.setReadingVariableDirectory(true);
-		r.setFlattenCNF(false);
 		try {
-			final Node node = r.read(source.toString());
-			final Variables variables = new Variables(r.getVariables());
-			final ClauseList clauseList = Nodes.convertNF(variables, node, true, true);
-			cnf.setVariables(variables);
+			final CNF result = r.read(source);
+			cnf.setVariables(result.getVariables());
 			cnf.getClauses().clear();
-			cnf.getClauses().addAll(clauseList);
-		} catch (ParseException | IOException e) {
+			cnf.getClauses().addAll(result.getClauses());
+		} catch (final ParseException e) {
 			problemList.add(new Problem(e));
 		}
 		return problemList;
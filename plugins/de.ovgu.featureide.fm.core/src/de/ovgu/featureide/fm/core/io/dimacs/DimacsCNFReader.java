@@ -0,0 +1,443 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.dimacs;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet.Order;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+
+/**
+ * Reads DIMACS CNF files directly into a {@link CNF}.<br> In contrast to {@link DimacsReader}, the input is scanned character by character in a single
+ * pass. Literals are parsed without creating intermediate strings or {@link org.prop4j.Node nodes} and each clause is added to the resulting CNF as a
+ * {@link LiteralSet} as soon as its end is read. Files are read via a memory-mapped buffer.
+ *
+ * @see DimacsWriter
+ */
+public class DimacsCNFReader {
+
+	/** Size of the regions of a file that are mapped into memory at once. */
+	private static final int MAPPING_SIZE = 1 << 28;
+
+	/**
+	 * Sequential access to the characters of the input.
+	 */
+	private abstract static class Source {
+
+		/**
+		 * @return the next character or <code>-1</code> if the end of the input is reached
+		 */
+		abstract int next() throws IOException;
+
+		abstract void startText();
+
+		abstract void appendText(int c);
+
+		abstract String getText();
+
+	}
+
+	private static class CharSequenceSource extends Source {
+
+		private final CharSequence source;
+		private final int length;
+		private int position = 0;
+
+		private final StringBuilder text = new StringBuilder();
+
+		CharSequenceSource(CharSequence source) {
+			this.source = source;
+			length = source.length();
+		}
+
+		@Override
+		int next() {
+			return position < length ? source.charAt(position++) : -1;
+		}
+
+		@Override
+		void startText() {
+			text.setLength(0);
+		}
+
+		@Override
+		void appendText(int c) {
+			text.append((char) c);
+		}
+
+		@Override
+		String getText() {
+			return text.toString();
+		}
+
+	}
+
+	private static class MappedFileSource extends Source {
+
+		private final FileChannel channel;
+		private final long size;
+		private long mappedEnd = 0;
+		private MappedByteBuffer buffer = null;
+
+		private byte[] text = new byte[64];
+		private int textLength = 0;
+
+		MappedFileSource(FileChannel channel) throws IOException {
+			this.channel = channel;
+			size = channel.size();
+		}
+
+		@Override
+		int next() throws IOException {
+			if ((buffer == null) || !buffer.hasRemaining()) {
+				if (mappedEnd >= size) {
+					return -1;
+				}
+				final long regionSize = Math.min(MAPPING_SIZE, size - mappedEnd);
+				buffer = channel.map(MapMode.READ_ONLY, mappedEnd, regionSize);
+				mappedEnd += regionSize;
+			}
+			return buffer.get() & 0xff;
+		}
+
+		@Override
+		void startText() {
+			textLength = 0;
+		}
+
+		@Override
+		void appendText(int c) {
+			if (textLength == text.length) {
+				text = Arrays.copyOf(text, text.length << 1);
+			}
+			text[textLength++] = (byte) c;
+		}
+
+		@Override
+		String getText() {
+			return new String(text, 0, textLength, StandardCharsets.UTF_8);
+		}
+
+	}
+
+	/** True to read the variable directory for naming variables. */
+	private boolean readVariableDirectory = false;
+
+	private Source source;
+	private int lineCount;
+	/** Variable and clause count of the problem definition. */
+	private final int[] problemValues = new int[2];
+	/** Whether the problem definition was read, i.e., whether the variable count is known. */
+	private boolean problemRead;
+	/** Names of the variables from the variable directory by variable. */
+	private final Map<Integer, String> directory = new HashMap<>();
+
+	/**
+	 * <p> Sets the reading variable directory flag. If true, the reader will look for a variable directory in the comments. This contains names for the
+	 * variables which would otherwise just be numbers. </p>
+	 *
+	 * <p> Defaults to false. </p>
+	 *
+	 * @param readVariableDirectory whether to read the variable directory
+	 */
+	public void setReadingVariableDirectory(boolean readVariableDirectory) {
+		this.readVariableDirectory = readVariableDirectory;
+	}
+
+	/**
+	 * Reads the given file using a memory-mapped buffer. The file is expected to be encoded in UTF-8.
+	 *
+	 * @param path the file to read from
+	 * @return a CNF; not null
+	 * @throws IOException if the file cannot be read
+	 * @throws ParseException if the input does not conform to the DIMACS CNF file format
+	 */
+	public CNF read(Path path) throws ParseException, IOException {
+		try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			return read(new MappedFileSource(channel));
+		}
+	}
+
+	/**
+	 * Reads the given character sequence.
+	 *
+	 * @param source the source to read from
+	 * @return a CNF; not null
+	 * @throws ParseException if the input does not conform to the DIMACS CNF file format
+	 */
+	public CNF read(CharSequence source) throws ParseException {
+		try {
+			return read(new CharSequenceSource(source));
+		} catch (final IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private CNF read(Source source) throws ParseException, IOException {
+		this.source = source;
+		lineCount = 1;
+		problemRead = false;
+		directory.clear();
+		try {
+			int c = skipWhitespace(source.next());
+			while (c == 'c') {
+				c = skipWhitespace(readComment(readVariableDirectory));
+			}
+			c = readProblem(c);
+			problemRead = true;
+
+			final int variableCount = problemValues[0];
+			final int clauseCount = problemValues[1];
+			for (final int index : directory.keySet()) {
+				checkDirectoryIndex(index);
+			}
+			c = skipWhitespace(c);
+			while (c == 'c') {
+				c = skipWhitespace(readComment(readVariableDirectory));
+			}
+
+			final List<String> names = new ArrayList<>(variableCount);
+			for (int i = 1; i <= variableCount; i++) {
+				final String name = directory.get(i);
+				names.add(name == null ? Integer.toString(i) : name);
+			}
+			final CNF cnf = new CNF(new Variables(names));
+			readClauses(c, cnf, variableCount);
+
+			final int actualClausesCount = cnf.getClauses().size();
+			if (clauseCount != actualClausesCount) {
+				throw new ParseException(String.format("Found %d instead of %d clauses", actualClausesCount, clauseCount), lineCount);
+			}
+			return cnf;
+		} finally {
+			this.source = null;
+		}
+	}
+
+	/**
+	 * Reads the problem definition, which must be contained in a single line.
+	 *
+	 * @param c the first character of the problem definition
+	 * @return the first character following the definition
+	 * @throws ParseException if the input does not conform to the DIMACS CNF file format
+	 */
+	private int readProblem(int c) throws ParseException, IOException {
+		if (c != DIMACSConstants.PROBLEM.charAt(0)) {
+			throw new ParseException("Invalid problem format", lineCount);
+		}
+		c = skipProblemBlanks(source.next());
+		for (int i = 0; i < DIMACSConstants.CNF.length(); i++) {
+			if (c != DIMACSConstants.CNF.charAt(i)) {
+				throw new ParseException("Invalid problem format", lineCount);
+			}
+			c = source.next();
+		}
+		for (int i = 0; i < problemValues.length; i++) {
+			c = skipProblemBlanks(c);
+			if (!isDigit(c)) {
+				throw new ParseException("Invalid problem format", lineCount);
+			}
+			long value = 0;
+			while (isDigit(c)) {
+				value = (value * 10) + (c - '0');
+				if (value > Integer.MAX_VALUE) {
+					throw new ParseException("Invalid problem format", lineCount);
+				}
+				c = source.next();
+			}
+			problemValues[i] = (int) value;
+		}
+		if (!isWhitespace(c) && (c >= 0)) {
+			throw new ParseException("Invalid problem format", lineCount);
+		}
+		return c;
+	}
+
+	/**
+	 * Reads all clauses and adds them to the given CNF.
+	 *
+	 * @param c the first character of the clause section
+	 * @throws ParseException if the input does not conform to the DIMACS CNF file format
+	 */
+	private void readClauses(int c, CNF cnf, int variableCount) throws ParseException, IOException {
+		int[] literals = new int[16];
+		int literalCount = 0;
+		boolean lineStart = true;
+		while (c >= 0) {
+			if (isWhitespace(c)) {
+				if (c == '\n') {
+					lineStart = true;
+					lineCount++;
+				}
+				c = source.next();
+				continue;
+			}
+			if (lineStart && (c == 'c')) {
+				c = readComment(false);
+				continue;
+			}
+			lineStart = false;
+
+			final boolean negative = c == '-';
+			if (negative) {
+				c = source.next();
+			}
+			if (!isDigit(c)) {
+				throw new ParseException("Illegal literal", lineCount);
+			}
+			long variable = 0;
+			do {
+				variable = (variable * 10) + (c - '0');
+				if (variable > variableCount) {
+					throw new ParseException("Variable count is smaller than given literal", lineCount);
+				}
+				c = source.next();
+			} while (isDigit(c));
+			if ((c >= 0) && !isWhitespace(c)) {
+				throw new ParseException("Illegal literal", lineCount);
+			}
+
+			if (variable == 0) {
+				if (negative) {
+					throw new ParseException("Illegal literal", lineCount);
+				}
+				if (literalCount == 0) {
+					throw new ParseException("Empty clause", lineCount);
+				}
+				cnf.addClause(new LiteralSet(Arrays.copyOf(literals, literalCount), Order.UNORDERED));
+				literalCount = 0;
+			} else {
+				if (literalCount == literals.length) {
+					literals = Arrays.copyOf(literals, literals.length << 1);
+				}
+				literals[literalCount++] = (int) (negative ? -variable : variable);
+			}
+		}
+		if (literalCount > 0) {
+			cnf.addClause(new LiteralSet(Arrays.copyOf(literals, literalCount), Order.UNORDERED));
+		}
+	}
+
+	/**
+	 * Reads a comment, starting after the leading comment token, until the end of its line.
+	 *
+	 * @param directoryEntry whether the comment may be an entry of the variable directory
+	 * @return the first character of the following line
+	 * @throws ParseException if the index of a directory entry exceeds the variable count
+	 */
+	private int readComment(boolean directoryEntry) throws ParseException, IOException {
+		int c = skipBlanks(source.next());
+		if (directoryEntry && isDigit(c)) {
+			long index = 0;
+			while (isDigit(c) && (index <= Integer.MAX_VALUE)) {
+				index = (index * 10) + (c - '0');
+				c = source.next();
+			}
+			if ((c == ' ') && (index <= Integer.MAX_VALUE)) {
+				source.startText();
+				for (c = source.next(); (c >= 0) && (c != '\n') && (c != '\r'); c = source.next()) {
+					source.appendText(c);
+				}
+				final String name = source.getText();
+				if (!name.isEmpty()) {
+					addDirectoryEntry((int) index, name);
+				}
+			}
+		}
+		while ((c >= 0) && (c != '\n')) {
+			c = source.next();
+		}
+		if (c == '\n') {
+			lineCount++;
+			c = source.next();
+		}
+		return c;
+	}
+
+	/**
+	 * Adds an entry of the variable directory. Entries that precede the problem definition are checked as soon as the variable count is known.
+	 */
+	private void addDirectoryEntry(int index, String name) throws ParseException {
+		if (problemRead) {
+			checkDirectoryIndex(index);
+		}
+		directory.putIfAbsent(index, name);
+	}
+
+	private void checkDirectoryIndex(int index) throws ParseException {
+		if (index > problemValues[0]) {
+			throw new ParseException(String.format("Found %d instead of %d variables", index, problemValues[0]), lineCount);
+		}
+	}
+
+	private int skipWhitespace(int c) throws IOException {
+		while (isWhitespace(c)) {
+			if (c == '\n') {
+				lineCount++;
+			}
+			c = source.next();
+		}
+		return c;
+	}
+
+	/**
+	 * Skips at least one space or tab, but no line breaks.
+	 */
+	private int skipProblemBlanks(int c) throws ParseException, IOException {
+		if ((c != ' ') && (c != '\t')) {
+			throw new ParseException("Invalid problem format", lineCount);
+		}
+		return skipBlanks(c);
+	}
+
+	/**
+	 * Skips spaces and tabs, but no line breaks.
+	 */
+	private int skipBlanks(int c) throws IOException {
+		while ((c == ' ') || (c == '\t')) {
+			c = source.next();
+		}
+		return c;
+	}
+
+	private static boolean isWhitespace(int c) {
+		return (c == ' ') || (c == '\n') || (c == '\t') || (c == '\r') || (c == '\f');
+	}
+
+	private static boolean isDigit(int c) {
+		return (c >= '0') && (c <= '9');
+	}
+
+}
@@ -20,13 +20,22 @@
  */
 package de.ovgu.featureide.fm.core.io.dimacs;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 import org.prop4j.Node;
 
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.IInternalVariables;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
 
 /**
- * Transforms instances of {@link Node} into DIMACS CNF file format.
+ * Transforms instances of {@link Node} into DIMACS CNF file format. The output is encoded into a reusable byte buffer, so that large CNFs can be
+ * streamed to a file without building the whole document in memory.
  *
  * @author Timo Günther
  * @author Sebastian Krieter
@@ -36,8 +45,15 @@ public class DimacsWriter {
 	/** Whether the writer should write a variable directory listing the names of the variables. */
 	private boolean writingVariableDirectory = true;
 
+	private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+	private static final byte[] CLAUSE_END = (DIMACSConstants.CLAUSE_END + System.lineSeparator()).getBytes(StandardCharsets.UTF_8);
+
 	private final CNF cnf;
 
+	private final byte[] buffer = new byte[1 << 16];
+	private int position;
+	private OutputStream out;
+
 	/**
 	 * Constructs a new instance of this class with the given CNF.
 	 *
@@ -73,81 +89,152 @@ public class DimacsWriter {
 	 * @return the transformed CNF; not null
 	 */
 	public String write() {
-		final StringBuilder sb = new StringBuilder();
-		if (writingVariableDirectory) {
-			writeVariableDirectory(sb);
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try {
+			write(out);
+		} catch (final IOException e) {
+			throw new RuntimeException(e);
 		}
-		writeProblem(sb);
-		writeClauses(sb);
-		return sb.toString();
+		return new String(out.toByteArray(), StandardCharsets.UTF_8);
 	}
 
 	/**
-	 * Writes the variable directory.
+	 * Writes the DIMACS CNF file format to the given file, which is encoded in UTF-8.
+	 *
+	 * @param path the file to write to
+	 * @throws IOException if the file cannot be written
+	 */
+	public void write(Path path) throws IOException {
+		try (OutputStream out = Files.newOutputStream(path)) {
+			write(out);
+		}
+	}
+
+	/**
+	 * Writes the DIMACS CNF file format to the given stream. The output is buffered internally and flushed when all clauses are written, the stream is
+	 * not closed.
 	 *
-	 * @param sb the string builder that builds the document
+	 * @param out the stream to write to
+	 * @throws IOException if the stream cannot be written
 	 */
-	private void writeVariableDirectory(StringBuilder sb) {
+	public void write(OutputStream out) throws IOException {
+		this.out = out;
+		position = 0;
+		try {
+			if (writingVariableDirectory) {
+				writeVariableDirectory();
+			}
+			writeProblem();
+			writeClauses();
+			flush();
+		} finally {
+			this.out = null;
+		}
+	}
+
+	/**
+	 * Writes the variable directory.
+	 */
+	private void writeVariableDirectory() throws IOException {
 		final String[] names = cnf.getVariables().getNames();
 		for (int i = 1; i < names.length; i++) {
-			writeVariableDirectoryEntry(sb, i, names[i]);
+			writeVariableDirectoryEntry(i, names[i]);
 		}
 	}
 
 	/**
 	 * Writes an entry of the variable directory.
 	 *
-	 * @param sb the string builder that builds the document
-	 * @param variable variable to list in the entry
 	 * @param index index of the variable
+	 * @param name name of the variable
 	 */
-	private void writeVariableDirectoryEntry(StringBuilder sb, int index, String name) {
-		sb.append(DIMACSConstants.COMMENT_START);
-		sb.append(index);
-		sb.append(' ');
-		sb.append(String.valueOf(name));
-		sb.append(System.lineSeparator());
+	private void writeVariableDirectoryEntry(int index, String name) throws IOException {
+		writeString(DIMACSConstants.COMMENT_START);
+		writeInt(index);
+		writeByte(' ');
+		writeString(String.valueOf(name));
+		writeBytes(LINE_SEPARATOR);
 	}
 
 	/**
 	 * Writes the problem description.
-	 *
-	 * @param sb the string builder that builds the document
 	 */
-	private void writeProblem(StringBuilder sb) {
-		sb.append(DIMACSConstants.PROBLEM);
-		sb.append(' ');
-		sb.append(DIMACSConstants.CNF);
-		sb.append(' ');
-		sb.append(cnf.getVariables().size());
-		sb.append(' ');
-		sb.append(cnf.getClauses().size());
-		sb.append(System.lineSeparator());
+	private void writeProblem() throws IOException {
+		writeString(DIMACSConstants.PROBLEM);
+		writeByte(' ');
+		writeString(DIMACSConstants.CNF);
+		writeByte(' ');
+		writeInt(cnf.getVariables().size());
+		writeByte(' ');
+		writeInt(cnf.getClauses().size());
+		writeBytes(LINE_SEPARATOR);
 	}
 
 	/**
-	 * Writes the given clause.
-	 *
-	 * @param sb the string builder that builds the document
-	 * @param clause clause to transform; not null
+	 * Writes all clauses.
 	 */
-	private void writeClause(StringBuilder sb, LiteralSet clause) {
-		for (final int l : clause.getLiterals()) {
-			sb.append(l);
-			sb.append(' ');
+	private void writeClauses() throws IOException {
+		final IInternalVariables internalVariables = cnf.getInternalVariables();
+		for (final LiteralSet clause : cnf.getClauses()) {
+			for (final int l : clause.getLiterals()) {
+				writeInt(internalVariables.convertToInternal(l));
+				writeByte(' ');
+			}
+			writeBytes(CLAUSE_END);
+		}
+	}
+
+	private void writeString(String s) throws IOException {
+		writeBytes(s.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private void writeBytes(byte[] bytes) throws IOException {
+		if ((position + bytes.length) > buffer.length) {
+			flush();
+			if (bytes.length > buffer.length) {
+				out.write(bytes);
+				return;
+			}
+		}
+		System.arraycopy(bytes, 0, buffer, position, bytes.length);
+		position += bytes.length;
+	}
+
+	private void writeByte(int b) throws IOException {
+		if (position == buffer.length) {
+			flush();
 		}
-		sb.append(DIMACSConstants.CLAUSE_END);
-		sb.append(System.lineSeparator());
+		buffer[position++] = (byte) b;
 	}
 
 	/**
-	 * Writes all clauses.
-	 *
-	 * @param sb the string builder that builds the document
+	 * Writes the decimal representation of the given integer without creating a string.
 	 */
-	private void writeClauses(StringBuilder sb) {
-		for (final LiteralSet clause : cnf.getClauses()) {
-			writeClause(sb, cnf.getInternalVariables().convertToInternal(clause));
+	private void writeInt(int value) throws IOException {
+		if ((position + 11) > buffer.length) {
+			flush();
+		}
+		long v = value;
+		if (v < 0) {
+			buffer[position++] = '-';
+			v = -v;
+		}
+		final int start = position;
+		do {
+			buffer[position++] = (byte) ('0' + (v % 10));
+			v /= 10;
+		} while (v != 0);
+		for (int i = start, j = position - 1; i < j; i++, j--) {
+			final byte tmp = buffer[i];
+			buffer[i] = buffer[j];
+			buffer[j] = tmp;
+		}
+	}
+
+	private void flush() throws IOException {
+		if (position > 0) {
+			out.write(buffer, 0, position);
+			position = 0;
 		}
 	}
 
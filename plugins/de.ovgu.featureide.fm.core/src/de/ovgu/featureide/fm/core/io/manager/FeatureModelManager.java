@@ -23,6 +23,7 @@ package de.ovgu.featureide.fm.core.io.manager;
 import java.nio.file.Path;
 
 import de.ovgu.featureide.fm.core.FeatureModelAnalyzer;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.CNFSegments;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
 import de.ovgu.featureide.fm.core.base.event.IEventListener;
@@ -49,6 +50,12 @@ public class FeatureModelManager extends AFileManager<IFeatureModel> implements
 	private FeatureModelFormula persistentFormula = null;
 	private FeatureModelFormula variableFormula = null;
 
+	/**
+	 * CNF segments of the previous snapshots, kept until the next formula is created to reuse the unchanged segments.
+	 */
+	private CNFSegments previousPersistentSegments = null;
+	private CNFSegments previousVariableSegments = null;
+
 	public static FeatureModelManager getInstance(Path path) {
 		return getOrCreateInstance(path, FeatureModelManager.class, null);
 	}
@@ -104,7 +111,8 @@ public class FeatureModelManager extends AFileManager<IFeatureModel> implements
 	@Override
 	public FeatureModelFormula getPersistentFormula() {
 		if (persistentFormula == null) {
-			persistentFormula = new FeatureModelFormula(persistentObject);
+			persistentFormula = new FeatureModelFormula(persistentObject, previousPersistentSegments);
+			previousPersistentSegments = null;
 		}
 		return persistentFormula;
 	}
@@ -114,7 +122,8 @@ public class FeatureModelManager extends AFileManager<IFeatureModel> implements
 		fileOperationLock.lock();
 		try {
 			if (variableFormula == null) {
-				variableFormula = new FeatureModelFormula(getSnapshot());
+				variableFormula = new FeatureModelFormula(getSnapshot(), previousVariableSegments);
+				previousVariableSegments = null;
 			}
 			return variableFormula;
 		} finally {
@@ -127,6 +136,7 @@ public class FeatureModelManager extends AFileManager<IFeatureModel> implements
 		super.resetSnapshot(changeIndicator);
 		if (variableFormula != null) {
 			if (changeIndicator <= CHANGE_DEPENDENCIES) {
+				previousVariableSegments = variableFormula.getCreatedSegments();
 				variableFormula = null;
 			} else if (changeIndicator == CHANGE_MODEL_PROPERTY) {
 				// Not nessessary to rebuild the variable formula, just copy the properties to the variable formula's model
@@ -138,6 +148,9 @@ public class FeatureModelManager extends AFileManager<IFeatureModel> implements
 	@Override
 	protected void setPersistentObject(IFeatureModel persistentObject) {
 		super.setPersistentObject(persistentObject);
+		if (persistentFormula != null) {
+			previousPersistentSegments = persistentFormula.getCreatedSegments();
+		}
 		persistentFormula = null;
 	}
 
@@ -32,7 +32,7 @@ import java.util.List;
 
 import org.prop4j.And;
 import org.prop4j.Node;
-import org.prop4j.NodeReader;
+import org.prop4j.NodeParser;
 
 /**
  * Transforms MODEL propositional logic files into instances of {@link Node}.
@@ -153,13 +153,12 @@ public class ModelReader {
 	 * @throws IOException
 	 */
 	private Node[] readClauses(ArrayList<String> stringClauses, Collection<String> featureNames) throws ParseException, IOException {
-		final NodeReader reader = new NodeReader();
-		reader.setFeatureNames(featureNames);
-		reader.activatePropositionalModelSymbols();
+		final NodeParser parser = new NodeParser();
+		parser.setFeatureNames(featureNames);
+		parser.activatePropositionalModelSymbols();
 
 		final List<Node> clauses = new ArrayList<>(stringClauses.size());
-		for (final String stringClause : stringClauses) {
-			final Node clause = reader.stringToNode(stringClause.replaceAll("(\\||&|!)", " $1 "));
+		for (final Node clause : parser.stringsToNodes(stringClauses)) {
 			if (clause != null) {
 				clauses.add(clause);
 			}
@@ -23,6 +23,7 @@ package de.ovgu.featureide.fm.core.job;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.ListIterator;
@@ -33,7 +34,7 @@ import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
 import de.ovgu.featureide.fm.core.analysis.cnf.Nodes;
 import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
-import de.ovgu.featureide.fm.core.analysis.cnf.manipulator.remove.CNFSlicer;
+import de.ovgu.featureide.fm.core.analysis.cnf.manipulator.remove.BoundedCNFSlicer;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.SimpleSatSolver;
 import de.ovgu.featureide.fm.core.base.FeatureUtils;
 import de.ovgu.featureide.fm.core.base.IConstraint;
@@ -64,6 +65,7 @@ public class SliceFeatureModel implements LongRunningMethod<IFeatureModel> {
 
 	private IFeatureModel slicedFeatureModel;
 	private boolean slicingNecesary;
+	private List<String> auxiliaryFeatureNames = Collections.emptyList();
 
 	public SliceFeatureModel(IFeatureModel featureModel, Collection<String> featureNames, boolean useSlicing) {
 		this(featureModel, featureNames, useSlicing, true);
@@ -90,7 +92,9 @@ public class SliceFeatureModel implements LongRunningMethod<IFeatureModel> {
 			monitor.checkCancel();
 			final CNF slicedFeatureModelCNF = sliceFormula(monitor.subTask(80));
 			monitor.checkCancel();
-			merge(FMFactoryManager.getInstance().getFactory(featureModel), slicedFeatureModelCNF, featureTree, monitor.subTask(18));
+			final IFeatureModelFactory factory = FMFactoryManager.getInstance().getFactory(featureModel);
+			addAuxiliaryFeatures(factory, featureTree);
+			merge(factory, slicedFeatureModelCNF, featureTree, monitor.subTask(18));
 		}
 
 		return featureTree;
@@ -100,7 +104,30 @@ public class SliceFeatureModel implements LongRunningMethod<IFeatureModel> {
 		monitor.setTaskName("Slicing Feature Model Formula");
 		final HashSet<String> removeFeatures = new HashSet<>(FeatureUtils.getFeatureNames(featureModel));
 		removeFeatures.removeAll(featureNames);
-		return LongRunningWrapper.runMethod(new CNFSlicer(formula.getCNF(), removeFeatures), monitor.subTask(1));
+		final BoundedCNFSlicer slicer = new BoundedCNFSlicer(formula.getCNF(), removeFeatures);
+		final CNF slicedCNF = LongRunningWrapper.runMethod(slicer, monitor.subTask(1));
+		auxiliaryFeatureNames = slicer.getAuxiliaryVariables();
+		return slicedCNF;
+	}
+
+	/**
+	 * Adds all features that could not be removed from the formula without a large growth of the clause count as hidden abstract features to the root.
+	 */
+	private void addAuxiliaryFeatures(IFeatureModelFactory factory, IFeatureModel featureTree) {
+		if (!auxiliaryFeatureNames.isEmpty()) {
+			final IFeatureStructure root = featureTree.getStructure().getRoot();
+			for (final String name : auxiliaryFeatureNames) {
+				final IFeature feature = factory.createFeature(featureTree, name);
+				feature.getStructure().setAbstract(true);
+				feature.getStructure().setHidden(true);
+				feature.getStructure().setMandatory(false);
+				featureTree.addFeature(feature);
+				root.addChild(feature.getStructure());
+			}
+			if (featureTree instanceof FeatureModel) {
+				((FeatureModel) featureTree).updateNextElementId();
+			}
+		}
 	}
 
 	private IFeatureModel sliceTree(IMonitor<?> monitor) {
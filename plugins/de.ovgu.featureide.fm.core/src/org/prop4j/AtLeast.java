@@ -74,7 +74,7 @@ public class AtLeast extends Node {
 				}
 			}
 		}
-		return false;
+		return trueCount >= min;
 	}
 
 }
@@ -74,7 +74,7 @@ public class AtMost extends Node {
 				}
 			}
 		}
-		return true;
+		return trueCount <= max;
 	}
 
 }
@@ -68,12 +68,12 @@ public class Choose extends Node {
 		for (final Node child : children) {
 			if (child.getValue(map)) {
 				trueCount++;
-				if (trueCount == n) {
-					return true;
+				if (trueCount > n) {
+					return false;
 				}
 			}
 		}
-		return false;
+		return trueCount == n;
 	}
 
 }
@@ -0,0 +1,315 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.ToIntFunction;
+
+import de.ovgu.featureide.fm.core.editing.NodeCreator;
+
+/**
+ * A {@link Node} compiled into a flat postfix program over numerical variable indices.<br> Evaluating the program is equivalent to
+ * {@link Node#getValue(java.util.Map)}, but does not recurse, does not look up boxed values in a map, and does not allocate (except for one stack per
+ * thread on its first evaluation). A configuration is either given as a <code>boolean</code> array or a {@link BitSet} indexed by variable. With
+ * {@link #evaluate(long[])} 64 configurations are evaluated at once by packing the values of each variable into one <code>long</code>.
+ *
+ * @see Node#getValue(java.util.Map)
+ */
+public class CompiledNode {
+
+	private static final int LOAD = 0;
+	private static final int LOAD_NEGATED = 1;
+	private static final int CONST_TRUE = 2;
+	private static final int CONST_FALSE = 3;
+	private static final int NOT = 4;
+	private static final int AND = 5;
+	private static final int OR = 6;
+	private static final int IMPLIES = 7;
+	private static final int EQUALS = 8;
+	private static final int AT_LEAST = 9;
+	private static final int AT_MOST = 10;
+	private static final int CHOOSE = 11;
+
+	private static final int MODE_ARRAY = 0;
+	private static final int MODE_BITSET = 1;
+	private static final int MODE_BATCH = 2;
+
+	private final int[] program;
+	private final int stackSize;
+	private final ThreadLocal<long[]> stacks;
+
+	/**
+	 * Compiles the given node.
+	 *
+	 * @param node the node to compile
+	 * @param variableIndex maps the variable of each {@link Literal} to a non-negative index into the configurations passed to the evaluate methods. Returns a
+	 *        negative value for unknown variables.
+	 *
+	 * @throws IllegalArgumentException if the node contains an unknown variable or an unsupported node type
+	 */
+	public CompiledNode(Node node, ToIntFunction<Object> variableIndex) {
+		final Compiler compiler = new Compiler(variableIndex);
+		compiler.compile(node);
+		program = Arrays.copyOf(compiler.code, compiler.codeLength);
+		stackSize = Math.max(1, compiler.maxDepth);
+		stacks = ThreadLocal.withInitial(() -> new long[stackSize]);
+	}
+
+	private static final class Compiler {
+
+		private final ToIntFunction<Object> variableIndex;
+
+		private int[] code = new int[16];
+		private int codeLength = 0;
+		private int depth = 0;
+		private int maxDepth = 0;
+
+		private Compiler(ToIntFunction<Object> variableIndex) {
+			this.variableIndex = variableIndex;
+		}
+
+		private void compile(Node node) {
+			if (node instanceof ErrorLiteral) {
+				emit(CONST_FALSE);
+				push(1);
+			} else if (node instanceof Literal) {
+				final Literal literal = (Literal) node;
+				if (literal.var == NodeCreator.varTrue) {
+					emit(literal.positive ? CONST_TRUE : CONST_FALSE);
+				} else if (literal.var == NodeCreator.varFalse) {
+					emit(literal.positive ? CONST_FALSE : CONST_TRUE);
+				} else {
+					final int index = variableIndex.applyAsInt(literal.var);
+					if (index < 0) {
+						throw new IllegalArgumentException("No value for " + String.valueOf(literal.var));
+					}
+					emit(literal.positive ? LOAD : LOAD_NEGATED);
+					emit(index);
+				}
+				push(1);
+			} else {
+				final Node[] children = node.getChildren();
+				for (final Node child : children) {
+					compile(child);
+				}
+				if (node instanceof Not) {
+					emit(NOT);
+				} else if (node instanceof And) {
+					emitNary(AND, children.length);
+				} else if (node instanceof Or) {
+					emitNary(OR, children.length);
+				} else if (node instanceof Implies) {
+					emit(IMPLIES);
+					pop(1);
+				} else if (node instanceof Equals) {
+					emit(EQUALS);
+					pop(1);
+				} else if (node instanceof AtLeast) {
+					emitCardinality(AT_LEAST, children.length, ((AtLeast) node).min);
+				} else if (node instanceof AtMost) {
+					emitCardinality(AT_MOST, children.length, ((AtMost) node).max);
+				} else if (node instanceof Choose) {
+					emitCardinality(CHOOSE, children.length, ((Choose) node).n);
+				} else {
+					throw new IllegalArgumentException(node.getClass().getSimpleName());
+				}
+			}
+		}
+
+		private void emitNary(int operator, int childCount) {
+			if (childCount == 0) {
+				emit(operator == AND ? CONST_TRUE : CONST_FALSE);
+				push(1);
+			} else if (childCount > 1) {
+				emit(operator);
+				emit(childCount);
+				pop(childCount - 1);
+			}
+		}
+
+		private void emitCardinality(int operator, int childCount, int k) {
+			// counters for at least 0 ... k + 1 true children are stored above the children
+			final int threshold = Math.max(-1, Math.min(k, childCount + 1));
+			emit(operator);
+			emit(childCount);
+			emit(threshold);
+			maxDepth = Math.max(maxDepth, depth + threshold + 3);
+			if (childCount == 0) {
+				push(1);
+			} else {
+				pop(childCount - 1);
+			}
+		}
+
+		private void emit(int value) {
+			if (codeLength == code.length) {
+				code = Arrays.copyOf(code, code.length << 1);
+			}
+			code[codeLength++] = value;
+		}
+
+		private void push(int count) {
+			depth += count;
+			maxDepth = Math.max(maxDepth, depth);
+		}
+
+		private void pop(int count) {
+			depth -= count;
+		}
+	}
+
+	/**
+	 * Evaluates the node for one configuration.
+	 *
+	 * @param selection the value of each variable
+	 * @return the truth value of the node
+	 */
+	public boolean evaluate(boolean[] selection) {
+		return run(MODE_ARRAY, selection, null, null) != 0;
+	}
+
+	/**
+	 * Evaluates the node for one configuration.
+	 *
+	 * @param selection contains the indices of all variables that are true
+	 * @return the truth value of the node
+	 */
+	public boolean evaluate(BitSet selection) {
+		return run(MODE_BITSET, null, selection, null) != 0;
+	}
+
+	/**
+	 * Evaluates the node for 64 configurations at once. The i-th bit of <code>selections[v]</code> is the value of variable <code>v</code> in the i-th
+	 * configuration.
+	 *
+	 * @param selections the values of each variable in all 64 configurations
+	 * @return a bit mask whose i-th bit is the truth value of the node for the i-th configuration
+	 */
+	public long evaluate(long[] selections) {
+		return run(MODE_BATCH, null, null, selections);
+	}
+
+	private long run(int mode, boolean[] array, BitSet bitSet, long[] batch) {
+		final long[] stack = stacks.get();
+		final int[] program = this.program;
+		int top = 0;
+		for (int pc = 0; pc < program.length; pc++) {
+			switch (program[pc]) {
+			case LOAD:
+			case LOAD_NEGATED: {
+				final int index = program[++pc];
+				final long value;
+				switch (mode) {
+				case MODE_ARRAY:
+					value = array[index] ? -1L : 0L;
+					break;
+				case MODE_BITSET:
+					value = bitSet.get(index) ? -1L : 0L;
+					break;
+				default:
+					value = batch[index];
+					break;
+				}
+				stack[top++] = program[pc - 1] == LOAD ? value : ~value;
+				break;
+			}
+			case CONST_TRUE:
+				stack[top++] = -1L;
+				break;
+			case CONST_FALSE:
+				stack[top++] = 0L;
+				break;
+			case NOT:
+				stack[top - 1] = ~stack[top - 1];
+				break;
+			case AND: {
+				final int start = top - program[++pc];
+				long value = stack[start];
+				for (int i = start + 1; i < top; i++) {
+					value &= stack[i];
+				}
+				stack[start] = value;
+				top = start + 1;
+				break;
+			}
+			case OR: {
+				final int start = top - program[++pc];
+				long value = stack[start];
+				for (int i = start + 1; i < top; i++) {
+					value |= stack[i];
+				}
+				stack[start] = value;
+				top = start + 1;
+				break;
+			}
+			case IMPLIES:
+				top--;
+				stack[top - 1] = ~stack[top - 1] | stack[top];
+				break;
+			case EQUALS:
+				top--;
+				stack[top - 1] = ~(stack[top - 1] ^ stack[top]);
+				break;
+			case AT_LEAST:
+			case AT_MOST:
+			case CHOOSE: {
+				final int operator = program[pc];
+				final int start = top - program[++pc];
+				final int threshold = program[++pc];
+				final long value;
+				if (threshold < 0) {
+					// at least a negative number or at most a negative number of children
+					value = operator == AT_LEAST ? -1L : 0L;
+				} else {
+					// stack[top + j] holds the mask of configurations with at least j true children
+					stack[top] = -1L;
+					Arrays.fill(stack, top + 1, top + threshold + 2, 0L);
+					for (int i = start; i < top; i++) {
+						final long child = stack[i];
+						for (int j = threshold + 1; j > 0; j--) {
+							stack[top + j] |= stack[(top + j) - 1] & child;
+						}
+					}
+					switch (operator) {
+					case AT_LEAST:
+						value = stack[top + threshold];
+						break;
+					case AT_MOST:
+						value = ~stack[top + threshold + 1];
+						break;
+					default:
+						value = stack[top + threshold] & ~stack[top + threshold + 1];
+						break;
+					}
+				}
+				stack[start] = value;
+				top = start + 1;
+				break;
+			}
+			default:
+				throw new IllegalStateException(String.valueOf(program[pc]));
+			}
+		}
+		return stack[0];
+	}
+
+}
@@ -26,6 +26,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -751,17 +752,38 @@ public abstract class Node {
 	 * @return all accepted truth value assignments; not null
 	 */
 	private Set<Map<Object, Boolean>> getAssignments(Boolean result) {
-		final Set<Object> keys = getUniqueVariables();
+		final Object[] keys = getUniqueVariables().toArray();
+		final Map<Object, Integer> keyIndex = new HashMap<>();
+		for (int i = 0; i < keys.length; i++) {
+			keyIndex.put(keys[i], i);
+		}
+		final CompiledNode compiledNode = new CompiledNode(this, key -> keyIndex.getOrDefault(key, -1));
+
+		// evaluates 64 consecutive assignments at once
 		final Set<Map<Object, Boolean>> assignments = new LinkedHashSet<>();
-		for (int assignment = 0; assignment < (1 << keys.size()); assignment++) {
-			final Map<Object, Boolean> map = new LinkedHashMap<>();
-			int i = 0;
-			for (final Object key : keys) {
-				map.put(key, (assignment & (1 << i)) != 0);
-				i++;
+		final long[] selections = new long[keys.length];
+		final int assignmentCount = 1 << keys.length;
+		for (int firstAssignment = 0; firstAssignment < assignmentCount; firstAssignment += Long.SIZE) {
+			final int batchSize = Math.min(Long.SIZE, assignmentCount - firstAssignment);
+			for (int i = 0; i < keys.length; i++) {
+				long selection = 0;
+				for (int j = 0; j < batchSize; j++) {
+					if (((firstAssignment + j) & (1 << i)) != 0) {
+						selection |= 1L << j;
+					}
+				}
+				selections[i] = selection;
 			}
-			if ((result == null) || (getValue(map) == result)) {
-				assignments.add(map);
+			final long values = compiledNode.evaluate(selections);
+			for (int j = 0; j < batchSize; j++) {
+				if ((result == null) || (((values & (1L << j)) != 0) == result)) {
+					final int assignment = firstAssignment + j;
+					final Map<Object, Boolean> map = new LinkedHashMap<>();
+					for (int i = 0; i < keys.length; i++) {
+						map.put(keys[i], (assignment & (1 << i)) != 0);
+					}
+					assignments.add(map);
+				}
 			}
 		}
 		return assignments;
@@ -0,0 +1,423 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j;
+
+import static de.ovgu.featureide.fm.core.localization.StringTable.INVALID_NUMBER_OF_QUOTATION_MARKS;
+import static de.ovgu.featureide.fm.core.localization.StringTable.INVALID_POSITIONING_OF_PARENTHESES;
+
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import org.prop4j.NodeReader.ErrorHandling;
+
+/**
+ * Parses propositional formulas in a single pass, intended for reading large numbers of constraints.<br> Supports the same symbol sets and operator
+ * precedences as the {@link NodeReader} (<i>iff</i> &lt; <i>implies</i> &lt; <i>or</i> &lt; <i>and</i> &lt; <i>not</i>, binary operators are right
+ * associative), but scans each constraint only once using a tokenizer and a precedence climbing parser. Feature names are interned, such that all
+ * {@link Literal literals} of the same feature share one name instance. Errors are reported as {@link ParseException} with the position in the constraint.
+ * Different constraints can be parsed concurrently with {@link #stringsToNodes(List)}.
+ *
+ * @see NodeReader
+ */
+public class NodeParser {
+
+	private static final int IFF = 0;
+	private static final int IMPLIES = 1;
+	private static final int OR = 2;
+	private static final int AND = 3;
+	private static final int NOT = 4;
+
+	private static final int TOKEN_END = -1;
+	private static final int TOKEN_NAME = -2;
+	private static final int TOKEN_OPEN = -3;
+	private static final int TOKEN_CLOSE = -4;
+
+	private String[] symbols;
+	private boolean[] wordSymbols;
+
+	private HashMap<String, String> featureNames;
+	private final ConcurrentHashMap<String, String> internedNames = new ConcurrentHashMap<>();
+
+	private ErrorHandling ignoreMissingFeatures = ErrorHandling.ABORT;
+	private ErrorHandling ignoreUnparsableSubExpressions = ErrorHandling.ABORT;
+
+	private ParseException errorMessage = null;
+	private List<ParseException> errorMessages = Collections.emptyList();
+
+	public NodeParser() {
+		setSymbols(NodeReader.textualSymbols);
+	}
+
+	public void activateShortSymbols() {
+		setSymbols(NodeReader.shortSymbols);
+	}
+
+	public void activateShortSymbols2() {
+		setSymbols(NodeReader.shortSymbols2);
+	}
+
+	public void activateTextualSymbols() {
+		setSymbols(NodeReader.textualSymbols);
+	}
+
+	public void activateLogicalSymbols() {
+		setSymbols(NodeReader.logicalSymbols);
+	}
+
+	public void activateJavaSymbols() {
+		setSymbols(NodeReader.javaSymbols);
+	}
+
+	public void activatePropositionalModelSymbols() {
+		setSymbols(NodeReader.propositionalModelSymbols);
+	}
+
+	private void setSymbols(String[] symbols) {
+		this.symbols = new String[symbols.length];
+		wordSymbols = new boolean[symbols.length];
+		for (int i = 0; i < symbols.length; i++) {
+			final String symbol = symbols[i].trim();
+			this.symbols[i] = symbol;
+			wordSymbols[i] = Character.isJavaIdentifierStart(symbol.charAt(0));
+		}
+	}
+
+	public Collection<String> getFeatureNames() {
+		return featureNames == null ? null : featureNames.keySet();
+	}
+
+	/**
+	 * Sets the valid feature names. Literals of the parsed formulas reference the instances of the given names.
+	 *
+	 * @param featureNames the valid feature names or <code>null</code> if all names are valid
+	 */
+	public void setFeatureNames(Collection<String> featureNames) {
+		if (featureNames == null) {
+			this.featureNames = null;
+		} else {
+			this.featureNames = new HashMap<>((int) (featureNames.size() * 1.5) + 1);
+			for (final String featureName : featureNames) {
+				this.featureNames.put(featureName, featureName);
+			}
+		}
+	}
+
+	public ErrorHandling ignoresMissingFeatures() {
+		return ignoreMissingFeatures;
+	}
+
+	public void setIgnoreMissingFeatures(ErrorHandling ignoreMissingFeatures) {
+		this.ignoreMissingFeatures = ignoreMissingFeatures;
+	}
+
+	public ErrorHandling isIgnoreUnparsableSubExpressions() {
+		return ignoreUnparsableSubExpressions;
+	}
+
+	public void setIgnoreUnparsableSubExpressions(ErrorHandling ignoreUnparsableSubExpressions) {
+		this.ignoreUnparsableSubExpressions = ignoreUnparsableSubExpressions;
+	}
+
+	/**
+	 * Returns the error of the last call of {@link #stringToNode(String)}.
+	 *
+	 * @return the error or <code>null</code> if the constraint was parsed successfully
+	 */
+	public ParseException getErrorMessage() {
+		return errorMessage;
+	}
+
+	/**
+	 * Returns the errors of the last call of {@link #stringsToNodes(List)}.
+	 *
+	 * @return a list containing the error for each constraint or <code>null</code> if the respective constraint was parsed successfully
+	 */
+	public List<ParseException> getErrorMessages() {
+		return errorMessages;
+	}
+
+	/**
+	 * Parses a constraint and create a corresponding {@link Node} tree.
+	 *
+	 * @param constraint The constraint as a string representation.
+	 * @return A node representing the constraint or <code>null</code> if the constraint could not be parsed.
+	 */
+	public Node stringToNode(String constraint) {
+		errorMessage = null;
+		try {
+			return new Parser(constraint).parse();
+		} catch (final ParseException e) {
+			errorMessage = e;
+			return handleInvalidConstraint(constraint);
+		}
+	}
+
+	/**
+	 * Parses a constraint and create a corresponding {@link Node} tree.
+	 *
+	 * @param constraint The constraint to be parsed.
+	 * @param featureNames The valid feature names.
+	 * @return A node representing the constraint or <code>null</code> if the constraint could not be parsed.
+	 */
+	public Node stringToNode(String constraint, Collection<String> featureNames) {
+		setFeatureNames(featureNames);
+		return stringToNode(constraint);
+	}
+
+	/**
+	 * Parses multiple constraints in parallel. The errors for each constraint are available via {@link #getErrorMessages()}.
+	 *
+	 * @param constraints The constraints to be parsed.
+	 * @return A list containing the node for each constraint in the same order. Contains <code>null</code> for each constraint that could not be parsed.
+	 */
+	public List<Node> stringsToNodes(List<String> constraints) {
+		final String[] constraintArray = constraints.toArray(new String[0]);
+		final Node[] nodes = new Node[constraintArray.length];
+		final ParseException[] errors = new ParseException[constraintArray.length];
+		IntStream.range(0, constraintArray.length).parallel().forEach(i -> {
+			try {
+				nodes[i] = new Parser(constraintArray[i]).parse();
+			} catch (final ParseException e) {
+				errors[i] = e;
+				nodes[i] = handleInvalidConstraint(constraintArray[i]);
+			}
+		});
+		errorMessages = Arrays.asList(errors);
+		return Arrays.asList(nodes);
+	}
+
+	private Node handleInvalidConstraint(String constraint) {
+		switch (ignoreUnparsableSubExpressions) {
+		case KEEP:
+			return new ErrorLiteral(constraint);
+		case REMOVE:
+		case ABORT:
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * Holds the state for parsing one constraint.
+	 */
+	private final class Parser {
+
+		private final String constraint;
+		private final int length;
+
+		private int position = 0;
+		private int tokenStart;
+		private int token;
+		private String tokenName;
+
+		private boolean removed = false;
+
+		private Parser(String constraint) {
+			this.constraint = constraint;
+			length = constraint.length();
+		}
+
+		private Node parse() throws ParseException {
+			nextToken();
+			if (token == TOKEN_END) {
+				throw new ParseException("Constraint is empty", 0);
+			}
+			final Node node = parseExpression(IFF);
+			if (token == TOKEN_CLOSE) {
+				throw new ParseException(INVALID_POSITIONING_OF_PARENTHESES + ": to many closing parentheses", tokenStart);
+			} else if (token != TOKEN_END) {
+				throw new ParseException("Missing operator", tokenStart);
+			}
+			return removed ? null : node;
+		}
+
+		private Node parseExpression(int minPrecedence) throws ParseException {
+			Node node = parseUnary();
+			while ((token >= 0) && (token < NOT) && (token >= minPrecedence)) {
+				final int operator = token;
+				nextToken();
+				final Node rightNode = parseExpression(operator);
+				switch (operator) {
+				case IFF:
+					node = new Equals(node, rightNode);
+					break;
+				case IMPLIES:
+					node = new Implies(node, rightNode);
+					break;
+				case OR:
+					node = new Or(node, rightNode);
+					break;
+				case AND:
+					node = new And(node, rightNode);
+					break;
+				default:
+					throw new IllegalStateException(String.valueOf(operator));
+				}
+			}
+			return node;
+		}
+
+		private Node parseUnary() throws ParseException {
+			switch (token) {
+			case NOT:
+				nextToken();
+				return new Not(parseUnary());
+			case TOKEN_OPEN:
+				final int openPosition = tokenStart;
+				nextToken();
+				if (token == TOKEN_CLOSE) {
+					throw new ParseException("Sub expression is empty", openPosition);
+				}
+				final Node node = parseExpression(IFF);
+				if (token != TOKEN_CLOSE) {
+					if (token == TOKEN_END) {
+						throw new ParseException(INVALID_POSITIONING_OF_PARENTHESES + ": there are unclosed opening parentheses", openPosition);
+					}
+					throw new ParseException("Missing operator", tokenStart);
+				}
+				nextToken();
+				return node;
+			case TOKEN_NAME:
+				final Node literal = createLiteral(tokenName, tokenStart);
+				nextToken();
+				return literal;
+			case TOKEN_END:
+				throw new ParseException("Missing feature name or expression", tokenStart);
+			case TOKEN_CLOSE:
+				throw new ParseException("Missing feature name or expression", tokenStart);
+			default:
+				throw new ParseException("Missing feature name or expression on left side", tokenStart);
+			}
+		}
+
+		private Node createLiteral(String name, int namePosition) throws ParseException {
+			if (featureNames == null) {
+				final String internedName = internedNames.putIfAbsent(name, name);
+				return new Literal(internedName == null ? name : internedName);
+			}
+			final String featureName = featureNames.get(name);
+			if (featureName != null) {
+				return new Literal(featureName);
+			}
+			switch (ignoreMissingFeatures) {
+			case KEEP:
+				return new ErrorLiteral(name);
+			case REMOVE:
+				removed = true;
+				return new ErrorLiteral(name);
+			case ABORT:
+			default:
+				throw new ParseException("'" + name + "' is no valid feature name", namePosition);
+			}
+		}
+
+		private void nextToken() throws ParseException {
+			while ((position < length) && Character.isWhitespace(constraint.charAt(position))) {
+				position++;
+			}
+			tokenStart = position;
+			if (position == length) {
+				token = TOKEN_END;
+				return;
+			}
+			switch (constraint.charAt(position)) {
+			case '(':
+				position++;
+				token = TOKEN_OPEN;
+				return;
+			case ')':
+				position++;
+				token = TOKEN_CLOSE;
+				return;
+			case '"':
+				final int end = constraint.indexOf('"', position + 1);
+				if (end < 0) {
+					throw new ParseException(INVALID_NUMBER_OF_QUOTATION_MARKS, position);
+				}
+				for (int i = position + 1; i < end; i++) {
+					final char c = constraint.charAt(i);
+					if ((c == '(') || (c == ')')) {
+						throw new ParseException(INVALID_POSITIONING_OF_PARENTHESES + ": parenthesis are not allowed in feature names", i);
+					}
+				}
+				tokenName = constraint.substring(position + 1, end);
+				position = end + 1;
+				token = TOKEN_NAME;
+				return;
+			default:
+				break;
+			}
+			final int symbol = matchSymbol(position);
+			if (symbol >= 0) {
+				position += symbols[symbol].length();
+				token = symbol;
+				return;
+			}
+			position++;
+			while ((position < length) && !isNameEnd(constraint.charAt(position)) && (matchSymbol(position) < 0)) {
+				position++;
+			}
+			token = matchWordSymbol(tokenStart, position);
+			if (token < 0) {
+				tokenName = constraint.substring(tokenStart, position);
+				token = TOKEN_NAME;
+			}
+		}
+
+		private boolean isNameEnd(char c) {
+			return Character.isWhitespace(c) || (c == '(') || (c == ')') || (c == '"');
+		}
+
+		/**
+		 * @return the longest non-textual operator symbol starting at the given position or <code>-1</code>
+		 */
+		private int matchSymbol(int start) {
+			int match = -1;
+			for (int i = 0; i < symbols.length; i++) {
+				final String symbol = symbols[i];
+				if (!wordSymbols[i] && constraint.startsWith(symbol, start) && ((match < 0) || (symbol.length() > symbols[match].length()))) {
+					match = i;
+				}
+			}
+			return match;
+		}
+
+		/**
+		 * @return the textual operator symbol that equals the given region or <code>-1</code>
+		 */
+		private int matchWordSymbol(int start, int end) {
+			for (int i = 0; i < symbols.length; i++) {
+				final String symbol = symbols[i];
+				if (wordSymbols[i] && (symbol.length() == (end - start)) && constraint.startsWith(symbol, start)) {
+					return i;
+				}
+			}
+			return -1;
+		}
+	}
+
+}
@@ -36,6 +36,8 @@ import static de.ovgu.featureide.fm.core.localization.StringTable.UPDATING_FEATU
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -260,6 +262,13 @@ public class FeatureDiagramEditor extends FeatureModelEditorPage implements GUID
 
 	private final JobToken analysisToken = LongRunningWrapper.createToken(JobStartingStrategy.CANCEL_WAIT);
 
+	/**
+	 * Feature model elements whose analysis results changed, but are not repainted yet.
+	 */
+	private final Set<IFeatureModelElement> pendingElements = new HashSet<>();
+	private boolean refreshScheduled = false;
+	private boolean fullRefreshPending = false;
+
 	FeatureDiagramEditorKeyHandler editorKeyHandler;
 
 	/** The currently active explanation. */
@@ -566,17 +575,18 @@ public class FeatureDiagramEditor extends FeatureModelEditorPage implements GUID
 			public Boolean execute(IMonitor<Boolean> monitor) throws Exception {
 				final FeatureModelAnalyzer localAnalyzer = variableFormula.getAnalyzer();
 				localAnalyzer.reset();
-				refreshGraphics(null);
 
 				final AnalysesCollection generalAnalysesCollection = persistentFormula.getAnalyzer().getAnalysesCollection();
 				final AnalysesCollection localAnalysesCollection = localAnalyzer.getAnalysesCollection();
 				localAnalysesCollection.inheritSettings(generalAnalysesCollection);
 				if (!localAnalysesCollection.isRunCalculationAutomatically() || !localAnalysesCollection.isCalculateFeatures()) {
+					refreshGraphics();
 					return true;
 				}
 
-				final AnalysesCollection analysisResults = localAnalyzer.analyzeFeatureModel(monitor);
-				refreshGraphics(analysisResults);
+				// repaint only the elements that changed in each analysis phase
+				localAnalyzer.analyzeFeatureModel(monitor, FeatureDiagramEditor.this::refreshChangedElements);
+				refreshChangedElements(Collections.<IFeatureModelElement> emptyList(), true);
 				return true;
 			}
 		}, ANALYZE_FEATURE_MODEL);
@@ -586,40 +596,92 @@ public class FeatureDiagramEditor extends FeatureModelEditorPage implements GUID
 	}
 
 	/**
-	 * Refreshes the colors of the feature model.
+	 * Refreshes the colors of all features and constraints of the feature model.
+	 */
+	public void refreshGraphics() {
+		final UIJob refreshGraphics = new UIJob(UPDATING_FEATURE_MODEL_ATTRIBUTES) {
+
+			@Override
+			public IStatus runInUIThread(IProgressMonitor monitor) {
+				// large diagrams only have figures for the elements in the visible area
+				final FeatureDiagramVirtualizer virtualizer = viewer.getVirtualizer();
+				final boolean virtualized = virtualizer.isActive();
+				for (final IGraphicalFeature f : virtualized ? virtualizer.getRenderedFeatures() : graphicalFeatureModel.getVisibleFeatures()) {
+					f.getObject().fireEvent(new FeatureIDEEvent(this, EventType.ATTRIBUTE_CHANGED, false, true));
+					f.update(FeatureIDEEvent.getDefault(EventType.ATTRIBUTE_CHANGED));
+				}
+				for (final IGraphicalConstraint c : virtualized ? virtualizer.getRenderedConstraints() : graphicalFeatureModel.getVisibleConstraints()) {
+					c.getObject().fireEvent(new FeatureIDEEvent(this, EventType.ATTRIBUTE_CHANGED, false, true));
+					c.update(FeatureIDEEvent.getDefault(EventType.ATTRIBUTE_CHANGED));
+				}
+				setActiveExplanation();
+				viewer.getContents().refresh();
+				viewer.internRefresh(true);
+				return Status.OK_STATUS;
+			}
+
+		};
+		refreshGraphics.setPriority(Job.SHORT);
+		refreshGraphics.schedule();
+	}
+
+	/**
+	 * Refreshes the colors of the given features and constraints. Elements passed before the scheduled refresh was executed are refreshed together, such that
+	 * partial analysis results cause at most one repaint per UI update. Only the graphical elements of the changed features and constraints are updated.
+	 *
+	 * @param changedElements The features and constraints to refresh.
+	 */
+	public void refreshChangedElements(final Collection<? extends IFeatureModelElement> changedElements) {
+		refreshChangedElements(changedElements, false);
+	}
+
+	/**
+	 * Refreshes the colors of the given features and constraints, see {@link #refreshChangedElements(Collection)}.
 	 *
-	 * @param changedAttributes Result of analysis to only refresh special features, or null if all features should be refreshed.
+	 * @param changedElements The features and constraints to refresh.
+	 * @param finished <code>true</code> if the analysis is finished, then the whole diagram is refreshed once after the elements were updated.
 	 */
-	public void refreshGraphics(final AnalysesCollection changedAttributes) {
+	private void refreshChangedElements(final Collection<? extends IFeatureModelElement> changedElements, boolean finished) {
+		synchronized (pendingElements) {
+			pendingElements.addAll(changedElements);
+			fullRefreshPending |= finished;
+			if (refreshScheduled) {
+				return;
+			}
+			refreshScheduled = true;
+		}
 		final UIJob refreshGraphics = new UIJob(UPDATING_FEATURE_MODEL_ATTRIBUTES) {
 
 			@Override
 			public IStatus runInUIThread(IProgressMonitor monitor) {
-				if (changedAttributes == null) {
-					for (final IGraphicalFeature f : graphicalFeatureModel.getVisibleFeatures()) {
-						f.getObject().fireEvent(new FeatureIDEEvent(this, EventType.ATTRIBUTE_CHANGED, false, true));
-						f.update(FeatureIDEEvent.getDefault(EventType.ATTRIBUTE_CHANGED));
-					}
-					for (final IGraphicalConstraint c : graphicalFeatureModel.getVisibleConstraints()) {
-						c.getObject().fireEvent(new FeatureIDEEvent(this, EventType.ATTRIBUTE_CHANGED, false, true));
-						c.update(FeatureIDEEvent.getDefault(EventType.ATTRIBUTE_CHANGED));
-					}
-				} else {
-					for (final IFeatureModelElement element : changedAttributes.getFeatureModelElementsProperties().keySet()) {
-						if (element instanceof IFeature) {
-							((IFeature) element).fireEvent(new FeatureIDEEvent(this, EventType.ATTRIBUTE_CHANGED, false, true));
-							graphicalFeatureModel.getGraphicalFeature((IFeature) element).update(FeatureIDEEvent.getDefault(EventType.ATTRIBUTE_CHANGED));
-						} else if (element instanceof IConstraint) {
-							((IConstraint) element).fireEvent(new FeatureIDEEvent(this, EventType.ATTRIBUTE_CHANGED, false, true));
-							fmManager.getVarObject().getConstraints().get(fmManager.getVarObject().getConstraintIndex((IConstraint) element))
+				final List<IFeatureModelElement> elements;
+				final boolean fullRefresh;
+				synchronized (pendingElements) {
+					elements = new ArrayList<>(pendingElements);
+					pendingElements.clear();
+					fullRefresh = fullRefreshPending;
+					fullRefreshPending = false;
+					refreshScheduled = false;
+				}
+				for (final IFeatureModelElement element : elements) {
+					if (element instanceof IFeature) {
+						((IFeature) element).fireEvent(new FeatureIDEEvent(this, EventType.ATTRIBUTE_CHANGED, false, true));
+						graphicalFeatureModel.getGraphicalFeature((IFeature) element).update(FeatureIDEEvent.getDefault(EventType.ATTRIBUTE_CHANGED));
+					} else if (element instanceof IConstraint) {
+						((IConstraint) element).fireEvent(new FeatureIDEEvent(this, EventType.ATTRIBUTE_CHANGED, false, true));
+						final int constraintIndex = fmManager.getVarObject().getConstraintIndex((IConstraint) element);
+						if (constraintIndex >= 0) {
+							fmManager.getVarObject().getConstraints().get(constraintIndex)
 									.fireEvent(new FeatureIDEEvent(this, EventType.ATTRIBUTE_CHANGED, false, true));
-							graphicalFeatureModel.getGraphicalConstraint((IConstraint) element).update(FeatureIDEEvent.getDefault(EventType.ATTRIBUTE_CHANGED));
 						}
+						graphicalFeatureModel.getGraphicalConstraint((IConstraint) element).update(FeatureIDEEvent.getDefault(EventType.ATTRIBUTE_CHANGED));
 					}
 				}
-				setActiveExplanation();
-				viewer.getContents().refresh();
-				viewer.internRefresh(true);
+				if (fullRefresh) {
+					setActiveExplanation();
+					viewer.getContents().refresh();
+					viewer.internRefresh(true);
+				}
 				return Status.OK_STATUS;
 			}
 
@@ -882,7 +944,7 @@ public class FeatureDiagramEditor extends FeatureModelEditorPage implements GUID
 			graphicalFeatureModel.init();
 
 			// update labels, colors
-			refreshGraphics(graphicalFeatureModel.getFeatureModelManager().getVariableFormula().getAnalyzer().getAnalysesCollection());
+			refreshGraphics();
 			viewer.setContents(graphicalFeatureModel);
 			if (refresh) {
 				viewer.internRefresh(true);
@@ -928,7 +990,7 @@ public class FeatureDiagramEditor extends FeatureModelEditorPage implements GUID
 		case REDRAW_DIAGRAM:
 			viewer.getControl().setBackground(FMPropertyManager.getDiagramBackgroundColor());
 			viewer.reload();
-			refreshGraphics(null);
+			refreshGraphics();
 			if (source instanceof IFeatureModel) {
 				viewer.refreshChildAll(((IFeatureModel) source).getStructure().getRoot().getFeature());
 			} else {
@@ -1027,7 +1089,7 @@ public class FeatureDiagramEditor extends FeatureModelEditorPage implements GUID
 			}
 
 			viewer.reload();
-			refreshGraphics(null);
+			refreshGraphics();
 			break;
 		case DEPENDENCY_CALCULATED:
 			if (refresh) {
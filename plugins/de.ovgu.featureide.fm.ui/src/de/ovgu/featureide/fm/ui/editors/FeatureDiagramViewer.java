@@ -37,6 +37,8 @@ import org.eclipse.swt.events.ControlEvent;
 import org.eclipse.swt.events.ControlListener;
 import org.eclipse.swt.events.FocusEvent;
 import org.eclipse.swt.graphics.Point;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.swt.widgets.Control;
 import org.eclipse.swt.widgets.Display;
 import org.eclipse.ui.IEditorPart;
 import org.eclipse.ui.IWorkbenchWindow;
@@ -133,6 +135,9 @@ public class FeatureDiagramViewer extends ScrollingGraphicalViewer implements IS
 
 	private CellEditorActionHandler cellEditorActionHandler;
 
+	private final FeatureDiagramVirtualizer virtualizer;
+	private boolean laidOut = false;
+
 	/**
 	 * Constructor. Handles editable and read-only feature models.
 	 *
@@ -152,6 +157,8 @@ public class FeatureDiagramViewer extends ScrollingGraphicalViewer implements IS
 		getZoomManager().setZoomLevels(new double[] { 0.05, 0.10, 0.25, 0.375, 0.50, 0.625, 0.75, 0.90, 1.00, 1.10, 1.25, 1.50, 2.00, 2.50, 3.00, 4.00 });
 		FeatureUIHelper.setZoomManager(getZoomManager());
 
+		virtualizer = new FeatureDiagramVirtualizer(this, graphicalFeatureModel);
+
 		editorKeyHandler = new FeatureDiagramEditorKeyHandler(this, graphicalFeatureModel);
 		setKeyHandler(editorKeyHandler);
 
@@ -160,6 +167,20 @@ public class FeatureDiagramViewer extends ScrollingGraphicalViewer implements IS
 		}
 	}
 
+	@Override
+	public Control createControl(Composite parent) {
+		final Control control = super.createControl(parent);
+		virtualizer.install();
+		return control;
+	}
+
+	/**
+	 * @return the virtualizer that determines which elements of large diagrams are rendered
+	 */
+	public FeatureDiagramVirtualizer getVirtualizer() {
+		return virtualizer;
+	}
+
 	/**
 	 * Opens a dialog and asks the user if they want to show the constraint view.
 	 */
@@ -288,7 +309,27 @@ public class FeatureDiagramViewer extends ScrollingGraphicalViewer implements IS
 			layoutManager.setControlSize(size.x, size.y);
 		}
 
-		layoutManager.layout(graphicalFeatureModel, this);
+		final boolean virtualized = virtualizer.isActive();
+		if (virtualized) {
+			// features without figure need a size for the layout
+			virtualizer.updateSizes();
+		}
+
+		if (virtualized && laidOut && layoutManager.supportsBackgroundLayout()) {
+			// large diagrams are laid out without blocking the edit operation
+			layoutManager.layoutInBackground(graphicalFeatureModel, this, this::layoutFinished);
+		} else {
+			layoutManager.layout(graphicalFeatureModel, this);
+			laidOut = true;
+			layoutFinished();
+		}
+	}
+
+	private void layoutFinished() {
+		if (virtualizer.isActive()) {
+			virtualizer.invalidate();
+			virtualizer.scheduleRefresh();
+		}
 
 		if (!graphicalFeatureModel.isLegendHidden()) {
 			for (final Object obj : getEditPartRegistry().values()) {
@@ -298,7 +339,6 @@ public class FeatureDiagramViewer extends ScrollingGraphicalViewer implements IS
 				}
 			}
 		}
-
 	}
 
 	public void layoutLegendOnIntersect() {
@@ -397,6 +437,7 @@ public class FeatureDiagramViewer extends ScrollingGraphicalViewer implements IS
 	 * Stops the analyzing job when the editor is closed.
 	 */
 	public void dispose() {
+		virtualizer.uninstall();
 		graphicalFeatureModel.getFeatureModelManager().removeListener(editorKeyHandler);
 	}
 
@@ -417,7 +458,10 @@ public class FeatureDiagramViewer extends ScrollingGraphicalViewer implements IS
 	@Override
 	public void found(IGraphicalFeature searchResult) {
 		if (searchResult != null) {
-			final EditPart editPart = (EditPart) getEditPartRegistry().get(searchResult);
+			EditPart editPart = (EditPart) getEditPartRegistry().get(searchResult);
+			if ((editPart == null) && virtualizer.isActive()) {
+				editPart = virtualizer.reveal(searchResult);
+			}
 			if (editPart != null) {
 				select(editPart);
 				reveal(editPart);
@@ -0,0 +1,457 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.ui.editors;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.draw2d.FigureCanvas;
+import org.eclipse.draw2d.Viewport;
+import org.eclipse.draw2d.geometry.Dimension;
+import org.eclipse.draw2d.geometry.Point;
+import org.eclipse.draw2d.geometry.Rectangle;
+import org.eclipse.gef.EditPart;
+import org.eclipse.gef.editparts.ZoomListener;
+import org.eclipse.swt.widgets.Control;
+import org.eclipse.swt.widgets.Display;
+
+import de.ovgu.featureide.fm.core.base.IFeatureStructure;
+import de.ovgu.featureide.fm.ui.editors.featuremodel.SubtreeAggregate;
+import de.ovgu.featureide.fm.ui.editors.featuremodel.editparts.ModelEditPart;
+import de.ovgu.featureide.fm.ui.editors.featuremodel.editparts.SubtreeAggregateEditPart;
+import de.ovgu.featureide.fm.ui.editors.featuremodel.figures.ConstraintFigure;
+import de.ovgu.featureide.fm.ui.editors.featuremodel.figures.FeatureFigure;
+
+/**
+ * Renders only the part of a large feature diagram that lies inside the viewport of a {@link FeatureDiagramViewer}.<br> If a feature model has at least
+ * {@link #VIRTUALIZATION_THRESHOLD} features, edit parts and figures are created only for features and constraints inside the visible area plus a margin. At
+ * zoom levels below {@link #AGGREGATION_ZOOM}, subtrees that would be too small to be readable are drawn as a single {@link SubtreeAggregate}.<br> The
+ * visible features are determined with an index of the bounds of all subtrees, such that subtrees outside the visible area are skipped as a whole.
+ */
+public class FeatureDiagramVirtualizer {
+
+	/**
+	 * The minimum number of features of a model that is rendered virtualized.
+	 */
+	public static final int VIRTUALIZATION_THRESHOLD = 2000;
+
+	/**
+	 * The zoom level below which small subtrees are aggregated.
+	 */
+	public static final double AGGREGATION_ZOOM = 0.5;
+
+	/**
+	 * Subtrees whose width and height at the current zoom level are smaller than this value (in pixels) are aggregated.
+	 */
+	private static final int MIN_SUBTREE_SIZE = 48;
+
+	/**
+	 * Delay in ms after the last scroll or zoom event before the rendered elements are updated.
+	 */
+	private static final int REFRESH_DELAY = 50;
+
+	private final FeatureDiagramViewer viewer;
+	private final IGraphicalFeatureModel graphicalFeatureModel;
+
+	// index of all visible features in pre-order, subtrees are stored as consecutive ranges
+	private IGraphicalFeature[] nodes = new IGraphicalFeature[0];
+	private int[] subtreeEnd = new int[0];
+	private int[] minX = new int[0];
+	private int[] minY = new int[0];
+	private int[] maxX = new int[0];
+	private int[] maxY = new int[0];
+	private int nodeCount = 0;
+	private boolean indexValid = false;
+
+	private final Map<IGraphicalFeature, SubtreeAggregate> aggregates = new HashMap<>();
+
+	/**
+	 * The area (in model coordinates) for which elements were rendered at the last update.
+	 */
+	private Rectangle renderedArea = null;
+	private double renderedZoom = 0;
+	private boolean refreshScheduled = false;
+
+	private final Runnable refreshRunnable = new Runnable() {
+
+		@Override
+		public void run() {
+			refreshScheduled = false;
+			refreshViewport(false);
+		}
+	};
+
+	private final PropertyChangeListener scrollListener = new PropertyChangeListener() {
+
+		@Override
+		public void propertyChange(PropertyChangeEvent evt) {
+			scheduleRefresh();
+		}
+	};
+
+	private final ZoomListener zoomListener = new ZoomListener() {
+
+		@Override
+		public void zoomChanged(double zoom) {
+			scheduleRefresh();
+		}
+	};
+
+	FeatureDiagramVirtualizer(FeatureDiagramViewer viewer, IGraphicalFeatureModel graphicalFeatureModel) {
+		this.viewer = viewer;
+		this.graphicalFeatureModel = graphicalFeatureModel;
+	}
+
+	/**
+	 * Registers the listeners that update the rendered elements when the viewport is scrolled or zoomed. Must be called after the control of the viewer was
+	 * created.
+	 */
+	void install() {
+		final FigureCanvas canvas = getCanvas();
+		if (canvas != null) {
+			final Viewport viewport = canvas.getViewport();
+			viewport.getHorizontalRangeModel().addPropertyChangeListener(scrollListener);
+			viewport.getVerticalRangeModel().addPropertyChangeListener(scrollListener);
+		}
+		viewer.getZoomManager().addZoomListener(zoomListener);
+	}
+
+	void uninstall() {
+		final FigureCanvas canvas = getCanvas();
+		if ((canvas != null) && !canvas.isDisposed()) {
+			final Viewport viewport = canvas.getViewport();
+			viewport.getHorizontalRangeModel().removePropertyChangeListener(scrollListener);
+			viewport.getVerticalRangeModel().removePropertyChangeListener(scrollListener);
+		}
+		viewer.getZoomManager().removeZoomListener(zoomListener);
+	}
+
+	/**
+	 * @return <code>true</code> if the diagram is large enough to be rendered virtualized
+	 */
+	public boolean isActive() {
+		return graphicalFeatureModel.getFeatures().size() >= VIRTUALIZATION_THRESHOLD;
+	}
+
+	/**
+	 * Marks the subtree index as outdated, e.g., after the layout or the structure of the feature model changed.
+	 */
+	public void invalidate() {
+		indexValid = false;
+		renderedArea = null;
+	}
+
+	/**
+	 * Returns the model children for the {@link ModelEditPart}: all features and subtree aggregates inside the visible area followed by all constraints inside
+	 * the visible area. A feature is returned only if its parent is returned, too, thus, every rendered connection has both end points.
+	 *
+	 * @return the elements to render
+	 */
+	public List<Object> getModelChildren() {
+		if (!indexValid) {
+			buildIndex();
+		}
+		final Rectangle area = getVisibleArea();
+		final double zoom = viewer.getZoomManager().getZoom();
+		renderedArea = area;
+		renderedZoom = zoom;
+
+		final List<Object> children = new ArrayList<>();
+		final boolean aggregate = zoom < AGGREGATION_ZOOM;
+		final int minSize = (int) (MIN_SUBTREE_SIZE / zoom);
+		final Map<IGraphicalFeature, SubtreeAggregate> usedAggregates = new HashMap<>();
+		for (int i = 0; i < nodeCount;) {
+			if (!intersects(i, area)) {
+				i = subtreeEnd[i];
+				continue;
+			}
+			final IGraphicalFeature feature = nodes[i];
+			children.add(feature);
+			final int end = subtreeEnd[i];
+			if (aggregate && (end > (i + 1)) && isSmall(i, minSize)) {
+				final SubtreeAggregate newAggregate = new SubtreeAggregate(feature, getDescendantBounds(i), end - i - 1);
+				SubtreeAggregate oldAggregate = aggregates.get(feature);
+				if (oldAggregate == null) {
+					oldAggregate = newAggregate;
+				} else {
+					oldAggregate.update(newAggregate);
+				}
+				usedAggregates.put(feature, oldAggregate);
+				children.add(oldAggregate);
+				i = end;
+			} else {
+				i++;
+			}
+		}
+		aggregates.clear();
+		aggregates.putAll(usedAggregates);
+
+		for (final IGraphicalConstraint constraint : graphicalFeatureModel.getVisibleConstraints()) {
+			final Point location = constraint.getLocation();
+			final Dimension size = constraint.getSize();
+			if ((location == null) || (size == null) || area.intersects(new Rectangle(location, size))) {
+				children.add(constraint);
+			}
+		}
+		return children;
+	}
+
+	/**
+	 * Assigns the size of their figures to all features and constraints without edit part, such that the layout does not depend on which elements are
+	 * currently rendered.
+	 */
+	public void updateSizes() {
+		final Map<?, ?> registry = viewer.getEditPartRegistry();
+		for (final IGraphicalFeature feature : graphicalFeatureModel.getVisibleFeatures()) {
+			if (registry.get(feature) == null) {
+				feature.setSize(FeatureFigure.getPreferredSize(feature));
+			}
+		}
+		for (final IGraphicalConstraint constraint : graphicalFeatureModel.getVisibleConstraints()) {
+			if (registry.get(constraint) == null) {
+				constraint.setSize(ConstraintFigure.getPreferredSize(constraint));
+			}
+		}
+	}
+
+	/**
+	 * @return the features that currently have an edit part
+	 */
+	public List<IGraphicalFeature> getRenderedFeatures() {
+		final List<IGraphicalFeature> features = new ArrayList<>();
+		final EditPart contents = viewer.getContents();
+		if (contents != null) {
+			for (final Object child : contents.getChildren()) {
+				final Object model = ((EditPart) child).getModel();
+				if (model instanceof IGraphicalFeature) {
+					features.add((IGraphicalFeature) model);
+				}
+			}
+		}
+		return features;
+	}
+
+	/**
+	 * @return the constraints that currently have an edit part
+	 */
+	public List<IGraphicalConstraint> getRenderedConstraints() {
+		final List<IGraphicalConstraint> constraints = new ArrayList<>();
+		final EditPart contents = viewer.getContents();
+		if (contents != null) {
+			for (final Object child : contents.getChildren()) {
+				final Object model = ((EditPart) child).getModel();
+				if (model instanceof IGraphicalConstraint) {
+					constraints.add((IGraphicalConstraint) model);
+				}
+			}
+		}
+		return constraints;
+	}
+
+	/**
+	 * Scrolls to the given feature and creates its edit part if necessary.
+	 *
+	 * @param feature the feature to show
+	 * @return the edit part of the feature or <code>null</code> if it cannot be shown (e.g., because it has a collapsed parent)
+	 */
+	public EditPart reveal(IGraphicalFeature feature) {
+		final Point location = feature.getLocation();
+		final FigureCanvas canvas = getCanvas();
+		if ((location != null) && (canvas != null)) {
+			final double zoom = viewer.getZoomManager().getZoom();
+			final Rectangle clientArea = canvas.getViewport().getClientArea();
+			canvas.getViewport().setViewLocation((int) (location.x * zoom) - (clientArea.width / 2), (int) (location.y * zoom) - (clientArea.height / 2));
+			refreshViewport(true);
+		}
+		return (EditPart) viewer.getEditPartRegistry().get(feature);
+	}
+
+	/**
+	 * Schedules an update of the rendered elements. Several calls within {@link #REFRESH_DELAY} ms cause only one update.
+	 */
+	public void scheduleRefresh() {
+		final Display display = Display.getCurrent();
+		if (!refreshScheduled && (display != null)) {
+			refreshScheduled = true;
+			display.timerExec(REFRESH_DELAY, refreshRunnable);
+		}
+	}
+
+	/**
+	 * Updates the rendered elements if the visible area left the area that was rendered at the last update or if the zoom level changed.
+	 *
+	 * @param force <code>true</code> if the elements should be updated anyway
+	 */
+	void refreshViewport(boolean force) {
+		final EditPart contents = viewer.getContents();
+		if (!(contents instanceof ModelEditPart) || !isActive()) {
+			return;
+		}
+		if (!force && (renderedArea != null) && (renderedZoom == viewer.getZoomManager().getZoom()) && renderedArea.contains(getClientArea())) {
+			return;
+		}
+		((ModelEditPart) contents).refreshVisibleChildren();
+		for (final Object child : contents.getChildren()) {
+			if (child instanceof SubtreeAggregateEditPart) {
+				((SubtreeAggregateEditPart) child).refresh();
+			}
+		}
+	}
+
+	private FigureCanvas getCanvas() {
+		final Control control = viewer.getControl();
+		return control instanceof FigureCanvas ? (FigureCanvas) control : null;
+	}
+
+	/**
+	 * @return the visible area of the viewport in model coordinates
+	 */
+	private Rectangle getClientArea() {
+		final FigureCanvas canvas = getCanvas();
+		final double zoom = viewer.getZoomManager().getZoom();
+		if ((canvas == null) || canvas.isDisposed()) {
+			return new Rectangle(0, 0, 0, 0);
+		}
+		final Rectangle clientArea = canvas.getViewport().getClientArea().getCopy();
+		if (clientArea.isEmpty()) {
+			// control is not laid out yet
+			final org.eclipse.swt.graphics.Rectangle displayArea = canvas.getDisplay().getClientArea();
+			clientArea.setSize(displayArea.width, displayArea.height);
+		}
+		return new Rectangle((int) (clientArea.x / zoom), (int) (clientArea.y / zoom), (int) Math.ceil(clientArea.width / zoom),
+				(int) Math.ceil(clientArea.height / zoom));
+	}
+
+	/**
+	 * @return the visible area expanded by half of its size in every direction
+	 */
+	private Rectangle getVisibleArea() {
+		final Rectangle area = getClientArea();
+		return area.expand(area.width / 2, area.height / 2);
+	}
+
+	/**
+	 * Collects all visible features in pre-order and computes the bounds of the descendants of each feature.
+	 */
+	private void buildIndex() {
+		final int size = graphicalFeatureModel.getFeatures().size();
+		if (nodes.length < size) {
+			nodes = new IGraphicalFeature[size];
+			subtreeEnd = new int[size];
+			minX = new int[size];
+			minY = new int[size];
+			maxX = new int[size];
+			maxY = new int[size];
+		}
+		final int[] parent = new int[size];
+		final Set<IGraphicalFeature> visibleFeatures = new HashSet<>(graphicalFeatureModel.getVisibleFeatures());
+		nodeCount = 0;
+
+		final IGraphicalFeature root = FeatureUIHelper.getGraphicalRootFeature(graphicalFeatureModel);
+		if ((root != null) && visibleFeatures.contains(root)) {
+			final Deque<IGraphicalFeature> stack = new ArrayDeque<>();
+			final Deque<Integer> parentStack = new ArrayDeque<>();
+			stack.push(root);
+			parentStack.push(-1);
+			while (!stack.isEmpty()) {
+				final IGraphicalFeature feature = stack.pop();
+				final int index = nodeCount++;
+				nodes[index] = feature;
+				parent[index] = parentStack.pop();
+				if (!feature.isCollapsed()) {
+					final List<IFeatureStructure> children = feature.getObject().getStructure().getChildren();
+					// push in reverse order to visit the children in their original order
+					for (int i = children.size() - 1; i >= 0; i--) {
+						final IGraphicalFeature child = graphicalFeatureModel.getGraphicalFeature(children.get(i).getFeature());
+						if (visibleFeatures.contains(child)) {
+							stack.push(child);
+							parentStack.push(index);
+						}
+					}
+				}
+			}
+		}
+
+		Arrays.fill(minX, 0, nodeCount, Integer.MAX_VALUE);
+		Arrays.fill(minY, 0, nodeCount, Integer.MAX_VALUE);
+		Arrays.fill(maxX, 0, nodeCount, Integer.MIN_VALUE);
+		Arrays.fill(maxY, 0, nodeCount, Integer.MIN_VALUE);
+		for (int i = 0; i < nodeCount; i++) {
+			subtreeEnd[i] = i + 1;
+		}
+		// children are stored after their parents, thus, a reverse traversal visits each subtree before its root
+		for (int i = nodeCount - 1; i >= 0; i--) {
+			final int p = parent[i];
+			if (p >= 0) {
+				final Point location = nodes[i].getLocation();
+				final Dimension dimension = nodes[i].getSize();
+				if ((location != null) && (dimension != null)) {
+					minX[p] = Math.min(minX[p], Math.min(minX[i], location.x));
+					minY[p] = Math.min(minY[p], Math.min(minY[i], location.y));
+					maxX[p] = Math.max(maxX[p], Math.max(maxX[i], location.x + dimension.width));
+					maxY[p] = Math.max(maxY[p], Math.max(maxY[i], location.y + dimension.height));
+				}
+				subtreeEnd[p] = Math.max(subtreeEnd[p], subtreeEnd[i]);
+			}
+		}
+		indexValid = true;
+	}
+
+	/**
+	 * @return <code>true</code> if the feature at the given index or one of its descendants intersects the area
+	 */
+	private boolean intersects(int index, Rectangle area) {
+		final Point location = nodes[index].getLocation();
+		final Dimension size = nodes[index].getSize();
+		if ((location == null) || (size == null)) {
+			return true;
+		}
+		int x1 = location.x;
+		int y1 = location.y;
+		int x2 = location.x + size.width;
+		int y2 = location.y + size.height;
+		if (subtreeEnd[index] > (index + 1)) {
+			x1 = Math.min(x1, minX[index]);
+			y1 = Math.min(y1, minY[index]);
+			x2 = Math.max(x2, maxX[index]);
+			y2 = Math.max(y2, maxY[index]);
+		}
+		return (x1 < area.right()) && (x2 > area.x) && (y1 < area.bottom()) && (y2 > area.y);
+	}
+
+	private boolean isSmall(int index, int minSize) {
+		return ((maxX[index] - minX[index]) < minSize) && ((maxY[index] - minY[index]) < minSize);
+	}
+
+	private Rectangle getDescendantBounds(int index) {
+		return new Rectangle(minX[index], minY[index], maxX[index] - minX[index], maxY[index] - minY[index]);
+	}
+
+}
@@ -0,0 +1,188 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.ui.editors.configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.configuration.Configuration;
+import de.ovgu.featureide.fm.core.configuration.ConfigurationPropagator;
+import de.ovgu.featureide.fm.core.configuration.SelectableFeature;
+import de.ovgu.featureide.fm.core.job.IRunner;
+import de.ovgu.featureide.fm.core.job.JobStartingStrategy;
+import de.ovgu.featureide.fm.core.job.JobToken;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Computes the validity, satisfiability, and the estimated number of solutions of a configuration in the background.<br> Only the most recent request is
+ * computed, older requests are canceled. Results are cached by the selection of all features, thus, returning to a previous selection does not require any
+ * solver calls.
+ */
+public class ConfigurationStatusService {
+
+	private static final int CACHE_SIZE = 64;
+
+	private static final int COUNT_TIMEOUT = 250;
+
+	/**
+	 * The status of a configuration.
+	 */
+	public static class ConfigurationStatus {
+
+		private final boolean valid;
+		private final boolean canBeValid;
+		private final long number;
+
+		private ConfigurationStatus(boolean valid, boolean canBeValid, long number) {
+			this.valid = valid;
+			this.canBeValid = canBeValid;
+			this.number = number;
+		}
+
+		public boolean isValid() {
+			return valid;
+		}
+
+		public boolean canBeValid() {
+			return canBeValid;
+		}
+
+		public boolean isConflicting() {
+			return !canBeValid;
+		}
+
+		/**
+		 * @return The number of possible configurations or <code>-1 - n</code> if there are more than <code>n</code> configurations
+		 */
+		public long getNumber() {
+			return number;
+		}
+	}
+
+	private final JobToken token = LongRunningWrapper.createToken(JobStartingStrategy.CANCEL_WAIT_ONE);
+
+	private final Map<String, ConfigurationStatus> cache = new LinkedHashMap<String, ConfigurationStatus>(CACHE_SIZE, 0.75f, true) {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, ConfigurationStatus> eldest) {
+			return size() > CACHE_SIZE;
+		}
+	};
+
+	private FeatureModelFormula formula = null;
+
+	/**
+	 * The number of the most recent request. A job only calls its callback if no other request was made since, because a job may finish after it was canceled.
+	 */
+	private int request = 0;
+
+	/**
+	 * @param configuration The configuration
+	 * @return The key describing the manual and automatic selection of all features
+	 */
+	private static String getKey(Configuration configuration) {
+		final StringBuilder sb = new StringBuilder();
+		for (final SelectableFeature feature : configuration.getFeatures()) {
+			sb.append((char) ('0' + (feature.getManual().ordinal() * 3) + feature.getAutomatic().ordinal()));
+		}
+		return sb.toString();
+	}
+
+	private synchronized void setFormula(FeatureModelFormula formula) {
+		if (this.formula != formula) {
+			this.formula = formula;
+			cache.clear();
+		}
+	}
+
+	/**
+	 * @param formula The formula of the feature model
+	 * @param configuration The configuration
+	 * @return The cached status of the given configuration or <code>null</code> if it was not computed yet
+	 */
+	public synchronized ConfigurationStatus getCachedStatus(FeatureModelFormula formula, Configuration configuration) {
+		setFormula(formula);
+		return cache.get(getKey(configuration));
+	}
+
+	/**
+	 * Computes the status of the given configuration in the background. Pending computations for previous requests are canceled.
+	 *
+	 * @param formula The formula of the feature model
+	 * @param configuration The configuration. Its current selection is copied, thus, it may be modified after this call.
+	 * @param callback Called with the status from a background thread, or immediately if the status is cached
+	 */
+	public void computeStatus(FeatureModelFormula formula, Configuration configuration, Consumer<ConfigurationStatus> callback) {
+		final String key;
+		final ConfigurationStatus cachedStatus;
+		final int currentRequest;
+		synchronized (this) {
+			setFormula(formula);
+			key = getKey(configuration);
+			cachedStatus = cache.get(key);
+			currentRequest = ++request;
+		}
+		if (cachedStatus != null) {
+			LongRunningWrapper.cancelAllJobs(token);
+			callback.accept(cachedStatus);
+			return;
+		}
+
+		final ConfigurationPropagator propagator = new ConfigurationPropagator(formula, configuration.clone());
+		final IRunner<ConfigurationStatus> job = LongRunningWrapper.getRunner(monitor -> {
+			final boolean valid = Boolean.TRUE.equals(propagator.isValid().execute(monitor.subTask(1)));
+			monitor.checkCancel();
+			final boolean canBeValid = valid || Boolean.TRUE.equals(propagator.canBeValid().execute(monitor.subTask(1)));
+			monitor.checkCancel();
+			final Long number = canBeValid ? propagator.number(COUNT_TIMEOUT).execute(monitor.subTask(1)) : Long.valueOf(0);
+			monitor.checkCancel();
+
+			final ConfigurationStatus status = new ConfigurationStatus(valid, canBeValid, number == null ? 0 : number);
+			synchronized (ConfigurationStatusService.this) {
+				if (this.formula == formula) {
+					cache.put(key, status);
+				}
+				if (request != currentRequest) {
+					return status;
+				}
+			}
+			callback.accept(status);
+			return status;
+		});
+		LongRunningWrapper.startJob(token, job);
+	}
+
+	/**
+	 * Cancels all pending computations and releases the cache.
+	 */
+	public synchronized void dispose() {
+		LongRunningWrapper.cancelAllJobs(token);
+		LongRunningWrapper.removeToken(token);
+		cache.clear();
+		formula = null;
+		request++;
+	}
+
+}
@@ -123,6 +123,7 @@ import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 import de.ovgu.featureide.fm.core.job.util.RunnerSequence;
 import de.ovgu.featureide.fm.ui.FMUIPlugin;
+import de.ovgu.featureide.fm.ui.editors.configuration.ConfigurationStatusService.ConfigurationStatus;
 import de.ovgu.featureide.fm.ui.editors.configuration.IConfigurationEditor.ExpandAlgorithm;
 import de.ovgu.featureide.fm.ui.editors.featuremodel.GUIBasics;
 import de.ovgu.featureide.fm.ui.properties.FMPropertyManager;
@@ -209,6 +210,8 @@ public abstract class ConfigurationTreeEditorPage extends EditorPart implements
 
 	protected final JobToken updateToken = LongRunningWrapper.createToken(JobStartingStrategy.CANCEL_WAIT_ONE);
 
+	private final ConfigurationStatusService statusService = new ConfigurationStatusService();
+
 	/**
 	 * The item the toolTip belongs to.
 	 */
@@ -703,9 +706,14 @@ public abstract class ConfigurationTreeEditorPage extends EditorPart implements
 		return null;
 	}
 
-	protected Void updateInfoLabel(final Display display, ConfigurationPropagator propagator) {
-		final boolean valid = LongRunningWrapper.runMethod(propagator.isValid());
-		final boolean conflicting = !valid && !LongRunningWrapper.runMethod(propagator.canBeValid());
+	protected Void updateInfoLabel(final Display display, FeatureModelFormula formula, Configuration configuration) {
+		statusService.computeStatus(formula, configuration, status -> updateInfoLabel(display, status));
+		return null;
+	}
+
+	private void updateInfoLabel(final Display display, ConfigurationStatus status) {
+		final boolean valid = status.isValid();
+		final boolean conflicting = status.isConflicting();
 
 		final StringBuilder sb = new StringBuilder();
 		if (conflicting) {
@@ -714,7 +722,7 @@ public abstract class ConfigurationTreeEditorPage extends EditorPart implements
 			sb.append(POSSIBLE_CONFIGURATIONS);
 			display.asyncExec(() -> setResolveButton(true));
 		} else {
-			final long number = conflicting ? 0 : LongRunningWrapper.runMethod(propagator.number(250));
+			final long number = status.getNumber();
 			sb.append(valid ? VALID_COMMA_ : INVALID_COMMA_);
 			if (number < 0) {
 				sb.append(MORE_THAN);
@@ -727,8 +735,7 @@ public abstract class ConfigurationTreeEditorPage extends EditorPart implements
 		}
 		final String message = sb.toString();
 		final Color color = valid ? blue : red;
-		display.syncExec(() -> setInfoLabel(message, color));
-		return null;
+		display.asyncExec(() -> setInfoLabel(message, color));
 	}
 
 	private void setInfoLabel(String message, Color color) {
@@ -811,11 +818,18 @@ public abstract class ConfigurationTreeEditorPage extends EditorPart implements
 					computeTree(UpdateStrategy.UPDATE);
 				} else {
 					refreshItems(Arrays.asList(item));
-					if (LongRunningWrapper.runMethod(getPropagator().canBeValid())) {
-						invalidFeatures.clear();
-					} else {
-						invalidFeatures.add(feature);
-					}
+					final Display display = Display.getCurrent();
+					statusService.computeStatus(configurationEditor.getFeatureModelManager().getPersistentFormula(), configurationManager.getSnapshot(),
+							status -> {
+								display.asyncExec(() -> {
+									if (status.canBeValid()) {
+										invalidFeatures.clear();
+									} else {
+										invalidFeatures.add(feature);
+									}
+								});
+								updateInfoLabel(display, status);
+							});
 				}
 			}
 		}
@@ -1189,7 +1203,8 @@ public abstract class ConfigurationTreeEditorPage extends EditorPart implements
 			final FeatureModelManager featureModelManager, final Configuration configuration) {
 		final ConfigurationPropagator propagator = new ConfigurationPropagator(featureModelManager.getPersistentFormula(), configuration);
 
-		final Boolean canBeValid = LongRunningWrapper.runMethod(propagator.canBeValid());
+		final ConfigurationStatus cachedStatus = statusService.getCachedStatus(featureModelManager.getPersistentFormula(), configuration);
+		final Boolean canBeValid = cachedStatus != null ? cachedStatus.canBeValid() : LongRunningWrapper.runMethod(propagator.canBeValid());
 		final boolean conflicting;
 		if (canBeValid == null) {
 			return;
@@ -1258,7 +1273,7 @@ public abstract class ConfigurationTreeEditorPage extends EditorPart implements
 			}
 		}
 		sequence.addJob(LongRunningWrapper.getRunner(monitor -> resetSnapshot(configurationManager)));
-		sequence.addJob(LongRunningWrapper.getRunner(monitor -> updateInfoLabel(currentDisplay, propagator)));
+		sequence.addJob(LongRunningWrapper.getRunner(monitor -> updateInfoLabel(currentDisplay, featureModelManager.getPersistentFormula(), configuration)));
 		final IRunner<Boolean> runner = LongRunningWrapper.getRunner(sequence);
 		runner.addJobFinishedListener((finishedJob) -> {
 			currentDisplay.syncExec(() -> configurationManager.fireEvent(new FeatureIDEEvent(null, EventType.FEATURE_SELECTION_CHANGED)));
@@ -1357,6 +1372,7 @@ public abstract class ConfigurationTreeEditorPage extends EditorPart implements
 
 	@Override
 	public void dispose() {
+		statusService.dispose();
 		disposeTooltip();
 		super.dispose();
 	}
@@ -0,0 +1,90 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.ui.editors.featuremodel;
+
+import org.eclipse.draw2d.geometry.Rectangle;
+
+import de.ovgu.featureide.fm.ui.editors.IGraphicalFeature;
+
+/**
+ * Represents all descendants of a feature that are drawn as a single glyph, because the subtree is too small to be readable at the current zoom level.
+ * Two aggregates are equal if they summarize the same subtree, thus, the diagram reuses their edit parts when the viewport changes.
+ */
+public class SubtreeAggregate {
+
+	private final IGraphicalFeature root;
+	private Rectangle bounds;
+	private int featureCount;
+
+	public SubtreeAggregate(IGraphicalFeature root, Rectangle bounds, int featureCount) {
+		this.root = root;
+		this.bounds = bounds;
+		this.featureCount = featureCount;
+	}
+
+	/**
+	 * @return the feature whose descendants are aggregated
+	 */
+	public IGraphicalFeature getRoot() {
+		return root;
+	}
+
+	/**
+	 * @return the bounds of all aggregated features
+	 */
+	public Rectangle getBounds() {
+		return bounds;
+	}
+
+	/**
+	 * @return the number of aggregated features
+	 */
+	public int getFeatureCount() {
+		return featureCount;
+	}
+
+	public void update(SubtreeAggregate aggregate) {
+		bounds = aggregate.bounds;
+		featureCount = aggregate.featureCount;
+	}
+
+	@Override
+	public int hashCode() {
+		return root.hashCode();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if ((obj == null) || (getClass() != obj.getClass())) {
+			return false;
+		}
+		return root == ((SubtreeAggregate) obj).root;
+	}
+
+	@Override
+	public String toString() {
+		return "SubtreeAggregate [root=" + root + ", featureCount=" + featureCount + "]";
+	}
+
+}
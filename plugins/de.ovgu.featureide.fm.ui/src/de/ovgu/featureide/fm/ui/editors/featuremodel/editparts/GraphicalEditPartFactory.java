@@ -28,6 +28,7 @@ import de.ovgu.featureide.fm.ui.editors.IGraphicalConstraint;
 import de.ovgu.featureide.fm.ui.editors.IGraphicalFeature;
 import de.ovgu.featureide.fm.ui.editors.IGraphicalFeatureModel;
 import de.ovgu.featureide.fm.ui.editors.featuremodel.Legend;
+import de.ovgu.featureide.fm.ui.editors.featuremodel.SubtreeAggregate;
 
 /**
  * Creates edit parts for given models.
@@ -48,6 +49,8 @@ public class GraphicalEditPartFactory implements EditPartFactory {
 			return new ConstraintEditPart((IGraphicalConstraint) model);
 		} else if (model instanceof Legend) {
 			return new LegendEditPart((Legend) model);
+		} else if (model instanceof SubtreeAggregate) {
+			return new SubtreeAggregateEditPart((SubtreeAggregate) model);
 		} else {
 			throw new UnsupportedOperationException("Not implememented for " + model.getClass());
 		}
@@ -26,10 +26,13 @@ import java.util.List;
 
 import org.eclipse.draw2d.IFigure;
 import org.eclipse.gef.EditPart;
+import org.eclipse.gef.EditPartViewer;
 import org.eclipse.gef.EditPolicy;
 import org.eclipse.gef.RootEditPart;
 import org.eclipse.gef.editparts.AbstractGraphicalEditPart;
 
+import de.ovgu.featureide.fm.ui.editors.FeatureDiagramViewer;
+import de.ovgu.featureide.fm.ui.editors.FeatureDiagramVirtualizer;
 import de.ovgu.featureide.fm.ui.editors.IGraphicalConstraint;
 import de.ovgu.featureide.fm.ui.editors.IGraphicalFeature;
 import de.ovgu.featureide.fm.ui.editors.IGraphicalFeatureModel;
@@ -81,10 +84,42 @@ public class ModelEditPart extends AbstractGraphicalEditPart {
 		installEditPolicy(EditPolicy.LAYOUT_ROLE, new ModelLayoutEditPolicy(getModel()));
 	}
 
+	@Override
+	public void refresh() {
+		final FeatureDiagramVirtualizer virtualizer = getVirtualizer();
+		if (virtualizer != null) {
+			virtualizer.invalidate();
+		}
+		super.refresh();
+	}
+
+	/**
+	 * Updates the children after the visible area of a virtualized diagram changed.
+	 *
+	 * @see FeatureDiagramVirtualizer
+	 */
+	public void refreshVisibleChildren() {
+		refreshChildren();
+	}
+
+	private FeatureDiagramVirtualizer getVirtualizer() {
+		final EditPartViewer viewer = getViewer();
+		return viewer instanceof FeatureDiagramViewer ? ((FeatureDiagramViewer) viewer).getVirtualizer() : null;
+	}
+
 	@Override
 	protected List<Object> getModelChildren() {
 		final IGraphicalFeatureModel fm = getModel();
 
+		final FeatureDiagramVirtualizer virtualizer = getVirtualizer();
+		if ((virtualizer != null) && virtualizer.isActive()) {
+			final List<Object> list = virtualizer.getModelChildren();
+			if (!fm.isLegendHidden()) {
+				list.add(fm.getLegend());
+			}
+			return list;
+		}
+
 		final List<IGraphicalConstraint> constraints = fm.getVisibleConstraints();
 		final Collection<IGraphicalFeature> features = fm.getVisibleFeatures();
 
@@ -0,0 +1,65 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.ui.editors.featuremodel.editparts;
+
+import org.eclipse.gef.editparts.AbstractGraphicalEditPart;
+
+import de.ovgu.featureide.fm.ui.editors.featuremodel.SubtreeAggregate;
+import de.ovgu.featureide.fm.ui.editors.featuremodel.figures.SubtreeAggregateFigure;
+
+/**
+ * EditPart for a {@link SubtreeAggregate} that replaces the features of a subtree in a virtualized feature diagram. It cannot be selected or edited.
+ */
+public class SubtreeAggregateEditPart extends AbstractGraphicalEditPart {
+
+	SubtreeAggregateEditPart(SubtreeAggregate aggregate) {
+		setModel(aggregate);
+	}
+
+	@Override
+	public SubtreeAggregate getModel() {
+		return (SubtreeAggregate) super.getModel();
+	}
+
+	@Override
+	public SubtreeAggregateFigure getFigure() {
+		return (SubtreeAggregateFigure) super.getFigure();
+	}
+
+	@Override
+	protected SubtreeAggregateFigure createFigure() {
+		return new SubtreeAggregateFigure(getModel());
+	}
+
+	@Override
+	protected void createEditPolicies() {}
+
+	@Override
+	protected void refreshVisuals() {
+		getFigure().update(getModel());
+	}
+
+	@Override
+	public boolean isSelectable() {
+		return false;
+	}
+
+}
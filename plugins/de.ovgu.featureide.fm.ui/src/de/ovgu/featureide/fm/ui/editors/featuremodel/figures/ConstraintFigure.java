@@ -92,7 +92,7 @@ public class ConstraintFigure extends ModelElementFigure implements GUIDefaults
 		label.setFont(DEFAULT_FONT);
 		label.setLocation(new Point(0, 0));
 
-		setText(getConstraintText(constraint.getObject()));
+		setText(getConstraintText(constraint));
 
 		constraint.setSize(getSize());
 
@@ -107,7 +107,7 @@ public class ConstraintFigure extends ModelElementFigure implements GUIDefaults
 	}
 
 	private void init() {
-		setText(getConstraintText(graphicalConstraint.getObject()));
+		setText(getConstraintText(graphicalConstraint));
 		setBorder(FMPropertyManager.getConstraintBorder(graphicalConstraint.isFeatureSelected()));
 		setToolTip(null);
 	}
@@ -213,12 +213,12 @@ public class ConstraintFigure extends ModelElementFigure implements GUIDefaults
 	 * Returns the text this figure should show for the given constraint. This text might have long or short feature names (though constraint remains
 	 * unchanged).
 	 *
-	 * @param constraint - {@link IConstraint}
+	 * @param constraint - {@link IGraphicalConstraint}
 	 * @return {@link String}
 	 */
-	private String getConstraintText(IConstraint constraint) {
-		Node node = constraint.getNode();
-		if (graphicalConstraint.getGraphicalModel().getLayout().showShortNames()) {
+	private static String getConstraintText(IGraphicalConstraint constraint) {
+		Node node = constraint.getObject().getNode();
+		if (constraint.getGraphicalModel().getLayout().showShortNames()) {
 			node = rewriteShortLabels(node);
 		}
 		return node.toString(symbols);
@@ -230,7 +230,7 @@ public class ConstraintFigure extends ModelElementFigure implements GUIDefaults
 	 * @param node - {@link Node}
 	 * @return new {@link Node}
 	 */
-	private Node rewriteShortLabels(Node node) {
+	private static Node rewriteShortLabels(Node node) {
 		// Rewrite feature names for literal nodes.
 		if (node instanceof Literal) {
 			final String oldName = ((Literal) node).var.toString();
@@ -252,6 +252,26 @@ public class ConstraintFigure extends ModelElementFigure implements GUIDefaults
 		}
 	}
 
+	private static Label measureLabel;
+
+	/**
+	 * Computes the size a figure for the given constraint would have without creating the figure. Used to layout constraints that are not rendered by a
+	 * virtualized diagram. Must be called in the UI thread.
+	 *
+	 * @param constraint - {@link IGraphicalConstraint}
+	 * @return the size of the constraint's figure
+	 */
+	public static Dimension getPreferredSize(IGraphicalConstraint constraint) {
+		if (measureLabel == null) {
+			measureLabel = new Label();
+			measureLabel.setFont(DEFAULT_FONT);
+		}
+		measureLabel.setText(getConstraintText(constraint));
+		final Dimension size = new Dimension(measureLabel.getPreferredSize());
+		size.expand(CONSTRAINT_INSETS.getWidth(), CONSTRAINT_INSETS.getHeight());
+		return size;
+	}
+
 	/**
 	 * Sets the <i>text</i> and the <i>size</i> of the bounds of the {@link ConstraintFigure} with respect to the text and icon
 	 */
@@ -38,6 +38,7 @@ import org.eclipse.draw2d.geometry.Dimension;
 import org.eclipse.draw2d.geometry.Point;
 import org.eclipse.draw2d.geometry.Rectangle;
 import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.graphics.Image;
 
 import de.ovgu.featureide.fm.core.AnalysesCollection;
 import de.ovgu.featureide.fm.core.analysis.FeatureProperties;
@@ -98,12 +99,7 @@ public class FeatureFigure extends ModelElementFigure implements GUIDefaults {
 
 		label.setLocation(new Point(0, 0));
 
-		String displayName = feature.getObject().getName();
-		if (featureModel.getLayout().showShortNames()) {
-			int lastIndexOf = displayName.lastIndexOf(".");
-			displayName = displayName.substring(++lastIndexOf);
-		}
-		setName(displayName);
+		setName(getDisplayName(feature));
 
 		updateProperties();
 
@@ -271,18 +267,55 @@ public class FeatureFigure extends ModelElementFigure implements GUIDefaults {
 	}
 
 	private void setLabelIcon() {
+		label.setIcon(getStatusIcon(feature));
+		setName(label.getText());
+	}
+
+	/**
+	 * @param feature the graphical feature
+	 * @return the name shown for the feature, considering the short names option of the layout
+	 */
+	private static String getDisplayName(IGraphicalFeature feature) {
+		final String displayName = feature.getObject().getName();
+		if (feature.getGraphicalModel().getLayout().showShortNames()) {
+			return displayName.substring(displayName.lastIndexOf(".") + 1);
+		}
+		return displayName;
+	}
+
+	private static Image getStatusIcon(IGraphicalFeature feature) {
 		final FeatureProperties featureProperties = feature.getGraphicalModel().getFeatureModelManager().getVariableFormula().getAnalyzer()
 				.getAnalysesCollection().getFeatureProperty(feature.getObject());
 		if (featureProperties.hasStatus(FeatureStatus.DEAD)) {
-			label.setIcon(FM_ERROR);
+			return FM_ERROR;
 		} else if (featureProperties.hasStatus(FeatureStatus.FALSE_OPTIONAL)) {
-			label.setIcon(FM_WARNING);
+			return FM_WARNING;
 		} else if (featureProperties.hasStatus(FeatureStatus.INDETERMINATE_HIDDEN)) {
-			label.setIcon(WARNING_IMAGE);
+			return WARNING_IMAGE;
 		} else {
-			label.setIcon(null);
+			return null;
 		}
-		setName(label.getText());
+	}
+
+	private static Label measureLabel;
+
+	/**
+	 * Computes the size a figure for the given feature would have without creating the figure. Used to layout features that are not rendered by a
+	 * virtualized diagram. Must be called in the UI thread.
+	 *
+	 * @param feature the graphical feature
+	 * @return the size of the feature's figure
+	 */
+	public static Dimension getPreferredSize(IGraphicalFeature feature) {
+		if (measureLabel == null) {
+			measureLabel = new Label();
+			measureLabel.setFont(DEFAULT_FONT);
+		}
+		measureLabel.setText(getDisplayName(feature));
+		measureLabel.setIcon(getStatusIcon(feature));
+		final Dimension size = new Dimension(measureLabel.getPreferredSize());
+		size.expand(FEATURE_INSETS.getWidth(), FEATURE_INSETS.getHeight());
+		return size;
 	}
 
 	public void setName(String newName) {
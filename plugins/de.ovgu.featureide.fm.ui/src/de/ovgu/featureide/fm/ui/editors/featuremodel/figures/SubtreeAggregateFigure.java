@@ -0,0 +1,75 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.ui.editors.featuremodel.figures;
+
+import org.eclipse.draw2d.Figure;
+import org.eclipse.draw2d.FigureUtilities;
+import org.eclipse.draw2d.Graphics;
+import org.eclipse.draw2d.Label;
+import org.eclipse.draw2d.geometry.Dimension;
+import org.eclipse.draw2d.geometry.Rectangle;
+
+import de.ovgu.featureide.fm.ui.editors.featuremodel.GUIDefaults;
+import de.ovgu.featureide.fm.ui.editors.featuremodel.SubtreeAggregate;
+import de.ovgu.featureide.fm.ui.properties.FMPropertyManager;
+
+/**
+ * A figure that is drawn instead of all features of a subtree at low zoom levels. Shows the number of aggregated features if the text fits into the figure.
+ */
+public class SubtreeAggregateFigure extends Figure implements GUIDefaults {
+
+	private final Label toolTip = new Label();
+
+	private String text = "";
+
+	public SubtreeAggregateFigure(SubtreeAggregate aggregate) {
+		setOpaque(false);
+		setFont(DEFAULT_FONT);
+		setToolTip(toolTip);
+		update(aggregate);
+	}
+
+	public void update(SubtreeAggregate aggregate) {
+		text = "+" + aggregate.getFeatureCount();
+		toolTip.setText(aggregate.getFeatureCount() + " features below " + aggregate.getRoot().getObject().getName());
+		setBounds(aggregate.getBounds());
+		repaint();
+	}
+
+	@Override
+	protected void paintFigure(Graphics graphics) {
+		final Rectangle bounds = getBounds().getCopy();
+		bounds.width--;
+		bounds.height--;
+
+		graphics.setBackgroundColor(FMPropertyManager.getAbstractFeatureBackgroundColor());
+		graphics.fillRoundRectangle(bounds, COLLAPSED_DECORATOR_ARC_RADIUS, COLLAPSED_DECORATOR_ARC_RADIUS);
+		graphics.setForegroundColor(FMPropertyManager.getFeatureBorderColor(FMPropertyManager.getAbstractFeatureBackgroundColor()));
+		graphics.drawRoundRectangle(bounds, COLLAPSED_DECORATOR_ARC_RADIUS, COLLAPSED_DECORATOR_ARC_RADIUS);
+
+		final Dimension textSize = FigureUtilities.getTextExtents(text, getFont());
+		if ((textSize.width <= bounds.width) && (textSize.height <= bounds.height)) {
+			graphics.setForegroundColor(FMPropertyManager.getFeatureForgroundColor());
+			graphics.drawText(text, bounds.x + ((bounds.width - textSize.width) / 2), bounds.y + ((bounds.height - textSize.height) / 2));
+		}
+	}
+
+}
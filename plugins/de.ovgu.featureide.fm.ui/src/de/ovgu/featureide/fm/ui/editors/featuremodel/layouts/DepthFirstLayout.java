@@ -21,47 +21,132 @@
 package de.ovgu.featureide.fm.ui.editors.featuremodel.layouts;
 
 import org.eclipse.draw2d.geometry.Point;
-import org.eclipse.draw2d.geometry.Rectangle;
+import org.eclipse.gef.ui.parts.ScrollingGraphicalViewer;
+import org.eclipse.swt.widgets.Display;
 
+import de.ovgu.featureide.fm.core.job.IRunner;
+import de.ovgu.featureide.fm.core.job.JobStartingStrategy;
+import de.ovgu.featureide.fm.core.job.JobToken;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
 import de.ovgu.featureide.fm.ui.editors.FeatureUIHelper;
 import de.ovgu.featureide.fm.ui.editors.IGraphicalFeature;
 import de.ovgu.featureide.fm.ui.editors.IGraphicalFeatureModel;
+import de.ovgu.featureide.fm.ui.editors.featuremodel.layouts.IncrementalTreeLayout.LayoutDelta;
 import de.ovgu.featureide.fm.ui.properties.FMPropertyManager;
 
 /**
- * Layouts the features at the feature diagram using a depth first search.
+ * Layouts the features at the feature diagram using a depth first search.<br> The positions are computed by an {@link IncrementalTreeLayout} that is stored at
+ * the viewer of the feature model, such that only modified subtrees are laid out again.
  *
  * @author Thomas Thuem
  * @author Marcus Pinnecke
  */
 public class DepthFirstLayout extends FeatureDiagramLayoutManager {
 
+	private static final JobToken layoutToken = LongRunningWrapper.createToken(JobStartingStrategy.WAIT);
+
+	private static final String TREE_LAYOUT_PROPERTY = IncrementalTreeLayout.class.getName();
+
 	public DepthFirstLayout() {
 		super();
 	}
 
-	int yoffset;
+	/**
+	 * Discards the previous layout of the feature model shown by the given viewer, e.g., because another layout algorithm moved the features.
+	 */
+	static void resetTreeLayout(ScrollingGraphicalViewer editor) {
+		if (editor != null) {
+			editor.setProperty(TREE_LAYOUT_PROPERTY, null);
+		}
+	}
 
 	@Override
 	protected void layoutFeatureModel(IGraphicalFeatureModel featureModel) {
-		yoffset = 0;
 		final IGraphicalFeature root = FeatureUIHelper.getGraphicalRootFeature(featureModel);
-		depthFirstLayout(root, 0, FMPropertyManager.getLayoutMarginX());
-		yoffset = yoffset + FMPropertyManager.getFeatureSpaceX();
-		final Rectangle rootBounds = getBounds(root);
-		layoutConstraints(yoffset, featureModel.getVisibleConstraints(), rootBounds);
+		final IncrementalTreeLayout treeLayout = getTreeLayout();
+		final LayoutTree tree = createTree(root);
+		treeLayout.submit(tree);
+		final LayoutDelta delta = treeLayout.layout(tree);
+		for (int i = 0; i < tree.size(); i++) {
+			setLocation((IGraphicalFeature) tree.getElement(i), new Point(treeLayout.getX(i), treeLayout.getY(i)));
+		}
+		treeLayout.setPublished(delta);
+		layoutConstraints(treeLayout.getBottom() + FMPropertyManager.getFeatureSpaceX(), featureModel.getVisibleConstraints(), getBounds(root));
+	}
+
+	@Override
+	public boolean supportsBackgroundLayout() {
+		return true;
+	}
+
+	/**
+	 * Takes a snapshot of the feature tree on the calling (UI) thread, lays it out on a background thread, and sets only the locations of the features that
+	 * moved on the UI thread afterwards.
+	 */
+	@Override
+	public void layoutInBackground(final IGraphicalFeatureModel featureModel, ScrollingGraphicalViewer editor, final Runnable onFinished) {
+		final IGraphicalFeature root = FeatureUIHelper.getGraphicalRootFeature(featureModel);
+		final Display display = Display.getCurrent();
+		if ((root == null) || (display == null)) {
+			super.layoutInBackground(featureModel, editor, onFinished);
+			return;
+		}
+		this.editor = editor;
+		showCollapsedConstraints = featureModel.getLayout().showCollapsedConstraints();
+		FeatureUIHelper.showCollapsedConstraints(showCollapsedConstraints, featureModel);
+
+		final IncrementalTreeLayout treeLayout = getTreeLayout();
+		final LayoutTree tree = createTree(root);
+		treeLayout.submit(tree);
+		final int constraintOffset = FMPropertyManager.getFeatureSpaceX();
+
+		final IRunner<LayoutDelta> runner = LongRunningWrapper.getRunner(monitor -> treeLayout.layoutIfLatest(tree), "Layout Feature Diagram");
+		runner.addJobFinishedListener(finishedJob -> {
+			final LayoutDelta delta = finishedJob.getResults();
+			if (delta != null) {
+				display.asyncExec(() -> publish(featureModel, root, treeLayout, delta, constraintOffset, onFinished));
+			}
+		});
+		LongRunningWrapper.startJob(layoutToken, runner);
 	}
 
-	private int depthFirstLayout(IGraphicalFeature feature, int level, int x) {
-		setLocation(feature, new Point(x, FMPropertyManager.getLayoutMarginY() + (level * FMPropertyManager.getFeatureSpaceY())));
-		int newX = x;
-		if (yoffset < (FMPropertyManager.getLayoutMarginY() + (level * FMPropertyManager.getFeatureSpaceY()))) {
-			yoffset = FMPropertyManager.getLayoutMarginY() + (level * FMPropertyManager.getFeatureSpaceY());
+	private void publish(IGraphicalFeatureModel featureModel, IGraphicalFeature root, IncrementalTreeLayout treeLayout, LayoutDelta delta,
+			int constraintOffset, Runnable onFinished) {
+		if (treeLayout.isOutdated(delta)) {
+			return;
+		}
+		for (int i = 0; i < delta.size(); i++) {
+			((IGraphicalFeature) delta.getElement(i)).setLocation(new Point(delta.getX(i), delta.getY(i)));
 		}
-		for (final IGraphicalFeature child : getChildren(feature)) {
-			newX = depthFirstLayout(child, level + 1, newX);
+		layoutConstraints(treeLayout.getBottom() + constraintOffset, featureModel.getVisibleConstraints(), getBounds(root));
+		if (!featureModel.isLegendHidden() && featureModel.getLayout().hasLegendAutoLayout()) {
+			layoutLegend(featureModel);
 		}
-		return Math.max(newX, x + feature.getSize().width + FMPropertyManager.getFeatureSpaceX());
+		onFinished.run();
+	}
+
+	/**
+	 * Returns the layout that is stored at the current viewer, such that it is discarded together with the viewer. Without a viewer, a new layout is returned.
+	 */
+	private IncrementalTreeLayout getTreeLayout() {
+		final int marginX = FMPropertyManager.getLayoutMarginX();
+		final int marginY = FMPropertyManager.getLayoutMarginY();
+		final int spaceX = FMPropertyManager.getFeatureSpaceX();
+		final int spaceY = FMPropertyManager.getFeatureSpaceY();
+		if (editor == null) {
+			return new IncrementalTreeLayout(marginX, marginY, spaceX, spaceY);
+		}
+		final Object property = editor.getProperty(TREE_LAYOUT_PROPERTY);
+		if ((property instanceof IncrementalTreeLayout) && ((IncrementalTreeLayout) property).hasSpacing(marginX, marginY, spaceX, spaceY)) {
+			return (IncrementalTreeLayout) property;
+		}
+		final IncrementalTreeLayout treeLayout = new IncrementalTreeLayout(marginX, marginY, spaceX, spaceY);
+		editor.setProperty(TREE_LAYOUT_PROPERTY, treeLayout);
+		return treeLayout;
+	}
+
+	private LayoutTree createTree(IGraphicalFeature root) {
+		return LayoutTree.create(root, this::getChildren, feature -> feature.getSize().width);
 	}
 
 }
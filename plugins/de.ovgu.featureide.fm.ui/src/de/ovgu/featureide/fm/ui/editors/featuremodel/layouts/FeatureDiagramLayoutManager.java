@@ -76,6 +76,10 @@ abstract public class FeatureDiagramLayoutManager {
 		for (final Entry<IGraphicalFeature, Point> entry : newLocations.entrySet()) {
 			entry.getKey().setLocation(entry.getValue());
 		}
+		if (!(this instanceof DepthFirstLayout)) {
+			// the incremental layout assumes that the features are still at the positions of its previous layout
+			DepthFirstLayout.resetTreeLayout(editor);
+		}
 		if ((featureModel.getLayout().getLayoutAlgorithm() == 0) && !firstManualLayout) {
 			for (final IGraphicalFeature entry : featureModel.getFeatures()) {
 				// Fix of #571: All feature in manual layout are loaded to their position. Because the layout
@@ -97,6 +101,27 @@ abstract public class FeatureDiagramLayoutManager {
 		newLocations.clear();
 	}
 
+	/**
+	 * @return <code>true</code> if {@link #layoutInBackground(IGraphicalFeatureModel, ScrollingGraphicalViewer, Runnable)} computes the locations on a
+	 *         background thread
+	 */
+	public boolean supportsBackgroundLayout() {
+		return false;
+	}
+
+	/**
+	 * Calculates the locations of all features like {@link #layout(IGraphicalFeatureModel, ScrollingGraphicalViewer)}, but without blocking the UI thread if
+	 * supported by the layout algorithm. By default, the layout is computed immediately.
+	 *
+	 * @param featureModel feature model
+	 * @param editor the viewer of the feature model
+	 * @param onFinished called on the UI thread after the locations were set
+	 */
+	public void layoutInBackground(IGraphicalFeatureModel featureModel, ScrollingGraphicalViewer editor, Runnable onFinished) {
+		layout(featureModel, editor);
+		onFinished.run();
+	}
+
 	protected abstract void layoutFeatureModel(IGraphicalFeatureModel featureModel);
 
 	public void setControlSize(int width, int height) {
@@ -0,0 +1,375 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.ui.editors.featuremodel.layouts;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Computes a top-down, left-aligned tree layout (see {@link DepthFirstLayout}) for {@link LayoutTree}s and reuses the result of the previous layout.<br>
+ * A new tree is compared to the previous tree in pre-order. The nodes of the common prefix and suffix of both trees and subtrees that equal a previous
+ * subtree node by node are not laid out again. Such subtrees are shifted if their position changed and are not visited at all otherwise. Thus, after a local
+ * edit only the modified subtree and its ancestors are laid out, and the following siblings of these nodes are moved. The result is returned as a
+ * {@link LayoutDelta} that contains only the nodes whose position changed.<br> The layout does not access the feature model and can run on any thread.
+ */
+public class IncrementalTreeLayout {
+
+	/**
+	 * The positions of all nodes whose position changed during a layout.
+	 */
+	public static class LayoutDelta {
+
+		private Object[] elements = new Object[16];
+		private int[] x = new int[16];
+		private int[] y = new int[16];
+		private int size = 0;
+		private final int layoutNumber;
+
+		private LayoutDelta(int layoutNumber) {
+			this.layoutNumber = layoutNumber;
+		}
+
+		private void add(Object element, int elementX, int elementY) {
+			if (size == elements.length) {
+				elements = Arrays.copyOf(elements, size << 1);
+				x = Arrays.copyOf(x, size << 1);
+				y = Arrays.copyOf(y, size << 1);
+			}
+			elements[size] = element;
+			x[size] = elementX;
+			y[size++] = elementY;
+		}
+
+		public int size() {
+			return size;
+		}
+
+		public Object getElement(int index) {
+			return elements[index];
+		}
+
+		public int getX(int index) {
+			return x[index];
+		}
+
+		public int getY(int index) {
+			return y[index];
+		}
+	}
+
+	private final int marginX;
+	private final int marginY;
+	private final int spaceX;
+	private final int spaceY;
+
+	private LayoutTree previous = null;
+	/**
+	 * The positions of the nodes of the previous tree and the horizontal extents of their subtrees, including the space to the next subtree.
+	 */
+	private int[] x = new int[0];
+	private int[] y = new int[0];
+	private int[] extent = new int[0];
+
+	/**
+	 * The nodes whose children are currently laid out, together with the x coordinate of their next child.
+	 */
+	private int[] openNodes = new int[16];
+	private int[] openSlots = new int[16];
+	private int openCount = 0;
+
+	private int bottom;
+	private int reusedNodes;
+
+	private int layoutCount = 0;
+	private int lastPublishedLayout = -1;
+
+	private volatile LayoutTree latest = null;
+
+	/**
+	 * @param marginX the x coordinate of the root
+	 * @param marginY the y coordinate of the root
+	 * @param spaceX the horizontal space between two subtrees
+	 * @param spaceY the vertical distance between two levels
+	 */
+	public IncrementalTreeLayout(int marginX, int marginY, int spaceX, int spaceY) {
+		this.marginX = marginX;
+		this.marginY = marginY;
+		this.spaceX = spaceX;
+		this.spaceY = spaceY;
+	}
+
+	/**
+	 * Checks whether this layout uses the given spacing. A layout with a different spacing cannot reuse previous results.
+	 */
+	public boolean hasSpacing(int marginX, int marginY, int spaceX, int spaceY) {
+		return (this.marginX == marginX) && (this.marginY == marginY) && (this.spaceX == spaceX) && (this.spaceY == spaceY);
+	}
+
+	/**
+	 * Forgets the previous layout, e.g., because the nodes were moved by another layout algorithm. The next layout returns the positions of all nodes.
+	 */
+	public synchronized void reset() {
+		previous = null;
+	}
+
+	/**
+	 * Marks the given tree as the most recent snapshot. Older snapshots that were not laid out yet are skipped by {@link #layoutIfLatest(LayoutTree)}.
+	 */
+	public void submit(LayoutTree tree) {
+		latest = tree;
+	}
+
+	/**
+	 * Lays out the given tree, if no newer tree was {@link #submit(LayoutTree) submitted} in the meantime.
+	 *
+	 * @return the changed positions or <code>null</code> if the tree is outdated
+	 */
+	public synchronized LayoutDelta layoutIfLatest(LayoutTree tree) {
+		return tree == latest ? layout(tree) : null;
+	}
+
+	/**
+	 * Lays out the given tree.
+	 *
+	 * @param tree the tree
+	 * @return the nodes whose position differs from the previous layout
+	 */
+	public synchronized LayoutDelta layout(LayoutTree tree) {
+		final LayoutTree old = previous;
+		final int n = tree.size;
+		final int m = old == null ? 0 : old.size;
+		// the index of a node of the common suffix in the new tree minus its index in the previous tree
+		final int offset = n - m;
+
+		int prefixEnd = 0;
+		final int limit = Math.min(n, m);
+		while ((prefixEnd < limit) && isEqualNode(tree, prefixEnd, old, prefixEnd) && (tree.parent[prefixEnd] == old.parent[prefixEnd])) {
+			prefixEnd++;
+		}
+		int suffixStart = n;
+		while (((suffixStart - 1 - offset) >= prefixEnd) && (suffixStart > prefixEnd) && isEqualNode(tree, suffixStart - 1, old, suffixStart - 1 - offset)) {
+			suffixStart--;
+		}
+		// the parent of a node of the suffix must be the same node in the prefix or in the suffix, parents precede their children
+		for (int i = suffixStart; i < n; i++) {
+			final int newParent = tree.parent[i];
+			final int oldParent = old.parent[i - offset];
+			if (!(((oldParent < prefixEnd) && (newParent == oldParent)) || ((newParent >= suffixStart) && (newParent == (oldParent + offset))))) {
+				suffixStart = i + 1;
+			}
+		}
+
+		// positions of the changed range of the previous tree, which may be reused for moved subtrees
+		final int middleStart = prefixEnd;
+		final int middleEnd = suffixStart - offset;
+		final int[] middleX = Arrays.copyOfRange(x, middleStart, Math.max(middleStart, middleEnd));
+		final int[] middleY = Arrays.copyOfRange(y, middleStart, Math.max(middleStart, middleEnd));
+		final int[] middleExtent = Arrays.copyOfRange(extent, middleStart, Math.max(middleStart, middleEnd));
+		final Map<Object, Integer> middleIndex = new IdentityHashMap<>(Math.max(0, middleEnd - middleStart));
+		for (int k = middleStart; k < middleEnd; k++) {
+			middleIndex.put(old.elements[k], k);
+		}
+
+		if (n != m) {
+			final int[] newX = new int[n];
+			final int[] newY = new int[n];
+			final int[] newExtent = new int[n];
+			System.arraycopy(x, 0, newX, 0, prefixEnd);
+			System.arraycopy(y, 0, newY, 0, prefixEnd);
+			System.arraycopy(extent, 0, newExtent, 0, prefixEnd);
+			System.arraycopy(x, suffixStart - offset, newX, suffixStart, n - suffixStart);
+			System.arraycopy(y, suffixStart - offset, newY, suffixStart, n - suffixStart);
+			System.arraycopy(extent, suffixStart - offset, newExtent, suffixStart, n - suffixStart);
+			x = newX;
+			y = newY;
+			extent = newExtent;
+		}
+
+		final LayoutDelta delta = new LayoutDelta(layoutCount++);
+		bottom = marginY + (tree.maxDepth * spaceY);
+		reusedNodes = 0;
+		openCount = 0;
+		for (int i = 0; i < n;) {
+			while ((openCount > 0) && (tree.subtreeEnd[openNodes[openCount - 1]] <= i)) {
+				close(tree);
+			}
+			final int nodeX = openCount == 0 ? marginX : openSlots[openCount - 1];
+			final int nodeY = marginY + (tree.depth[i] * spaceY);
+			final int subtreeEnd = tree.subtreeEnd[i];
+
+			if ((i >= suffixStart) || ((subtreeEnd <= prefixEnd) && (old.subtreeEnd[i] == subtreeEnd))) {
+				// unchanged subtree at the same index, only shifted if its position changed
+				final int dx = nodeX - x[i];
+				final int dy = nodeY - y[i];
+				if ((dx != 0) || (dy != 0)) {
+					for (int node = i; node < subtreeEnd; node++) {
+						x[node] += dx;
+						y[node] += dy;
+						delta.add(tree.elements[node], x[node], y[node]);
+					}
+				}
+				placed(i, subtreeEnd);
+				i = subtreeEnd;
+				continue;
+			}
+
+			final Integer previousNode = i < prefixEnd ? null : middleIndex.get(tree.elements[i]);
+			if ((previousNode != null) && isEqualSubtree(tree, i, old, previousNode, middleEnd)) {
+				// unchanged subtree that moved within the tree
+				int k = previousNode - middleStart;
+				final int dx = nodeX - middleX[k];
+				final int dy = nodeY - middleY[k];
+				for (int node = i; node < subtreeEnd; node++, k++) {
+					x[node] = middleX[k] + dx;
+					y[node] = middleY[k] + dy;
+					extent[node] = middleExtent[k];
+					if ((dx != 0) || (dy != 0)) {
+						delta.add(tree.elements[node], x[node], y[node]);
+					}
+				}
+				placed(i, subtreeEnd);
+				i = subtreeEnd;
+				continue;
+			}
+
+			final boolean moved;
+			if (i < prefixEnd) {
+				moved = (x[i] != nodeX) || (y[i] != nodeY);
+			} else {
+				moved = (previousNode == null) || (middleX[previousNode - middleStart] != nodeX) || (middleY[previousNode - middleStart] != nodeY);
+			}
+			x[i] = nodeX;
+			y[i] = nodeY;
+			if (moved) {
+				delta.add(tree.elements[i], nodeX, nodeY);
+			}
+			open(i, nodeX);
+			i++;
+		}
+		while (openCount > 0) {
+			close(tree);
+		}
+
+		previous = tree;
+		return delta;
+	}
+
+	private static boolean isEqualNode(LayoutTree tree, int i, LayoutTree old, int k) {
+		return (tree.elements[i] == old.elements[k]) && (tree.width[i] == old.width[k]);
+	}
+
+	/**
+	 * Checks whether the subtree of the given node equals the subtree of the given previous node. The signatures are only compared first, as equal hashes do
+	 * not guarantee equal subtrees.
+	 */
+	private static boolean isEqualSubtree(LayoutTree tree, int i, LayoutTree old, int k, int oldEnd) {
+		final int size = tree.subtreeEnd[i] - i;
+		if (((old.subtreeEnd[k] - k) != size) || ((k + size) > oldEnd) || (tree.signature[i] != old.signature[k])) {
+			return false;
+		}
+		for (int j = 0; j < size; j++) {
+			if (!isEqualNode(tree, i + j, old, k + j) || ((j > 0) && ((tree.parent[i + j] - i) != (old.parent[k + j] - k)))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Called after the subtree of the given node was placed without laying it out.
+	 */
+	private void placed(int node, int subtreeEnd) {
+		reusedNodes += subtreeEnd - node;
+		if (openCount > 0) {
+			openSlots[openCount - 1] = x[node] + extent[node];
+		}
+	}
+
+	/**
+	 * Called before the children of the given node are placed.
+	 */
+	private void open(int node, int nodeX) {
+		if (openCount == openNodes.length) {
+			openNodes = Arrays.copyOf(openNodes, openCount << 1);
+			openSlots = Arrays.copyOf(openSlots, openCount << 1);
+		}
+		openNodes[openCount] = node;
+		openSlots[openCount++] = nodeX;
+	}
+
+	/**
+	 * Called after all children of the innermost open node were placed.
+	 */
+	private void close(LayoutTree tree) {
+		final int node = openNodes[--openCount];
+		extent[node] = Math.max(tree.width[node] + spaceX, openSlots[openCount] - x[node]);
+		if (openCount > 0) {
+			openSlots[openCount - 1] = x[node] + extent[node];
+		}
+	}
+
+	/**
+	 * Records that the positions of all nodes of the given layout were published. Deltas of earlier layouts must not be applied afterwards, as they would
+	 * overwrite newer positions.
+	 */
+	public synchronized void setPublished(LayoutDelta delta) {
+		lastPublishedLayout = delta.layoutNumber;
+	}
+
+	/**
+	 * @return <code>true</code> if the positions of a newer layout were published already
+	 */
+	public synchronized boolean isOutdated(LayoutDelta delta) {
+		return delta.layoutNumber < lastPublishedLayout;
+	}
+
+	/**
+	 * @param index the index of a node of the previously laid out tree
+	 * @return the x coordinate of the node
+	 */
+	public synchronized int getX(int index) {
+		return x[index];
+	}
+
+	/**
+	 * @param index the index of a node of the previously laid out tree
+	 * @return the y coordinate of the node
+	 */
+	public synchronized int getY(int index) {
+		return y[index];
+	}
+
+	/**
+	 * @return the largest y coordinate of all nodes in the previous layout
+	 */
+	public synchronized int getBottom() {
+		return bottom;
+	}
+
+	/**
+	 * @return the number of nodes of the previous layout that were reused instead of laid out
+	 */
+	public synchronized int getReusedNodes() {
+		return reusedNodes;
+	}
+
+}
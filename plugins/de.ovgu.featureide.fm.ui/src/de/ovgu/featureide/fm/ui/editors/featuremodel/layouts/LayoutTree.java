@@ -0,0 +1,126 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.ui.editors.featuremodel.layouts;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Snapshot of a tree for the {@link IncrementalTreeLayout}. The nodes are stored in pre-order, such that every subtree is a consecutive range of indices. All
+ * values are stored in primitive arrays, thus, a snapshot can be laid out on a background thread without accessing the feature model.
+ */
+public class LayoutTree {
+
+	private static final long MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+	final Object[] elements;
+	final int[] parent;
+	final int[] subtreeEnd;
+	final int[] depth;
+	final int[] width;
+	/**
+	 * Hash of the shape and the widths of each subtree. Subtrees with different signatures are laid out differently.
+	 */
+	final long[] signature;
+	final int size;
+	int maxDepth;
+
+	private LayoutTree(int size) {
+		this.size = size;
+		elements = new Object[size];
+		parent = new int[size];
+		subtreeEnd = new int[size];
+		depth = new int[size];
+		width = new int[size];
+		signature = new long[size];
+	}
+
+	/**
+	 * Creates a snapshot of the tree below the given root.
+	 *
+	 * @param root the root of the tree
+	 * @param getChildren returns the children of a node in their order
+	 * @param getWidth returns the width of a node
+	 * @return the snapshot of the tree
+	 */
+	public static <T> LayoutTree create(T root, Function<T, List<T>> getChildren, ToIntFunction<T> getWidth) {
+		final List<T> nodes = new ArrayList<>();
+		final List<Integer> parents = new ArrayList<>();
+		final List<T> stack = new ArrayList<>();
+		final List<Integer> parentStack = new ArrayList<>();
+		stack.add(root);
+		parentStack.add(-1);
+		while (!stack.isEmpty()) {
+			final T node = stack.remove(stack.size() - 1);
+			final int index = nodes.size();
+			nodes.add(node);
+			parents.add(parentStack.remove(parentStack.size() - 1));
+			final List<T> children = getChildren.apply(node);
+			for (int i = children.size() - 1; i >= 0; i--) {
+				stack.add(children.get(i));
+				parentStack.add(index);
+			}
+		}
+
+		final LayoutTree tree = new LayoutTree(nodes.size());
+		for (int i = 0; i < tree.size; i++) {
+			final T node = nodes.get(i);
+			final int p = parents.get(i);
+			tree.elements[i] = node;
+			tree.parent[i] = p;
+			tree.depth[i] = p < 0 ? 0 : tree.depth[p] + 1;
+			tree.width[i] = getWidth.applyAsInt(node);
+		}
+		tree.computeSubtrees();
+		return tree;
+	}
+
+	private void computeSubtrees() {
+		final long[] childSignatures = new long[size];
+		for (int i = 0; i < size; i++) {
+			subtreeEnd[i] = i + 1;
+			maxDepth = Math.max(maxDepth, depth[i]);
+		}
+		// children are stored after their parents, thus, a reverse traversal visits each subtree before its root
+		for (int i = size - 1; i >= 0; i--) {
+			long h = (width[i] * MULTIPLIER) ^ childSignatures[i];
+			h ^= h >>> 29;
+			h *= MULTIPLIER;
+			signature[i] = h ^ (h >>> 32);
+			final int p = parent[i];
+			if (p >= 0) {
+				childSignatures[p] = (childSignatures[p] * MULTIPLIER) + signature[i];
+				subtreeEnd[p] = Math.max(subtreeEnd[p], subtreeEnd[i]);
+			}
+		}
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public Object getElement(int index) {
+		return elements[index];
+	}
+
+}
@@ -174,7 +174,7 @@ public class SearchField<T> {
 	private void refresh() {
 		featureDiagramEditor.getViewer().getControl().setBackground(FMPropertyManager.getDiagramBackgroundColor());
 		featureDiagramEditor.getViewer().reload();
-		featureDiagramEditor.refreshGraphics(null);
+		featureDiagramEditor.refreshGraphics();
 		featureDiagramEditor.getViewer().refreshChildAll(FeatureUtils.getRoot(graphicalFeatureModel.getFeatureModelManager().getObject()));
 		featureDiagramEditor.analyzeFeatureModel();
 	}
@@ -44,7 +44,6 @@ import org.eclipse.ui.operations.RedoActionHandler;
 import org.eclipse.ui.operations.UndoActionHandler;
 import org.eclipse.ui.part.ViewPart;
 
-import de.ovgu.featureide.fm.core.AnalysesCollection;
 import de.ovgu.featureide.fm.core.FeatureModelAnalyzer;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
 import de.ovgu.featureide.fm.core.base.IConstraint;
@@ -98,7 +97,7 @@ public class ConstraintViewController extends ViewPart implements GUIDefaults {
 
 	/**
 	 * The listener used on the updateConstraint. This listener is called in the FeatureDiagramEditor when the analysis is finished. This happens in
-	 * {@link FeatureDiagramEditor#refreshGraphics(AnalysesCollection)}. The whole constraintView is updated as we do not know of a way to figure out the exact
+	 * {@link FeatureDiagramEditor#refreshChangedElements(java.util.Collection)}. The whole constraintView is updated as we do not know of a way to figure out the exact
 	 * constraints affected by the analysis.
 	 */
 	private final IEventListener updateConstraintListener = new IEventListener() {
@@ -0,0 +1,135 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.ui.actions.generator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import de.ovgu.featureide.ui.actions.generator.sorter.AbstractConfigurationSorter;
+
+/**
+ * Producer/consumer pipeline that passes the configurations of an {@link AbstractConfigurationSorter} through a sequence of {@link BuildStage}s (e.g.,
+ * composition, compilation, and test). The stages are connected by bounded blocking queues, thus, workers wait for new configurations without polling and
+ * fast stages are slowed down by full queues of slower stages.
+ */
+public class BuildPipeline {
+
+	private final AbstractConfigurationSorter sorter;
+
+	private final List<BuildStage> stages = new ArrayList<>();
+
+	private final CountDownLatch terminated = new CountDownLatch(1);
+
+	private Thread feeder;
+
+	private volatile boolean canceled = false;
+
+	/**
+	 * @param sorter The sorter providing the configurations to build
+	 * @param stages The stages in the order they are passed
+	 * @param sink Receives all configurations that passed the last stage
+	 */
+	public BuildPipeline(AbstractConfigurationSorter sorter, List<? extends BuildStage> stages, Consumer<BuilderConfiguration> sink) {
+		if (stages.isEmpty()) {
+			throw new IllegalArgumentException("The build pipeline needs at least one stage.");
+		}
+		this.sorter = sorter;
+		this.stages.addAll(stages);
+		for (int i = 1; i < this.stages.size(); i++) {
+			this.stages.get(i - 1).setNext(this.stages.get(i));
+		}
+		final BuildStage lastStage = this.stages.get(this.stages.size() - 1);
+		lastStage.setSink(sink);
+		lastStage.setTerminationListener(terminated::countDown);
+	}
+
+	/**
+	 * Starts all stages and the thread that passes the sorted configurations to the first stage.
+	 */
+	public void start() {
+		for (final BuildStage stage : stages) {
+			stage.start();
+		}
+		final BuildStage firstStage = stages.get(0);
+		feeder = new Thread(() -> {
+			try {
+				for (BuilderConfiguration configuration = sorter.takeConfiguration(); configuration != null; configuration =
+					sorter.takeConfiguration()) {
+					firstStage.put(configuration);
+				}
+				firstStage.close();
+			} catch (final InterruptedException e) {
+				// pipeline was canceled
+			}
+		}, "Build pipeline feeder");
+		feeder.setDaemon(true);
+		feeder.start();
+	}
+
+	/**
+	 * Waits until all configurations passed the last stage or the pipeline was canceled.
+	 *
+	 * @param timeout The maximum time to wait in milliseconds
+	 * @return <code>true</code> if the pipeline has terminated
+	 * @throws InterruptedException if the calling thread was interrupted while waiting
+	 */
+	public boolean awaitTermination(long timeout) throws InterruptedException {
+		return terminated.await(timeout, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Discards all pending configurations and stops all stages.
+	 */
+	public void cancel() {
+		canceled = true;
+		sorter.close();
+		if (feeder != null) {
+			feeder.interrupt();
+		}
+		for (final BuildStage stage : stages) {
+			stage.cancel();
+		}
+	}
+
+	public boolean isCanceled() {
+		return canceled;
+	}
+
+	/**
+	 * @return The number of configurations waiting in the queues of all stages
+	 */
+	public int getBufferSize() {
+		int size = 0;
+		for (final BuildStage stage : stages) {
+			size += stage.getBufferSize();
+		}
+		return size;
+	}
+
+	public List<BuildStage> getStages() {
+		return Collections.unmodifiableList(stages);
+	}
+
+}
@@ -0,0 +1,261 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.ui.actions.generator;
+
+import static de.ovgu.featureide.fm.core.localization.StringTable.ERROR_IN_CONFIGURATION;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import de.ovgu.featureide.ui.UIPlugin;
+
+/**
+ * One stage of the {@link BuildPipeline}.<br> A stage takes configurations from a bounded blocking queue and processes them with its own number of worker
+ * threads. Processed configurations are put into the queue of the next stage. If that queue is full, the workers of this stage block until the next stage
+ * took a configuration (backpressure).
+ */
+public abstract class BuildStage {
+
+	/**
+	 * Marks the end of the input of a stage.
+	 */
+	private static final Optional<BuilderConfiguration> END = Optional.empty();
+
+	private final String name;
+
+	private final int parallelism;
+
+	private final BlockingQueue<Optional<BuilderConfiguration>> queue;
+
+	private final List<Thread> workers = new ArrayList<>();
+
+	private final AtomicInteger runningWorkers = new AtomicInteger();
+
+	private final AtomicInteger processed = new AtomicInteger();
+
+	private final AtomicLong busyTime = new AtomicLong();
+
+	private volatile boolean closed = false;
+
+	private volatile boolean canceled = false;
+
+	private long startTime = 0;
+
+	private long endTime = 0;
+
+	private BuildStage next = null;
+
+	private Consumer<BuilderConfiguration> sink = configuration -> {};
+
+	private Runnable terminationListener = () -> {};
+
+	/**
+	 * @param name The name of the stage shown in the statistics
+	 * @param parallelism The number of worker threads
+	 * @param capacity The capacity of the input queue
+	 */
+	public BuildStage(String name, int parallelism, int capacity) {
+		this.name = name;
+		this.parallelism = Math.max(1, parallelism);
+		queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+	}
+
+	/**
+	 * Processes one configuration.
+	 *
+	 * @param configuration The configuration
+	 * @param worker The number of the worker thread calling this method
+	 * @return <code>true</code> if the configuration should be passed to the next stage
+	 * @throws Exception if the configuration could not be processed
+	 */
+	protected abstract boolean process(BuilderConfiguration configuration, int worker) throws Exception;
+
+	void setNext(BuildStage next) {
+		this.next = next;
+	}
+
+	/**
+	 * @param sink Receives all configurations that passed this stage if there is no next stage
+	 */
+	void setSink(Consumer<BuilderConfiguration> sink) {
+		this.sink = sink;
+	}
+
+	/**
+	 * @param terminationListener Called after the last worker of this stage has finished
+	 */
+	void setTerminationListener(Runnable terminationListener) {
+		this.terminationListener = terminationListener;
+	}
+
+	/**
+	 * Starts the worker threads of this stage.
+	 */
+	synchronized void start() {
+		startTime = System.nanoTime();
+		runningWorkers.set(parallelism);
+		for (int i = 0; i < parallelism; i++) {
+			final int nr = i;
+			final Thread worker = new Thread(() -> work(nr), name + " " + nr);
+			worker.setDaemon(true);
+			workers.add(worker);
+			worker.start();
+		}
+	}
+
+	/**
+	 * Adds a configuration to the input queue. Blocks if the queue is full.
+	 *
+	 * @param configuration The configuration
+	 * @throws InterruptedException if the calling thread was interrupted while waiting
+	 */
+	public void put(BuilderConfiguration configuration) throws InterruptedException {
+		queue.put(Optional.of(configuration));
+	}
+
+	/**
+	 * Signals that no more configurations will be added. The workers finish after all queued configurations are processed.<br> Does not block, even if the
+	 * input queue is full.
+	 */
+	public void close() {
+		closed = true;
+		// wakes up waiting workers; if the queue is full, the workers notice the closed flag once they drained it
+		queue.offer(END);
+	}
+
+	/**
+	 * Discards all queued configurations and stops the worker threads.
+	 */
+	synchronized void cancel() {
+		canceled = true;
+		closed = true;
+		queue.clear();
+		queue.offer(END);
+		for (final Thread worker : workers) {
+			worker.interrupt();
+		}
+	}
+
+	private void work(int nr) {
+		try {
+			while (true) {
+				final Optional<BuilderConfiguration> item = closed ? queue.poll() : queue.take();
+				if ((item == null) || !item.isPresent()) {
+					// let the other workers of this stage finish, too
+					queue.offer(END);
+					break;
+				}
+				final BuilderConfiguration configuration = item.get();
+				final long start = System.nanoTime();
+				boolean passOn = false;
+				try {
+					passOn = process(configuration, nr);
+				} catch (final InterruptedException e) {
+					throw e;
+				} catch (final Exception e) {
+					UIPlugin.getDefault().logError(ERROR_IN_CONFIGURATION + configuration, e);
+				}
+				busyTime.addAndGet(System.nanoTime() - start);
+				processed.incrementAndGet();
+				if (passOn) {
+					if (next != null) {
+						next.put(configuration);
+					} else {
+						sink.accept(configuration);
+					}
+				}
+			}
+		} catch (final InterruptedException e) {
+			// catching the exception cleared the interrupted flag of the thread
+			canceled = true;
+		} finally {
+			if (runningWorkers.decrementAndGet() == 0) {
+				endTime = System.nanoTime();
+				if ((next != null) && !canceled) {
+					next.close();
+				}
+				terminationListener.run();
+			}
+		}
+	}
+
+	/**
+	 * Waits until all workers of this stage have finished.
+	 *
+	 * @throws InterruptedException if the calling thread was interrupted while waiting
+	 */
+	void join() throws InterruptedException {
+		final List<Thread> currentWorkers;
+		synchronized (this) {
+			currentWorkers = new ArrayList<>(workers);
+		}
+		for (final Thread worker : currentWorkers) {
+			worker.join();
+		}
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	public int getBufferSize() {
+		return queue.size();
+	}
+
+	public int getProcessed() {
+		return processed.get();
+	}
+
+	/**
+	 * @return The number of processed configurations per second since the stage was started
+	 */
+	public double getThroughput() {
+		final long end = endTime != 0 ? endTime : System.nanoTime();
+		final long duration = end - startTime;
+		return (startTime == 0) || (duration <= 0) ? 0 : (processed.get() * 1_000_000_000.0) / duration;
+	}
+
+	/**
+	 * @return The fraction of time the workers of this stage were busy
+	 */
+	public double getUtilization() {
+		final long end = endTime != 0 ? endTime : System.nanoTime();
+		final long duration = (end - startTime) * parallelism;
+		return (startTime == 0) || (duration <= 0) ? 0 : Math.min(1, (double) busyTime.get() / duration);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s: %d configurations (%d worker%s, %.2f/s, %.0f%% busy)", name, getProcessed(), parallelism, parallelism > 1 ? "s" : "",
+				getThroughput(), getUtilization() * 100);
+	}
+
+}
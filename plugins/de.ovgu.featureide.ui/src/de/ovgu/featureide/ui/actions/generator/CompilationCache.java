@@ -0,0 +1,348 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.ui.actions.generator;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import de.ovgu.featureide.ui.UIPlugin;
+
+/**
+ * Content-addressed cache for the class files of compilation units that are identical in several variants.<br> The key of a compilation unit is a hash of
+ * its composed source code, the source code of all units it depends on, and the classpath signature of the variant. The signature consists of the classpath
+ * and the names of all compilation units of the variant, thus, units are only reused if the variant provides the same set of types.<br> A unit depends on all
+ * units whose type names occur in its source code, transitively. This over-approximates the actual dependencies, but guarantees that a unit is compiled again
+ * whenever a type it uses changed in the variant.
+ */
+public class CompilationCache {
+
+	private static final Pattern PACKAGE_PATTERN = Pattern.compile("^\\s*package\\s+([\\w.]+)\\s*;", Pattern.MULTILINE);
+
+	private static final Pattern IDENTIFIER_PATTERN = Pattern.compile("[\\p{javaJavaIdentifierStart}][\\p{javaJavaIdentifierPart}]*");
+
+	/**
+	 * A compilation unit of a variant.
+	 */
+	public static class CompilationUnit {
+
+		private final String key;
+		private final String packagePath;
+		private final String typeName;
+
+		private CompilationUnit(String key, String packagePath, String typeName) {
+			this.key = key;
+			this.packagePath = packagePath;
+			this.typeName = typeName;
+		}
+
+		public String getKey() {
+			return key;
+		}
+
+		/**
+		 * @param classFile a class file path relative to the output folder using '/' as separator
+		 * @return <code>true</code> if the class file was created from this unit
+		 */
+		private boolean isOrigin(String classFile) {
+			final int separator = classFile.lastIndexOf('/');
+			final String folder = separator < 0 ? "" : classFile.substring(0, separator);
+			if (!folder.equals(packagePath)) {
+				return false;
+			}
+			final String name = classFile.substring(separator + 1);
+			return name.equals(typeName + ".class") || name.startsWith(typeName + "$");
+		}
+	}
+
+	private final Path cacheFolder;
+
+	/**
+	 * Maps the keys of compilation units to the relative paths of their class files.
+	 */
+	private final Map<String, List<String>> entries = new ConcurrentHashMap<>();
+
+	private final AtomicInteger hits = new AtomicInteger();
+	private final AtomicInteger misses = new AtomicInteger();
+	private final AtomicLong compileTime = new AtomicLong();
+	private final AtomicLong compiledUnits = new AtomicLong();
+
+	/**
+	 * @param cacheFolder The folder in which the cached class files are stored
+	 */
+	public CompilationCache(Path cacheFolder) {
+		this.cacheFolder = cacheFolder;
+	}
+
+	/**
+	 * @param classpath The classpath used for compilation
+	 * @param unitNames The relative names of all compilation units of a variant
+	 * @return The classpath signature of the variant
+	 */
+	public static String getSignature(String classpath, Collection<String> unitNames) {
+		final List<String> sortedNames = new ArrayList<>(unitNames);
+		Collections.sort(sortedNames);
+		final StringBuilder sb = new StringBuilder(classpath);
+		for (final String unitName : sortedNames) {
+			sb.append('\n');
+			sb.append(unitName);
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Creates the compilation units for the composed source files of a variant.
+	 *
+	 * @param sources Maps the relative names of all compilation units of the variant (e.g., <code>pkg/Main.java</code>) to their content
+	 * @param signature The classpath signature of the variant
+	 * @return Maps the names of the given sources to their compilation units
+	 */
+	public Map<String, CompilationUnit> getCompilationUnits(Map<String, byte[]> sources, String signature) {
+		final List<String> unitNames = new ArrayList<>(sources.keySet());
+		Collections.sort(unitNames);
+		final int size = unitNames.size();
+
+		final String[] typeNames = new String[size];
+		final String[] packagePaths = new String[size];
+		final byte[][] contentDigests = new byte[size][];
+		final Map<String, List<Integer>> unitsByTypeName = new HashMap<>();
+		for (int i = 0; i < size; i++) {
+			final String unitName = unitNames.get(i);
+			final String fileName = unitName.substring(unitName.lastIndexOf('/') + 1);
+			typeNames[i] = fileName.endsWith(".java") ? fileName.substring(0, fileName.length() - ".java".length()) : fileName;
+			final byte[] content = sources.get(unitName);
+			final Matcher matcher = PACKAGE_PATTERN.matcher(new String(content, StandardCharsets.UTF_8));
+			packagePaths[i] = matcher.find() ? matcher.group(1).replace('.', '/') : "";
+			contentDigests[i] = createDigest().digest(content);
+			unitsByTypeName.computeIfAbsent(typeNames[i], name -> new ArrayList<>()).add(i);
+		}
+
+		final List<List<Integer>> references = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			final Set<Integer> referencedUnits = new HashSet<>();
+			final Matcher matcher = IDENTIFIER_PATTERN.matcher(new String(sources.get(unitNames.get(i)), StandardCharsets.UTF_8));
+			while (matcher.find()) {
+				final List<Integer> units = unitsByTypeName.get(matcher.group());
+				if (units != null) {
+					referencedUnits.addAll(units);
+				}
+			}
+			references.add(new ArrayList<>(referencedUnits));
+		}
+
+		final Map<String, CompilationUnit> compilationUnits = new HashMap<>();
+		for (int i = 0; i < size; i++) {
+			final boolean[] dependencies = new boolean[size];
+			final ArrayDeque<Integer> stack = new ArrayDeque<>();
+			dependencies[i] = true;
+			stack.push(i);
+			while (!stack.isEmpty()) {
+				for (final int referencedUnit : references.get(stack.pop())) {
+					if (!dependencies[referencedUnit]) {
+						dependencies[referencedUnit] = true;
+						stack.push(referencedUnit);
+					}
+				}
+			}
+
+			final MessageDigest digest = createDigest();
+			digest.update(unitNames.get(i).getBytes(StandardCharsets.UTF_8));
+			digest.update((byte) 0);
+			for (int j = 0; j < size; j++) {
+				if (dependencies[j]) {
+					digest.update(unitNames.get(j).getBytes(StandardCharsets.UTF_8));
+					digest.update((byte) 0);
+					digest.update(contentDigests[j]);
+				}
+			}
+			digest.update(signature.getBytes(StandardCharsets.UTF_8));
+			final StringBuilder key = new StringBuilder();
+			for (final byte b : digest.digest()) {
+				key.append(String.format("%02x", b));
+			}
+			compilationUnits.put(unitNames.get(i), new CompilationUnit(key.toString(), packagePaths[i], typeNames[i]));
+		}
+		return compilationUnits;
+	}
+
+	private static MessageDigest createDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (final NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Copies the cached class files of the given unit into the output folder.
+	 *
+	 * @param unit The compilation unit
+	 * @param outputFolder The output folder of the variant
+	 * @return <code>true</code> if the unit was cached, <code>false</code> if it needs to be compiled
+	 */
+	public boolean restore(CompilationUnit unit, Path outputFolder) {
+		final List<String> classFiles = entries.get(unit.key);
+		if (classFiles != null) {
+			try {
+				final Path entryFolder = cacheFolder.resolve(unit.key);
+				for (final String classFile : classFiles) {
+					final Path target = outputFolder.resolve(classFile);
+					Files.createDirectories(target.getParent());
+					Files.copy(entryFolder.resolve(classFile), target, StandardCopyOption.REPLACE_EXISTING);
+				}
+				hits.incrementAndGet();
+				return true;
+			} catch (final IOException e) {
+				entries.remove(unit.key);
+				UIPlugin.getDefault().logError(e);
+			}
+		}
+		misses.incrementAndGet();
+		return false;
+	}
+
+	/**
+	 * Stores the class files of the compiled units. Units whose class files cannot be identified unambiguously (e.g., due to several top-level types in one
+	 * file) are not cached.
+	 *
+	 * @param units The units that were compiled without errors
+	 * @param restoredUnits The units that were {@link #restore(CompilationUnit, Path) restored} into the output folder before the compilation
+	 * @param outputFolder The output folder of the variant
+	 */
+	public void store(Collection<CompilationUnit> units, Collection<CompilationUnit> restoredUnits, Path outputFolder) {
+		if (units.isEmpty()) {
+			return;
+		}
+		// only consider class files created by the compiler, restored class files are already cached
+		final Set<String> restoredClassFiles = new HashSet<>();
+		for (final CompilationUnit unit : restoredUnits) {
+			final List<String> classFiles = entries.get(unit.key);
+			if (classFiles != null) {
+				restoredClassFiles.addAll(classFiles);
+			}
+		}
+		final List<String> classFiles;
+		try (Stream<Path> stream = Files.walk(outputFolder)) {
+			classFiles = stream.filter(p -> p.toString().endsWith(".class")).map(p -> outputFolder.relativize(p).toString().replace('\\', '/'))
+					.filter(classFile -> !restoredClassFiles.contains(classFile)).collect(Collectors.toList());
+		} catch (final IOException e) {
+			UIPlugin.getDefault().logError(e);
+			return;
+		}
+
+		final Map<CompilationUnit, List<String>> unitClassFiles = new HashMap<>();
+		final Set<String> ambiguousPackages = new HashSet<>();
+		for (final String classFile : classFiles) {
+			boolean found = false;
+			for (final CompilationUnit unit : units) {
+				if (unit.isOrigin(classFile)) {
+					unitClassFiles.computeIfAbsent(unit, u -> new ArrayList<>()).add(classFile);
+					found = true;
+					break;
+				}
+			}
+			if (!found) {
+				final int separator = classFile.lastIndexOf('/');
+				ambiguousPackages.add(separator < 0 ? "" : classFile.substring(0, separator));
+			}
+		}
+
+		for (final Map.Entry<CompilationUnit, List<String>> entry : unitClassFiles.entrySet()) {
+			final CompilationUnit unit = entry.getKey();
+			if (ambiguousPackages.contains(unit.packagePath)) {
+				continue;
+			}
+			entries.computeIfAbsent(unit.key, key -> {
+				try {
+					final Path entryFolder = cacheFolder.resolve(key);
+					for (final String classFile : entry.getValue()) {
+						final Path target = entryFolder.resolve(classFile);
+						Files.createDirectories(target.getParent());
+						Files.copy(outputFolder.resolve(classFile), target, StandardCopyOption.REPLACE_EXISTING);
+					}
+					return entry.getValue();
+				} catch (final IOException e) {
+					UIPlugin.getDefault().logError(e);
+					return null;
+				}
+			});
+		}
+	}
+
+	/**
+	 * Records the time needed to compile the given number of units.
+	 *
+	 * @param units The number of compiled units
+	 * @param time The time in ns
+	 */
+	public void recordCompilation(int units, long time) {
+		compiledUnits.addAndGet(units);
+		compileTime.addAndGet(time);
+	}
+
+	public int getHits() {
+		return hits.get();
+	}
+
+	public int getMisses() {
+		return misses.get();
+	}
+
+	public double getHitRate() {
+		final int total = hits.get() + misses.get();
+		return total == 0 ? 0 : (double) hits.get() / total;
+	}
+
+	/**
+	 * @return The estimated compilation time saved by the cache in ms based on the average compilation time per unit
+	 */
+	public long getSavedTime() {
+		final long units = compiledUnits.get();
+		return units == 0 ? 0 : ((compileTime.get() / units) * hits.get()) / 1_000_000;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("Compilation cache: %d hits, %d misses (%.0f%% hit rate), about %dms compile time saved", getHits(), getMisses(),
+				getHitRate() * 100, getSavedTime());
+	}
+
+}
@@ -32,6 +32,9 @@ import static de.ovgu.featureide.fm.core.localization.StringTable.YASA;
 import java.security.KeyStore.Builder;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IMarker;
@@ -41,6 +44,7 @@ import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.core.runtime.jobs.Job;
@@ -51,7 +55,6 @@ import org.eclipse.jdt.internal.core.JavaProject;
 import de.ovgu.featureide.core.IFeatureProject;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
-import de.ovgu.featureide.fm.core.job.IJob.JobStatus;
 import de.ovgu.featureide.fm.core.job.IRunner;
 import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
@@ -82,6 +85,8 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 
 	private static final UIPlugin LOGGER = UIPlugin.getDefault();
 
+	private static final boolean JUNIT_INSTALLED = Platform.getBundle("org.junit") != null;
+
 	public IFeatureProject featureProject;
 	private FeatureModelFormula featureModel;
 
@@ -121,29 +126,29 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 	private int built;
 
 	/**
-	 * This flag indicates that all jobs should be aborted.
+	 * Saves the time of start.
 	 */
-	boolean cancelGeneratorJobs = false;
+	protected long time;
 
 	/**
-	 * Saves the time of start.
+	 * Which configurations should be built.
 	 */
-	protected long time;
+	BuildType buildType;
 
 	/**
-	 * This flag indicates that no more configurations will be added and the {@link Generator} jobs can finish.
+	 * The pipeline that composes, compiles, and tests the generated configurations.
 	 */
-	boolean finish = false;
+	BuildPipeline pipeline;
 
 	/**
-	 * Which configurations should be built.
+	 * The compiler of the compilation stage, or <code>null</code> if the products are not compiled.
 	 */
-	BuildType buildType;
+	private JavaCompiler compiler;
 
 	/**
-	 * This list contains all {@link Generator} jobs.
+	 * The count of configurations that were added by the configuration generator.
 	 */
-	final List<Generator> generatorJobs = new ArrayList<>();
+	private final AtomicInteger generated = new AtomicInteger();
 
 	public AbstractConfigurationSorter sorter;
 
@@ -158,16 +163,17 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 	 *
 	 * @return The first entry
 	 */
-	public synchronized BuilderConfiguration getConfiguration() {
+	public BuilderConfiguration getConfiguration() {
 		return sorter.getConfiguration();
 	}
 
 	/**
-	 * Adds the given configuration to configurations.
+	 * Adds the given configuration to configurations. Blocks if the build pipeline cannot keep up with the generation of configurations.
 	 *
 	 * @param configuration to add
 	 */
-	public synchronized void addConfiguration(BuilderConfiguration configuration) {
+	public void addConfiguration(BuilderConfiguration configuration) {
+		generated.incrementAndGet();
 		sorter.addConfiguration(configuration);
 	}
 
@@ -294,6 +300,8 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 
 			private IRunner<List<LiteralSet>> configurationBuilderJob;
 
+			private final CountDownLatch generationFinished = new CountDownLatch(1);
+
 			@Override
 			public IStatus run(IProgressMonitor monitor) {
 				try {
@@ -305,20 +313,10 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 
 					time = System.currentTimeMillis();
 
-					if (featureProject.getComposer().canGeneratInParallelJobs()) {
-						if (buildType != BuildType.ALL_CURRENT) {
-							newgeneratorJobs(Runtime.getRuntime().availableProcessors() * 2);
-						} else {
-							int contJobs = Runtime.getRuntime().availableProcessors() * 2;
-							if (configurationNumber < contJobs) {
-								contJobs = (int) configurationNumber;
-							}
-							newgeneratorJobs(contJobs);
-						}
-					} else {
-						newgeneratorJobs(1);
-					}
+					pipeline = createPipeline(buildType);
+					pipeline.start();
 					configurationBuilderJob = LongRunningWrapper.getRunner(configurationGenerator, "Create Configurations " + id++);
+					configurationBuilderJob.addJobFinishedListener(finishedJob -> generationFinished.countDown());
 					configurationBuilderJob.schedule();
 					showStatistics(monitor);
 					if (outputType != OutputType.PROJECT) {
@@ -329,11 +327,13 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 						}
 					}
 				} finally {
-					configurationBuilderJob.cancel();
-					cancelGenerationJobs();
-					for (final Thread g : generatorJobs) {
-						g.interrupt();
+					if (configurationBuilderJob != null) {
+						configurationBuilderJob.cancel();
+					}
+					if (pipeline != null) {
+						pipeline.cancel();
 					}
+					featureProject.getComposer().postBuildConfiguration();
 					monitor.done();
 				}
 				return Status.OK_STATUS;
@@ -341,58 +341,32 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 
 			private void showStatistics(IProgressMonitor monitor) {
 				try {
-					while (configurationBuilderJob.getStatus() == JobStatus.NOT_STARTED) {
-						try {
-							Thread.sleep(150);
-						} catch (final InterruptedException e) {
-							LOGGER.logError(e);
-						}
-					}
-					while (configurationBuilderJob.getStatus() == JobStatus.RUNNING) {
+					// the progress monitor offers no notification for cancellation, thus it is checked while waiting
+					while (!generationFinished.await(150, TimeUnit.MILLISECONDS)) {
 						monitor.setTaskName(getTaskName());
 						if (monitor.isCanceled()) {
 							cancelGenerationJobs();
 							configurationBuilderJob.cancel();
 							return;
 						}
-						try {
-							Thread.sleep(150);
-						} catch (final InterruptedException e) {
-							LOGGER.logError(e);
-						}
 					}
-					System.err.println(configurationBuilderJob.getStatus());
+					final long generationTime = System.currentTimeMillis() - time;
 
+					final long sortingStart = System.currentTimeMillis();
 					if (!sorter.isSorted()) {
 						final IMonitor<?> workMonitor = new ProgressMonitor<>(getTaskName(), monitor);
 						configurationNumber = Math.min(configurationNumber, sorter.sortConfigurations(workMonitor));
 					}
+					final long sortingTime = System.currentTimeMillis() - sortingStart;
 					finish();
 
 					((SubMonitor) monitor).setWorkRemaining((int) configurationNumber - built);
-					while (!generatorJobs.isEmpty()) {
-						try {
-							if (monitor.isCanceled()) {
-								cancelGenerationJobs();
-								break;
-							}
-							final Generator generator = generatorJobs.get(0);
-							if (generator == null) {
-								// generator can never be null, however see #416
-								generatorJobs.remove(0);
-							} else if (generator.getState() == Thread.State.TERMINATED) {
-								generatorJobs.remove(generator);
-								if (sorter.getBufferSize() != 0) {
-									createNewGenerator(generator.nr);
-								}
-							}
-							monitor.setTaskName(getTaskName());
-							Thread.sleep(150);
-						} catch (final InterruptedException e) {
-							LOGGER.logError(e);
-						} catch (final IndexOutOfBoundsException e) {
-							// nothing here
+					while (!pipeline.awaitTermination(150)) {
+						if (monitor.isCanceled()) {
+							cancelGenerationJobs();
+							break;
 						}
+						monitor.setTaskName(getTaskName());
 					}
 
 					final long duration = System.currentTimeMillis() - time;
@@ -405,8 +379,9 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 						built = (int) configurationNumber;
 					}
 					LOGGER.logInfo(built + (configurationNumber != 0 ? OF + configurationNumber : "") + " configurations built in " + t);
-				} finally {
-					generatorJobs.clear();
+					LOGGER.logInfo(getStatistics(generationTime, sortingTime));
+				} catch (final InterruptedException e) {
+					LOGGER.logError(e);
 				}
 			}
 
@@ -542,48 +517,121 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 	}
 
 	/**
-	 * Creates new {@link Generator}s
+	 * Creates the pipeline for the given build type and output type. Composition runs in parallel if the composer supports it. Compilation and tests are only
+	 * part of the pipeline if products of a Java project are generated.
 	 *
-	 * @param count The amount of Generators that will be created.
+	 * @param buildType The build type
+	 * @return The pipeline
 	 */
-	private void newgeneratorJobs(int count) {
-		if (count < 1) {
-			return;
-		}
-
-		if (count == 1) {
-			createNewGenerator(0);
-			return;
+	private BuildPipeline createPipeline(BuildType buildType) {
+		final int processors = Runtime.getRuntime().availableProcessors();
+		final List<BuildStage> stages = new ArrayList<>();
+
+		int compositionJobs = 1;
+		if (featureProject.getComposer().canGeneratInParallelJobs()) {
+			compositionJobs = processors;
+			if ((buildType == BuildType.ALL_CURRENT) && (configurationNumber < compositionJobs)) {
+				compositionJobs = (int) configurationNumber;
+			}
 		}
+		final Generator generator = new Generator(this);
+		stages.add(new BuildStage("Composition", compositionJobs, 2 * compositionJobs) {
 
-		for (; count > 0; count--) {
-			createNewGenerator(count);
+			@Override
+			protected boolean process(BuilderConfiguration configuration, int worker) {
+				generator.generate(configuration);
+				return true;
+			}
+		});
+
+		if ((outputType == OutputType.PRODUCT) && hasJavaNature()) {
+			compiler = new JavaCompiler(this);
+			final boolean test = runTests && JUNIT_INSTALLED;
+			stages.add(new BuildStage("Compilation", processors, 2 * processors) {
+
+				@Override
+				protected boolean process(BuilderConfiguration configuration, int worker) throws CoreException {
+					final IFolder binFolder = compiler.compile(configuration);
+					if (!test) {
+						binFolder.delete(true, null);
+					}
+					return true;
+				}
+			});
+			if (test) {
+				final TestRunner testRunner = new TestRunner(tmp, testResults, this);
+				// the test runner replaces the global security manager, thus, tests are not executed in parallel
+				stages.add(new BuildStage("Test", 1, 2) {
+
+					@Override
+					protected boolean process(BuilderConfiguration configuration, int worker) throws CoreException {
+						final IFolder binFolder = compiler.getBinFolder(configuration);
+						try {
+							testRunner.runTests(configuration, binFolder);
+						} finally {
+							binFolder.delete(true, null);
+						}
+						return true;
+					}
+				});
+			}
 		}
+		return new BuildPipeline(sorter, stages, configuration -> builtConfiguration());
 	}
 
-	/**
-	 * Created a new {@link Generator} with the given number
-	 *
-	 * @param nr
-	 */
-	void createNewGenerator(int nr) {
-		final Generator g = new Generator(nr, this);
-		generatorJobs.add(g);
-		g.start();
+	private boolean hasJavaNature() {
+		try {
+			return featureProject.getProject().hasNature(Generator.JAVA_NATURE);
+		} catch (final CoreException e) {
+			LOGGER.logError(e);
+			return false;
+		}
 	}
 
 	/**
 	 * This is called if the main job is canceled and all {@link Builder} and {@link JavaCompiler} should finish.
 	 */
 	public void cancelGenerationJobs() {
-		cancelGeneratorJobs = true;
+		if (pipeline != null) {
+			pipeline.cancel();
+		} else {
+			sorter.close();
+		}
 	}
 
 	/**
 	 * This is called if the main job has finished and no more configurations will be added.
 	 */
 	public void finish() {
-		finish = true;
+		sorter.close();
+	}
+
+	/**
+	 * @param generationTime The time needed to generate all configurations in ms
+	 * @param sortingTime The time needed to sort all configurations in ms
+	 * @return The throughput of all stages of the build pipeline.
+	 */
+	private String getStatistics(long generationTime, long sortingTime) {
+		final StringBuilder sb = new StringBuilder("Build statistics:");
+		sb.append("\n\tGeneration: ");
+		sb.append(generated.get());
+		sb.append(" configurations in ");
+		sb.append(generationTime);
+		sb.append("ms");
+		sb.append("\n\tSorting: ");
+		sb.append(sortingTime);
+		sb.append("ms");
+		if (pipeline != null) {
+			for (final BuildStage stage : pipeline.getStages()) {
+				sb.append("\n\t");
+				sb.append(stage);
+			}
+		}
+		if (compiler != null) {
+			sb.append("\n\t");
+			sb.append(compiler.getCache());
+		}
+		return sb.toString();
 	}
 
 	/**
@@ -599,7 +647,7 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 			final long h = duration / (60 * 60 * 1000);
 			t = " " + h + "h " + (min < 10 ? "0" + min : min) + "min " + (s < 10 ? "0" + s : s) + "s.";
 		}
-		final long buffer = sorter.getBufferSize();
+		final long buffer = sorter.getBufferSize() + (pipeline != null ? pipeline.getBufferSize() : 0);
 		return "Built configurations: " + built + "/" + (configurationNumber == Integer.MAX_VALUE ? COUNTING___ : configurationNumber) + "(" + buffer
 			+ " buffered)" + " Expected time: " + t;
 	}
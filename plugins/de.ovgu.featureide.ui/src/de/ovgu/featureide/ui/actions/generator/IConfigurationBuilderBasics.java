@@ -105,6 +105,7 @@ public interface IConfigurationBuilderBasics {
 	String FOLDER_NAME = PRODUCTS;
 	String FOLDER_NAME_CURRENT = "currentproducts";
 	String TEMPORARY_BIN_FOLDER = ".tmpBin";
+	String COMPILATION_CACHE_FOLDER = ".cache";
 
 	String PROBLEM_MARKER = CorePlugin.PLUGIN_ID + ".variantMarker";
 	String ERROR_IGNOR_RAW_TYPE = "raw type";
@@ -27,8 +27,15 @@ import static de.ovgu.featureide.fm.core.localization.StringTable.SYMBOL;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
 import java.util.TreeMap;
 import java.util.regex.Matcher;
@@ -39,71 +46,113 @@ import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
-import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jdt.core.compiler.batch.BatchCompiler;
 
 import de.ovgu.featureide.ui.UIPlugin;
+import de.ovgu.featureide.ui.actions.generator.CompilationCache.CompilationUnit;
 
 /**
- * This {@link Job} compiles all configurations of the corresponding {@link Generator}
+ * Compiles the configurations of the compilation stage of the {@link BuildPipeline}.
  *
  * @author Jens Meinicke
  */
 public class JavaCompiler implements IConfigurationBuilderBasics {
 
-	private final Generator generator;
+	private final ConfigurationBuilder builder;
 
-	/**
-	 * The parent folder of the generated variants
-	 */
-	final IFolder tmp;
+	private final CompilationCache cache;
 
 	/**
 	 *
-	 * @param nr The number of the compiler
-	 * @param generator The generator holding this compiler
+	 * @param builder The builder holding this compiler
 	 */
-	public JavaCompiler(int nr, Generator generator) {
-		this.generator = generator;
-
-		tmp = generator.builder.tmp.getFolder(COMPILER + nr);
-		if (!tmp.exists()) {
-			try {
-				tmp.create(true, true, null);
-			} catch (final CoreException e) {
-				UIPlugin.getDefault().logError(e);
-			}
-		}
-
+	public JavaCompiler(ConfigurationBuilder builder) {
+		this.builder = builder;
+		cache = new CompilationCache(Paths.get(builder.tmp.getFolder(COMPILATION_CACHE_FOLDER).getRawLocation().toOSString()));
 	}
 
 	/**
 	 * Compiles the given configuration.
 	 *
 	 * @param configuration The configuration to build
+	 * @return The temporary folder containing the binary files of the configuration
 	 * @throws CoreException
 	 */
-	protected void compile(BuilderConfiguration configuration) throws CoreException {
+	protected IFolder compile(BuilderConfiguration configuration) throws CoreException {
 		try {
-			generator.builder.folder.getFolder(configuration.getName()).refreshLocal(IResource.DEPTH_INFINITE, null);
+			builder.folder.getFolder(configuration.getName()).refreshLocal(IResource.DEPTH_INFINITE, null);
 		} catch (final CoreException e) {
 			UIPlugin.getDefault().logError(e);
 		}
-		for (final IResource file : tmp.members()) {
-			file.delete(true, null);
+		final IFolder binFolder = getBinFolder(configuration);
+		if (binFolder.exists()) {
+			for (final IResource file : binFolder.members()) {
+				file.delete(true, null);
+			}
+		} else {
+			binFolder.create(true, true, null);
 		}
-		compile(configuration.getName());
+		compile(configuration.getName(), binFolder);
+		return binFolder;
+	}
+
+	/**
+	 * @param configuration The configuration
+	 * @return The temporary folder for the binary files of the given configuration
+	 */
+	IFolder getBinFolder(BuilderConfiguration configuration) {
+		return builder.tmp.getFolder(COMPILER + configuration.getName());
 	}
 
 	/**
-	 * Compiles the built configuration to create error markers. The binary files will be placed into an temporary folder.
+	 * Compiles the built configuration to create error markers. The binary files will be placed into an temporary folder.<br> Compilation units that were
+	 * already compiled for another variant are taken from the {@link CompilationCache}, only the remaining units are passed to the compiler.
 	 *
 	 * @param confName
+	 * @param binFolder
 	 */
-	private void compile(String confName) {
-		final LinkedList<IFile> files = getJavaFiles(generator.builder.folder.getFolder(confName));
-		final LinkedList<String> options = new LinkedList<>();
+	private void compile(String confName, IFolder binFolder) {
+		final IFolder variantFolder = builder.folder.getFolder(confName);
+		final LinkedList<IFile> files = getJavaFiles(variantFolder);
+		final Path binPath = Paths.get(binFolder.getRawLocation().toOSString());
+
+		final Map<IFile, String> unitNames = new HashMap<>();
+		final Map<String, byte[]> sources = new HashMap<>();
 		for (final IFile file : files) {
+			final String unitName = file.getFullPath().makeRelativeTo(variantFolder.getFullPath()).toString();
+			unitNames.put(file, unitName);
+			try {
+				sources.put(unitName, Files.readAllBytes(Paths.get(file.getLocation().toOSString())));
+			} catch (final IOException e) {
+				UIPlugin.getDefault().logError(e);
+			}
+		}
+
+		final LinkedList<IFile> changedFiles = new LinkedList<>();
+		final Map<IFile, CompilationUnit> changedUnits = new HashMap<>();
+		final List<CompilationUnit> restoredUnits = new ArrayList<>();
+		if (sources.size() == files.size()) {
+			final String signature = CompilationCache.getSignature(builder.classpath, sources.keySet());
+			final Map<String, CompilationUnit> units = cache.getCompilationUnits(sources, signature);
+			for (final IFile file : files) {
+				final CompilationUnit unit = units.get(unitNames.get(file));
+				if (cache.restore(unit, binPath)) {
+					restoredUnits.add(unit);
+				} else {
+					changedFiles.add(file);
+					changedUnits.put(file, unit);
+				}
+			}
+		} else {
+			// the dependencies of the units are unknown, thus, nothing can be taken from the cache
+			changedFiles.addAll(files);
+		}
+		if (changedFiles.isEmpty()) {
+			return;
+		}
+
+		final LinkedList<String> options = new LinkedList<>();
+		for (final IFile file : changedFiles) {
 			options.add(setupPath(file));
 		}
 		options.add("-g");
@@ -111,15 +160,28 @@ public class JavaCompiler implements IConfigurationBuilderBasics {
 		options.add("-source");
 		options.add("1.7");
 		options.add("-d");
-		options.add(setupPath(tmp.getRawLocation().toOSString()));
+		options.add(setupPath(binPath.toString()));
 		options.add("-classpath");
-		options.add(generator.builder.classpath);
+		final String binClassPath = "\"" + binPath.toString() + "\"";
+		options.add(builder.classpath.isEmpty() ? binClassPath : builder.classpath + System.getProperty("path.separator") + binClassPath);
 
+		final long start = System.nanoTime();
 		final String output = process(options);
-		final LinkedList<IFile> errorFiles = parseJavacOutput(output, files, confName);
+		cache.recordCompilation(changedFiles.size(), System.nanoTime() - start);
+
+		final LinkedList<IFile> errorFiles = parseJavacOutput(output, changedFiles, confName);
 		for (final IFile file : errorFiles) {
-			generator.builder.featureProject.getComposer().postCompile(null, file);
+			builder.featureProject.getComposer().postCompile(null, file);
+			changedUnits.remove(file);
 		}
+		cache.store(changedUnits.values(), restoredUnits, binPath);
+	}
+
+	/**
+	 * @return The cache for compilation units shared by all variants
+	 */
+	public CompilationCache getCache() {
+		return cache;
 	}
 
 	/**
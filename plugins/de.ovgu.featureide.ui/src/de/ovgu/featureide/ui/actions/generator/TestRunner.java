@@ -90,11 +90,21 @@ public class TestRunner {
 
 	}
 
-	@SuppressWarnings(RESOURCE)
 	public void runTests(final BuilderConfiguration configuration) {
-		final URL[] url = getURLs();
+		runTests(configuration, tmp);
+	}
+
+	/**
+	 * Runs the tests of the given configuration.
+	 *
+	 * @param configuration The configuration
+	 * @param binFolder The folder containing the compiled classes of the configuration
+	 */
+	@SuppressWarnings(RESOURCE)
+	public void runTests(final BuilderConfiguration configuration, final IFolder binFolder) {
+		final URL[] url = getURLs(binFolder);
 		final URLClassLoader classLoader = new URLClassLoader(url, Thread.currentThread().getContextClassLoader());
-		for (final String file : getFiles(tmp)) {
+		for (final String file : getFiles(binFolder)) {
 			try {
 				final Class<?> clazz = classLoader.loadClass(file);
 
@@ -171,10 +181,10 @@ public class TestRunner {
 
 	}
 
-	private URL[] getURLs() {
+	private URL[] getURLs(IFolder binFolder) {
 		final ArrayList<URL> urls = new ArrayList<>();
 		try {
-			URL url = tmp.getLocationURI().toURL();
+			URL url = binFolder.getLocationURI().toURL();
 			url = new URL(url.toString() + "/");
 			urls.add(url);
 
@@ -35,6 +35,12 @@ import de.ovgu.featureide.ui.actions.generator.BuilderConfiguration;
  */
 public class AbstractConfigurationSorter {
 
+	/**
+	 * The maximal number of buffered configurations if configurations are passed on as soon as they are added. If the buffer is full, the generation of
+	 * configurations blocks until the build pipeline took a configuration.
+	 */
+	private static final int BUFFER_LIMIT = 256;
+
 	/**
 	 * This list contains all found configurations to built.<br> Use <code>getConfiguration()</code> and <code>setConfiguration(c)</code> for synchronizing.
 	 */
@@ -44,13 +50,26 @@ public class AbstractConfigurationSorter {
 
 	protected boolean sorted = true;
 
+	/**
+	 * Indicates that no more configurations will be added.
+	 */
+	private boolean closed = false;
+
+	/**
+	 * Indicates that the sorter is running and the configurations in the buffer are already in their final order.
+	 */
+	private boolean publishing = false;
+
 	public AbstractConfigurationSorter(final IFeatureModel featureModel) {
 		concreteFeatures = FeatureUtils.extractConcreteFeaturesAsStringList(featureModel);// TODO move to implementations
 	}
 
 	public int sortConfigurations(final IMonitor<?> monitor) {
 		final int numberOfConfigurations = sort(monitor);
-		sorted = true;
+		synchronized (this) {
+			sorted = true;
+			notifyAll();
+		}
 		return numberOfConfigurations;
 	}
 
@@ -58,17 +77,84 @@ public class AbstractConfigurationSorter {
 		return configurations.size();
 	}
 
+	/**
+	 * Adds a configuration. If the configurations are passed on unsorted and the buffer is full, this method blocks until a configuration was taken.
+	 *
+	 * @param configuration the configuration to add
+	 */
 	public synchronized void addConfiguration(BuilderConfiguration configuration) {
+		while (sorted && !closed && (configurations.size() >= BUFFER_LIMIT)) {
+			try {
+				wait();
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
 		configurations.add(configuration);
+		notifyAll();
 	}
 
 	public synchronized BuilderConfiguration getConfiguration() {
-		if (!sorted || configurations.isEmpty()) {
+		if (!isAvailable()) {
 			return null;
 		}
+		notifyAll();
+		return configurations.pop();
+	}
+
+	/**
+	 * Waits until a sorted configuration is available.
+	 *
+	 * @return the next configuration or <code>null</code> if the sorter was closed and there are no more configurations
+	 * @throws InterruptedException if the calling thread was interrupted while waiting
+	 */
+	public synchronized BuilderConfiguration takeConfiguration() throws InterruptedException {
+		while (!isAvailable()) {
+			if (closed) {
+				return null;
+			}
+			wait();
+		}
+		notifyAll();
 		return configurations.pop();
 	}
 
+	private boolean isAvailable() {
+		return (sorted || publishing) && !configurations.isEmpty();
+	}
+
+	/**
+	 * Removes all configurations from the buffer, such that sorted configurations can be passed on via {@link #publish(BuilderConfiguration)} while sorting
+	 * continues.
+	 *
+	 * @return The unsorted configurations
+	 */
+	protected synchronized LinkedList<BuilderConfiguration> startPublishing() {
+		final LinkedList<BuilderConfiguration> unsortedConfigurations = configurations;
+		configurations = new LinkedList<>();
+		publishing = true;
+		return unsortedConfigurations;
+	}
+
+	/**
+	 * Passes on a configuration whose position in the order is final. Waiting consumers can take it immediately.
+	 *
+	 * @param configuration The sorted configuration
+	 */
+	protected synchronized void publish(BuilderConfiguration configuration) {
+		configurations.add(configuration);
+		notifyAll();
+	}
+
+	/**
+	 * Signals that no more configurations will be added and wakes up all waiting threads.
+	 */
+	public synchronized void close() {
+		closed = true;
+		notifyAll();
+	}
+
 	public int getBufferSize() {
 		return configurations.size();
 	}
@@ -21,15 +21,19 @@
 package de.ovgu.featureide.ui.actions.generator.sorter;
 
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Set;
+import java.util.stream.Collectors;
 
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet.Order;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor.MethodCancelException;
@@ -37,7 +41,12 @@ import de.ovgu.featureide.ui.UIPlugin;
 import de.ovgu.featureide.ui.actions.generator.BuilderConfiguration;
 
 /**
- * Sorts Configurations by interactions they cover.
+ * Sorts Configurations by interactions they cover.<br> Interactions are encoded as long keys, in which each literal uses a fixed number of bits, and stored
+ * in a {@link LongHashSet}. If t literals do not fit into one long, the interactions are stored as {@link LiteralSet}s instead.<br> The configurations are
+ * ordered greedily. The gain of each configuration, i.e., the number of its interactions that are not covered yet, is maintained incrementally: If a selected
+ * configuration covers a new interaction, the gain of all configurations containing this interaction is decreased. These configurations are found by
+ * intersecting the sets of configurations containing each literal of the interaction. Each selected configuration is passed on immediately, such that
+ * building can start while sorting continues.
  *
  * @author Jens Meinicke
  */
@@ -47,10 +56,62 @@ public class InteractionSorter extends AbstractConfigurationSorter {
 
 	private final int t;
 
-	private final Map<BuilderConfiguration, Set<Interaction>> interactions = new HashMap<BuilderConfiguration, Set<Interaction>>();
-
 	private final boolean skippConfigurations;
 
+	private int numberOfFeatures;
+
+	private volatile int pending = 0;
+
+	/**
+	 * A configuration with its gain, i.e., the number of interactions it covers that are not covered by previously selected configurations.
+	 */
+	private static class Candidate {
+
+		private final BuilderConfiguration configuration;
+		private final boolean[] selection;
+		private long gain;
+
+		/**
+		 * The gain of the candidate when it was added to the priority queue. As gains only decrease, it is an upper bound of the current gain.
+		 */
+		private long queuedGain;
+
+		Candidate(BuilderConfiguration configuration, boolean[] selection) {
+			this.configuration = configuration;
+			this.selection = selection;
+		}
+	}
+
+	/**
+	 * The set of covered interactions.
+	 */
+	@FunctionalInterface
+	private interface InteractionSet {
+
+		/**
+		 * @param literals The literals of the interaction in ascending order
+		 * @param size The number of literals of the interaction
+		 * @return <code>true</code> if the interaction was not contained in the set
+		 */
+		boolean add(int[] literals, int size);
+	}
+
+	private static final Comparator<Candidate> CANDIDATE_COMPARATOR = (c1, c2) -> {
+		final int result = Long.compare(c2.queuedGain, c1.queuedGain);
+		return result != 0 ? result : c1.configuration.getName().compareTo(c2.configuration.getName());
+	};
+
+	private List<Candidate> candidates;
+
+	/**
+	 * For each literal (<code>2 * feature + (selected ? 1 : 0)</code>), the indices of all candidates containing it.
+	 */
+	private BitSet[] candidatesByLiteral;
+
+	private final BitSet containingCandidates = new BitSet();
+
+	private InteractionSet covered;
+
 	public InteractionSorter(final int t, final IFeatureModel featureModel, final boolean skippConfigurations) {
 		super(featureModel);
 		super.sorted = false;
@@ -65,155 +126,167 @@ public class InteractionSorter extends AbstractConfigurationSorter {
 	 */
 	@Override
 	public int sort(final IMonitor<?> monitor) {
-		for (final BuilderConfiguration c : configurations) {
-			try {
+		final LinkedList<BuilderConfiguration> unsortedConfigurations = startPublishing();
+		pending = unsortedConfigurations.size();
+
+		final List<String> features = new ArrayList<>(concreteFeatures);
+		numberOfFeatures = features.size();
+
+		try {
+			candidates = unsortedConfigurations.parallelStream().map(configuration -> {
 				monitor.checkCancel();
-			} catch (final MethodCancelException e) {
-				configurations.clear();
-				return 0;
+				final Set<String> selectedFeatures = configuration.getSelectedFeatureNames();
+				final boolean[] selection = new boolean[numberOfFeatures];
+				for (int i = 0; i < numberOfFeatures; i++) {
+					selection[i] = selectedFeatures.contains(features.get(i));
+				}
+				return new Candidate(configuration, selection);
+			}).collect(Collectors.toList());
+		} catch (final MethodCancelException e) {
+			return cancel();
+		}
+
+		candidatesByLiteral = new BitSet[2 * numberOfFeatures];
+		for (int i = 0; i < candidatesByLiteral.length; i++) {
+			candidatesByLiteral[i] = new BitSet(candidates.size());
+		}
+		for (int c = 0; c < candidates.size(); c++) {
+			final boolean[] selection = candidates.get(c).selection;
+			for (int i = 0; i < numberOfFeatures; i++) {
+				candidatesByLiteral[literal(selection, i)].set(c);
 			}
-			interactions.put(c, new HashSet<Interaction>(concreteFeatures.size() * (10 ^ t)));
-			getInteractions(interactions.get(c), c.getSelectedFeatureNames(), new ArrayList<String>(0), new ArrayList<String>(0), 1, null);
-			monitor.worked();
 		}
+		covered = createInteractionSet();
 
-		final LinkedList<BuilderConfiguration> sorted = new LinkedList<>();
-		while (!interactions.isEmpty()) {
+		// without covered interactions all configurations have the same gain
+		final long initialGain = countInteractions();
+		final PriorityQueue<Candidate> queue = new PriorityQueue<>(Math.max(1, candidates.size()), CANDIDATE_COMPARATOR);
+		for (final Candidate candidate : candidates) {
+			candidate.gain = initialGain;
+			candidate.queuedGain = initialGain;
+			queue.add(candidate);
+		}
+
+		int numberOfConfigurations = 0;
+		while (!queue.isEmpty()) {
 			try {
 				monitor.checkCancel();
 			} catch (final MethodCancelException e) {
-				configurations.clear();
-				return 0;
+				return cancel();
 			}
 
-			final BuilderConfiguration mostCovering = getMostCoveringConfiguration(interactions);
-			final Set<Interaction> coveredInteractions = interactions.get(mostCovering);
-			if (coveredInteractions.isEmpty()) {
-				if (skippConfigurations) {
-					LOGGER.logInfo(interactions.size() + " solutions skipped because interactions are already covered!");
-				} else {
-					sorted.addAll(interactions.keySet());
-				}
-				interactions.clear();
+			final Candidate top = queue.poll();
+			if (top.queuedGain != top.gain) {
+				// outdated upper bound
+				top.queuedGain = top.gain;
+				queue.add(top);
+			} else if (top.gain == 0) {
+				// gain is up to date and all other gains are upper bounds
+				queue.add(top);
 				break;
+			} else {
+				markCovered(top.selection, 0, 0, new int[t]);
+				publish(top.configuration);
+				pending--;
+				numberOfConfigurations++;
+				monitor.worked();
 			}
-			sorted.add(mostCovering);
-			interactions.remove(mostCovering);
-			for (final Set<Interaction> interaction : interactions.values()) {
-				interaction.removeAll(coveredInteractions);
+		}
+
+		if (!queue.isEmpty()) {
+			if (skippConfigurations) {
+				LOGGER.logInfo(queue.size() + " solutions skipped because interactions are already covered!");
+			} else {
+				final List<Candidate> remaining = new ArrayList<>(queue);
+				Collections.sort(remaining, (c1, c2) -> c1.configuration.getName().compareTo(c2.configuration.getName()));
+				for (final Candidate candidate : remaining) {
+					publish(candidate.configuration);
+					numberOfConfigurations++;
+				}
 			}
-			monitor.worked();
 		}
-		configurations = sorted;
-		return configurations.size();
+		candidates = null;
+		candidatesByLiteral = null;
+		covered = null;
+		pending = 0;
+		return numberOfConfigurations;
+	}
+
+	private int cancel() {
+		synchronized (this) {
+			configurations.clear();
+		}
+		candidates = null;
+		candidatesByLiteral = null;
+		covered = null;
+		pending = 0;
+		return 0;
 	}
 
 	@Override
 	public int getBufferSize() {
-		return interactions.size() + configurations.size();
+		return pending + configurations.size();
 	}
 
-	/**
-	 * Gets the configuration that covers the most interactions that are left.<br> Basically, the configurations with the greatest set of interactions.
-	 */
-	private BuilderConfiguration getMostCoveringConfiguration(final Map<BuilderConfiguration, Set<Interaction>> interactions) {
-		BuilderConfiguration mostCovering = null;
-		int longest = -1;
-		for (final BuilderConfiguration config : interactions.keySet()) {
-			final int size = interactions.get(config).size();
-			if (size > longest) {
-				longest = size;
-				mostCovering = config;
-			} else if (size == longest) {
-				if (mostCovering.getName().compareTo(config.getName()) > 0) {
-					mostCovering = config;
-				}
-			}
-		}
-		return mostCovering;
+	private static int literal(boolean[] selection, int feature) {
+		return (2 * feature) + (selection[feature] ? 1 : 0);
 	}
 
 	/**
-	 * Calculate the interactions of one configuration.
-	 *
-	 * @param interactions The set where the interactions are stored
-	 * @param configSelectedFeatures The selected feature of the current configuration
-	 * @param selectedFeatures The selected features of the current interaction
-	 * @param unselectedFeatures The unselected feature of the current interaction
-	 * @param t The current size of the interaction
-	 * @param lastFeature A marker for the last feature
+	 * @return The number of interactions of each configuration, i.e., the number of feature combinations with at most t features.
 	 */
-	private void getInteractions(final Set<Interaction> interactions, final Set<String> configSelectedFeatures, final List<String> selectedFeatures,
-			final List<String> unselectedFeatures, final int t, final String lastFeature) {
-		if (t > this.t) {
-			return;
+	private long countInteractions() {
+		long count = 0;
+		long combinations = 1;
+		for (int k = 1; k <= Math.min(t, numberOfFeatures); k++) {
+			combinations = (combinations * ((numberOfFeatures - k) + 1)) / k;
+			count += combinations;
 		}
+		return count;
+	}
 
-		boolean marker = lastFeature == null;
-		for (final String feature : concreteFeatures) {
-			if (!marker && feature.equals(lastFeature)) {
-				// skip all features until the feature of the last iteration is found
-				marker = true;
-				continue;
-			}
-			if (marker) {
-				List<String> selected = selectedFeatures;
-				List<String> unselected = unselectedFeatures;
-
-				if (configSelectedFeatures.contains(feature)) {
-					// CASE selected
-					selected = new ArrayList<String>(t);
-					selected.addAll(selectedFeatures);
-					selected.add(feature);
-					selected = Collections.unmodifiableList(selected);
-				} else {
-					// CASE unselected
-					unselected = new ArrayList<String>(t);
-					unselected.addAll(unselectedFeatures);
-					unselected.add(feature);
-					unselected = Collections.unmodifiableList(unselected);
+	private InteractionSet createInteractionSet() {
+		final int bits = 64 - Long.numberOfLeadingZeros(2L * numberOfFeatures);
+		if ((bits * t) < 64) {
+			// the packed key is unique, as all literals are greater than zero
+			final LongHashSet keys = new LongHashSet(1024);
+			return (literals, size) -> {
+				long key = 0;
+				for (int i = 0; i < size; i++) {
+					key = (key << bits) | (literals[i] + 1);
 				}
-				interactions.add(new Interaction(selected, unselected));
-				getInteractions(interactions, configSelectedFeatures, selected, unselected, t + 1, feature);
-			}
+				return keys.add(key);
+			};
+		} else {
+			final HashSet<LiteralSet> interactions = new HashSet<>();
+			return (literals, size) -> interactions.add(new LiteralSet(Arrays.copyOf(literals, size), Order.UNORDERED, false));
 		}
 	}
 
-	private class Interaction {
-
-		private final Collection<String> selectedFeatures;
-		private final Collection<String> unselectedFeatures;
-		private final int hashCode;
-
-		/**
-		 * Represents an interaction between n selected features and m unselected features.
-		 */
-		Interaction(final Collection<String> selectedFeatures, final Collection<String> unselectedFeatures) {
-			this.selectedFeatures = selectedFeatures;
-			this.unselectedFeatures = unselectedFeatures;
-
-			// TODO _Sebastian Revise Hash Function
-			int hash = 0;
-			for (final String feature : selectedFeatures) {
-				hash = (hash * 3) + feature.hashCode();
+	/**
+	 * Adds all interactions of the given configuration to the covered interactions and decreases the gain of all configurations that contain a newly covered
+	 * interaction.
+	 */
+	private void markCovered(boolean[] selection, int start, int size, int[] literals) {
+		for (int i = start; i < numberOfFeatures; i++) {
+			literals[size] = literal(selection, i);
+			if (covered.add(literals, size + 1)) {
+				decreaseGains(literals, size + 1);
 			}
-			for (final String feature : unselectedFeatures) {
-				hash += (hash * 7) + feature.hashCode();
+			if ((size + 1) < t) {
+				markCovered(selection, i + 1, size + 1, literals);
 			}
-			hashCode = hash;
 		}
+	}
 
-		@Override
-		public boolean equals(final Object obj) {
-			if (obj.hashCode() != hashCode()) {
-				return false;
-			}
-			return selectedFeatures.equals(((Interaction) obj).selectedFeatures) && unselectedFeatures.equals(((Interaction) obj).unselectedFeatures);
+	private void decreaseGains(int[] literals, int size) {
+		containingCandidates.clear();
+		containingCandidates.or(candidatesByLiteral[literals[0]]);
+		for (int i = 1; i < size; i++) {
+			containingCandidates.and(candidatesByLiteral[literals[i]]);
 		}
-
-		@Override
-		public int hashCode() {
-			return hashCode;
+		for (int c = containingCandidates.nextSetBit(0); c >= 0; c = containingCandidates.nextSetBit(c + 1)) {
+			candidates.get(c).gain--;
 		}
 	}
 
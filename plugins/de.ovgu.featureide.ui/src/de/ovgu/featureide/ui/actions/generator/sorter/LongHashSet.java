@@ -0,0 +1,88 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.ui.actions.generator.sorter;
+
+/**
+ * Hash set of primitive long values using open addressing. The value <code>0</code> is reserved and cannot be stored.
+ */
+class LongHashSet {
+
+	private long[] table;
+	private int size = 0;
+	private int mask;
+
+	LongHashSet(int expectedSize) {
+		int capacity = 16;
+		while (capacity < (expectedSize * 2)) {
+			capacity <<= 1;
+		}
+		table = new long[capacity];
+		mask = capacity - 1;
+	}
+
+	private static int index(long key, int mask) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		h ^= h >>> 32;
+		return (int) h & mask;
+	}
+
+	boolean add(long key) {
+		if (key == 0) {
+			throw new IllegalArgumentException("0 cannot be stored");
+		}
+		int i = index(key, mask);
+		while (true) {
+			final long entry = table[i];
+			if (entry == 0) {
+				table[i] = key;
+				if (++size > (table.length >> 1)) {
+					grow();
+				}
+				return true;
+			} else if (entry == key) {
+				return false;
+			}
+			i = (i + 1) & mask;
+		}
+	}
+
+	private void grow() {
+		final long[] oldTable = table;
+		final long[] newTable = new long[oldTable.length << 1];
+		final int newMask = newTable.length - 1;
+		for (final long key : oldTable) {
+			if (key != 0) {
+				int i = index(key, newMask);
+				while (newTable[i] != 0) {
+					i = (i + 1) & newMask;
+				}
+				newTable[i] = key;
+			}
+		}
+		table = newTable;
+		mask = newMask;
+	}
+
+	int size() {
+		return size;
+	}
+
+}
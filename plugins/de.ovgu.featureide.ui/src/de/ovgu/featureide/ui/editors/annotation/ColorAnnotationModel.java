@@ -47,6 +47,7 @@ import org.eclipse.jface.text.source.IAnnotationModel;
 import org.eclipse.jface.text.source.IAnnotationModelExtension;
 import org.eclipse.jface.text.source.IAnnotationModelListener;
 import org.eclipse.jface.text.source.IAnnotationModelListenerExtension;
+import org.eclipse.swt.widgets.Display;
 import org.eclipse.ui.IEditorInput;
 import org.eclipse.ui.IEditorPart;
 import org.eclipse.ui.IPropertyListener;
@@ -63,9 +64,11 @@ import de.ovgu.featureide.core.fstmodel.FSTFeature;
 import de.ovgu.featureide.core.fstmodel.FSTField;
 import de.ovgu.featureide.core.fstmodel.FSTMethod;
 import de.ovgu.featureide.core.fstmodel.FSTModel;
+import de.ovgu.featureide.core.fstmodel.FSTModelEvent;
 import de.ovgu.featureide.core.fstmodel.FSTRole;
 import de.ovgu.featureide.core.fstmodel.RoleElement;
 import de.ovgu.featureide.core.fstmodel.preprocessor.FSTDirective;
+import de.ovgu.featureide.core.listeners.IFSTModelListener;
 import de.ovgu.featureide.fm.core.base.IFeature;
 import de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent;
 import de.ovgu.featureide.fm.core.base.event.IEventListener;
@@ -100,6 +103,10 @@ public final class ColorAnnotationModel implements IAnnotationModel {
 	private final IFeatureProject project;
 	private final IComposerExtensionClass composer;
 	private final IFile file;
+	private final ITextEditor editor;
+
+	/** true if the FSTModel was updated for the file since the last save */
+	private volatile boolean modelUpdated = false;
 
 	private int openConnections = 0;
 	private int docLines, docLength;
@@ -111,6 +118,24 @@ public final class ColorAnnotationModel implements IAnnotationModel {
 			updateAnnotations(true);
 		}
 	};
+	private final IFSTModelListener fstModelListener = new IFSTModelListener() {
+
+		@Override
+		public void fstModelChanged(FSTModelEvent event) {
+			if ((event.getFeatureProject() == project) && event.affectsClass(FSTModel.getAbsoluteClassName(file, project))) {
+				modelUpdated = true;
+				Display.getDefault().asyncExec(new Runnable() {
+
+					@Override
+					public void run() {
+						if (!editor.isDirty()) {
+							updateAnnotations(true);
+						}
+					}
+				});
+			}
+		}
+	};
 	private final IDocumentListener documentListener = new IDocumentListener() {
 
 		@Override
@@ -133,12 +158,14 @@ public final class ColorAnnotationModel implements IAnnotationModel {
 		this.document = document;
 		this.project = project;
 		this.file = file;
+		this.editor = editor;
 		composer = project.getComposer();
 
 		docLines = document.getNumberOfLines();
 		docLength = document.getLength();
 
 		FeatureColorManager.addListener(colorChangeListener);
+		CorePlugin.getDefault().addFSTModelListener(fstModelListener);
 
 		updateAnnotations(true);
 
@@ -147,7 +174,11 @@ public final class ColorAnnotationModel implements IAnnotationModel {
 			@Override
 			public void propertyChanged(Object source, int propId) {
 				if ((propId == IEditorPart.PROP_DIRTY) && !((ITextEditor) source).isDirty()) {
-					composer.buildFSTModel();
+					// composers with incremental FSTModel updates have already patched the roles of the saved file
+					if (!modelUpdated) {
+						composer.buildFSTModel();
+					}
+					modelUpdated = false;
 					updateAnnotations(true);
 				}
 			}
@@ -222,7 +253,10 @@ public final class ColorAnnotationModel implements IAnnotationModel {
 			if (model instanceof IAnnotationModelExtension) {
 				final IAnnotationModelExtension modelex = (IAnnotationModelExtension) model;
 
-				modelex.removeAnnotationModel(KEY);
+				final IAnnotationModel colormodel = modelex.removeAnnotationModel(KEY);
+				if (colormodel instanceof ColorAnnotationModel) {
+					CorePlugin.getDefault().removeFSTModelListener(((ColorAnnotationModel) colormodel).fstModelListener);
+				}
 			}
 		}
 	}
@@ -115,7 +115,9 @@ import de.ovgu.featureide.core.IFeatureProject;
 import de.ovgu.featureide.core.builder.IComposerExtensionClass;
 import de.ovgu.featureide.core.fstmodel.FSTConfiguration;
 import de.ovgu.featureide.core.fstmodel.FSTModel;
+import de.ovgu.featureide.core.fstmodel.FSTModelEvent;
 import de.ovgu.featureide.core.listeners.ICurrentBuildListener;
+import de.ovgu.featureide.core.listeners.IFSTModelListener;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
 import de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent;
 import de.ovgu.featureide.fm.core.base.event.IEventListener;
@@ -142,6 +144,7 @@ import de.ovgu.featureide.ui.views.collaboration.action.ShowFieldsMethodsAction;
 import de.ovgu.featureide.ui.views.collaboration.action.ShowUnselectedAction;
 import de.ovgu.featureide.ui.views.collaboration.editparts.CollaborationEditPart;
 import de.ovgu.featureide.ui.views.collaboration.editparts.GraphicalEditPartFactory;
+import de.ovgu.featureide.ui.views.collaboration.editparts.ModelEditPart;
 import de.ovgu.featureide.ui.views.collaboration.figures.RoleFigure;
 import de.ovgu.featureide.ui.views.collaboration.model.CollaborationModelBuilder;
 
@@ -160,7 +163,7 @@ import de.ovgu.featureide.ui.views.collaboration.model.CollaborationModelBuilder
  * @author Paul Maximilian Bittner
  */
 
-public class CollaborationView extends ViewPart implements GUIDefaults, ICurrentBuildListener, ISaveablePart {
+public class CollaborationView extends ViewPart implements GUIDefaults, ICurrentBuildListener, IFSTModelListener, ISaveablePart {
 
 	public static final String ID = UIPlugin.PLUGIN_ID + ".views.collaboration.Collaboration";
 
@@ -384,6 +387,7 @@ public class CollaborationView extends ViewPart implements GUIDefaults, ICurrent
 
 		getSite().getPage().addPartListener(editorListener); // EditorListener
 		CorePlugin.getDefault().addCurrentBuildListener(this); // BuildListener
+		CorePlugin.getDefault().addFSTModelListener(this);
 
 		// required for borders
 		final ScalableFreeformRootEditPart rootEditPart = new ScalableFreeformRootEditPart();
@@ -872,6 +876,32 @@ public class CollaborationView extends ViewPart implements GUIDefaults, ICurrent
 		}
 	}
 
+	/**
+	 * Refreshes the diagram after the FSTModel was updated incrementally. As the model is patched in place, only the edit parts of the changed classes and
+	 * features of the event are updated, all other edit parts are kept.
+	 */
+	@Override
+	public void fstModelChanged(final FSTModelEvent event) {
+		if ((featureProject == null) || !featureProject.equals(event.getFeatureProject())) {
+			return;
+		}
+		if (event.isFullRebuild()) {
+			updateGuiAfterBuild(featureProject, null);
+			return;
+		}
+		Display.getDefault().asyncExec(new Runnable() {
+
+			@Override
+			public void run() {
+				final EditPart contents = viewer.getContents();
+				if ((contents instanceof ModelEditPart) && (contents.getModel() == event.getModel())) {
+					((ModelEditPart) contents).refreshChangedElements(event.getChangedClasses(), event.getChangedFeatures());
+					search.refreshSearchContent();
+				}
+			}
+		});
+	}
+
 	@Override
 	public void doSaveAs() {
 		GraphicsExporter.exportAs(viewer);
@@ -935,6 +965,7 @@ public class CollaborationView extends ViewPart implements GUIDefaults, ICurrent
 	@Override
 	public void dispose() {
 		FeatureColorManager.removeListener(colorChangeListener);
+		CorePlugin.getDefault().removeFSTModelListener(this);
 		super.dispose();
 	}
 }
@@ -151,6 +151,28 @@ public class ModelEditPart extends AbstractGraphicalEditPart implements GUIDefau
 		}
 	}
 
+	/**
+	 * Updates the diagram after an incremental update of the model. Edit parts of added or removed classes are created or removed, the edit parts of the
+	 * given classes and features are refreshed, and all other edit parts are only moved.
+	 *
+	 * @param changedClasses The names of the changed classes
+	 * @param changedFeatures The names of the features whose roles changed
+	 */
+	public void refreshChangedElements(Collection<String> changedClasses, Collection<String> changedFeatures) {
+		refreshChildren();
+		for (final ClassEditPart classEditPart : classEditPartList) {
+			if (changedClasses.contains(classEditPart.getClassModel().getName())) {
+				classEditPart.refresh();
+			}
+		}
+		for (final CollaborationEditPart collaborationEditPart : collaborationEditPartList) {
+			if (changedFeatures.contains(collaborationEditPart.getCollaborationModel().getName())) {
+				collaborationEditPart.refresh();
+			}
+		}
+		refreshVisuals();
+	}
+
 	@Override
 	protected void removeChildVisual(EditPart childEditPart) {
 		super.removeChildVisual(childEditPart);
@@ -164,10 +186,12 @@ public class ModelEditPart extends AbstractGraphicalEditPart implements GUIDefau
 	@Override
 	protected void addChildVisual(EditPart childEditPart, int index) {
 		super.addChildVisual(childEditPart, index);
+		// keep the order of the children, as classes may be added between existing classes after an incremental update of the model
 		if (childEditPart instanceof CollaborationEditPart) {
-			collaborationEditPartList.add((CollaborationEditPart) childEditPart);
+			collaborationEditPartList.add(Math.min(index, collaborationEditPartList.size()), (CollaborationEditPart) childEditPart);
 		} else if (childEditPart instanceof ClassEditPart) {
-			classEditPartList.add((ClassEditPart) childEditPart);
+			final int classIndex = Math.max(0, Math.min(index - collaborationEditPartList.size(), classEditPartList.size()));
+			classEditPartList.add(classIndex, (ClassEditPart) childEditPart);
 		}
 	}
 
@@ -21,16 +21,22 @@
 package de.ovgu.featureide.fm.core;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.LinkedList;
+import java.util.List;
 
 import org.junit.Test;
 import org.prop4j.Implies;
 import org.prop4j.Literal;
 import org.prop4j.Node;
 
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
 import de.ovgu.featureide.fm.core.base.FeatureUtils;
 import de.ovgu.featureide.fm.core.base.IConstraint;
 import de.ovgu.featureide.fm.core.base.IFeature;
@@ -125,4 +131,79 @@ public class TFeatureModel {
 		}
 	}
 
+	@Test
+	public void featureLookupTables() {
+		final IFeatureModel fm = factory.create();
+		final IFeature root = factory.createFeature(fm, "root");
+		fm.addFeature(root);
+		fm.getStructure().setRoot(root.getStructure());
+		final List<IFeature> features = new ArrayList<>();
+		features.add(root);
+		for (int i = 0; i < 200; i++) {
+			final IFeature feature = factory.createFeature(fm, "F" + i);
+			fm.addFeature(feature);
+			FeatureUtils.addChild(root, feature);
+			features.add(feature);
+		}
+		final IConstraint constraint = factory.createConstraint(fm, new Implies(new Literal("F0"), new Literal("F1")));
+		fm.addConstraint(constraint);
+
+		assertEquals(features, new ArrayList<>(fm.getFeatures()));
+		for (final IFeature feature : features) {
+			assertSame(feature, fm.getFeature(feature.getName()));
+			assertSame(feature, fm.getElement(feature.getInternalId()));
+		}
+		assertSame(constraint, fm.getElement(constraint.getInternalId()));
+		assertNull(fm.getFeature("missing"));
+		assertNull(fm.getFeature(null));
+		assertNull(fm.getElement(-1));
+
+		final IFeature deleted = features.remove(5);
+		fm.deleteFeature(deleted);
+		assertEquals(features, new ArrayList<>(fm.getFeatures()));
+		assertEquals(features.size(), fm.getNumberOfFeatures());
+		assertNull(fm.getFeature(deleted.getName()));
+		assertNull(fm.getElement(deleted.getInternalId()));
+
+		final FeatureModelFormula formula = new FeatureModelFormula(fm);
+		final Variables variables = formula.getVariables();
+		for (final IFeature feature : features) {
+			final int variable = variables.getVariable(feature.getName());
+			assertSame(feature, formula.getFeature(variable));
+			assertSame(feature, formula.getFeature(-variable));
+		}
+		assertNull(formula.getFeature(0));
+		assertNull(formula.getFeature(variables.maxVariableID() + 1));
+		assertEquals(Arrays.asList(variables.getNames()).subList(1, variables.size() + 1), FeatureUtils.getFeatureNamesList(fm));
+	}
+
+	@Test
+	public void modifyFeaturesWhileIterating() {
+		final IFeatureModel fm = factory.create();
+		final IFeature root = factory.createFeature(fm, "root");
+		fm.addFeature(root);
+		fm.getStructure().setRoot(root.getStructure());
+		final List<IFeature> features = new ArrayList<>();
+		features.add(root);
+		for (int i = 0; i < 10; i++) {
+			final IFeature feature = factory.createFeature(fm, "F" + i);
+			fm.addFeature(feature);
+			FeatureUtils.addChild(root, feature);
+			features.add(feature);
+		}
+
+		final List<IFeature> iterated = new ArrayList<>();
+		int i = 0;
+		for (final IFeature feature : fm.getFeatures()) {
+			iterated.add(feature);
+			fm.addFeature(factory.createFeature(fm, "G" + i++));
+			if (i == 2) {
+				fm.deleteFeature(features.get(8));
+			}
+		}
+		assertEquals(features, iterated);
+		assertEquals(features.size() * 2 - 1, fm.getNumberOfFeatures());
+		assertEquals(fm.getNumberOfFeatures(), new ArrayList<>(fm.getFeatures()).size());
+	}
+
 }
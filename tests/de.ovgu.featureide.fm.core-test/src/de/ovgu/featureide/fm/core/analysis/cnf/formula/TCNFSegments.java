@@ -0,0 +1,179 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.formula;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.prop4j.Literal;
+import org.prop4j.Or;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.FeatureModelCNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.Nodes;
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.base.IConstraint;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.IFeatureStructure;
+import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator.CNFType;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator.ModelType;
+
+/**
+ * Tests the {@link CNFSegments}.
+ */
+public class TCNFSegments {
+
+	private static final String[] MODELS = { "basic.xml", "car.xml", "gpl_medium_model.xml", "berkeley_db_model.xml", "apl_model.xml",
+		"model_with_redundant_constraints.xml", "false_optional_test.xml" };
+
+	@Test
+	public void testComposedCNFMatchesConversion() {
+		for (final String model : MODELS) {
+			final IFeatureModel featureModel = Commons.loadTestFeatureModelFromFile(model);
+			final FeatureModelFormula formula = new FeatureModelFormula(featureModel);
+			assertEquals(model, convert(featureModel, ModelType.All).getClauses(), formula.getCNF().getClauses());
+			assertEquals(model, convert(featureModel, ModelType.OnlyStructure).getClauses(), formula.getElement(new FeatureTreeCNFCreator()).getClauses());
+			assertEquals(model, convert(featureModel, ModelType.OnlyConstraints).getClauses(), formula.getElement(new ConstraintCNFCreator()).getClauses());
+		}
+	}
+
+	@Test
+	public void testUnchangedSegmentsAreReused() {
+		final IFeatureModel featureModel = Commons.loadTestFeatureModelFromFile("berkeley_db_model.xml");
+		final FeatureModelFormula formula = new FeatureModelFormula(featureModel);
+		formula.getCNF();
+
+		final IFeatureModel editedModel = featureModel.clone();
+		final IConstraint editedConstraint = editedModel.getConstraints().get(0);
+		final IConstraint unchangedConstraint = editedModel.getConstraints().get(1);
+		final IFeature[] groups = editedModel.getFeatures().stream() //
+				.filter(feature -> feature.getStructure().getChildrenCount() > 1) //
+				.toArray(IFeature[]::new);
+		final IFeature editedFeature = groups[0];
+		final IFeature unchangedFeature = groups[1];
+		editedConstraint.setNode(new Or(new Literal(editedFeature.getName(), false), new Literal(unchangedFeature.getName())));
+		if (editedFeature.getStructure().isAlternative()) {
+			editedFeature.getStructure().changeToOr();
+		} else {
+			editedFeature.getStructure().changeToAlternative();
+		}
+
+		final FeatureModelFormula editedFormula = new FeatureModelFormula(editedModel, formula.getCreatedSegments());
+		assertEquals(new FeatureModelFormula(editedModel).getCNF().getClauses(), editedFormula.getCNF().getClauses());
+
+		final CNFSegments segments = formula.getSegments();
+		final CNFSegments editedSegments = editedFormula.getSegments();
+		assertSame(segments.getFeatureClauses(featureModel.getFeature(unchangedFeature.getName())), editedSegments.getFeatureClauses(unchangedFeature));
+		assertSame(segments.getConstraintClauses(featureModel.getConstraints().get(1)), editedSegments.getConstraintClauses(unchangedConstraint));
+		assertNotSame(segments.getFeatureClauses(featureModel.getFeature(editedFeature.getName())), editedSegments.getFeatureClauses(editedFeature));
+		assertNotSame(segments.getConstraintClauses(featureModel.getConstraints().get(0)), editedSegments.getConstraintClauses(editedConstraint));
+	}
+
+	@Test
+	public void testSegmentsAreReusedAfterAddingAndDeletingFeatures() {
+		final IFeatureModel featureModel = Commons.loadTestFeatureModelFromFile("berkeley_db_model.xml");
+		final FeatureModelFormula formula = new FeatureModelFormula(featureModel);
+		formula.getCNF();
+		final CNFSegments segments = formula.getSegments();
+		final IFeature[] groups = featureModel.getFeatures().stream() //
+				.filter(feature -> feature.getStructure().getChildrenCount() > 1) //
+				.toArray(IFeature[]::new);
+		final String parentName = groups[0].getName();
+		final String unchangedName = groups[1].getName();
+		final IFeature leaf = featureModel.getFeatures().stream() //
+				.filter(feature -> !feature.getStructure().hasChildren() && feature.getStructure().getParent().getFeature().getName().equals(parentName)
+					&& featureModel.getConstraints().stream().noneMatch(constraint -> constraint.getContainedFeatures().contains(feature))) //
+				.findFirst().get();
+
+		// an added feature is appended to the variables, thus, the previous clauses are reused as they are
+		final IFeatureModel addedModel = featureModel.clone();
+		final IFeature addedFeature = FMFactoryManager.getInstance().getFactory(addedModel).createFeature(addedModel, "AddedFeature");
+		addedModel.addFeature(addedFeature);
+		FeatureUtils.addChild(addedModel.getFeature(parentName), addedFeature);
+		final FeatureModelFormula addedFormula = new FeatureModelFormula(addedModel, formula.getCreatedSegments());
+		assertEquals(new FeatureModelFormula(addedModel).getCNF().getClauses(), addedFormula.getCNF().getClauses());
+		assertSame(segments.getFeatureClauses(featureModel.getFeature(unchangedName)),
+				addedFormula.getSegments().getFeatureClauses(addedModel.getFeature(unchangedName)));
+
+		// a deleted feature changes the numbers of the following variables, thus, the literals of the previous clauses are translated
+		final IFeatureModel deletedModel = featureModel.clone();
+		deletedModel.deleteFeature(deletedModel.getFeature(leaf.getName()));
+		final FeatureModelFormula deletedFormula = new FeatureModelFormula(deletedModel, formula.getCreatedSegments());
+		final CNF deletedCNF = new FeatureModelFormula(deletedModel).getCNF();
+		assertTrue(deletedCNF.getVariables().size() < formula.getVariables().size());
+		assertEquals(deletedCNF.getClauses(), deletedFormula.getCNF().getClauses());
+		final List<LiteralSet> unchangedClauses = deletedFormula.getSegments().getFeatureClauses(deletedModel.getFeature(unchangedName));
+		assertEquals(new FeatureModelFormula(deletedModel).getSegments().getFeatureClauses(deletedModel.getFeature(unchangedName)), unchangedClauses);
+	}
+
+	@Test
+	public void testSubtreeCNF() {
+		final IFeatureModel featureModel = Commons.loadTestFeatureModelFromFile("gpl_medium_model.xml");
+		final FeatureModelFormula formula = new FeatureModelFormula(featureModel);
+		final CNF cnf = formula.getCNF();
+		final Set<LiteralSet> clauses = new HashSet<>(cnf.getClauses());
+		for (final IFeatureStructure child : FeatureUtils.getRoot(featureModel).getStructure().getChildren()) {
+			final IFeature subtreeRoot = child.getFeature();
+			final Set<String> subtree = new HashSet<>();
+			collectSubtree(child, subtree);
+
+			final CNF subtreeCNF = new FeatureModelFormula(featureModel).getSubtreeCNF(subtreeRoot);
+			assertEquals(cnf.getVariables(), subtreeCNF.getVariables());
+			assertEquals(new LiteralSet(cnf.getVariables().getVariable(subtreeRoot.getName())), subtreeCNF.getClauses().get(0));
+			for (final LiteralSet clause : subtreeCNF.getClauses().subList(1, subtreeCNF.getClauses().size())) {
+				assertTrue(clauses.contains(clause));
+				for (final int literal : clause.getLiterals()) {
+					assertTrue(subtree.contains(cnf.getVariables().getName(literal)));
+				}
+			}
+		}
+	}
+
+	private static void collectSubtree(IFeatureStructure structure, Set<String> subtree) {
+		subtree.add(structure.getFeature().getName());
+		for (final IFeatureStructure child : structure.getChildren()) {
+			collectSubtree(child, subtree);
+		}
+	}
+
+	private static CNF convert(IFeatureModel featureModel, ModelType modelType) {
+		final AdvancedNodeCreator nodeCreator = new AdvancedNodeCreator(featureModel);
+		nodeCreator.setModelType(modelType);
+		nodeCreator.setCnfType(CNFType.Regular);
+		nodeCreator.setIncludeBooleanValues(false);
+		final CNF cnf = FeatureModelCNF.empty(featureModel, false);
+		cnf.addClauses(Nodes.convert(cnf.getVariables(), nodeCreator.createNodes()));
+		return cnf;
+	}
+
+}
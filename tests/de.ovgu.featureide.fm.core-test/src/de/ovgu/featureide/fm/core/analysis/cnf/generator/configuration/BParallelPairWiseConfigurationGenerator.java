@@ -0,0 +1,80 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise.SampleTester;
+import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise.TWiseCoverageCriterion;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Compares the runtime of the {@link ParallelPairWiseConfigurationGenerator} with the single-threaded {@link PairWiseConfigurationGenerator} and
+ * checks that both samples are valid and achieve full pairwise coverage.
+ */
+public class BParallelPairWiseConfigurationGenerator {
+
+	@Test
+	public void BGenerateBerkeleyDB() {
+		benchmark("berkeley_db_model.xml");
+	}
+
+	@Test
+	public void BGenerate200() {
+		benchmark("200-100.xml");
+	}
+
+	private void benchmark(String modelName) {
+		final IFeatureModel featureModel = Commons.loadBenchmarkFeatureModelFromFile(modelName);
+		final CNF cnf = new FeatureModelFormula(featureModel).getCNF();
+
+		long time = System.nanoTime();
+		final List<LiteralSet> sequentialSample = LongRunningWrapper.runMethod(new PairWiseConfigurationGenerator(cnf, Integer.MAX_VALUE));
+		final long sequentialTime = System.nanoTime() - time;
+		check(cnf, sequentialSample);
+
+		time = System.nanoTime();
+		final List<LiteralSet> parallelSample = LongRunningWrapper.runMethod(new ParallelPairWiseConfigurationGenerator(cnf, Integer.MAX_VALUE));
+		final long parallelTime = System.nanoTime() - time;
+		check(cnf, parallelSample);
+
+		System.out.println(String.format("%s: single-threaded %.2f ms (%d configurations), parallel %.2f ms (%d configurations)", modelName,
+				sequentialTime / 1e6, sequentialSample.size(), parallelTime / 1e6, parallelSample.size()));
+	}
+
+	private static void check(CNF cnf, List<LiteralSet> sample) {
+		final SampleTester tester = new SampleTester(cnf);
+		tester.setSample(sample);
+		assertFalse(tester.hasInvalidSolutions());
+		assertEquals(1.0, tester.getCoverage(new TWiseCoverageCriterion(cnf, 2)), 0.0);
+	}
+
+}
@@ -0,0 +1,114 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.impl.DefaultFeatureModelFactory;
+import de.ovgu.featureide.fm.core.io.dimacs.DIMACSFormat;
+import de.ovgu.featureide.fm.core.io.dimacs.DIMACSFormatCNF;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+import no.sintef.ict.splcatool.GUIDSL;
+
+/**
+ * Compares the direct conversion of {@link SPLCAToolCNFConverter} with the former conversion via DIMACS, GUIDSL, and SXFM and checks the sample that is
+ * generated from the converted CNF.
+ */
+public class BSPLCAToolCNFConverter {
+
+	private static final int RUNS = 5;
+
+	@Test
+	public void BConvertBerkeleyDB() throws Exception {
+		benchmark("berkeley_db_model.xml");
+	}
+
+	@Test
+	public void BConvert1000() throws Exception {
+		benchmark("1000-100.xml");
+	}
+
+	@Test
+	public void testICPLSample() throws Exception {
+		final CNF cnf = getCNF("berkeley_db_model.xml");
+		final List<LiteralSet> sample = LongRunningWrapper.runMethod(new SPLCAToolConfigurationGenerator(cnf, "ICPL", 2, Integer.MAX_VALUE));
+		assertFalse(sample.isEmpty());
+		for (final LiteralSet configuration : sample) {
+			assertEquals(cnf.getVariables().size(), configuration.size());
+			for (final LiteralSet clause : cnf.getClauses()) {
+				assertTrue(configuration.hasDuplicates(clause));
+			}
+		}
+	}
+
+	private void benchmark(String modelName) throws Exception {
+		final CNF cnf = getCNF(modelName);
+		long directTime = Long.MAX_VALUE;
+		long legacyTime = Long.MAX_VALUE;
+		for (int i = 0; i < RUNS; i++) {
+			long time = System.nanoTime();
+			final no.sintef.ict.splcatool.CNF direct = SPLCAToolCNFConverter.convert(cnf);
+			directTime = Math.min(directTime, System.nanoTime() - time);
+
+			time = System.nanoTime();
+			final no.sintef.ict.splcatool.CNF legacy = convertViaFeatureModel(cnf);
+			legacyTime = Math.min(legacyTime, System.nanoTime() - time);
+
+			// the legacy conversion additionally contains the dummy root feature
+			assertEquals(cnf.getVariables().size(), direct.getVariables().size());
+			assertEquals(cnf.getVariables().size() + 1, legacy.getVariables().size());
+		}
+		System.out.println(String.format("%s: direct %.2f ms, via feature model %.2f ms", modelName, directTime / 1e6, legacyTime / 1e6));
+	}
+
+	/**
+	 * The conversion that was used by {@link SPLCAToolConfigurationGenerator} before.
+	 */
+	private static no.sintef.ict.splcatool.CNF convertViaFeatureModel(CNF cnf) throws Exception {
+		final IFeatureModel featureModel = DefaultFeatureModelFactory.getInstance().create();
+		final Variables renamedVariables = cnf.getVariables().clone();
+		int index = 1;
+		for (final String originalName : cnf.getVariables().getNames()) {
+			renamedVariables.renameVariable(originalName, "F" + index++);
+		}
+		final String dimacsSource = new DIMACSFormatCNF().write(new CNF(renamedVariables, cnf.getClauses()));
+		new DIMACSFormat().read(featureModel, dimacsSource);
+		return new GUIDSL(featureModel).getSXFM().getCNF();
+	}
+
+	private static CNF getCNF(String modelName) {
+		final IFeatureModel featureModel = Commons.loadBenchmarkFeatureModelFromFile(modelName);
+		return new FeatureModelFormula(featureModel).getCNF();
+	}
+
+}
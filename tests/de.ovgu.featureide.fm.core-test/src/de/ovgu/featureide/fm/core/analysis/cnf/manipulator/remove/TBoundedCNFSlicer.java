@@ -0,0 +1,96 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.manipulator.remove;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.AllConfigurationGenerator;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests the {@link BoundedCNFSlicer}.
+ */
+public class TBoundedCNFSlicer {
+
+	@Test
+	public void testSlicingRetainsDependencies() {
+		final CNF cnf = new FeatureModelFormula(Commons.loadTestFeatureModelFromFile("gpl_medium_model.xml")).getCNF();
+		final List<String> names = Arrays.asList(cnf.getVariables().getNames()).subList(1, cnf.getVariables().size() + 1);
+		for (int seed = 0; seed < 5; seed++) {
+			final List<String> shuffledNames = new ArrayList<>(names);
+			Collections.shuffle(shuffledNames, new Random(seed));
+			final List<String> removedNames = shuffledNames.subList(0, shuffledNames.size() / 2);
+
+			final BoundedCNFSlicer slicer = new BoundedCNFSlicer(cnf, removedNames);
+			final CNF slicedCNF = LongRunningWrapper.runMethod(slicer);
+			assertEquals(Collections.emptyList(), slicer.getAuxiliaryVariables());
+			assertEquals(getSolutions(cnf, removedNames), getSolutions(slicedCNF, removedNames));
+		}
+	}
+
+	@Test
+	public void testAuxiliaryVariables() {
+		final Variables variables = new Variables(Arrays.asList("a", "b", "c", "d", "x"));
+		final CNF cnf = new CNF(variables, Arrays.asList(new LiteralSet(5, 1), new LiteralSet(5, 2), new LiteralSet(-5, 3), new LiteralSet(-5, 4)));
+		final List<String> removedNames = Arrays.asList("x");
+
+		// eliminating x replaces four clauses by four resolvents
+		final BoundedCNFSlicer slicer = new BoundedCNFSlicer(cnf, removedNames, 0);
+		final CNF slicedCNF = LongRunningWrapper.runMethod(slicer);
+		assertEquals(Collections.emptyList(), slicer.getAuxiliaryVariables());
+		assertEquals(1, slicer.getEliminations().size());
+		assertEquals(0, slicer.getEliminations().get(0).getGrowth());
+		assertEquals(4, slicedCNF.getClauses().size());
+
+		final BoundedCNFSlicer boundedSlicer = new BoundedCNFSlicer(cnf, removedNames, -1);
+		final CNF boundedSlicedCNF = LongRunningWrapper.runMethod(boundedSlicer);
+		assertEquals(removedNames, boundedSlicer.getAuxiliaryVariables());
+		assertTrue(boundedSlicer.getEliminations().isEmpty());
+		assertEquals(new HashSet<>(cnf.getClauses()), new HashSet<>(boundedSlicedCNF.getClauses()));
+		assertEquals(getSolutions(cnf, removedNames), getSolutions(boundedSlicedCNF.normalize(), removedNames));
+	}
+
+	private static Set<Set<String>> getSolutions(CNF cnf, List<String> removedNames) {
+		final CNF normalizedCNF = cnf.normalize();
+		return LongRunningWrapper.runMethod(new AllConfigurationGenerator(normalizedCNF)).stream() //
+				.map(solution -> (Set<String>) new HashSet<>(normalizedCNF.getVariables().convertToString(solution))) //
+				.peek(solution -> solution.removeAll(removedNames)) //
+				.collect(Collectors.toSet());
+	}
+
+}
@@ -135,6 +135,11 @@ public class ConfigurationGeneratorTest {
 		testTWiseLimitedSize("gpl_medium_model", "incling", 3, 5);
 	}
 
+	@Test
+	public void ParallelInclingLimit() {
+		testTWiseLimitedSize("gpl_medium_model", "parallelincling", 2, 5);
+	}
+
 	@Test
 	public void YASALimit() {
 		testTWiseLimitedSize("gpl_medium_model", "yasa", 1, 5);
@@ -192,6 +197,11 @@ public class ConfigurationGeneratorTest {
 		testCoverageAndDeterminism("incling", 2, modelNames);
 	}
 
+	@Test
+	public void ParallelInclingTwoWiseCoverage() {
+		testCoverage("parallelincling", 2, modelNames);
+	}
+
 //	@Test
 //	public void ICPLOneWiseCoverage() {
 //		testCoverage("icpl", 1, modelNames);
@@ -26,6 +26,8 @@ import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
 
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
 import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
 
@@ -94,4 +96,33 @@ public class TConfigurationSelection extends AbstractConfigurationTest {
 		testConfigurationInvalid(c);
 	}
 
+	@Test
+	public void testSelectionState() {
+		final Configuration c = new Configuration(formula);
+		c.setManual("A", Selection.SELECTED);
+		LongRunningWrapper.runMethod(getConfigurationPropagator(formula, c).update());
+
+		final SelectionState state = c.getSelectionState();
+		final Variables variables = formula.getVariables();
+		for (final SelectableFeature feature : c.getFeatures()) {
+			final int variable = variables.getVariable(feature.getName());
+			assertEquals(variable, feature.getVariable());
+			assertEquals(feature, state.getFeature(variable));
+			assertEquals(feature.getManual(), state.getManual(variable));
+			assertEquals(feature.getAutomatic(), state.getAutomatic(variable));
+		}
+		assertEquals(Selection.UNSELECTED, c.getSelectableFeature("B").getAutomatic());
+
+		final LiteralSet literals = state.getLiterals();
+		final Configuration copy = Configuration.fromLiteralSet(formula, literals);
+		assertEquals(literals, copy.getSelectionState().getManualLiterals());
+		assertEquals(c.getSelectedFeatureNames(), copy.getSelectedFeatureNames());
+		assertEquals(c.getUnselectedFeatureNames(), copy.getUnselectedFeatureNames());
+
+		final Configuration clone = c.clone();
+		clone.setManual("A", Selection.UNDEFINED);
+		assertEquals(Selection.SELECTED, c.getSelectableFeature("A").getManual());
+		assertEquals(Selection.UNDEFINED, clone.getSelectableFeature("A").getManual());
+	}
+
 }
@@ -0,0 +1,127 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link CompiledNode}.
+ */
+public class TCompiledNode {
+
+	private static final int VARIABLE_COUNT = 8;
+
+	@Test
+	public void testSimple() {
+		final CompiledNode node = new CompiledNode(new Implies(new And("A", new Not("B")), "C"), var -> "ABC".indexOf((String) var));
+		assertTrue(node.evaluate(new boolean[] { true, true, false }));
+		assertFalse(node.evaluate(new boolean[] { true, false, false }));
+		assertTrue(node.evaluate(new boolean[] { true, false, true }));
+		assertEquals(0b1100, node.evaluate(new long[] { 0b0011, 0b1000, 0b1000 }) & 0b1111);
+	}
+
+	@Test
+	public void testEquivalenceToGetValue() {
+		final Random random = new Random(0);
+		for (int i = 0; i < 500; i++) {
+			final Node node = createNode(random, 4);
+			final CompiledNode compiledNode = new CompiledNode(node, var -> Integer.parseInt(((String) var).substring(1)));
+
+			final long[] selections = new long[VARIABLE_COUNT];
+			final boolean[] expected = new boolean[Long.SIZE];
+			for (int j = 0; j < Long.SIZE; j++) {
+				final boolean[] selection = new boolean[VARIABLE_COUNT];
+				final BitSet bitSet = new BitSet();
+				final Map<Object, Boolean> map = new HashMap<>();
+				for (int v = 0; v < VARIABLE_COUNT; v++) {
+					selection[v] = random.nextBoolean();
+					bitSet.set(v, selection[v]);
+					map.put("v" + v, selection[v]);
+					if (selection[v]) {
+						selections[v] |= 1L << j;
+					}
+				}
+				expected[j] = node.getValue(map);
+				assertEquals(node.toString(), expected[j], compiledNode.evaluate(selection));
+				assertEquals(node.toString(), expected[j], compiledNode.evaluate(bitSet));
+			}
+			final long values = compiledNode.evaluate(selections);
+			for (int j = 0; j < Long.SIZE; j++) {
+				assertEquals(node.toString(), expected[j], (values & (1L << j)) != 0);
+			}
+		}
+	}
+
+	@Test
+	public void testSatisfyingAssignments() {
+		final Node node = new Or(new Choose(2, "A", "B", "C"), new And("D", new Not("A")));
+		int count = 0;
+		for (final Map<Object, Boolean> assignment : node.getAssignments()) {
+			if (node.getValue(assignment)) {
+				count++;
+			}
+		}
+		assertEquals(16, node.getAssignments().size());
+		assertEquals(count, node.getSatisfyingAssignments().size());
+		assertEquals(16 - count, node.getContradictingAssignments().size());
+		for (final Map<Object, Boolean> assignment : node.getSatisfyingAssignments()) {
+			assertTrue(node.getValue(assignment));
+		}
+	}
+
+	private Node createNode(Random random, int depth) {
+		if ((depth == 0) || (random.nextInt(5) == 0)) {
+			return new Literal("v" + random.nextInt(VARIABLE_COUNT), random.nextBoolean());
+		}
+		final Node[] children = new Node[random.nextInt(4)];
+		for (int i = 0; i < children.length; i++) {
+			children[i] = createNode(random, depth - 1);
+		}
+		switch (random.nextInt(8)) {
+		case 0:
+			return new Not(createNode(random, depth - 1));
+		case 1:
+			return new And(children);
+		case 2:
+			return new Or(children);
+		case 3:
+			return new Implies(createNode(random, depth - 1), createNode(random, depth - 1));
+		case 4:
+			return new Equals(createNode(random, depth - 1), createNode(random, depth - 1));
+		case 5:
+			return new AtLeast(random.nextInt(5) - 1, children);
+		case 6:
+			return new AtMost(random.nextInt(5) - 1, children);
+		default:
+			return new Choose(random.nextInt(5) - 1, children);
+		}
+	}
+
+}
@@ -0,0 +1,183 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.prop4j.NodeReader.ErrorHandling;
+
+/**
+ * Tests for {@link NodeParser}.
+ */
+public class TNodeParser {
+
+	private static final String[] NAMES = { "A", "B", "C_1", "Feature", "x.y" };
+
+	@Test
+	public void testPrecedence() {
+		final NodeParser parser = new NodeParser();
+		assertEquals(new Or(new And("A", "B"), "C").toString(), parser.stringToNode("A and B or C").toString());
+		assertEquals(new Or("A", new And("B", "C")).toString(), parser.stringToNode("A or B and C").toString());
+		assertEquals(new And("A", new And("B", "C")).toString(), parser.stringToNode("A and B and C").toString());
+		assertEquals(new Implies(new Not("A"), "B").toString(), parser.stringToNode("not A implies B").toString());
+		assertEquals(new And(new Or("A", "B"), "C").toString(), parser.stringToNode("(A or B) and C").toString());
+		assertEquals(new Literal("my feature").toString(), parser.stringToNode("\"my feature\"").toString());
+
+		parser.activateShortSymbols();
+		assertEquals(new Equals(new Implies("A", "B"), new Not("C")).toString(), parser.stringToNode("A=>B<=>-C").toString());
+	}
+
+	@Test
+	public void testEquivalenceToNodeReader() {
+		final Random random = new Random(0);
+		final String[][] symbolSets = { NodeReader.textualSymbols, NodeReader.shortSymbols, NodeReader.shortSymbols2, NodeReader.logicalSymbols,
+			NodeReader.javaSymbols, NodeReader.propositionalModelSymbols };
+		for (int s = 0; s < symbolSets.length; s++) {
+			final NodeReader reader = new NodeReader();
+			final NodeParser parser = new NodeParser();
+			activate(reader, parser, s);
+			final List<String> constraints = new ArrayList<>();
+			for (int i = 0; i < 200; i++) {
+				final String constraint = createConstraint(random, symbolSets[s], 4);
+				constraints.add(constraint);
+				final Node expected = reader.stringToNode(constraint, Arrays.asList(NAMES));
+				final Node actual = parser.stringToNode(constraint, Arrays.asList(NAMES));
+				assertNotNull(constraint, expected);
+				assertEquals(constraint, expected.toString(), actual.toString());
+			}
+
+			final List<Node> nodes = parser.stringsToNodes(constraints);
+			for (int i = 0; i < constraints.size(); i++) {
+				assertEquals(parser.stringToNode(constraints.get(i)).toString(), nodes.get(i).toString());
+				assertNull(parser.getErrorMessages().get(i));
+			}
+		}
+	}
+
+	@Test
+	public void testInternedNames() {
+		final NodeParser parser = new NodeParser();
+		final String name = new String("A");
+		parser.setFeatureNames(Arrays.asList(name, "B"));
+		final Node node = parser.stringToNode("A and (B or A)");
+		for (final Literal literal : node.getLiterals()) {
+			if ("A".equals(literal.var)) {
+				assertSame(name, literal.var);
+			}
+		}
+	}
+
+	@Test
+	public void testErrors() {
+		final NodeParser parser = new NodeParser();
+		assertError(parser, "A and", 5);
+		assertError(parser, "and A", 0);
+		assertError(parser, "A B", 2);
+		assertError(parser, "(A or B", 0);
+		assertError(parser, "A or B)", 6);
+		assertError(parser, "A and ()", 6);
+		assertError(parser, "\"A and B", 0);
+
+		parser.setFeatureNames(Arrays.asList("A", "B"));
+		assertError(parser, "A and B or C", 11);
+
+		parser.setIgnoreMissingFeatures(ErrorHandling.KEEP);
+		final Node node = parser.stringToNode("A and C");
+		assertNull(parser.getErrorMessage());
+		assertTrue(node.getChildren()[1] instanceof ErrorLiteral);
+
+		parser.setIgnoreMissingFeatures(ErrorHandling.REMOVE);
+		assertNull(parser.stringToNode("A and C"));
+		assertNull(parser.getErrorMessage());
+
+		parser.setIgnoreUnparsableSubExpressions(ErrorHandling.KEEP);
+		assertTrue(parser.stringToNode("A and") instanceof ErrorLiteral);
+		assertNotNull(parser.getErrorMessage());
+
+		final List<Node> nodes = parser.stringsToNodes(Arrays.asList("A or B", "A or", "B"));
+		assertNull(parser.getErrorMessages().get(0));
+		assertEquals(4, parser.getErrorMessages().get(1).getErrorOffset());
+		assertTrue(nodes.get(1) instanceof ErrorLiteral);
+		assertNull(parser.getErrorMessages().get(2));
+	}
+
+	private void assertError(NodeParser parser, String constraint, int position) {
+		assertNull(constraint, parser.stringToNode(constraint));
+		assertNotNull(constraint, parser.getErrorMessage());
+		assertEquals(constraint, position, parser.getErrorMessage().getErrorOffset());
+	}
+
+	private void activate(NodeReader reader, NodeParser parser, int symbolSet) {
+		switch (symbolSet) {
+		case 0:
+			reader.activateTextualSymbols();
+			parser.activateTextualSymbols();
+			break;
+		case 1:
+			reader.activateShortSymbols();
+			parser.activateShortSymbols();
+			break;
+		case 2:
+			reader.activateShortSymbols2();
+			parser.activateShortSymbols2();
+			break;
+		case 3:
+			reader.activateLogicalSymbols();
+			parser.activateLogicalSymbols();
+			break;
+		case 4:
+			reader.activateJavaSymbols();
+			parser.activateJavaSymbols();
+			break;
+		default:
+			reader.activatePropositionalModelSymbols();
+			parser.activatePropositionalModelSymbols();
+			break;
+		}
+	}
+
+	private String createConstraint(Random random, String[] symbols, int depth) {
+		final int type = depth == 0 ? 0 : random.nextInt(4);
+		switch (type) {
+		case 0:
+			final String name = NAMES[random.nextInt(NAMES.length)];
+			return random.nextInt(5) == 0 ? '"' + name + '"' : name;
+		case 1:
+			return symbols[4].trim() + " " + createConstraint(random, symbols, depth - 1);
+		case 2:
+			return "(" + createConstraint(random, symbols, depth - 1) + ")";
+		default:
+			final String operator = symbols[random.nextInt(4)];
+			return createConstraint(random, symbols, depth - 1) + " " + operator.trim() + " " + createConstraint(random, symbols, depth - 1);
+		}
+	}
+
+}
@@ -0,0 +1,153 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.transform;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.prop4j.Node;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.ClauseList;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.Nodes;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.io.dimacs.DimacsCNFReader;
+import de.ovgu.featureide.fm.core.io.dimacs.DimacsReader;
+import de.ovgu.featureide.fm.core.io.dimacs.DimacsWriter;
+
+/**
+ * Tests for {@link DimacsCNFReader}.
+ */
+public class DimacsCNFReaderTests {
+
+	@Rule
+	public final ExpectedException exception = ExpectedException.none();
+
+	@Test
+	public void testSameAsDimacsReader() throws ParseException, IOException {
+		testEquals("" + "p cnf 3 2\n" + "1 -3 0\n" + "2 3 -1 0");
+		testEquals("" + "p cnf 3 2 1 -3 0 2 3 -1 0");
+		testEquals("" + "p\tcnf\t3\t2\r\n" + "1\n-3\t0\t\r\n\n \n" + "2 3 -1 0\n");
+		testEquals("" + "c\n" + "c comment\n" + "p cnf 3 2\n" + "c comment\n" + "1 -3 0\n" + "c comment\n" + "2 3 -1 0");
+		testEquals("" + "p cnf 1 2\n" + "1 -1 0\n" + "1 1 -1 0");
+		testEquals("p cnf 0 0");
+	}
+
+	@Test
+	public void testVariableDirectory() throws ParseException, IOException {
+		testEquals("" + "c 1 Variable\twith\twhitespace\n" + "c 2  \n" + "c 3   Surrounding whitespace  \n" + "p cnf 3 2\n" + "1 -3 0\n" + "2 3 -1 0");
+		testEquals("" + "c 1\n" + "c 2 \n" + "c\t\t3 c 3 Foo\n" + "p cnf 3 2\n" + "1 -3 0\n" + "2 3 -1 0");
+		testEquals("" + "c 3 Baz\n" + "c 1 Foo\n" + "c 1 Overwritten\n" + "p cnf 3 2\n" + "c 2 Bar\n" + "1 -3 0\n" + "c 2 Straggler\n" + "2 3 -1 0");
+	}
+
+	@Test
+	public void testIndexGap() throws ParseException {
+		exception.expect(ParseException.class);
+		new DimacsCNFReader().read("" + "p cnf 3 2\n" + "1 -4 0\n" + "2 4 -1 0");
+	}
+
+	@Test
+	public void testDirectoryIndexBeforeProblem() throws ParseException {
+		exception.expect(ParseException.class);
+		final DimacsCNFReader reader = new DimacsCNFReader();
+		reader.setReadingVariableDirectory(true);
+		reader.read("" + "c 2147483647 Foo\n" + "p cnf 3 2\n" + "1 -3 0\n" + "2 3 -1 0");
+	}
+
+	@Test
+	public void testDirectoryIndexAfterProblem() throws ParseException {
+		exception.expect(ParseException.class);
+		final DimacsCNFReader reader = new DimacsCNFReader();
+		reader.setReadingVariableDirectory(true);
+		reader.read("" + "p cnf 3 2\n" + "c 4 Foo\n" + "1 -3 0\n" + "2 3 -1 0");
+	}
+
+	@Test
+	public void testCommentMiddleClause() throws ParseException {
+		exception.expect(ParseException.class);
+		new DimacsCNFReader().read("" + "p cnf 3 2\n" + "1 c this comment tops them all\n" + "-3 0\n" + "2 3 -1 0");
+	}
+
+	@Test
+	public void testClauseCount() throws ParseException {
+		exception.expect(ParseException.class);
+		new DimacsCNFReader().read("" + "p cnf 3 3\n" + "1 -3 0\n" + "2 3 -1 0");
+	}
+
+	@Test
+	public void testFile() throws ParseException, IOException {
+		final Random random = new Random(0);
+		final int variableCount = 50;
+		final ClauseList clauses = new ClauseList();
+		for (int i = 0; i < 1000; i++) {
+			final int[] literals = new int[1 + random.nextInt(5)];
+			for (int j = 0; j < literals.length; j++) {
+				literals[j] = (1 + random.nextInt(variableCount)) * (random.nextBoolean() ? 1 : -1);
+			}
+			clauses.add(new LiteralSet(literals, LiteralSet.Order.UNORDERED));
+		}
+		final String[] names = new String[variableCount];
+		for (int i = 0; i < variableCount; i++) {
+			names[i] = "Feature ä" + i;
+		}
+		final CNF expected = new CNF(new Variables(Arrays.asList(names)), clauses);
+
+		final Path file = Files.createTempFile("cnf", ".dimacs");
+		try {
+			final DimacsWriter writer = new DimacsWriter(expected);
+			writer.write(file);
+			assertEquals(writer.write(), new String(Files.readAllBytes(file), "UTF-8"));
+
+			final DimacsCNFReader reader = new DimacsCNFReader();
+			reader.setReadingVariableDirectory(true);
+			final CNF actual = reader.read(file);
+			assertEquals(expected.getVariables(), actual.getVariables());
+			assertEquals(expected.getClauses(), actual.getClauses());
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	private void testEquals(String s) throws ParseException, IOException {
+		final DimacsReader nodeReader = new DimacsReader();
+		nodeReader.setReadingVariableDirectory(true);
+		final Node node = nodeReader.read(s);
+		final Variables expectedVariables = new Variables(nodeReader.getVariables());
+		final ClauseList expectedClauses = Nodes.convertNF(expectedVariables, node, true, true);
+
+		final DimacsCNFReader reader = new DimacsCNFReader();
+		reader.setReadingVariableDirectory(true);
+		final CNF actual = reader.read(s);
+		assertEquals(expectedVariables, actual.getVariables());
+		assertEquals(expectedClauses, actual.getClauses());
+	}
+
+}
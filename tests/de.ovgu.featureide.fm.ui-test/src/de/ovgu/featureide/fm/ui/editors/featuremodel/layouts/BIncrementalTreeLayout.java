@@ -0,0 +1,79 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.ui.editors.featuremodel.layouts;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.fm.ui.editors.featuremodel.layouts.IncrementalTreeLayout.LayoutDelta;
+
+/**
+ * Compares a full layout of the {@link IncrementalTreeLayout} with the incremental layout after the width of a single feature changed, for random trees with
+ * 1,000 to 100,000 features.
+ */
+public class BIncrementalTreeLayout {
+
+	private static final int MAX_CHILDREN = 8;
+	private static final int EDITS = 20;
+	private static final long SEED = 42;
+
+	@Test
+	public void BLayout1000() {
+		benchmark(1_000);
+	}
+
+	@Test
+	public void BLayout10000() {
+		benchmark(10_000);
+	}
+
+	@Test
+	public void BLayout100000() {
+		benchmark(100_000);
+	}
+
+	private void benchmark(int size) {
+		final RandomTree randomTree = new RandomTree(size, MAX_CHILDREN, SEED);
+		LayoutTree tree = randomTree.createLayoutTree();
+		// warm-up
+		new IncrementalTreeLayout(10, 10, 5, 60).layout(tree);
+
+		final IncrementalTreeLayout treeLayout = new IncrementalTreeLayout(10, 10, 5, 60);
+		long start = System.nanoTime();
+		treeLayout.layout(tree);
+		final long fullTime = System.nanoTime() - start;
+
+		long incrementalTime = 0;
+		long reusedNodes = 0;
+		long movedNodes = 0;
+		for (int i = 0; i < EDITS; i++) {
+			randomTree.changeRandomWidth();
+			tree = randomTree.createLayoutTree();
+			start = System.nanoTime();
+			final LayoutDelta delta = treeLayout.layout(tree);
+			incrementalTime += System.nanoTime() - start;
+			reusedNodes += treeLayout.getReusedNodes();
+			movedNodes += delta.size();
+		}
+		System.out.println(String.format("%d features: full layout %.2f ms, incremental layout %.2f ms (%d reused nodes, %d moved nodes)", size,
+				fullTime / 1e6, incrementalTime / (EDITS * 1e6), reusedNodes / EDITS, movedNodes / EDITS));
+	}
+
+}
@@ -0,0 +1,85 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.ui.editors.featuremodel.layouts;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Random tree for tests and benchmarks of the {@link IncrementalTreeLayout}. The elements of the nodes are their numbers in the order of creation.
+ */
+class RandomTree {
+
+	private final List<List<Integer>> children;
+	private final int[] widths;
+	private final Random random;
+
+	/**
+	 * @param size the number of nodes
+	 * @param maxChildren the maximum number of children of a node
+	 * @param seed the seed for the random generator
+	 */
+	RandomTree(int size, int maxChildren, long seed) {
+		random = new Random(seed);
+		final int[] childCount = new int[size];
+		children = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			children.add(new ArrayList<Integer>());
+		}
+		// attach each node to a random earlier node, such that the tree has a logarithmic depth
+		for (int i = 1; i < size; i++) {
+			int p = random.nextInt(i);
+			while (childCount[p] >= maxChildren) {
+				p = random.nextInt(i);
+			}
+			children.get(p).add(i);
+			childCount[p]++;
+		}
+		widths = new int[size];
+		for (int i = 0; i < size; i++) {
+			widths[i] = randomWidth();
+		}
+	}
+
+	int size() {
+		return widths.length;
+	}
+
+	/**
+	 * Changes the width of a random node.
+	 */
+	void changeRandomWidth() {
+		widths[random.nextInt(widths.length)] = randomWidth();
+	}
+
+	private int randomWidth() {
+		return 40 + random.nextInt(80);
+	}
+
+	/**
+	 * @return a snapshot of the current tree
+	 */
+	LayoutTree createLayoutTree() {
+		return LayoutTree.create(0, children::get, node -> widths[node]);
+	}
+
+}
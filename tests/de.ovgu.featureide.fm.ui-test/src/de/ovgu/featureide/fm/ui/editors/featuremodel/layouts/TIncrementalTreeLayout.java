@@ -0,0 +1,161 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.ui.editors.featuremodel.layouts;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.fm.ui.editors.featuremodel.layouts.IncrementalTreeLayout.LayoutDelta;
+
+/**
+ * Tests the {@link IncrementalTreeLayout}.
+ */
+public class TIncrementalTreeLayout {
+
+	private static final int MARGIN = 10;
+	private static final int SPACE_X = 5;
+	private static final int SPACE_Y = 60;
+
+	@Test
+	public void testDepthFirstPositions() {
+		// root with children a (with child c) and b
+		final List<List<Integer>> children = Arrays.asList(Arrays.asList(1, 3), Arrays.asList(2), Collections.<Integer> emptyList(),
+				Collections.<Integer> emptyList());
+		final int[] widths = { 50, 30, 70, 20 };
+		final LayoutTree tree = LayoutTree.create(0, children::get, node -> widths[node]);
+
+		final IncrementalTreeLayout treeLayout = new IncrementalTreeLayout(MARGIN, MARGIN, SPACE_X, SPACE_Y);
+		final LayoutDelta delta = treeLayout.layout(tree);
+		assertEquals(4, delta.size());
+
+		assertEquals(MARGIN, treeLayout.getX(0));
+		assertEquals(MARGIN, treeLayout.getY(0));
+		assertEquals(MARGIN, treeLayout.getX(1));
+		assertEquals(MARGIN + SPACE_Y, treeLayout.getY(1));
+		assertEquals(MARGIN, treeLayout.getX(2));
+		assertEquals(MARGIN + (2 * SPACE_Y), treeLayout.getY(2));
+		// b is placed right of the subtree of a, which is as wide as c
+		assertEquals(MARGIN + 70 + SPACE_X, treeLayout.getX(3));
+		assertEquals(MARGIN + SPACE_Y, treeLayout.getY(3));
+		assertEquals(MARGIN + (2 * SPACE_Y), treeLayout.getBottom());
+	}
+
+	@Test
+	public void testIncrementalLayout() {
+		final RandomTree randomTree = new RandomTree(2000, 6, 0);
+		LayoutTree tree = randomTree.createLayoutTree();
+		final IncrementalTreeLayout treeLayout = new IncrementalTreeLayout(MARGIN, MARGIN, SPACE_X, SPACE_Y);
+		treeLayout.layout(tree);
+		assertEquals(0, treeLayout.layout(tree).size());
+
+		for (int i = 0; i < 20; i++) {
+			randomTree.changeRandomWidth();
+			tree = randomTree.createLayoutTree();
+			treeLayout.layout(tree);
+
+			final IncrementalTreeLayout fullLayout = new IncrementalTreeLayout(MARGIN, MARGIN, SPACE_X, SPACE_Y);
+			fullLayout.layout(tree);
+			for (int j = 0; j < tree.size(); j++) {
+				assertEquals(fullLayout.getX(j), treeLayout.getX(j));
+				assertEquals(fullLayout.getY(j), treeLayout.getY(j));
+			}
+		}
+	}
+
+	@Test
+	public void testStructuralEdits() {
+		final Random random = new Random(1);
+		final List<List<Integer>> children = new ArrayList<>();
+		final List<Integer> widths = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			children.add(new ArrayList<Integer>());
+			widths.add(40 + random.nextInt(80));
+		}
+		for (int i = 1; i < 500; i++) {
+			children.get(random.nextInt(i)).add(i);
+		}
+
+		final IncrementalTreeLayout treeLayout = new IncrementalTreeLayout(MARGIN, MARGIN, SPACE_X, SPACE_Y);
+		final Map<Object, Integer> xs = new HashMap<>();
+		final Map<Object, Integer> ys = new HashMap<>();
+		for (int i = 0; i < 200; i++) {
+			final LayoutTree tree = LayoutTree.create(0, children::get, widths::get);
+			final LayoutDelta delta = treeLayout.layout(tree);
+			for (int j = 0; j < delta.size(); j++) {
+				xs.put(delta.getElement(j), delta.getX(j));
+				ys.put(delta.getElement(j), delta.getY(j));
+			}
+
+			final IncrementalTreeLayout fullLayout = new IncrementalTreeLayout(MARGIN, MARGIN, SPACE_X, SPACE_Y);
+			fullLayout.layout(tree);
+			assertEquals(fullLayout.getBottom(), treeLayout.getBottom());
+			for (int j = 0; j < tree.size(); j++) {
+				assertEquals(fullLayout.getX(j), treeLayout.getX(j));
+				assertEquals(fullLayout.getY(j), treeLayout.getY(j));
+				assertEquals(Integer.valueOf(fullLayout.getX(j)), xs.get(tree.getElement(j)));
+				assertEquals(Integer.valueOf(fullLayout.getY(j)), ys.get(tree.getElement(j)));
+			}
+
+			final int node = 1 + random.nextInt(tree.size() - 1);
+			final Integer element = (Integer) tree.getElement(node);
+			final Integer parent = (Integer) tree.getElement(findParent(tree, children, node));
+			switch (random.nextInt(4)) {
+			case 0:
+				// add a new leaf
+				children.add(new ArrayList<Integer>());
+				widths.add(40 + random.nextInt(80));
+				children.get(element).add(random.nextInt(children.get(element).size() + 1), children.size() - 1);
+				break;
+			case 1:
+				// remove a subtree
+				children.get(parent).remove(element);
+				break;
+			case 2:
+				// move a subtree to the front of its siblings
+				children.get(parent).remove(element);
+				children.get(parent).add(0, element);
+				break;
+			default:
+				widths.set(element, 40 + random.nextInt(80));
+				break;
+			}
+		}
+	}
+
+	private static int findParent(LayoutTree tree, List<List<Integer>> children, int node) {
+		for (int i = node - 1; i >= 0; i--) {
+			if (children.get((Integer) tree.getElement(i)).contains(tree.getElement(node))) {
+				return i;
+			}
+		}
+		throw new AssertionError();
+	}
+
+}
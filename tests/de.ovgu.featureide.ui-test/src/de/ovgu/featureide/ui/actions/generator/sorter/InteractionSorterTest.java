@@ -0,0 +1,139 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.ui.actions.generator.sorter;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.configuration.Configuration;
+import de.ovgu.featureide.fm.core.configuration.Selection;
+import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
+import de.ovgu.featureide.ui.actions.generator.BuilderConfiguration;
+
+/**
+ * Compares the order of the {@link InteractionSorter} with an eager greedy order that recomputes the uncovered interactions of all configurations in each
+ * step.
+ */
+public class InteractionSorterTest {
+
+	private static final int NUMBER_OF_CONFIGURATIONS = 40;
+
+	@Test
+	public void testPairwiseOrder() {
+		testOrder(2);
+	}
+
+	@Test
+	public void testThreewiseOrder() {
+		testOrder(3);
+	}
+
+	private void testOrder(int t) {
+		final IFeatureModel featureModel = Commons.loadFeatureModelFromFile("gpl.xml");
+		final List<String> features = FeatureUtils.extractConcreteFeaturesAsStringList(featureModel);
+		final List<BuilderConfiguration> configurations = createConfigurations(features, new Random(t));
+
+		final InteractionSorter sorter = new InteractionSorter(t, featureModel, false);
+		for (final BuilderConfiguration configuration : configurations) {
+			sorter.addConfiguration(configuration);
+		}
+		assertEquals(configurations.size(), sorter.sortConfigurations(new NullMonitor<>()));
+		final List<String> order = new ArrayList<>();
+		for (BuilderConfiguration configuration = sorter.getConfiguration(); configuration != null; configuration = sorter.getConfiguration()) {
+			order.add(configuration.getName());
+		}
+
+		final List<String> expectedOrder = sortEagerly(configurations, features, t);
+		assertEquals(expectedOrder, order.subList(0, expectedOrder.size()));
+		assertEquals(configurations.size(), new HashSet<>(order).size());
+	}
+
+	private static List<BuilderConfiguration> createConfigurations(List<String> features, Random random) {
+		final List<BuilderConfiguration> configurations = new ArrayList<>();
+		for (int i = 0; i < NUMBER_OF_CONFIGURATIONS; i++) {
+			final Configuration configuration = new Configuration();
+			for (final String feature : features) {
+				configuration.setManual(feature, random.nextBoolean() ? Selection.SELECTED : Selection.UNSELECTED);
+			}
+			configurations.add(new BuilderConfiguration(configuration, i));
+		}
+		return configurations;
+	}
+
+	/**
+	 * @return the names of the configurations that cover at least one new interaction, in the order in which they are selected
+	 */
+	private static List<String> sortEagerly(List<BuilderConfiguration> configurations, List<String> features, int t) {
+		final Map<String, Set<List<String>>> uncovered = new LinkedHashMap<>();
+		for (final BuilderConfiguration configuration : configurations) {
+			final Set<List<String>> interactions = new HashSet<>();
+			addInteractions(interactions, configuration.getSelectedFeatureNames(), features, t, 0, new ArrayList<String>());
+			uncovered.put(configuration.getName(), interactions);
+		}
+
+		final List<String> order = new ArrayList<>();
+		while (!uncovered.isEmpty()) {
+			String mostCovering = null;
+			for (final String name : uncovered.keySet()) {
+				if ((mostCovering == null) || (uncovered.get(name).size() > uncovered.get(mostCovering).size())
+					|| ((uncovered.get(name).size() == uncovered.get(mostCovering).size()) && (name.compareTo(mostCovering) < 0))) {
+					mostCovering = name;
+				}
+			}
+			final Collection<List<String>> covered = uncovered.remove(mostCovering);
+			if (covered.isEmpty()) {
+				break;
+			}
+			order.add(mostCovering);
+			for (final Set<List<String>> interactions : uncovered.values()) {
+				interactions.removeAll(covered);
+			}
+		}
+		return order;
+	}
+
+	private static void addInteractions(Set<List<String>> interactions, Set<String> selectedFeatures, List<String> features, int t, int start,
+			List<String> interaction) {
+		for (int i = start; i < features.size(); i++) {
+			final String feature = features.get(i);
+			final List<String> extendedInteraction = new ArrayList<>(interaction);
+			extendedInteraction.add((selectedFeatures.contains(feature) ? "+" : "-") + feature);
+			interactions.add(extendedInteraction);
+			if (extendedInteraction.size() < t) {
+				addInteractions(interactions, selectedFeatures, features, t, i + 1, extendedInteraction);
+			}
+		}
+	}
+
+}